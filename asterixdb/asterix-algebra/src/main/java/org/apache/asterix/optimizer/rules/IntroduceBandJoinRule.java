@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.AssignPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.BandJoinPOperator;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+/**
+ * Replaces a nested loop join by a band join when its condition implies that a range [start, end] of every left
+ * tuple overlaps a range of every right tuple it joins with. Such conditions are, for example,
+ * {@code $a.ts BETWEEN $b.start AND $b.end}, band conditions like {@code $a.x >= $b.x - 5 AND $a.x <= $b.x + 5} or
+ * the interval functions that imply an overlap of their arguments, like {@code interval-overlapping()} or
+ * {@code interval-covers()}.
+ *
+ * <pre>
+ * Before plan:
+ *
+ *   join ( and( ge($$1, $$2), le($$1, $$3) ) )  -- NESTED_LOOP
+ *
+ * After plan:
+ *
+ *   join ( and( ge($$1, $$2), le($$1, $$3) ) )  -- BAND_JOIN [$$1, $$1][$$2, $$3]
+ * </pre>
+ *
+ * Bounds that are not variables are assigned to new variables below the join. For interval functions the bounds
+ * are the starts and ends of the intervals, and the overlap they imply is added to the join condition, which keeps
+ * the new variables in use. Only applies when enabled in the
+ * {@link org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig}.
+ * Must run after the physical operators are set and before
+ * {@link org.apache.hyracks.algebricks.rewriter.rules.EnforceStructuralPropertiesRule}
+ */
+public class IntroduceBandJoinRule implements IAlgebraicRewriteRule {
+
+    // interval relations that can only hold if the two intervals overlap. Meets, met-by, starts, started-by, ends
+    // and ended-by are not listed: TranslateIntervalExpressionRule turns them into equalities that a hash join uses
+    private static final Set<FunctionIdentifier> OVERLAPPING_INTERVALS = new HashSet<>();
+
+    static {
+        OVERLAPPING_INTERVALS.add(BuiltinFunctions.INTERVAL_OVERLAPS);
+        OVERLAPPING_INTERVALS.add(BuiltinFunctions.INTERVAL_OVERLAPPED_BY);
+        OVERLAPPING_INTERVALS.add(BuiltinFunctions.INTERVAL_OVERLAPPING);
+        OVERLAPPING_INTERVALS.add(BuiltinFunctions.INTERVAL_COVERS);
+        OVERLAPPING_INTERVALS.add(BuiltinFunctions.INTERVAL_COVERED_BY);
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        if (!context.getPhysicalOptimizationConfig().getBandJoin()) {
+            return false;
+        }
+        AbstractLogicalOperator op = (AbstractLogicalOperator) opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN
+                && op.getOperatorTag() != LogicalOperatorTag.LEFTOUTERJOIN) {
+            return false;
+        }
+        if (op.getPhysicalOperator() == null
+                || op.getPhysicalOperator().getOperatorTag() != PhysicalOperatorTag.NESTED_LOOP) {
+            return false;
+        }
+        AbstractBinaryJoinOperator joinOp = (AbstractBinaryJoinOperator) op;
+        Set<LogicalVariable> leftVars = new HashSet<>();
+        VariableUtilities.getLiveVariables(joinOp.getInputs().get(0).getValue(), leftVars);
+        Set<LogicalVariable> rightVars = new HashSet<>();
+        VariableUtilities.getLiveVariables(joinOp.getInputs().get(1).getValue(), rightVars);
+
+        List<Mutable<ILogicalExpression>> conjuncts = new ArrayList<>();
+        if (!joinOp.getCondition().getValue().splitIntoConjuncts(conjuncts)) {
+            conjuncts.add(joinOp.getCondition());
+        }
+        // rightStart <= leftEnd and leftStart <= rightEnd, from comparisons if possible and else from an interval
+        Mutable<ILogicalExpression> rightStart = null;
+        Mutable<ILogicalExpression> leftEnd = null;
+        Mutable<ILogicalExpression> leftStart = null;
+        Mutable<ILogicalExpression> rightEnd = null;
+        AbstractFunctionCallExpression interval = null;
+        boolean intervalArgsSwapped = false;
+        for (Mutable<ILogicalExpression> conjunct : conjuncts) {
+            if (conjunct.getValue().getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+                continue;
+            }
+            AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) conjunct.getValue();
+            if (f.getArguments().size() != 2) {
+                continue;
+            }
+            Mutable<ILogicalExpression> arg0 = f.getArguments().get(0);
+            Mutable<ILogicalExpression> arg1 = f.getArguments().get(1);
+            if (interval == null && OVERLAPPING_INTERVALS.contains(f.getFunctionIdentifier())) {
+                if (isFrom(arg0, leftVars) && isFrom(arg1, rightVars)) {
+                    interval = f;
+                } else if (isFrom(arg0, rightVars) && isFrom(arg1, leftVars)) {
+                    interval = f;
+                    intervalArgsSwapped = true;
+                }
+                continue;
+            }
+            ComparisonKind ck = AlgebricksBuiltinFunctions.getComparisonType(f.getFunctionIdentifier());
+            Mutable<ILogicalExpression> lower;
+            Mutable<ILogicalExpression> upper;
+            if (ck == ComparisonKind.LE || ck == ComparisonKind.LT) {
+                lower = arg0;
+                upper = arg1;
+            } else if (ck == ComparisonKind.GE || ck == ComparisonKind.GT) {
+                lower = arg1;
+                upper = arg0;
+            } else {
+                continue;
+            }
+            if (rightStart == null && isFrom(lower, rightVars) && isFrom(upper, leftVars)) {
+                rightStart = lower;
+                leftEnd = upper;
+            } else if (leftStart == null && isFrom(lower, leftVars) && isFrom(upper, rightVars)) {
+                leftStart = lower;
+                rightEnd = upper;
+            }
+        }
+
+        boolean useInterval = rightStart == null || leftStart == null;
+        if (useInterval && interval == null) {
+            return false;
+        }
+        List<LogicalVariable> leftAssignVars = new ArrayList<>();
+        List<Mutable<ILogicalExpression>> leftAssignExprs = new ArrayList<>();
+        List<LogicalVariable> rightAssignVars = new ArrayList<>();
+        List<Mutable<ILogicalExpression>> rightAssignExprs = new ArrayList<>();
+        LogicalVariable leftStartVar;
+        LogicalVariable leftEndVar;
+        LogicalVariable rightStartVar;
+        LogicalVariable rightEndVar;
+        if (useInterval) {
+            ILogicalExpression leftInterval = interval.getArguments().get(intervalArgsSwapped ? 1 : 0).getValue();
+            ILogicalExpression rightInterval = interval.getArguments().get(intervalArgsSwapped ? 0 : 1).getValue();
+            leftStartVar = toVariable(createAccessor(BuiltinFunctions.ACCESSOR_TEMPORAL_INTERVAL_START, leftInterval),
+                    leftAssignVars, leftAssignExprs, context);
+            leftEndVar = toVariable(createAccessor(BuiltinFunctions.ACCESSOR_TEMPORAL_INTERVAL_END, leftInterval),
+                    leftAssignVars, leftAssignExprs, context);
+            rightStartVar = toVariable(createAccessor(BuiltinFunctions.ACCESSOR_TEMPORAL_INTERVAL_START, rightInterval),
+                    rightAssignVars, rightAssignExprs, context);
+            rightEndVar = toVariable(createAccessor(BuiltinFunctions.ACCESSOR_TEMPORAL_INTERVAL_END, rightInterval),
+                    rightAssignVars, rightAssignExprs, context);
+            // both intervals must overlap if the interval function holds
+            List<Mutable<ILogicalExpression>> andArgs = new ArrayList<>();
+            andArgs.add(new MutableObject<>(joinOp.getCondition().getValue()));
+            andArgs.add(new MutableObject<>(createComparison(rightStartVar, leftEndVar, interval)));
+            andArgs.add(new MutableObject<>(createComparison(leftStartVar, rightEndVar, interval)));
+            ScalarFunctionCallExpression and = new ScalarFunctionCallExpression(
+                    FunctionUtil.getFunctionInfo(AlgebricksBuiltinFunctions.AND), andArgs);
+            and.setSourceLocation(joinOp.getCondition().getValue().getSourceLocation());
+            joinOp.getCondition().setValue(and);
+        } else {
+            leftStartVar = replaceByVariable(leftStart, leftAssignVars, leftAssignExprs, context);
+            leftEndVar = replaceByVariable(leftEnd, leftAssignVars, leftAssignExprs, context);
+            rightStartVar = replaceByVariable(rightStart, rightAssignVars, rightAssignExprs, context);
+            rightEndVar = replaceByVariable(rightEnd, rightAssignVars, rightAssignExprs, context);
+        }
+        addAssign(joinOp.getInputs().get(0), leftAssignVars, leftAssignExprs, joinOp, context);
+        addAssign(joinOp.getInputs().get(1), rightAssignVars, rightAssignExprs, joinOp, context);
+
+        joinOp.setPhysicalOperator(
+                new BandJoinPOperator(joinOp.getJoinKind(), leftStartVar, leftEndVar, rightStartVar, rightEndVar));
+        context.computeAndSetTypeEnvironmentForOperator(joinOp);
+        return true;
+    }
+
+    /**
+     * @return true if the expression only depends on, and does depend on, the given variables
+     */
+    private static boolean isFrom(Mutable<ILogicalExpression> exprRef, Set<LogicalVariable> vars) {
+        List<LogicalVariable> usedVars = new ArrayList<>();
+        exprRef.getValue().getUsedVariables(usedVars);
+        return !usedVars.isEmpty() && vars.containsAll(usedVars);
+    }
+
+    private static LogicalVariable replaceByVariable(Mutable<ILogicalExpression> exprRef,
+            List<LogicalVariable> assignVars, List<Mutable<ILogicalExpression>> assignExprs,
+            IOptimizationContext context) {
+        ILogicalExpression expr = exprRef.getValue();
+        LogicalVariable var = toVariable(expr, assignVars, assignExprs, context);
+        if (expr.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+            VariableReferenceExpression varRef = new VariableReferenceExpression(var);
+            varRef.setSourceLocation(expr.getSourceLocation());
+            exprRef.setValue(varRef);
+        }
+        return var;
+    }
+
+    private static LogicalVariable toVariable(ILogicalExpression expr, List<LogicalVariable> assignVars,
+            List<Mutable<ILogicalExpression>> assignExprs, IOptimizationContext context) {
+        if (expr.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            return ((VariableReferenceExpression) expr).getVariableReference();
+        }
+        for (int i = 0; i < assignExprs.size(); i++) {
+            if (assignExprs.get(i).getValue().equals(expr)) {
+                return assignVars.get(i);
+            }
+        }
+        LogicalVariable var = context.newVar();
+        assignVars.add(var);
+        assignExprs.add(new MutableObject<>(expr.cloneExpression()));
+        return var;
+    }
+
+    private static void addAssign(Mutable<ILogicalOperator> branchRef, List<LogicalVariable> assignVars,
+            List<Mutable<ILogicalExpression>> assignExprs, AbstractBinaryJoinOperator joinOp,
+            IOptimizationContext context) throws AlgebricksException {
+        if (assignVars.isEmpty()) {
+            return;
+        }
+        AbstractLogicalOperator branch = (AbstractLogicalOperator) branchRef.getValue();
+        AssignOperator assign = new AssignOperator(assignVars, assignExprs);
+        assign.setSourceLocation(joinOp.getSourceLocation());
+        assign.getInputs().add(new MutableObject<>(branch));
+        assign.setExecutionMode(branch.getExecutionMode());
+        assign.setPhysicalOperator(new AssignPOperator());
+        context.computeAndSetTypeEnvironmentForOperator(assign);
+        branchRef.setValue(assign);
+    }
+
+    private static ILogicalExpression createAccessor(FunctionIdentifier accessor, ILogicalExpression interval) {
+        List<Mutable<ILogicalExpression>> args = new ArrayList<>();
+        args.add(new MutableObject<>(interval.cloneExpression()));
+        ScalarFunctionCallExpression fnExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(accessor), args);
+        fnExpr.setSourceLocation(interval.getSourceLocation());
+        return fnExpr;
+    }
+
+    private static ILogicalExpression createComparison(LogicalVariable lower, LogicalVariable upper,
+            ILogicalExpression sourceExpr) {
+        VariableReferenceExpression lowerRef = new VariableReferenceExpression(lower);
+        lowerRef.setSourceLocation(sourceExpr.getSourceLocation());
+        VariableReferenceExpression upperRef = new VariableReferenceExpression(upper);
+        upperRef.setSourceLocation(sourceExpr.getSourceLocation());
+        List<Mutable<ILogicalExpression>> args = new ArrayList<>();
+        args.add(new MutableObject<>(lowerRef));
+        args.add(new MutableObject<>(upperRef));
+        ScalarFunctionCallExpression fnExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(AlgebricksBuiltinFunctions.LE), args);
+        fnExpr.setSourceLocation(sourceExpr.getSourceLocation());
+        return fnExpr;
+    }
+}
@@ -105,9 +105,11 @@ import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeWithBuddyLo
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.LSMBTreeLocalResource;
 import org.apache.hyracks.storage.am.lsm.common.impls.ConcurrentMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.ConstantMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.CostAwareMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.NoMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.PrefixMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.TieredMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.dataflow.LSMInvertedIndexLocalResource;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.DelimitedUTF8StringBinaryTokenizerFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.HashedUTF8NGramTokenFactory;
@@ -163,6 +165,8 @@ public class PersistedResourceRegistry implements IPersistedResourceRegistry {
         registeredClasses.put("ConcurrentMergePolicyFactory", ConcurrentMergePolicyFactory.class);
         registeredClasses.put("ConstantMergePolicyFactory", ConstantMergePolicyFactory.class);
         registeredClasses.put("CorrelatedPrefixMergePolicyFactory", CorrelatedPrefixMergePolicyFactory.class);
+        registeredClasses.put("TieredMergePolicyFactory", TieredMergePolicyFactory.class);
+        registeredClasses.put("CostAwareMergePolicyFactory", CostAwareMergePolicyFactory.class);
 
         // ILSMIOOperationSchedulerProvider
         registeredClasses.put("RuntimeComponentsProvider", RuntimeComponentsProvider.class);
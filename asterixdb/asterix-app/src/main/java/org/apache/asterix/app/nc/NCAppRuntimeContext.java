@@ -82,6 +82,7 @@ import org.apache.hyracks.api.client.IHyracksClientConnection;
 import org.apache.hyracks.api.control.CcId;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IIOSchedulerPerformanceCounters;
 import org.apache.hyracks.api.io.IPersistedResourceRegistry;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
@@ -94,6 +95,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.AsynchronousScheduler;
 import org.apache.hyracks.storage.am.lsm.common.impls.ConcurrentMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.GreedyScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.RateLimitedScheduler;
 import org.apache.hyracks.storage.common.ILocalResourceRepository;
 import org.apache.hyracks.storage.common.buffercache.BufferCache;
 import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
@@ -103,6 +105,7 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICacheMemoryAllocator;
 import org.apache.hyracks.storage.common.buffercache.IPageCleanerPolicy;
 import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.TwoQueueClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.file.FileMapManager;
 import org.apache.hyracks.storage.common.file.ILocalResourceRepositoryFactory;
 import org.apache.hyracks.storage.common.file.IResourceIdFactory;
@@ -115,6 +118,8 @@ import org.apache.logging.log4j.Logger;
 
 public class NCAppRuntimeContext implements INcApplicationContext {
     private static final Logger LOGGER = LogManager.getLogger();
+    private static final String CLOCK_PAGE_REPLACEMENT = "clock";
+    private static final String TWO_QUEUE_PAGE_REPLACEMENT = "2q";
 
     private ILSMMergePolicyFactory metadataMergePolicyFactory;
     private final INCServiceContext ncServiceContext;
@@ -183,9 +188,12 @@ public class NCAppRuntimeContext implements INcApplicationContext {
                 MaintainedThreadNameExecutorService.newCachedThreadPool(getServiceContext().getThreadFactory());
         ICacheMemoryAllocator allocator = new HeapBufferAllocator();
         IPageCleanerPolicy pcp = new DelayPageCleanerPolicy(600000);
-        IPageReplacementStrategy prs = new ClockPageReplacementStrategy(allocator,
-                storageProperties.getBufferCachePageSize(), storageProperties.getBufferCacheNumPages());
+        IPageReplacementStrategy prs = createPageReplacementStrategy(allocator, storageProperties);
+        getServiceContext().setBufferCachePerformanceCounters(prs.getPerformanceCounters());
         lsmIOScheduler = createIoScheduler(storageProperties);
+        if (lsmIOScheduler instanceof IIOSchedulerPerformanceCounters) {
+            getServiceContext().setIOSchedulerPerformanceCounters((IIOSchedulerPerformanceCounters) lsmIOScheduler);
+        }
         metadataMergePolicyFactory = new ConcurrentMergePolicyFactory();
         indexCheckpointManagerProvider = new IndexCheckpointManagerProvider(ioManager);
         ILocalResourceRepositoryFactory persistentLocalResourceRepositoryFactory =
@@ -554,22 +562,41 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         return configValidator;
     }
 
+    private static IPageReplacementStrategy createPageReplacementStrategy(ICacheMemoryAllocator allocator,
+            StorageProperties properties) {
+        String strategyName = properties.getBufferCacheReplacementStrategy();
+        int pageSize = properties.getBufferCachePageSize();
+        int numPages = properties.getBufferCacheNumPages();
+        if (TWO_QUEUE_PAGE_REPLACEMENT.equalsIgnoreCase(strategyName)) {
+            return new TwoQueueClockPageReplacementStrategy(allocator, pageSize, numPages);
+        } else if (!CLOCK_PAGE_REPLACEMENT.equalsIgnoreCase(strategyName) && LOGGER.isWarnEnabled()) {
+            LOGGER.log(Level.WARN, "Unknown buffer cache page replacement strategy: " + strategyName
+                    + "; defaulting to clock page replacement strategy.");
+        }
+        return new ClockPageReplacementStrategy(allocator, pageSize, numPages);
+    }
+
     private ILSMIOOperationScheduler createIoScheduler(StorageProperties properties) {
         String schedulerName = storageProperties.getIoScheduler();
+        int maxConcurrentFlushes = storageProperties.getMaxConcurrentFlushes();
         ILSMIOOperationScheduler ioScheduler = null;
         if (AsynchronousScheduler.FACTORY.getName().equalsIgnoreCase(schedulerName)) {
-            ioScheduler = AsynchronousScheduler.FACTORY.createIoScheduler(getServiceContext().getThreadFactory(),
-                    HaltCallback.INSTANCE);
+            ioScheduler = new AsynchronousScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE,
+                    maxConcurrentFlushes);
         } else if (GreedyScheduler.FACTORY.getName().equalsIgnoreCase(schedulerName)) {
-            ioScheduler = GreedyScheduler.FACTORY.createIoScheduler(getServiceContext().getThreadFactory(),
-                    HaltCallback.INSTANCE);
+            ioScheduler = new GreedyScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE,
+                    maxConcurrentFlushes);
+        } else if (RateLimitedScheduler.NAME.equalsIgnoreCase(schedulerName)) {
+            ioScheduler = new RateLimitedScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE,
+                    storageProperties.getIoSchedulerGlobalWriteRate(),
+                    storageProperties.getIoSchedulerDeviceWriteRate(), maxConcurrentFlushes);
         } else {
             if (LOGGER.isWarnEnabled()) {
                 LOGGER.log(Level.WARN,
                         "Unknown storage I/O scheduler: " + schedulerName + "; defaulting to greedy I/O scheduler.");
             }
-            ioScheduler = GreedyScheduler.FACTORY.createIoScheduler(getServiceContext().getThreadFactory(),
-                    HaltCallback.INSTANCE);
+            ioScheduler = new GreedyScheduler(getServiceContext().getThreadFactory(), HaltCallback.INSTANCE,
+                    maxConcurrentFlushes);
         }
         return ioScheduler;
     }
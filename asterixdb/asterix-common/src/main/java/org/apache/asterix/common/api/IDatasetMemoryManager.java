@@ -53,6 +53,24 @@ public interface IDatasetMemoryManager {
      */
     void cancelReserved(int datasetId);
 
+    /**
+     * Allocates {@code size} bytes for dataset {@code datasetId} on top of its allocated memory, e.g. when the
+     * budget of its memory components is raised. The extra memory is returned on deallocation of the dataset.
+     *
+     * @param datasetId
+     * @param size
+     * @return true, if the allocation is successful, otherwise false.
+     */
+    boolean allocateExtra(int datasetId, long size);
+
+    /**
+     * Deallocates {@code size} bytes of the extra memory of dataset {@code datasetId}.
+     *
+     * @param datasetId
+     * @param size
+     */
+    void deallocateExtra(int datasetId, long size);
+
     /**
      * @return The remaining memory budget that can be used for datasets.
      */
@@ -71,7 +71,16 @@ public class CompilerProperties extends AbstractProperties {
         COMPILER_SORT_SAMPLES(
                 POSITIVE_INTEGER,
                 AlgebricksConfig.SORT_SAMPLES,
-                "The number of samples which parallel sorting should take from each partition");
+                "The number of samples which parallel sorting should take from each partition"),
+        COMPILER_SORTMERGEJOIN(
+                BOOLEAN,
+                AlgebricksConfig.SORT_MERGE_JOIN,
+                "Enabling/Disabling sort-merge joins for inputs that are already ordered on the join keys"),
+        COMPILER_BANDJOIN(
+                BOOLEAN,
+                AlgebricksConfig.BAND_JOIN,
+                "Enabling/Disabling band joins for range and interval overlap conditions that would otherwise be "
+                        + "evaluated by nested loop joins");
 
         private final IOptionType type;
         private final Object defaultValue;
@@ -120,6 +129,10 @@ public class CompilerProperties extends AbstractProperties {
 
     public static final String COMPILER_SORT_SAMPLES_KEY = Option.COMPILER_SORT_SAMPLES.ini();
 
+    public static final String COMPILER_SORTMERGEJOIN_KEY = Option.COMPILER_SORTMERGEJOIN.ini();
+
+    public static final String COMPILER_BANDJOIN_KEY = Option.COMPILER_BANDJOIN.ini();
+
     public static final int COMPILER_PARALLELISM_AS_STORAGE = 0;
 
     public CompilerProperties(PropertiesAccessor accessor) {
@@ -161,4 +174,12 @@ public class CompilerProperties extends AbstractProperties {
     public int getSortSamples() {
         return accessor.getInt(Option.COMPILER_SORT_SAMPLES);
     }
+
+    public boolean getSortMergeJoin() {
+        return accessor.getBoolean(Option.COMPILER_SORTMERGEJOIN);
+    }
+
+    public boolean getBandJoin() {
+        return accessor.getBoolean(Option.COMPILER_BANDJOIN);
+    }
 }
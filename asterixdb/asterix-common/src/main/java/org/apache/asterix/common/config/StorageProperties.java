@@ -20,6 +20,7 @@ package org.apache.asterix.common.config;
 
 import static org.apache.hyracks.control.common.config.OptionTypes.DOUBLE;
 import static org.apache.hyracks.control.common.config.OptionTypes.INTEGER_BYTE_UNIT;
+import static org.apache.hyracks.control.common.config.OptionTypes.LONG;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.STRING;
@@ -34,6 +35,7 @@ import org.apache.hyracks.api.config.IApplicationConfig;
 import org.apache.hyracks.api.config.IOption;
 import org.apache.hyracks.api.config.IOptionType;
 import org.apache.hyracks.api.config.Section;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.util.StorageUtil;
 
@@ -44,15 +46,22 @@ public class StorageProperties extends AbstractProperties {
         // By default, uses 1/4 of the maximum heap size for read cache, i.e., disk buffer cache.
         STORAGE_BUFFERCACHE_SIZE(LONG_BYTE_UNIT, Runtime.getRuntime().maxMemory() / 4),
         STORAGE_BUFFERCACHE_MAXOPENFILES(UNSIGNED_INTEGER, Integer.MAX_VALUE),
+        STORAGE_BUFFERCACHE_REPLACEMENTSTRATEGY(STRING, "clock"),
         STORAGE_MEMORYCOMPONENT_GLOBALBUDGET(LONG_BYTE_UNIT, Runtime.getRuntime().maxMemory() / 4),
         STORAGE_MEMORYCOMPONENT_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS(POSITIVE_INTEGER, 2),
+        STORAGE_MEMORYCOMPONENT_MAXCONCURRENTFLUSHES(POSITIVE_INTEGER, 1),
+        STORAGE_MEMORYCOMPONENT_REBALANCEINTERVAL(UNSIGNED_INTEGER, 0),
+        STORAGE_MEMORYCOMPONENT_MINSHARE(DOUBLE, 0.25d),
         STORAGE_METADATA_MEMORYCOMPONENT_NUMPAGES(POSITIVE_INTEGER, 8),
         STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE(DOUBLE, 0.01d),
+        STORAGE_LSM_MERGECHECKPOINTINTERVAL(LONG, LSMBTree.DEFAULT_MERGE_CHECKPOINT_INTERVAL),
         STORAGE_MAX_ACTIVE_WRITABLE_DATASETS(UNSIGNED_INTEGER, 8),
         STORAGE_COMPRESSION_BLOCK(STRING, "snappy"),
         STORAGE_DISK_FORCE_BYTES(LONG_BYTE_UNIT, StorageUtil.getLongSizeInBytes(16, MEGABYTE)),
-        STORAGE_IO_SCHEDULER(STRING, "greedy");
+        STORAGE_IO_SCHEDULER(STRING, "greedy"),
+        STORAGE_IO_SCHEDULER_GLOBALWRITERATE(LONG_BYTE_UNIT, 0L),
+        STORAGE_IO_SCHEDULER_DEVICEWRITERATE(LONG_BYTE_UNIT, 0L);
 
         private final IOptionType interpreter;
         private final Object defaultValue;
@@ -80,6 +89,9 @@ public class StorageProperties extends AbstractProperties {
                             + " of the buffer cache page size.";
                 case STORAGE_BUFFERCACHE_MAXOPENFILES:
                     return "The maximum number of open files in the buffer cache";
+                case STORAGE_BUFFERCACHE_REPLACEMENTSTRATEGY:
+                    return "The page replacement strategy of the buffer cache (clock or 2q). 2q keeps frequently "
+                            + "accessed pages from being evicted by large scans";
                 case STORAGE_MEMORYCOMPONENT_GLOBALBUDGET:
                     return "The size of memory allocated to the memory components.  The value should be a multiple "
                             + "of the memory component page size";
@@ -87,10 +99,24 @@ public class StorageProperties extends AbstractProperties {
                     return "The page size in bytes for pages allocated to memory components";
                 case STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS:
                     return "The number of memory components to be used per lsm index";
+                case STORAGE_MEMORYCOMPONENT_MAXCONCURRENTFLUSHES:
+                    return "The maximum number of memory components of an lsm index that are flushed at the same "
+                            + "time. Should not exceed the number of memory components per lsm index";
+                case STORAGE_MEMORYCOMPONENT_REBALANCEINTERVAL:
+                    return "The interval in seconds at which the memory component budget of the open datasets is "
+                            + "redistributed according to their write rate. Datasets holding more memory than their "
+                            + "new budget are flushed. 0 disables the redistribution";
+                case STORAGE_MEMORYCOMPONENT_MINSHARE:
+                    return "The fraction of its memory component budget that a dataset keeps regardless of its "
+                            + "write rate when the budget is redistributed";
                 case STORAGE_METADATA_MEMORYCOMPONENT_NUMPAGES:
                     return "The number of pages to allocate for a metadata memory component";
                 case STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE:
                     return "The maximum acceptable false positive rate for bloom filters associated with LSM indexes";
+                case STORAGE_LSM_MERGECHECKPOINTINTERVAL:
+                    return "The number of tuples written by an LSM B-tree merge between two checkpoints. A merge "
+                            + "interrupted by a restart continues from its last checkpoint. Merges into compressed "
+                            + "files are not checkpointed. 0 disables merge checkpoints";
                 case STORAGE_MAX_ACTIVE_WRITABLE_DATASETS:
                     return "The maximum number of datasets that can be concurrently modified";
                 case STORAGE_COMPRESSION_BLOCK:
@@ -99,6 +125,14 @@ public class StorageProperties extends AbstractProperties {
                     return "The number of bytes before each disk force (fsync)";
                 case STORAGE_IO_SCHEDULER:
                     return "The I/O scheduler for LSM flush and merge operations";
+                case STORAGE_IO_SCHEDULER_GLOBALWRITERATE:
+                    return "The maximum number of bytes per second written by LSM merge operations on all I/O "
+                            + "devices when the rate-limited I/O scheduler is used. Flushes are never throttled but "
+                            + "count against the rate. 0 means no limit";
+                case STORAGE_IO_SCHEDULER_DEVICEWRITERATE:
+                    return "The maximum number of bytes per second written by LSM merge operations on each I/O "
+                            + "device when the rate-limited I/O scheduler is used. Flushes are never throttled but "
+                            + "count against the rate. 0 means no limit";
                 default:
                     throw new IllegalStateException("NYI: " + this);
             }
@@ -141,6 +175,10 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_BUFFERCACHE_MAXOPENFILES);
     }
 
+    public String getBufferCacheReplacementStrategy() {
+        return accessor.getString(Option.STORAGE_BUFFERCACHE_REPLACEMENTSTRATEGY);
+    }
+
     public int getMemoryComponentPageSize() {
         return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_PAGESIZE);
     }
@@ -161,6 +199,18 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS);
     }
 
+    public int getMaxConcurrentFlushes() {
+        return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_MAXCONCURRENTFLUSHES);
+    }
+
+    public int getMemoryComponentRebalanceInterval() {
+        return accessor.getInt(Option.STORAGE_MEMORYCOMPONENT_REBALANCEINTERVAL);
+    }
+
+    public double getMemoryComponentMinShare() {
+        return accessor.getDouble(Option.STORAGE_MEMORYCOMPONENT_MINSHARE);
+    }
+
     public long getMemoryComponentGlobalBudget() {
         return accessor.getLong(Option.STORAGE_MEMORYCOMPONENT_GLOBALBUDGET);
     }
@@ -169,6 +219,10 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getDouble(Option.STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE);
     }
 
+    public long getMergeCheckpointInterval() {
+        return accessor.getLong(Option.STORAGE_LSM_MERGECHECKPOINTINTERVAL);
+    }
+
     public int getBufferCacheNumPages() {
         return (int) (getBufferCacheSize() / (getBufferCachePageSize() + IBufferCache.RESERVED_HEADER_BYTES));
     }
@@ -198,6 +252,14 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getString(Option.STORAGE_IO_SCHEDULER);
     }
 
+    public long getIoSchedulerGlobalWriteRate() {
+        return accessor.getLong(Option.STORAGE_IO_SCHEDULER_GLOBALWRITERATE);
+    }
+
+    public long getIoSchedulerDeviceWriteRate() {
+        return accessor.getLong(Option.STORAGE_IO_SCHEDULER_DEVICEWRITERATE);
+    }
+
     protected int getMetadataDatasets() {
         return MetadataIndexImmutableProperties.METADATA_DATASETS_COUNT;
     }
@@ -49,6 +49,10 @@ public class TransactionProperties extends AbstractProperties {
                 LONG_BYTE_UNIT,
                 StorageUtil.getLongSizeInBytes(256L, MEGABYTE),
                 "The maximum size (in bytes) of each transaction log file"),
+        TXN_LOG_DIRECTIO(
+                BOOLEAN,
+                false,
+                "Whether transaction log files are written and read bypassing the OS page cache (O_DIRECT)"),
         TXN_LOG_CHECKPOINT_LSNTHRESHOLD(
                 INTEGER_BYTE_UNIT,
                 StorageUtil.getIntSizeInBytes(64, MEGABYTE),
@@ -139,6 +143,10 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getLong(Option.TXN_LOG_PARTITIONSIZE);
     }
 
+    public boolean isLogDirectIo() {
+        return accessor.getBoolean(Option.TXN_LOG_DIRECTIO);
+    }
+
     public int getCheckpointLSNThreshold() {
         return accessor.getInt(Option.TXN_LOG_CHECKPOINT_LSNTHRESHOLD);
     }
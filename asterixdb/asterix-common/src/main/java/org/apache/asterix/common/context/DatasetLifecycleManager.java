@@ -49,12 +49,15 @@ import org.apache.asterix.common.utils.StoragePathUtil;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentIdGenerator;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTracker;
+import org.apache.hyracks.storage.am.lsm.common.api.IPageReservation;
 import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
 import org.apache.hyracks.storage.am.lsm.common.impls.FlushOperation;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentIdGenerator;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCacheArbiter;
 import org.apache.hyracks.storage.common.IIndex;
 import org.apache.hyracks.storage.common.ILocalResourceRepository;
 import org.apache.hyracks.storage.common.LocalResource;
@@ -64,6 +67,8 @@ import org.apache.logging.log4j.Logger;
 public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeCycleComponent {
 
     private static final Logger LOGGER = LogManager.getLogger();
+    // the weight of the past write rate of a dataset when its memory budget is redistributed
+    private static final double WRITE_RATE_SMOOTHING = 0.5;
     private final Map<Integer, DatasetResource> datasets = new ConcurrentHashMap<>();
     private final StorageProperties storageProperties;
     private final ILocalResourceRepository resourceRepository;
@@ -73,6 +78,8 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
     private final int numPartitions;
     private volatile boolean stopped = false;
     private final IIndexCheckpointManagerProvider indexCheckpointManagerProvider;
+    private final VirtualBufferCacheArbiter memoryArbiter;
+    private MemoryRebalanceThread memoryRebalanceThread;
 
     public DatasetLifecycleManager(StorageProperties storageProperties, ILocalResourceRepository resourceRepository,
             ILogManager logManager, IDatasetMemoryManager memoryManager,
@@ -86,6 +93,9 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
         waitLog = new LogRecord();
         waitLog.setLogType(LogType.WAIT_FOR_FLUSHES);
         waitLog.computeAndSetLogSize();
+        memoryArbiter = storageProperties.getMemoryComponentRebalanceInterval() > 0
+                ? new VirtualBufferCacheArbiter(storageProperties.getMemoryComponentMinShare(), WRITE_RATE_SMOOTHING)
+                : null;
     }
 
     @Override
@@ -115,6 +125,9 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
         if (datasetResource == null) {
             datasetResource = getDatasetLifecycle(did);
         }
+        if (index instanceof LSMBTree) {
+            ((LSMBTree) index).setMergeCheckpointInterval(storageProperties.getMergeCheckpointInterval());
+        }
         datasetResource.register(resource, (ILSMIndex) index);
     }
 
@@ -371,8 +384,32 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
     }
 
     @Override
-    public void start() {
-        // no op
+    public synchronized void start() {
+        if (memoryArbiter != null) {
+            memoryRebalanceThread = new MemoryRebalanceThread(storageProperties.getMemoryComponentRebalanceInterval());
+            memoryRebalanceThread.start();
+        }
+    }
+
+    /**
+     * Redistribute the memory component budget of the user datasets whose memory is allocated according to their
+     * write rate and flush the coldest datasets which hold more memory than their new budget.
+     */
+    public synchronized void rebalanceMemory() throws HyracksDataException {
+        if (memoryArbiter == null || stopped) {
+            return;
+        }
+        for (String resourceName : memoryArbiter.rebalance()) {
+            DatasetResource dsr = datasets.get(Integer.parseInt(resourceName));
+            if (dsr == null || !dsr.isOpen()) {
+                continue;
+            }
+            for (PrimaryIndexOperationTracker opTracker : dsr.getOpTrackers()) {
+                synchronized (opTracker) {
+                    asyncFlush(dsr, opTracker, index -> true);
+                }
+            }
+        }
     }
 
     @Override
@@ -498,6 +535,9 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
         if (stopped) {
             return;
         }
+        if (memoryRebalanceThread != null) {
+            memoryRebalanceThread.shutdown();
+        }
         if (dumpState) {
             dumpState(outputStream);
         }
@@ -514,6 +554,9 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
 
         sb.append(String.format("Memory budget = %d%n", storageProperties.getMemoryComponentGlobalBudget()));
         sb.append(String.format("Memory available = %d%n", memoryManager.getAvailable()));
+        if (memoryArbiter != null) {
+            sb.append(String.format("Memory component budgets = %s%n", memoryArbiter.getState()));
+        }
         sb.append("\n");
 
         String dsHeaderFormat = "%-10s %-6s %-16s %-12s\n";
@@ -553,6 +596,9 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
         }
         synchronized (dsInfo) {
             if (dsInfo.isOpen() && dsInfo.isMemoryAllocated()) {
+                if (memoryArbiter != null) {
+                    memoryArbiter.unregister(Integer.toString(datasetId));
+                }
                 memoryManager.deallocate(datasetId);
                 dsInfo.setMemoryAllocated(false);
             }
@@ -581,6 +627,10 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
                     }
                 }
                 dsInfo.setMemoryAllocated(true);
+                if (memoryArbiter != null && !dsr.isMetadataDataset()) {
+                    memoryArbiter.register(resourcePath, dsr.getVirtualBufferCaches()::getAllVirtualBufferCaches,
+                            new ExtraMemoryReservation(datasetId));
+                }
             }
         }
     }
@@ -633,4 +683,61 @@ public class DatasetLifecycleManager implements IDatasetLifecycleManager, ILifeC
         return !(lsmIndex.isCurrentMutableComponentEmpty() || ioCallback.hasPendingFlush()
                 || opTracker.isFlushLogCreated() || opTracker.isFlushOnExit());
     }
+
+    /**
+     * Charges the memory component pages of a dataset above its initial budget to the global memory budget.
+     */
+    private class ExtraMemoryReservation implements IPageReservation {
+        private final int datasetId;
+
+        private ExtraMemoryReservation(int datasetId) {
+            this.datasetId = datasetId;
+        }
+
+        @Override
+        public boolean reserve(long numPages) {
+            return memoryManager.allocateExtra(datasetId, numPages * storageProperties.getMemoryComponentPageSize());
+        }
+
+        @Override
+        public void release(long numPages) {
+            memoryManager.deallocateExtra(datasetId, numPages * storageProperties.getMemoryComponentPageSize());
+        }
+    }
+
+    /**
+     * A daemon thread that periodically redistributes the memory component budget of the open datasets.
+     */
+    private class MemoryRebalanceThread extends Thread {
+        private final long intervalInSecs;
+        private volatile boolean shouldRun = true;
+
+        private MemoryRebalanceThread(long intervalInSecs) {
+            super("Memory Component Rebalance Thread");
+            this.intervalInSecs = intervalInSecs;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (shouldRun) {
+                try {
+                    sleep(intervalInSecs * 1000);
+                    if (shouldRun) {
+                        rebalanceMemory();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    LOGGER.warn("Failed to rebalance the memory component budget", e);
+                }
+            }
+        }
+
+        private void shutdown() {
+            shouldRun = false;
+            interrupt();
+        }
+    }
 }
@@ -39,6 +39,7 @@ public class DatasetMemoryManager implements IDatasetMemoryManager {
     private static final Logger LOGGER = LogManager.getLogger();
     private final Map<Integer, Long> allocatedMap = new HashMap<>();
     private final Map<Integer, Long> reservedMap = new HashMap<>();
+    private final Map<Integer, Long> extraMap = new HashMap<>();
     private long available;
     private final StorageProperties storageProperties;
 
@@ -72,6 +73,11 @@ public class DatasetMemoryManager implements IDatasetMemoryManager {
             throw new IllegalStateException("No allocated or reserved memory for dataset: " + datasetId);
         }
         final Long allocated = allocatedMap.remove(datasetId);
+        final Long extra = extraMap.remove(datasetId);
+        if (extra != null) {
+            available += extra;
+            LOGGER.info(() -> "Deallocated extra(" + extra + ") from dataset(" + datasetId + ")");
+        }
         // return the allocated budget if it is not reserved
         if (allocated != null && !reservedMap.containsKey(datasetId)) {
             available += allocated;
@@ -108,6 +114,35 @@ public class DatasetMemoryManager implements IDatasetMemoryManager {
         LOGGER.info(() -> "Cancelled reserved(" + reserved + ") from dataset(" + datasetId + ")");
     }
 
+    @Override
+    public synchronized boolean allocateExtra(int datasetId, long size) {
+        if (!allocatedMap.containsKey(datasetId)) {
+            throw new IllegalStateException("No allocated memory for dataset: " + datasetId);
+        }
+        if (!isAllocatable(size)) {
+            return false;
+        }
+        extraMap.merge(datasetId, size, Long::sum);
+        available -= size;
+        LOGGER.debug(() -> "Allocated extra(" + size + ") for dataset(" + datasetId + ")");
+        return true;
+    }
+
+    @Override
+    public synchronized void deallocateExtra(int datasetId, long size) {
+        final Long extra = extraMap.get(datasetId);
+        if (extra == null || extra < size) {
+            throw new IllegalStateException("Not enough extra memory allocated for dataset: " + datasetId);
+        }
+        if (extra == size) {
+            extraMap.remove(datasetId);
+        } else {
+            extraMap.put(datasetId, extra - size);
+        }
+        available += size;
+        LOGGER.debug(() -> "Deallocated extra(" + size + ") from dataset(" + datasetId + ")");
+    }
+
     @Override
     public long getAvailable() {
         return available;
@@ -125,6 +160,7 @@ public class DatasetMemoryManager implements IDatasetMemoryManager {
         state.put("availableBudget", available);
         state.set("allocated", budgetMapToJsonArray(allocatedMap));
         state.set("reserved", budgetMapToJsonArray(reservedMap));
+        state.set("extra", budgetMapToJsonArray(extraMap));
         return state;
     }
 
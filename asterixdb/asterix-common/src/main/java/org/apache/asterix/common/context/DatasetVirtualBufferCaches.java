@@ -55,6 +55,14 @@ public class DatasetVirtualBufferCaches {
         }
     }
 
+    public List<IVirtualBufferCache> getAllVirtualBufferCaches() {
+        synchronized (ioDeviceVirtualBufferCaches) {
+            List<IVirtualBufferCache> vbcs = new ArrayList<>();
+            ioDeviceVirtualBufferCaches.values().forEach(vbcs::addAll);
+            return vbcs;
+        }
+    }
+
     private List<IVirtualBufferCache> initializeVirtualBufferCaches(IResourceMemoryManager memoryManager,
             int ioDeviceNum, int numPages) {
         List<IVirtualBufferCache> vbcs = new ArrayList<>();
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.transactions;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hyracks.api.util.DirectIoUtil;
+
+/**
+ * Appends to a transaction log file bypassing the OS page cache. Only whole aligned blocks are written directly, so
+ * the file never grows beyond the last appended byte and recovery never reads padding as log records. The partial
+ * block at the end of the file is kept in memory and is also written through the OS page cache until it fills up and
+ * is written directly, which evicts it from the page cache.
+ */
+public class DirectLogWriter implements Closeable {
+
+    private final FileChannel fileChannel;
+    private final FileChannel directChannel;
+    private ByteBuffer alignedBuffer;
+    private long position;
+    private int tailLength;
+
+    /**
+     * @param path
+     *            the log file
+     * @param fileChannel
+     *            a channel of the log file that goes through the OS page cache and is positioned at the end of the
+     *            log. The channel is not closed by this writer
+     * @throws IOException
+     *             if the file cannot be opened for direct io, e.g. if its file system does not support it
+     */
+    public DirectLogWriter(Path path, FileChannel fileChannel) throws IOException {
+        this.fileChannel = fileChannel;
+        position = fileChannel.position();
+        tailLength = (int) (position - DirectIoUtil.alignDown(position));
+        alignedBuffer = DirectIoUtil.allocateAligned(DirectIoUtil.ALIGNMENT);
+        alignedBuffer.limit(tailLength);
+        while (alignedBuffer.hasRemaining()) {
+            if (fileChannel.read(alignedBuffer, position - tailLength + alignedBuffer.position()) < 0) {
+                throw new EOFException("Log file " + path + " ends before position " + position);
+            }
+        }
+        directChannel = FileChannel.open(path, StandardOpenOption.WRITE, DirectIoUtil.getDirectOption());
+    }
+
+    /**
+     * Appends the remaining bytes of the buffer to the log file. The appended bytes are durable only after
+     * {@link #force()}
+     */
+    public void write(ByteBuffer src) throws IOException {
+        final long blockStart = position - tailLength;
+        final long end = position + src.remaining();
+        final int length = (int) (end - blockStart);
+        ensureCapacity((int) DirectIoUtil.alignUp(length));
+        alignedBuffer.clear();
+        alignedBuffer.position(tailLength);
+        alignedBuffer.put(src);
+        final int directLength = (int) DirectIoUtil.alignDown(length);
+        if (directLength > 0) {
+            final ByteBuffer blocks = alignedBuffer.duplicate();
+            blocks.flip();
+            blocks.limit(directLength);
+            while (blocks.hasRemaining()) {
+                directChannel.write(blocks, blockStart + blocks.position());
+            }
+            // keep the new partial block at the start of the buffer
+            alignedBuffer.flip();
+            alignedBuffer.position(directLength);
+            alignedBuffer.compact();
+        }
+        tailLength = length - directLength;
+        if (tailLength > 0) {
+            final ByteBuffer tail = alignedBuffer.duplicate();
+            tail.flip();
+            while (tail.hasRemaining()) {
+                fileChannel.write(tail, end - tailLength + tail.position());
+            }
+        }
+        position = end;
+        fileChannel.position(end);
+    }
+
+    /**
+     * Forces the appended bytes to the storage device
+     */
+    public void force() throws IOException {
+        // a sync of the file covers the blocks written directly as well as the tail written through the page cache
+        fileChannel.force(false);
+    }
+
+    private void ensureCapacity(int size) {
+        if (alignedBuffer.capacity() < size) {
+            final ByteBuffer newBuffer = DirectIoUtil.allocateAligned(size);
+            alignedBuffer.clear();
+            alignedBuffer.limit(tailLength);
+            newBuffer.put(alignedBuffer);
+            alignedBuffer = newBuffer;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        directChannel.close();
+    }
+}
@@ -56,6 +56,14 @@ public interface ILogBuffer {
      */
     void setFileChannel(FileChannel fileChannel);
 
+    /**
+     * Associate the buffer with a writer that appends to the file bypassing the OS page cache
+     *
+     * @param directLogWriter
+     *            the writer, or null if the buffer is written through its file channel
+     */
+    void setDirectLogWriter(DirectLogWriter directLogWriter);
+
     /**
      * reset the buffer for re-use
      */
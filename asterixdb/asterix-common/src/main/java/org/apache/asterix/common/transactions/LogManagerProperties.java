@@ -39,6 +39,8 @@ public class LogManagerProperties implements Serializable {
     private final int numLogPages;
     // maximum size of each log file
     private final long logPartitionSize;
+    // whether log files bypass the OS page cache
+    private final boolean directIo;
 
     public LogManagerProperties(TransactionProperties txnProperties, String nodeId) {
         this.logPageSize = txnProperties.getLogBufferPageSize();
@@ -46,6 +48,7 @@ public class LogManagerProperties implements Serializable {
         long logPartitionSize = txnProperties.getLogPartitionSize();
         this.logDir = txnProperties.getLogDirectory(nodeId);
         this.logFilePrefix = DEFAULT_LOG_FILE_PREFIX;
+        this.directIo = txnProperties.isLogDirectIo();
         int logBufferSize = logPageSize * numLogPages;
         //make sure that the log partition size is the multiple of log buffer size.
         this.logPartitionSize = (logPartitionSize / logBufferSize) * logBufferSize;
@@ -71,6 +74,10 @@ public class LogManagerProperties implements Serializable {
         return numLogPages;
     }
 
+    public boolean isDirectIo() {
+        return directIo;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
@@ -79,6 +86,7 @@ public class LogManagerProperties implements Serializable {
         builder.append("log_page_size : " + logPageSize + lineSeparator);
         builder.append("num_log_pages : " + numLogPages + lineSeparator);
         builder.append("log_partition_size : " + logPartitionSize + lineSeparator);
+        builder.append("direct_io : " + directIo + lineSeparator);
         return builder.toString();
     }
 }
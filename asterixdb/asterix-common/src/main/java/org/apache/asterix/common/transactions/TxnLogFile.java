@@ -22,19 +22,34 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
+import org.apache.hyracks.api.util.DirectIoUtil;
+
 public class TxnLogFile {
 
     private final FileChannel fileChannel;
     private final long logFileId;
     private final long fileBeginLSN;
     private final ILogManager logManager;
+    private final boolean directIo;
+    // aligned buffer that direct reads go through, since log records are not aligned in the file
+    private ByteBuffer alignedBuffer;
     private boolean open = true;
 
     public TxnLogFile(ILogManager logManager, FileChannel fileChannel, long logFileId, long fileBeginLSN) {
+        this(logManager, fileChannel, logFileId, fileBeginLSN, false);
+    }
+
+    /**
+     * @param directIo
+     *            whether the file channel was opened bypassing the OS page cache, which requires aligned reads
+     */
+    public TxnLogFile(ILogManager logManager, FileChannel fileChannel, long logFileId, long fileBeginLSN,
+            boolean directIo) {
         this.logManager = logManager;
         this.fileChannel = fileChannel;
         this.logFileId = logFileId;
         this.fileBeginLSN = fileBeginLSN;
+        this.directIo = directIo;
     }
 
     public void position(long newPosition) throws IOException {
@@ -46,7 +61,37 @@ public class TxnLogFile {
     }
 
     public int read(ByteBuffer readBuffer) throws IOException {
-        return fileChannel.read(readBuffer);
+        return directIo ? directRead(readBuffer) : fileChannel.read(readBuffer);
+    }
+
+    /**
+     * Reads the aligned range of the file that covers the requested bytes and copies the requested bytes into the
+     * passed buffer
+     */
+    private int directRead(ByteBuffer readBuffer) throws IOException {
+        if (!readBuffer.hasRemaining()) {
+            return 0;
+        }
+        final long position = fileChannel.position();
+        final long alignedPosition = DirectIoUtil.alignDown(position);
+        final int skip = (int) (position - alignedPosition);
+        final int size = (int) DirectIoUtil.alignUp(skip + (long) readBuffer.remaining());
+        if (alignedBuffer == null || alignedBuffer.capacity() < size) {
+            alignedBuffer = DirectIoUtil.allocateAligned(size);
+        }
+        alignedBuffer.clear();
+        alignedBuffer.limit(size);
+        final int read = fileChannel.read(alignedBuffer, alignedPosition);
+        if (read <= skip) {
+            // end of file
+            return -1;
+        }
+        final int length = Math.min(read - skip, readBuffer.remaining());
+        alignedBuffer.position(skip);
+        alignedBuffer.limit(skip + length);
+        readBuffer.put(alignedBuffer);
+        fileChannel.position(position + length);
+        return length;
     }
 
     public long getLogFileId() {
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.transactions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.apache.hyracks.api.util.DirectIoUtil;
+import org.apache.hyracks.api.util.IoUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link DirectLogWriter} and direct reads of {@link TxnLogFile}
+ */
+public class DirectLogWriterTest {
+
+    private static final int[] WRITE_SIZES = { 1, 100, 4095, 4096, 4097, 10000, 3, 8192, 20000 };
+    private File dir;
+    private Path logFile;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue(DirectIoUtil.isSupported());
+        dir = Files.createTempDirectory(new File("target").toPath(), "txn-log").toFile();
+        logFile = new File(dir, "transaction_log_0").toPath();
+        Files.createFile(logFile);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (dir != null) {
+            IoUtil.delete(dir);
+        }
+    }
+
+    @Test
+    public void writeAndReadTest() throws Exception {
+        final Random random = new Random(0);
+        final int total = 2 * sum(WRITE_SIZES);
+        final byte[] expected = new byte[total];
+        random.nextBytes(expected);
+        int position = 0;
+        // the second pass reopens the file at an unaligned position like a restart does
+        for (int pass = 0; pass < 2; pass++) {
+            try (RandomAccessFile raf = new RandomAccessFile(logFile.toFile(), "rw")) {
+                final FileChannel fileChannel = raf.getChannel();
+                fileChannel.position(position);
+                DirectLogWriter writer;
+                try {
+                    writer = new DirectLogWriter(logFile, fileChannel);
+                } catch (IOException e) {
+                    // the file system of the test directory does not support direct io
+                    Assume.assumeNoException(e);
+                    return;
+                }
+                try {
+                    for (int size : WRITE_SIZES) {
+                        writer.write(ByteBuffer.wrap(expected, position, size));
+                        writer.force();
+                        position += size;
+                        // the file must never contain bytes past the end of the log
+                        Assert.assertEquals(position, Files.size(logFile));
+                    }
+                } finally {
+                    writer.close();
+                }
+            }
+        }
+        Assert.assertArrayEquals(expected, Files.readAllBytes(logFile));
+
+        try (FileChannel directChannel =
+                FileChannel.open(logFile, StandardOpenOption.READ, DirectIoUtil.getDirectOption())) {
+            final TxnLogFile txnLogFile = new TxnLogFile(null, directChannel, 0, 0, true);
+            for (int offset : new int[] { 0, 1, 4095, 4096, 5000, total - 10 }) {
+                txnLogFile.position(offset);
+                final ByteBuffer readBuffer = ByteBuffer.allocate(6000);
+                int read;
+                while (readBuffer.hasRemaining() && (read = txnLogFile.read(readBuffer)) != -1) {
+                    Assert.assertTrue(read >= 0);
+                }
+                Assert.assertEquals(Math.min(readBuffer.capacity(), total - offset), readBuffer.position());
+                for (int i = 0; i < readBuffer.position(); i++) {
+                    Assert.assertEquals(expected[offset + i], readBuffer.get(i));
+                }
+            }
+            txnLogFile.position(total);
+            Assert.assertEquals(-1, txnLogFile.read(ByteBuffer.allocate(10)));
+        }
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
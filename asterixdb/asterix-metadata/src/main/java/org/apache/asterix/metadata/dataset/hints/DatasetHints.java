@@ -60,6 +60,9 @@ public class DatasetHints {
         Set<IHint> hints = new HashSet<>();
         hints.add(new DatasetCardinalityHint());
         hints.add(new DatasetNodegroupCardinalityHint());
+        hints.add(new DatasetBloomFilterPrefixHint());
+        hints.add(new DatasetSplitBlockBloomFilterHint());
+        hints.add(new DatasetZoneMapHint());
         return hints;
     }
 
@@ -129,4 +132,75 @@ public class DatasetHints {
 
     }
 
+    /**
+     * Hint representing the number of leading primary key fields that the bloom filters of the primary index are
+     * built on. A prefix bloom filter, e.g. on tenant_id for a (tenant_id, ts) primary key, lets range searches that
+     * fix the prefix skip the disk components which do not contain it.
+     */
+    public static class DatasetBloomFilterPrefixHint implements IHint {
+        public static final String NAME = "BLOOM_FILTER_PREFIX";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public Pair<Boolean, String> validateValue(ICcApplicationContext appCtx, String value) {
+            try {
+                if (Integer.parseInt(value) <= 0) {
+                    return new Pair<>(false, "Value must be > 0");
+                }
+            } catch (NumberFormatException nfe) {
+                return new Pair<>(false, "Inappropriate value");
+            }
+            return new Pair<>(true, null);
+        }
+
+    }
+
+    /**
+     * Hint indicating whether the bloom filters of the dataset's indexes are built as split block bloom filters,
+     * which are cheaper to probe than the default blocked bloom filters for a slightly higher false positive rate.
+     */
+    public static class DatasetSplitBlockBloomFilterHint implements IHint {
+        public static final String NAME = "SPLIT_BLOCK_BLOOM_FILTER";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public Pair<Boolean, String> validateValue(ICcApplicationContext appCtx, String value) {
+            if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                return new Pair<>(false, "Value must be true or false");
+            }
+            return new Pair<>(true, null);
+        }
+
+    }
+
+    /**
+     * Hint indicating whether the disk components of the dataset's BTree indexes keep min/max values of each key
+     * field, so that range searches skip the components which hold no key in the range.
+     */
+    public static class DatasetZoneMapHint implements IHint {
+        public static final String NAME = "ZONE_MAP";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public Pair<Boolean, String> validateValue(ICcApplicationContext appCtx, String value) {
+            if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                return new Pair<>(false, "Value must be true or false");
+            }
+            return new Pair<>(true, null);
+        }
+
+    }
+
 }
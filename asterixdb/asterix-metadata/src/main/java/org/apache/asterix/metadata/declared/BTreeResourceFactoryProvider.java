@@ -20,6 +20,7 @@ package org.apache.asterix.metadata.declared;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
 import org.apache.asterix.common.config.DatasetConfig.IndexType;
@@ -113,7 +114,8 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
                         pageWriteCallbackFactory, metadataPageManagerFactory, vbcProvider, ioSchedulerProvider,
                         mergePolicyFactory, mergePolicyProperties, true, bloomFilterFields,
                         bloomFilterFalsePositiveRate, index.isPrimaryIndex(), btreeFields, compDecompFactory,
-                        hasBloomFilter);
+                        hasBloomFilter, dataset.hasSplitBlockBloomFilters(), getZoneMapFields(dataset, cmpFactories),
+                        null);
             default:
                 throw new CompilationException(ErrorCode.COMPILATION_UNKNOWN_DATASET_TYPE,
                         dataset.getDatasetType().toString());
@@ -192,7 +194,7 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
     private static int[] getBloomFilterFields(Dataset dataset, Index index) throws AlgebricksException {
         // both the Primary index and the Primary Key index have bloom filters
         if (index.isPrimaryIndex() || index.isPrimaryKeyIndex()) {
-            return dataset.getPrimaryBloomFilterFields();
+            return dataset.getPrimaryIndexBloomFilterFields();
         } else if (dataset.getDatasetType() == DatasetType.EXTERNAL) {
             if (index.getIndexName().equals(IndexingConstants.getFilesIndexName(dataset.getDatasetName()))) {
                 return FilesIndexDescription.BLOOM_FILTER_FIELDS;
@@ -212,4 +214,11 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
             return bloomFilterKeyFields;
         }
     }
+
+    /**
+     * @return all key fields of the index if the dataset was created with zone maps, null otherwise
+     */
+    private static int[] getZoneMapFields(Dataset dataset, IBinaryComparatorFactory[] cmpFactories) {
+        return dataset.hasZoneMaps() ? IntStream.range(0, cmpFactories.length).toArray() : null;
+    }
 }
@@ -53,6 +53,9 @@ import org.apache.asterix.metadata.MetadataCache;
 import org.apache.asterix.metadata.MetadataManager;
 import org.apache.asterix.metadata.MetadataTransactionContext;
 import org.apache.asterix.metadata.api.IMetadataEntity;
+import org.apache.asterix.metadata.dataset.hints.DatasetHints.DatasetBloomFilterPrefixHint;
+import org.apache.asterix.metadata.dataset.hints.DatasetHints.DatasetSplitBlockBloomFilterHint;
+import org.apache.asterix.metadata.dataset.hints.DatasetHints.DatasetZoneMapHint;
 import org.apache.asterix.metadata.declared.BTreeResourceFactoryProvider;
 import org.apache.asterix.metadata.declared.MetadataProvider;
 import org.apache.asterix.metadata.lock.ExternalDatasetsRegistry;
@@ -834,6 +837,31 @@ public class Dataset implements IMetadataEntity<Dataset>, IDataset {
         return IntStream.range(0, numPrimaryKeys).toArray();
     }
 
+    /**
+     * @return the fields of the bloom filters of the primary index, which are all primary key fields unless the
+     *         dataset was created with the {@link DatasetBloomFilterPrefixHint} hint
+     */
+    public int[] getPrimaryIndexBloomFilterFields() {
+        int numPrimaryKeys = getPrimaryKeys().size();
+        String prefixHint = hints.get(DatasetBloomFilterPrefixHint.NAME);
+        int numFields = prefixHint == null ? numPrimaryKeys : Math.min(Integer.parseInt(prefixHint), numPrimaryKeys);
+        return IntStream.range(0, numFields).toArray();
+    }
+
+    /**
+     * @return true if the dataset was created with the {@link DatasetSplitBlockBloomFilterHint} hint set to true
+     */
+    public boolean hasSplitBlockBloomFilters() {
+        return Boolean.parseBoolean(hints.get(DatasetSplitBlockBloomFilterHint.NAME));
+    }
+
+    /**
+     * @return true if the dataset was created with the {@link DatasetZoneMapHint} hint set to true
+     */
+    public boolean hasZoneMaps() {
+        return Boolean.parseBoolean(hints.get(DatasetZoneMapHint.NAME));
+    }
+
     // Gets the target dataset for the purpose of rebalance.
     public Dataset getTargetDatasetForRebalance(String targetNodeGroupName) {
         return new Dataset(this.dataverseName, this.datasetName, this.recordTypeDataverseName, this.recordTypeName,
@@ -28,6 +28,9 @@ import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.storage.ICompressionManager;
 import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.storage.common.compression.DeflateCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.DeflateDictionaryCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
 import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
 import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
 
@@ -48,6 +51,9 @@ public class CompressionManager implements ICompressionManager {
         //No compression
         registeredSchemes.put(NONE, NoOpCompressorDecompressorFactory.class);
         registeredSchemes.put("snappy", SnappyCompressorDecompressorFactory.class);
+        registeredSchemes.put("lz4", Lz4CompressorDecompressorFactory.class);
+        registeredSchemes.put("deflate", DeflateCompressorDecompressorFactory.class);
+        registeredSchemes.put("deflate-dictionary", DeflateDictionaryCompressorDecompressorFactory.class);
         return registeredSchemes;
     }
 
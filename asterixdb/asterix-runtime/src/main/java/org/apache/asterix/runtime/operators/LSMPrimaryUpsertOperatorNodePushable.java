@@ -65,6 +65,7 @@ import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameTupleProcessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.dataflow.LSMIndexInsertUpdateDeleteOperatorNodePushable;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
@@ -94,6 +95,7 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
     private ITupleReference prevTuple;
     private final int numOfPrimaryKeys;
     boolean isFiltered = false;
+    private boolean hasNonKeyZoneMaps;
     private final ArrayTupleReference prevTupleWithFilter = new ArrayTupleReference();
     private ArrayTupleBuilder prevRecWithPKWithFilterValue;
     private ARecordType recordType;
@@ -153,7 +155,7 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
                     boolean recordWasDeleted = false;
                     boolean isDelete = isDeleteOperation(tuple, numOfPrimaryKeys);
                     resetSearchPredicate(index);
-                    if (isFiltered || isDelete || hasSecondaries) {
+                    if (isFiltered || hasNonKeyZoneMaps || isDelete || hasSecondaries) {
                         lsmAccessor.search(cursor, searchPred);
                         try {
                             if (cursor.hasNext()) {
@@ -187,8 +189,8 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
                         lsmAccessor.forceUpsert(tuple);
                         recordWasInserted = true;
                     }
-                    if (isFiltered && prevTuple != null) {
-                        // need to update the filter of the new component with the previous value
+                    if ((isFiltered || hasNonKeyZoneMaps) && prevTuple != null) {
+                        // need to update the filter and the zone map of the new component with the previous value
                         lsmAccessor.updateFilter(prevTuple);
                     }
                     writeOutput(index, recordWasInserted, recordWasDeleted);
@@ -229,6 +231,7 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         writer.open();
         indexHelper.open();
         index = indexHelper.getIndexInstance();
+        hasNonKeyZoneMaps = ((ILSMIndex) index).hasNonKeyZoneMapFields();
         try {
             if (ctx.getSharedObject() != null) {
                 PrimaryIndexLogMarkerCallback callback = new PrimaryIndexLogMarkerCallback((AbstractLSMIndex) index);
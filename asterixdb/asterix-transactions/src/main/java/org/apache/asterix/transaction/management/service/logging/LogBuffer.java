@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.asterix.common.context.PrimaryIndexOperationTracker;
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.transactions.DatasetId;
+import org.apache.asterix.common.transactions.DirectLogWriter;
 import org.apache.asterix.common.transactions.ILogBuffer;
 import org.apache.asterix.common.transactions.ILogRecord;
 import org.apache.asterix.common.transactions.ILogRequester;
@@ -60,6 +61,7 @@ public class LogBuffer implements ILogBuffer {
     protected final LinkedBlockingQueue<ILogRecord> flushQ;
     protected final LinkedBlockingQueue<ILogRecord> remoteJobsQ;
     private FileChannel fileChannel;
+    private DirectLogWriter directLogWriter;
     private boolean stop;
     private final MutableTxnId reusableTxnId;
     private final DatasetId reusableDatasetId;
@@ -129,6 +131,11 @@ public class LogBuffer implements ILogBuffer {
         this.fileChannel = fileChannel;
     }
 
+    @Override
+    public void setDirectLogWriter(DirectLogWriter directLogWriter) {
+        this.directLogWriter = directLogWriter;
+    }
+
     @Override
     public synchronized void setFull() {
         this.full.set(true);
@@ -195,8 +202,13 @@ public class LogBuffer implements ILogBuffer {
         try {
             if (endOffset > beginOffset) {
                 flushBuffer.limit(endOffset);
-                fileChannel.write(flushBuffer);
-                fileChannel.force(false);
+                if (directLogWriter != null) {
+                    directLogWriter.write(flushBuffer);
+                    directLogWriter.force();
+                } else {
+                    fileChannel.write(flushBuffer);
+                    fileChannel.force(false);
+                }
                 flushOffset = endOffset;
                 synchronized (flushLSN) {
                     flushLSN.set(flushLSN.get() + (endOffset - beginOffset));
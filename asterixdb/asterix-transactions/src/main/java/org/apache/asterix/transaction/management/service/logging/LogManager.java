@@ -26,6 +26,7 @@ import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -39,6 +40,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.common.exceptions.ACIDException;
 import org.apache.asterix.common.replication.IReplicationManager;
+import org.apache.asterix.common.transactions.DirectLogWriter;
 import org.apache.asterix.common.transactions.ILogBuffer;
 import org.apache.asterix.common.transactions.ILogManager;
 import org.apache.asterix.common.transactions.ILogReader;
@@ -53,6 +55,7 @@ import org.apache.asterix.common.transactions.LogType;
 import org.apache.asterix.common.transactions.MutableLong;
 import org.apache.asterix.common.transactions.TxnLogFile;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
+import org.apache.hyracks.api.util.DirectIoUtil;
 import org.apache.hyracks.api.util.InvokeUtil;
 import org.apache.hyracks.util.ExitUtil;
 import org.apache.logging.log4j.Level;
@@ -76,11 +79,13 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private final int logPageSize;
     private final AtomicLong appendLSN;
     private final long maxLogRecordSize;
+    private final boolean directIo;
 
     private LinkedBlockingQueue<ILogBuffer> emptyQ;
     private LinkedBlockingQueue<ILogBuffer> flushQ;
     private LinkedBlockingQueue<ILogBuffer> stashQ;
     private FileChannel appendChannel;
+    private DirectLogWriter directLogWriter;
     private ILogBuffer appendPage;
     private LogFlusher logFlusher;
     private Future<?> futureLogFlusher;
@@ -97,6 +102,11 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         numLogPages = logManagerProperties.getNumLogPages();
         logDir = logManagerProperties.getLogDir();
         logFilePrefix = logManagerProperties.getLogFilePrefix();
+        directIo = logManagerProperties.isDirectIo() && DirectIoUtil.isSupported();
+        if (logManagerProperties.isDirectIo() && !directIo) {
+            LOGGER.warn(
+                    "Direct io is not supported by this JVM, the transaction log will go through the OS page cache");
+        }
         flushLSN = new MutableLong();
         appendLSN = new AtomicLong();
         nodeId = txnSubsystem.getId();
@@ -237,6 +247,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
             appendPage.reset();
         }
         appendPage.setFileChannel(appendChannel);
+        appendPage.setDirectLogWriter(directLogWriter);
         flushQ.add(appendPage);
     }
 
@@ -512,6 +523,15 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         final RandomAccessFile raf = new RandomAccessFile(targetFilePath.toFile(), "rw"); // NOSONAR closed when full
         appendChannel = raf.getChannel();
         appendChannel.position(targetPosition);
+        if (directIo) {
+            try {
+                directLogWriter = new DirectLogWriter(targetFilePath, appendChannel);
+            } catch (IOException e) {
+                // e.g. the file system does not support direct io
+                LOGGER.warn("Failed to open {} for direct io, writing it through the OS page cache", targetFilePath, e);
+                directLogWriter = null;
+            }
+        }
         currentLogFileId = fileId;
     }
 
@@ -519,6 +539,10 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         if (appendChannel != null && appendChannel.isOpen()) {
             try {
                 LOGGER.info("closing current log file with id({})", currentLogFileId);
+                if (directLogWriter != null) {
+                    directLogWriter.close();
+                    directLogWriter = null;
+                }
                 appendChannel.close();
             } catch (IOException e) {
                 LOGGER.error(() -> "failed to close log file with id(" + currentLogFileId + ")", e);
@@ -565,6 +589,16 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         if (!file.exists()) {
             throw new IOException("Log file with id(" + fileId + ") was not found. Requested LSN: " + LSN);
         }
+        if (directIo) {
+            try {
+                FileChannel directChannel =
+                        FileChannel.open(file.toPath(), StandardOpenOption.READ, DirectIoUtil.getDirectOption());
+                return new TxnLogFile(this, directChannel, fileId, fileId * logFileSize, true);
+            } catch (IOException e) {
+                // e.g. the file system does not support direct io
+                LOGGER.warn("Failed to open {} for direct io, reading it through the OS page cache", logFilePath, e);
+            }
+        }
         RandomAccessFile raf = new RandomAccessFile(new File(logFilePath), "r");
         FileChannel newFileChannel = raf.getChannel();
         TxnLogFile logFile = new TxnLogFile(this, newFileChannel, fileId, fileId * logFileSize);
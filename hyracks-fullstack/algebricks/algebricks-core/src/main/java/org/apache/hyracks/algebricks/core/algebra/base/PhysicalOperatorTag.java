@@ -21,6 +21,7 @@ package org.apache.hyracks.algebricks.core.algebra.base;
 public enum PhysicalOperatorTag {
     AGGREGATE,
     ASSIGN,
+    BAND_JOIN,
     BROADCAST_EXCHANGE,
     BTREE_SEARCH,
     BULKLOAD,
@@ -63,6 +64,7 @@ public enum PhysicalOperatorTag {
     SINK_WRITE,
     SORT_GROUP_BY,
     SORT_MERGE_EXCHANGE,
+    SORT_MERGE_JOIN,
     SPLIT,
     STABLE_SORT,
     STATS,
@@ -69,7 +69,8 @@ public abstract class AbstractHashJoinPOperator extends AbstractJoinPOperator {
         IPartitioningProperty pp;
         AbstractLogicalOperator op = (AbstractLogicalOperator) iop;
 
-        if (op.getExecutionMode() == AbstractLogicalOperator.ExecutionMode.PARTITIONED) {
+        // a join whose inputs both got a sort enforcer is LOCAL, it is still partitioned like its left input
+        if (op.getExecutionMode() != AbstractLogicalOperator.ExecutionMode.UNPARTITIONED) {
             AbstractLogicalOperator op0 = (AbstractLogicalOperator) op.getInputs().get(0).getValue();
             IPhysicalPropertiesVector pv0 = op0.getPhysicalOperator().getDeliveredProperties();
             AbstractLogicalOperator op1 = (AbstractLogicalOperator) op.getInputs().get(1).getValue();
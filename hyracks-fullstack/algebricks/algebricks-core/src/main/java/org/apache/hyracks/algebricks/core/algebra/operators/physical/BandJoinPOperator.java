@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.operators.physical;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
+import org.apache.hyracks.algebricks.core.algebra.base.IHyracksJobBuilder;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IExpressionRuntimeProvider;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator.JoinKind;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.IOperatorSchema;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.properties.BroadcastPartitioningProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPartitioningProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPartitioningRequirementsCoordinator;
+import org.apache.hyracks.algebricks.core.algebra.properties.IPhysicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.LocalOrderProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.OrderColumn;
+import org.apache.hyracks.algebricks.core.algebra.properties.PhysicalRequirements;
+import org.apache.hyracks.algebricks.core.algebra.properties.RandomPartitioningProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.StructuralPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
+import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenHelper;
+import org.apache.hyracks.algebricks.data.IBinaryComparatorFactoryProvider;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.TuplePairEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.ITuplePairComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.dataflow.std.join.BandJoinOperatorDescriptor;
+
+/**
+ * Band join for conditions that imply that the range [leftStart, leftEnd] of a left tuple overlaps the range
+ * [rightStart, rightEnd] of a right tuple, i.e. {@code rightStart <= leftEnd AND leftStart <= rightEnd}. The start
+ * and end of a range may be the same variable, for a point. Like the nested loop join, the right input is broadcast
+ * and the left input can be partitioned in any way; in addition both inputs have to be ordered ascending on their
+ * start variable. The whole join condition is still evaluated for every candidate pair.
+ */
+public class BandJoinPOperator extends AbstractJoinPOperator {
+
+    private final LogicalVariable leftStart;
+    private final LogicalVariable leftEnd;
+    private final LogicalVariable rightStart;
+    private final LogicalVariable rightEnd;
+
+    public BandJoinPOperator(JoinKind kind, LogicalVariable leftStart, LogicalVariable leftEnd,
+            LogicalVariable rightStart, LogicalVariable rightEnd) {
+        super(kind, JoinPartitioningType.BROADCAST);
+        this.leftStart = leftStart;
+        this.leftEnd = leftEnd;
+        this.rightStart = rightStart;
+        this.rightEnd = rightEnd;
+    }
+
+    @Override
+    public PhysicalOperatorTag getOperatorTag() {
+        return PhysicalOperatorTag.BAND_JOIN;
+    }
+
+    @Override
+    public boolean isMicroOperator() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return getOperatorTag().toString() + " " + Arrays.asList(leftStart, leftEnd)
+                + Arrays.asList(rightStart, rightEnd);
+    }
+
+    @Override
+    public void computeDeliveredProperties(ILogicalOperator iop, IOptimizationContext context) {
+        AbstractLogicalOperator op = (AbstractLogicalOperator) iop;
+        AbstractLogicalOperator op0 = (AbstractLogicalOperator) op.getInputs().get(0).getValue();
+        IPhysicalPropertiesVector pv0 = op0.getPhysicalOperator().getDeliveredProperties();
+        IPartitioningProperty pp;
+        // the sort enforcers on both inputs make this operator LOCAL, it is still partitioned like its left input
+        if (op.getExecutionMode() != AbstractLogicalOperator.ExecutionMode.UNPARTITIONED) {
+            pp = pv0 == null ? null : pv0.getPartitioningProperty();
+        } else {
+            pp = IPartitioningProperty.UNPARTITIONED;
+        }
+        // the left tuples are joined in their arrival order
+        List<ILocalStructuralProperty> leftLocalProperties = pv0 == null ? null : pv0.getLocalProperties();
+        this.deliveredProperties = new StructuralPropertiesVector(pp,
+                leftLocalProperties == null ? new ArrayList<>() : new ArrayList<>(leftLocalProperties));
+    }
+
+    @Override
+    public PhysicalRequirements getRequiredPropertiesForChildren(ILogicalOperator op,
+            IPhysicalPropertiesVector reqdByParent, IOptimizationContext context) {
+        StructuralPropertiesVector[] pv = new StructuralPropertiesVector[2];
+        pv[0] = OperatorPropertiesUtil.checkUnpartitionedAndGetPropertiesVector(op, new StructuralPropertiesVector(
+                new RandomPartitioningProperty(context.getComputationNodeDomain()), getRequiredOrder(leftStart)));
+        pv[1] = OperatorPropertiesUtil.checkUnpartitionedAndGetPropertiesVector(op, new StructuralPropertiesVector(
+                new BroadcastPartitioningProperty(context.getComputationNodeDomain()), getRequiredOrder(rightStart)));
+        return new PhysicalRequirements(pv, IPartitioningRequirementsCoordinator.NO_COORDINATION);
+    }
+
+    private static List<ILocalStructuralProperty> getRequiredOrder(LogicalVariable start) {
+        return Collections.singletonList(
+                new LocalOrderProperty(Collections.singletonList(new OrderColumn(start, OrderKind.ASC))));
+    }
+
+    @Override
+    public void contributeRuntimeOperator(IHyracksJobBuilder builder, JobGenContext context, ILogicalOperator op,
+            IOperatorSchema propagatedSchema, IOperatorSchema[] inputSchemas, IOperatorSchema outerPlanSchema)
+            throws AlgebricksException {
+        AbstractBinaryJoinOperator join = (AbstractBinaryJoinOperator) op;
+        int[] keysLeft = JobGenHelper.variablesToFieldIndexes(Arrays.asList(leftStart, leftEnd), inputSchemas[0]);
+        int[] keysRight = JobGenHelper.variablesToFieldIndexes(Arrays.asList(rightStart, rightEnd), inputSchemas[1]);
+        IVariableTypeEnvironment env = context.getTypeEnvironment(op);
+        IBinaryComparatorFactoryProvider bcfProvider = context.getBinaryComparatorFactoryProvider();
+        IBinaryComparatorFactory[] comparatorFactories = new IBinaryComparatorFactory[] {
+                bcfProvider.getBinaryComparatorFactory(env.getVarType(leftStart), env.getVarType(rightStart), true),
+                bcfProvider.getBinaryComparatorFactory(env.getVarType(leftStart), env.getVarType(rightEnd), true),
+                bcfProvider.getBinaryComparatorFactory(env.getVarType(leftEnd), env.getVarType(rightStart), true) };
+
+        RecordDescriptor recDescriptor = JobGenHelper.mkRecordDescriptor(env, propagatedSchema, context);
+        IOperatorSchema[] conditionInputSchemas = new IOperatorSchema[1];
+        conditionInputSchemas[0] = propagatedSchema;
+        IExpressionRuntimeProvider expressionRuntimeProvider = context.getExpressionRuntimeProvider();
+        IScalarEvaluatorFactory cond = expressionRuntimeProvider.createEvaluatorFactory(join.getCondition().getValue(),
+                env, conditionInputSchemas, context);
+        ITuplePairComparatorFactory comparatorFactory =
+                new TuplePairEvaluatorFactory(cond, false, context.getBinaryBooleanInspectorFactory());
+        IOperatorDescriptorRegistry spec = builder.getJobSpec();
+        int memSizeInFrames = localMemoryRequirements.getMemoryBudgetInFrames();
+        IOperatorDescriptor opDesc;
+        switch (kind) {
+            case INNER:
+                opDesc = new BandJoinOperatorDescriptor(spec, memSizeInFrames, keysLeft, keysRight, comparatorFactories,
+                        comparatorFactory, recDescriptor, false, null);
+                break;
+            case LEFT_OUTER:
+                IMissingWriterFactory[] nonMatchWriterFactories = new IMissingWriterFactory[inputSchemas[1].getSize()];
+                for (int j = 0; j < nonMatchWriterFactories.length; j++) {
+                    nonMatchWriterFactories[j] = context.getMissingWriterFactory();
+                }
+                opDesc = new BandJoinOperatorDescriptor(spec, memSizeInFrames, keysLeft, keysRight, comparatorFactories,
+                        comparatorFactory, recDescriptor, true, nonMatchWriterFactories);
+                break;
+            default:
+                throw new NotImplementedException();
+        }
+        opDesc.setSourceLocation(join.getSourceLocation());
+        contributeOpDesc(builder, join, opDesc);
+
+        ILogicalOperator src1 = op.getInputs().get(0).getValue();
+        builder.contributeGraphEdge(src1, 0, op, 0);
+        ILogicalOperator src2 = op.getInputs().get(1).getValue();
+        builder.contributeGraphEdge(src2, 0, op, 1);
+    }
+}
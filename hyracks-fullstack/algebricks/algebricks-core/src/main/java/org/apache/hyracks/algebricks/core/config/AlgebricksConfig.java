@@ -27,4 +27,6 @@ public class AlgebricksConfig {
     public static final Logger ALGEBRICKS_LOGGER = LogManager.getLogger(ALGEBRICKS_LOGGER_NAME);
     public static final int SORT_SAMPLES = 100;
     public static final boolean SORT_PARALLEL = true;
+    public static final boolean SORT_MERGE_JOIN = false;
+    public static final boolean BAND_JOIN = false;
 }
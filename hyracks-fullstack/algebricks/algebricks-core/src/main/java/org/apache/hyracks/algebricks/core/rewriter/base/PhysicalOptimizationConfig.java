@@ -39,6 +39,8 @@ public class PhysicalOptimizationConfig {
     private static final String DEFAULT_IN_MEM_HASH_JOIN_TABLE_SIZE = "DEFAULT_IN_MEM_HASH_JOIN_TABLE_SIZE";
     private static final String SORT_PARALLEL = "SORT_PARALLEL";
     private static final String SORT_SAMPLES = "SORT_SAMPLES";
+    private static final String SORT_MERGE_JOIN = "SORT_MERGE_JOIN";
+    private static final String BAND_JOIN = "BAND_JOIN";
 
     private Properties properties = new Properties();
 
@@ -172,6 +174,22 @@ public class PhysicalOptimizationConfig {
         setInt(SORT_SAMPLES, sortSamples);
     }
 
+    public boolean getSortMergeJoin() {
+        return getBoolean(SORT_MERGE_JOIN, AlgebricksConfig.SORT_MERGE_JOIN);
+    }
+
+    public void setSortMergeJoin(boolean sortMergeJoin) {
+        setBoolean(SORT_MERGE_JOIN, sortMergeJoin);
+    }
+
+    public boolean getBandJoin() {
+        return getBoolean(BAND_JOIN, AlgebricksConfig.BAND_JOIN);
+    }
+
+    public void setBandJoin(boolean bandJoin) {
+        setBoolean(BAND_JOIN, bandJoin);
+    }
+
     private void setInt(String property, int value) {
         properties.setProperty(property, Integer.toString(value));
     }
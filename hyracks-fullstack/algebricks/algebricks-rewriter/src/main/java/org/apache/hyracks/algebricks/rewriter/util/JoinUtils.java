@@ -18,7 +18,9 @@
  */
 package org.apache.hyracks.algebricks.rewriter.util;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -27,6 +29,7 @@ import org.apache.commons.lang3.mutable.Mutable;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
 import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
@@ -39,12 +42,17 @@ import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFun
 import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractOperatorWithNestedPlans;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.LogicalPropertiesVisitor;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.AbstractJoinPOperator.JoinPartitioningType;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HybridHashJoinPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.InMemoryHashJoinPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.NestedLoopJoinPOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortMergeJoinPOperator;
+import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty;
 import org.apache.hyracks.algebricks.core.algebra.properties.ILogicalPropertiesVector;
+import org.apache.hyracks.algebricks.core.algebra.properties.PropertiesUtil;
 import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
 import org.apache.hyracks.algebricks.core.config.AlgebricksConfig;
 import org.apache.hyracks.api.exceptions.ErrorCode;
@@ -141,6 +149,47 @@ public class JoinUtils {
         return false;
     }
 
+    public static boolean hybridToSortMergeJoin(AbstractBinaryJoinOperator op, IOptimizationContext context)
+            throws AlgebricksException {
+        HybridHashJoinPOperator hhj = (HybridHashJoinPOperator) op.getPhysicalOperator();
+        if (hhj.getPartitioningType() != JoinPartitioningType.PAIRWISE) {
+            return false;
+        }
+        List<List<LogicalVariable>> keys = Arrays.asList(hhj.getKeysLeftBranch(), hhj.getKeysRightBranch());
+        for (int i = 0; i < keys.size(); i++) {
+            AbstractLogicalOperator input = (AbstractLogicalOperator) op.getInputs().get(i).getValue();
+            computeDeliveredPropertiesDFS(input, context);
+            // only switch when both inputs are ordered already, so that no sort has to be added for the merge
+            List<ILocalStructuralProperty> delivered = input.getDeliveredPhysicalProperties().getLocalProperties();
+            if (!PropertiesUtil.matchLocalProperties(
+                    Collections.singletonList(SortMergeJoinPOperator.getRequiredOrder(keys.get(i))), delivered,
+                    context.getEquivalenceClassMap(input), context.getFDList(input))) {
+                return false;
+            }
+        }
+        if (AlgebricksConfig.ALGEBRICKS_LOGGER.isTraceEnabled()) {
+            AlgebricksConfig.ALGEBRICKS_LOGGER.trace("// HybridHashJoin inputs are ordered on the join keys\n");
+        }
+        op.setPhysicalOperator(new SortMergeJoinPOperator(hhj.getKind(), hhj.getPartitioningType(),
+                hhj.getKeysLeftBranch(), hhj.getKeysRightBranch()));
+        return true;
+    }
+
+    private static void computeDeliveredPropertiesDFS(AbstractLogicalOperator op, IOptimizationContext context)
+            throws AlgebricksException {
+        for (Mutable<ILogicalOperator> input : op.getInputs()) {
+            computeDeliveredPropertiesDFS((AbstractLogicalOperator) input.getValue(), context);
+        }
+        if (op.hasNestedPlans()) {
+            for (ILogicalPlan p : ((AbstractOperatorWithNestedPlans) op).getNestedPlans()) {
+                for (Mutable<ILogicalOperator> root : p.getRoots()) {
+                    computeDeliveredPropertiesDFS((AbstractLogicalOperator) root.getValue(), context);
+                }
+            }
+        }
+        op.computeDeliveredPhysicalProperties(context);
+    }
+
     private static boolean isHashJoinCondition(ILogicalExpression e, Collection<LogicalVariable> inLeftAll,
             Collection<LogicalVariable> inRightAll, Collection<LogicalVariable> outLeftFields,
             Collection<LogicalVariable> outRightFields) {
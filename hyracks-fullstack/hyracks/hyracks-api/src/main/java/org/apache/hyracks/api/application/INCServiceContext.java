@@ -19,7 +19,9 @@
 package org.apache.hyracks.api.application;
 
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
+import org.apache.hyracks.api.io.IBufferCachePerformanceCounters;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IIOSchedulerPerformanceCounters;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
 import org.apache.hyracks.api.resources.memory.IMemoryManager;
 import org.apache.hyracks.util.trace.ITracer;
@@ -82,4 +84,34 @@ public interface INCServiceContext extends IServiceContext {
      * @return
      */
     IChannelInterfaceFactory getMessagingChannelInterfaceFactory();
+
+    /**
+     * Set the performance counters of the application's disk buffer cache to be reported with the node heartbeat
+     *
+     * @param counters
+     */
+    void setBufferCachePerformanceCounters(IBufferCachePerformanceCounters counters);
+
+    /**
+     * Get the buffer cache performance counters previously set by
+     * the {@link #setBufferCachePerformanceCounters(IBufferCachePerformanceCounters)} call.
+     *
+     * @return the counters or {@link IBufferCachePerformanceCounters#NONE} if none were set
+     */
+    IBufferCachePerformanceCounters getBufferCachePerformanceCounters();
+
+    /**
+     * Set the performance counters of the application's LSM IO scheduler to be reported with the node heartbeat
+     *
+     * @param counters
+     */
+    void setIOSchedulerPerformanceCounters(IIOSchedulerPerformanceCounters counters);
+
+    /**
+     * Get the IO scheduler performance counters previously set by
+     * the {@link #setIOSchedulerPerformanceCounters(IIOSchedulerPerformanceCounters)} call.
+     *
+     * @return the counters or {@link IIOSchedulerPerformanceCounters#NONE} if none were set
+     */
+    IIOSchedulerPerformanceCounters getIOSchedulerPerformanceCounters();
 }
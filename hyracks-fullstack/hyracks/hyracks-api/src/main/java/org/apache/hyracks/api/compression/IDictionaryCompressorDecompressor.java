@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.compression;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A block compressor/decompressor which can compress all blocks of a file with a shared dictionary trained on the
+ * content of the file. Small blocks compress poorly on their own as each of them repeats the same content
+ * (e.g., the field names of the records in a page) without any shared context.
+ *
+ * Without a dictionary, it compresses and uncompresses blocks as any other {@link ICompressorDecompressor}.
+ */
+public interface IDictionaryCompressorDecompressor extends ICompressorDecompressor {
+    /**
+     * Train a dictionary on a sample of the content to compress
+     *
+     * @param sample
+     *            The sample content (between its position and limit)
+     * @param maxDictionarySize
+     *            The maximum size of the dictionary
+     * @return the dictionary, which is empty if the sample does not contain any repeated content
+     * @throws HyracksDataException
+     */
+    byte[] trainDictionary(ByteBuffer sample, int maxDictionarySize) throws HyracksDataException;
+
+    /**
+     * Create a compressor/decompressor which compresses and uncompresses blocks with <i>dictionary</i>
+     *
+     * @param dictionary
+     *            A dictionary returned by {@link #trainDictionary(ByteBuffer, int)}
+     * @return the compressor/decompressor of the dictionary
+     */
+    ICompressorDecompressor createDictionaryCompressorDecompressor(byte[] dictionary);
+}
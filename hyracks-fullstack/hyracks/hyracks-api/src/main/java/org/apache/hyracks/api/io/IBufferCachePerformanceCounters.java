@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.io;
+
+/**
+ * Cumulative page access counters of a node's disk buffer cache, reported with the node heartbeat.
+ */
+public interface IBufferCachePerformanceCounters {
+
+    IBufferCachePerformanceCounters NONE = new IBufferCachePerformanceCounters() {
+        @Override
+        public long getPageHits() {
+            return 0;
+        }
+
+        @Override
+        public long getPageMisses() {
+            return 0;
+        }
+
+        @Override
+        public long getPageEvictions() {
+            return 0;
+        }
+    };
+
+    /**
+     * @return the number of pins that found the requested page already in the cache
+     */
+    long getPageHits();
+
+    /**
+     * @return the number of pins that had to read the requested page from disk
+     */
+    long getPageMisses();
+
+    /**
+     * @return the number of cached pages that were replaced to make room for other pages
+     */
+    long getPageEvictions();
+}
@@ -47,12 +47,27 @@ public interface IIOManager extends Closeable {
 
     public int syncRead(IFileHandle fHandle, long offset, ByteBuffer data) throws HyracksDataException;
 
+    /**
+     * Reads consecutive bytes of the file starting at {@code offset} into the passed buffers, filling each buffer
+     * before moving to the next one, using as few system calls as possible.
+     *
+     * @param fHandle
+     * @param offset
+     * @param dataArray
+     * @return The number of bytes read, possibly less than the remaining bytes of the buffers if the end of the file
+     *         is reached, or -1 if the given offset is greater than or equal to the file's current size
+     * @throws HyracksDataException
+     */
+    public long syncRead(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException;
+
     IAsyncRequest asyncWrite(IFileHandle fHandle, long offset, ByteBuffer data) throws HyracksDataException;
 
     IAsyncRequest asyncWrite(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException;
 
     IAsyncRequest asyncRead(IFileHandle fHandle, long offset, ByteBuffer data) throws HyracksDataException;
 
+    IAsyncRequest asyncRead(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException;
+
     public void close(IFileHandle fHandle) throws HyracksDataException;
 
     public void sync(IFileHandle fileHandle, boolean metadata) throws HyracksDataException;
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.io;
+
+/**
+ * Merge backlog and throttling counters of a node's LSM IO scheduler, reported with the node heartbeat.
+ */
+public interface IIOSchedulerPerformanceCounters {
+
+    IIOSchedulerPerformanceCounters NONE = new IIOSchedulerPerformanceCounters() {
+        @Override
+        public long getMergeDebt() {
+            return 0;
+        }
+
+        @Override
+        public long getThrottledTime() {
+            return 0;
+        }
+    };
+
+    /**
+     * @return the number of pages the scheduled merges have yet to write
+     */
+    long getMergeDebt();
+
+    /**
+     * @return the total time in milliseconds merges have been throttled
+     */
+    long getThrottledTime();
+}
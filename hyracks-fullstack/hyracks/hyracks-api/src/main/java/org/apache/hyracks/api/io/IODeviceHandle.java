@@ -21,7 +21,9 @@ package org.apache.hyracks.api.io;
 import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
@@ -38,6 +40,10 @@ public class IODeviceHandle implements Serializable {
      * relative workspace
      */
     private final String workspace;
+    /**
+     * Whether files on the device, except for workspace files, are read bypassing the OS page cache
+     */
+    private final boolean directIo;
 
     /**
      * @param mount
@@ -46,9 +52,22 @@ public class IODeviceHandle implements Serializable {
      *            The relative workspace inside the device
      */
     public IODeviceHandle(File mount, String workspace) {
+        this(mount, workspace, false);
+    }
+
+    /**
+     * @param mount
+     *            The device root
+     * @param workspace
+     *            The relative workspace inside the device
+     * @param directIo
+     *            Whether files on the device are read bypassing the OS page cache
+     */
+    public IODeviceHandle(File mount, String workspace, boolean directIo) {
         this.mount = mount;
         this.workspace = workspace == null ? null
                 : workspace.endsWith(File.separator) ? workspace.substring(0, workspace.length() - 1) : workspace;
+        this.directIo = directIo;
     }
 
     public File getMount() {
@@ -59,6 +78,10 @@ public class IODeviceHandle implements Serializable {
         return workspace;
     }
 
+    public boolean isDirectIo() {
+        return directIo;
+    }
+
     /**
      * Create a file reference
      *
@@ -78,10 +101,27 @@ public class IODeviceHandle implements Serializable {
      * @return
      */
     public static List<IODeviceHandle> getDevices(String[] ioDevices) {
+        return getDevices(ioDevices, new String[0]);
+    }
+
+    /**
+     * Get handles for IO devices
+     *
+     * @param ioDevices
+     *            comma separated list of devices
+     * @param directIoDevices
+     *            the devices, out of ioDevices, whose files are read bypassing the OS page cache
+     * @return
+     */
+    public static List<IODeviceHandle> getDevices(String[] ioDevices, String[] directIoDevices) {
+        Set<String> directIoPaths = new HashSet<>();
+        for (String directIoDevice : directIoDevices) {
+            directIoPaths.add(new File(directIoDevice.trim()).getAbsolutePath());
+        }
         List<IODeviceHandle> devices = new ArrayList<>();
         for (String ioDevice : ioDevices) {
-            String devPath = ioDevice.trim();
-            devices.add(new IODeviceHandle(new File(devPath), "."));
+            File mount = new File(ioDevice.trim());
+            devices.add(new IODeviceHandle(mount, ".", directIoPaths.contains(mount.getAbsolutePath())));
         }
         return devices;
     }
@@ -125,6 +165,7 @@ public class IODeviceHandle implements Serializable {
 
     @Override
     public String toString() {
-        return "mount: " + mount.getAbsolutePath() + ((workspace == null) ? "" : ", workspace: " + workspace);
+        return "mount: " + mount.getAbsolutePath() + ((workspace == null) ? "" : ", workspace: " + workspace)
+                + (directIo ? ", direct io" : "");
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.api.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.file.OpenOption;
+
+/**
+ * Helpers to access files bypassing the OS page cache. Offsets, lengths and buffers of such accesses must be aligned
+ * to {@link #ALIGNMENT}.
+ */
+public class DirectIoUtil {
+
+    /**
+     * The alignment of offsets, lengths and buffers of accesses that bypass the OS page cache
+     */
+    public static final int ALIGNMENT = 4096;
+    /**
+     * The option to open a file bypassing the OS page cache, null if the JVM does not support it
+     */
+    private static final OpenOption DIRECT = getDirectOpenOption();
+    /**
+     * {@link ByteBuffer}#alignedSlice(int), null if the JVM does not support it
+     */
+    private static final MethodHandle ALIGNED_SLICE = getAlignedSlice();
+
+    private DirectIoUtil() {
+    }
+
+    /**
+     * @return true if the JVM can open files bypassing the OS page cache and allocate aligned buffers for them
+     */
+    public static boolean isSupported() {
+        return DIRECT != null && ALIGNED_SLICE != null;
+    }
+
+    /**
+     * @return the option to open a file bypassing the OS page cache
+     * @throws IllegalStateException
+     *             if direct io is not {@link #isSupported() supported}
+     */
+    public static OpenOption getDirectOption() {
+        ensureSupported();
+        return DIRECT;
+    }
+
+    /**
+     * Allocates a direct buffer whose address is aligned to {@link #ALIGNMENT}
+     *
+     * @param size
+     *            the capacity of the buffer
+     * @throws IllegalStateException
+     *             if direct io is not {@link #isSupported() supported}
+     */
+    public static ByteBuffer allocateAligned(int size) {
+        ensureSupported();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(size + ALIGNMENT);
+        try {
+            final ByteBuffer aligned = (ByteBuffer) ALIGNED_SLICE.invoke(buffer, ALIGNMENT);
+            aligned.limit(size);
+            return aligned.slice();
+        } catch (Throwable th) { // NOSONAR the handle does not throw checked exceptions
+            throw new IllegalStateException("Failed to align a direct buffer", th);
+        }
+    }
+
+    public static long alignDown(long value) {
+        return value - value % ALIGNMENT;
+    }
+
+    public static long alignUp(long value) {
+        return alignDown(value + ALIGNMENT - 1);
+    }
+
+    private static void ensureSupported() {
+        if (!isSupported()) {
+            throw new IllegalStateException("Direct io is not supported by this JVM");
+        }
+    }
+
+    private static OpenOption getDirectOpenOption() {
+        try {
+            // com.sun.nio.file.ExtendedOpenOption.DIRECT is available as of java 10
+            for (Object option : Class.forName("com.sun.nio.file.ExtendedOpenOption").getEnumConstants()) {
+                if ("DIRECT".equals(((Enum<?>) option).name())) {
+                    return (OpenOption) option;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            // not supported
+        }
+        return null;
+    }
+
+    private static MethodHandle getAlignedSlice() {
+        try {
+            // available as of java 9
+            return MethodHandles.publicLookup().findVirtual(ByteBuffer.class, "alignedSlice",
+                    MethodType.methodType(ByteBuffer.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            // not supported
+            return null;
+        }
+    }
+}
@@ -27,6 +27,8 @@ public class HyracksConstants {
     public static final String HYRACKS_TASK_CONTEXT = "HYRACKS_TASK_CONTEXT";
 
     public static final String INDEX_CURSOR_STATS = "INDEX_CURSOR_STATS";
+    // The number of pages a sequential disk index scan reads ahead, 0 disables reading ahead
+    public static final String INDEX_CURSOR_READ_AHEAD_PAGES = "INDEX_CURSOR_READ_AHEAD_PAGES";
 
     private HyracksConstants() {
     }
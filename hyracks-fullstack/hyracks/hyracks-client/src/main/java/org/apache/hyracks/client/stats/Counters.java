@@ -35,4 +35,14 @@ public class Counters {
     public static final String DISK_READ = "disk-reads";
 
     public static final String DISK_WRITE = "disk-writes";
+
+    public static final String BUFFER_CACHE_PAGE_HIT = "buffercache-page-hits";
+
+    public static final String BUFFER_CACHE_PAGE_MISS = "buffercache-page-misses";
+
+    public static final String BUFFER_CACHE_PAGE_EVICTION = "buffercache-page-evictions";
+
+    public static final String IO_SCHEDULER_MERGE_DEBT = "io-scheduler-merge-debt";
+
+    public static final String IO_SCHEDULER_THROTTLED_TIME = "io-scheduler-throttled-time";
 }
@@ -141,6 +141,16 @@ public class NodeControllerData {
 
     private final long[] diskWrites;
 
+    private final long[] bufferCachePageHits;
+
+    private final long[] bufferCachePageMisses;
+
+    private final long[] bufferCachePageEvictions;
+
+    private final long[] ioSchedulerMergeDebt;
+
+    private final long[] ioSchedulerThrottledTime;
+
     private int rrdPtr;
 
     private volatile long lastHeartbeatNanoTime;
@@ -208,6 +218,13 @@ public class NodeControllerData {
         diskReads = new long[RRD_SIZE];
         diskWrites = new long[RRD_SIZE];
 
+        bufferCachePageHits = new long[RRD_SIZE];
+        bufferCachePageMisses = new long[RRD_SIZE];
+        bufferCachePageEvictions = new long[RRD_SIZE];
+
+        ioSchedulerMergeDebt = new long[RRD_SIZE];
+        ioSchedulerThrottledTime = new long[RRD_SIZE];
+
         rrdPtr = 0;
         capacity = reg.getCapacity();
         touchHeartbeat();
@@ -246,6 +263,11 @@ public class NodeControllerData {
         ipcMessageBytesReceived[rrdPtr] = hbData.ipcMessageBytesReceived;
         diskReads[rrdPtr] = hbData.diskReads;
         diskWrites[rrdPtr] = hbData.diskWrites;
+        bufferCachePageHits[rrdPtr] = hbData.bufferCachePageHits;
+        bufferCachePageMisses[rrdPtr] = hbData.bufferCachePageMisses;
+        bufferCachePageEvictions[rrdPtr] = hbData.bufferCachePageEvictions;
+        ioSchedulerMergeDebt[rrdPtr] = hbData.ioSchedulerMergeDebt;
+        ioSchedulerThrottledTime[rrdPtr] = hbData.ioSchedulerThrottledTime;
         rrdPtr = (rrdPtr + 1) % RRD_SIZE;
     }
 
@@ -347,6 +369,11 @@ public class NodeControllerData {
             put(o, "ipc-message-bytes-received", ipcMessageBytesReceived);
             put(o, "disk-reads", diskReads);
             put(o, "disk-writes", diskWrites);
+            put(o, "buffercache-page-hits", bufferCachePageHits);
+            put(o, "buffercache-page-misses", bufferCachePageMisses);
+            put(o, "buffercache-page-evictions", bufferCachePageEvictions);
+            put(o, "io-scheduler-merge-debt", ioSchedulerMergeDebt);
+            put(o, "io-scheduler-throttled-time", ioSchedulerThrottledTime);
         }
 
         return o;
@@ -75,6 +75,7 @@ public class NCConfig extends ControllerConfig {
                 appConfig -> new String[] {
                         FileUtil.joinPath(appConfig.getString(ControllerConfig.Option.DEFAULT_DIR), "iodevice") },
                 "<value of " + ControllerConfig.Option.DEFAULT_DIR.cmdline() + ">/iodevice"),
+        DIRECT_IO_DEVICES(STRING_ARRAY, new String[0]),
         NET_THREAD_COUNT(POSITIVE_INTEGER, 1),
         NET_BUFFER_COUNT(POSITIVE_INTEGER, 1),
         RESULT_TTL(LONG, 86400000L),
@@ -191,6 +192,10 @@ public class NCConfig extends ControllerConfig {
                     return "Number of attempts to retry contacting CC before giving up";
                 case IODEVICES:
                     return "Comma separated list of IO Device mount points";
+                case DIRECT_IO_DEVICES:
+                    return "Comma separated list of IO Device mount points, out of the IO devices, whose files are "
+                            + "read bypassing the OS page cache (O_DIRECT). Workspace files are always read through "
+                            + "the OS page cache";
                 case NET_THREAD_COUNT:
                     return "Number of threads to use for Network I/O";
                 case NET_BUFFER_COUNT:
@@ -494,6 +499,14 @@ public class NCConfig extends ControllerConfig {
         configManager.set(nodeId, Option.IODEVICES, iodevices);
     }
 
+    public String[] getDirectIODevices() {
+        return appConfig.getStringArray(Option.DIRECT_IO_DEVICES);
+    }
+
+    public void setDirectIODevices(String[] directIODevices) {
+        configManager.set(nodeId, Option.DIRECT_IO_DEVICES, directIODevices);
+    }
+
     public String[] getTraceCategories() {
         return appConfig.getStringArray(Option.TRACE_CATEGORIES);
     }
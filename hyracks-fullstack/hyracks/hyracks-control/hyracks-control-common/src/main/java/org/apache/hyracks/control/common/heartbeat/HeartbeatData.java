@@ -54,6 +54,11 @@ public class HeartbeatData {
     public long ipcMessageBytesReceived;
     public long diskReads;
     public long diskWrites;
+    public long bufferCachePageHits;
+    public long bufferCachePageMisses;
+    public long bufferCachePageEvictions;
+    public long ioSchedulerMergeDebt;
+    public long ioSchedulerThrottledTime;
     public int numCores;
 
     public HeartbeatData() {
@@ -88,6 +93,11 @@ public class HeartbeatData {
         ipcMessageBytesReceived = dis.readLong();
         diskReads = dis.readLong();
         diskWrites = dis.readLong();
+        bufferCachePageHits = dis.readLong();
+        bufferCachePageMisses = dis.readLong();
+        bufferCachePageEvictions = dis.readLong();
+        ioSchedulerMergeDebt = dis.readLong();
+        ioSchedulerThrottledTime = dis.readLong();
         numCores = dis.readInt();
 
         int gcCounts = dis.readInt();
@@ -129,6 +139,11 @@ public class HeartbeatData {
         dos.writeLong(ipcMessageBytesReceived);
         dos.writeLong(diskReads);
         dos.writeLong(diskWrites);
+        dos.writeLong(bufferCachePageHits);
+        dos.writeLong(bufferCachePageMisses);
+        dos.writeLong(bufferCachePageEvictions);
+        dos.writeLong(ioSchedulerMergeDebt);
+        dos.writeLong(ioSchedulerThrottledTime);
         dos.writeInt(numCores);
 
         dos.writeInt(gcCollectionCounts.length);
@@ -214,7 +214,7 @@ public class NodeControllerService implements IControllerService {
         ncShutdownHook = new NCShutdownHook(this);
         Runtime.getRuntime().addShutdownHook(ncShutdownHook);
         Thread.currentThread().setUncaughtExceptionHandler(getLifeCycleComponentManager());
-        ioManager = new IOManager(IODeviceHandle.getDevices(ncConfig.getIODevices()),
+        ioManager = new IOManager(IODeviceHandle.getDevices(ncConfig.getIODevices(), ncConfig.getDirectIODevices()),
                 application.getFileDeviceResolver(), ncConfig.getIOParallelism(), ncConfig.getIOQueueSize());
         try {
             workQueue = new WorkQueue(id, Thread.NORM_PRIORITY); // Reserves MAX_PRIORITY of the heartbeat thread.
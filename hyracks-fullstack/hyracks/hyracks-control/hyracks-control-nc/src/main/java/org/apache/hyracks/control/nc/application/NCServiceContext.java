@@ -25,6 +25,8 @@ import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.application.IStateDumpHandler;
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.config.IApplicationConfig;
+import org.apache.hyracks.api.io.IBufferCachePerformanceCounters;
+import org.apache.hyracks.api.io.IIOSchedulerPerformanceCounters;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
 import org.apache.hyracks.api.resources.memory.IMemoryManager;
 import org.apache.hyracks.api.service.IControllerService;
@@ -47,6 +49,10 @@ public class NCServiceContext extends ServiceContext implements INCServiceContex
     private final NodeControllerService ncs;
     private IChannelInterfaceFactory messagingChannelInterfaceFactory;
     private final ITracer tracer;
+    private volatile IBufferCachePerformanceCounters bufferCachePerformanceCounters =
+            IBufferCachePerformanceCounters.NONE;
+    private volatile IIOSchedulerPerformanceCounters ioSchedulerPerformanceCounters =
+            IIOSchedulerPerformanceCounters.NONE;
 
     public NCServiceContext(NodeControllerService ncs, ServerContext serverCtx, IOManager ioManager, String nodeId,
             MemoryManager memoryManager, ILifeCycleComponentManager lifeCyclecomponentManager,
@@ -115,6 +121,26 @@ public class NCServiceContext extends ServiceContext implements INCServiceContex
         this.messagingChannelInterfaceFactory = interfaceFactory;
     }
 
+    @Override
+    public void setBufferCachePerformanceCounters(IBufferCachePerformanceCounters counters) {
+        this.bufferCachePerformanceCounters = counters;
+    }
+
+    @Override
+    public IBufferCachePerformanceCounters getBufferCachePerformanceCounters() {
+        return bufferCachePerformanceCounters;
+    }
+
+    @Override
+    public void setIOSchedulerPerformanceCounters(IIOSchedulerPerformanceCounters counters) {
+        this.ioSchedulerPerformanceCounters = counters;
+    }
+
+    @Override
+    public IIOSchedulerPerformanceCounters getIOSchedulerPerformanceCounters() {
+        return ioSchedulerPerformanceCounters;
+    }
+
     @Override
     public Object getApplicationContext() {
         return ncs.getApplicationContext();
@@ -27,6 +27,8 @@ import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.MemoryUsage;
 import java.util.TimerTask;
 
+import org.apache.hyracks.api.io.IBufferCachePerformanceCounters;
+import org.apache.hyracks.api.io.IIOSchedulerPerformanceCounters;
 import org.apache.hyracks.control.common.heartbeat.HeartbeatData;
 import org.apache.hyracks.control.nc.NodeControllerService;
 import org.apache.hyracks.control.nc.io.profiling.IIOCounter;
@@ -98,6 +100,15 @@ public class HeartbeatComputeTask extends TimerTask {
 
             hbData.diskReads = ioCounter.getReads();
             hbData.diskWrites = ioCounter.getWrites();
+
+            IBufferCachePerformanceCounters bufferCachePC = ncs.getContext().getBufferCachePerformanceCounters();
+            hbData.bufferCachePageHits = bufferCachePC.getPageHits();
+            hbData.bufferCachePageMisses = bufferCachePC.getPageMisses();
+            hbData.bufferCachePageEvictions = bufferCachePC.getPageEvictions();
+
+            IIOSchedulerPerformanceCounters ioSchedulerPC = ncs.getContext().getIOSchedulerPerformanceCounters();
+            hbData.ioSchedulerMergeDebt = ioSchedulerPC.getMergeDebt();
+            hbData.ioSchedulerThrottledTime = ioSchedulerPC.getThrottledTime();
             hbData.numCores = Runtime.getRuntime().availableProcessors();
 
             ncs.getNodeControllerData().notifyHeartbeat(hbData);
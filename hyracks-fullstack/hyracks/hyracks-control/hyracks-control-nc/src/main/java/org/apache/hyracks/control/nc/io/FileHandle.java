@@ -21,21 +21,37 @@ package org.apache.hyracks.control.nc.io;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.util.DirectIoUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 public class FileHandle implements IFileHandle {
-
+    private static final Logger LOGGER = LogManager.getLogger();
     private final FileReference fileRef;
+    private boolean directIo;
     private RandomAccessFile raf;
+    private FileChannel directChannel;
     private String mode;
 
     public FileHandle(FileReference fileRef) {
+        this(fileRef, false);
+    }
+
+    /**
+     * @param fileRef
+     * @param directIo
+     *            whether reads of the file should bypass the OS page cache, writes always go through it
+     */
+    public FileHandle(FileReference fileRef, boolean directIo) {
         this.fileRef = fileRef;
+        this.directIo = directIo && DirectIoUtil.isSupported();
     }
 
     /**
@@ -75,7 +91,11 @@ public class FileHandle implements IFileHandle {
         ensureOpen();
     }
 
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        if (directChannel != null) {
+            directChannel.close();
+            directChannel = null;
+        }
         if (raf == null) {
             return;
         }
@@ -92,6 +112,14 @@ public class FileHandle implements IFileHandle {
         return raf.getChannel();
     }
 
+    /**
+     * @return the channel to read the file bypassing the OS page cache, reads through it must be aligned to
+     *         {@link DirectIoUtil#ALIGNMENT}, or null if the file is read through the OS page cache
+     */
+    public FileChannel getDirectChannel() {
+        return directChannel;
+    }
+
     public synchronized void ensureOpen() throws HyracksDataException {
         if (raf == null || !raf.getChannel().isOpen()) {
             try {
@@ -100,5 +128,16 @@ public class FileHandle implements IFileHandle {
                 throw HyracksDataException.create(e);
             }
         }
+        if (directIo && (directChannel == null || !directChannel.isOpen())) {
+            try {
+                directChannel = FileChannel.open(fileRef.getFile().toPath(), StandardOpenOption.READ,
+                        DirectIoUtil.getDirectOption());
+            } catch (IOException e) {
+                // e.g. the file system does not support direct io
+                LOGGER.warn("Failed to open {} for direct io, reading it through the OS page cache", fileRef, e);
+                directChannel = null;
+                directIo = false;
+            }
+        }
     }
 }
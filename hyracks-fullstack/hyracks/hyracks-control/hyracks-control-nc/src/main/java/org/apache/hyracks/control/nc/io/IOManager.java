@@ -44,6 +44,7 @@ import org.apache.hyracks.api.io.IFileDeviceResolver;
 import org.apache.hyracks.api.io.IFileHandle;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.api.util.DirectIoUtil;
 import org.apache.hyracks.api.util.InvokeUtil;
 import org.apache.hyracks.api.util.IoUtil;
 import org.apache.hyracks.control.nc.io.IoRequest.State;
@@ -59,6 +60,10 @@ public class IOManager implements IIOManager {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final String WORKSPACE_FILE_SUFFIX = ".waf";
     private static final FilenameFilter WORKSPACE_FILES_FILTER = (dir, name) -> name.endsWith(WORKSPACE_FILE_SUFFIX);
+    /**
+     * The alignment of offsets, lengths and buffers of reads that bypass the OS page cache
+     */
+    public static final int DIRECT_IO_ALIGNMENT = DirectIoUtil.ALIGNMENT;
     /*
      * Finals
      */
@@ -72,6 +77,8 @@ public class IOManager implements IIOManager {
      */
     private int workspaceIndex;
     private final IFileDeviceResolver deviceComputer;
+    // aligned buffers that direct reads go through, since the pages of a file are not aligned in the file
+    private final ThreadLocal<ByteBuffer> directReadBuffers = new ThreadLocal<>();
 
     public IOManager(List<IODeviceHandle> devices, IFileDeviceResolver deviceComputer, int ioParallelism, int queueSize)
             throws HyracksDataException {
@@ -93,6 +100,9 @@ public class IOManager implements IIOManager {
         }
         workspaceIndex = 0;
         this.deviceComputer = deviceComputer;
+        if (!DirectIoUtil.isSupported() && ioDevices.stream().anyMatch(IODeviceHandle::isDirectIo)) {
+            LOGGER.warn("Direct io is not supported by this JVM, all files will be read through the OS page cache");
+        }
         submittedRequests = new ArrayBlockingQueue<>(queueSize);
         freeRequests = new ArrayBlockingQueue<>(queueSize);
         int numIoThreads = ioDevices.size() * ioParallelism;
@@ -135,7 +145,7 @@ public class IOManager implements IIOManager {
     @Override
     public IFileHandle open(FileReference fileRef, FileReadWriteMode rwMode, FileSyncMode syncMode)
             throws HyracksDataException {
-        FileHandle fHandle = new FileHandle(fileRef);
+        FileHandle fHandle = new FileHandle(fileRef, isDirectIo(fileRef));
         try {
             fHandle.open(rwMode, syncMode);
         } catch (IOException e) {
@@ -262,6 +272,9 @@ public class IOManager implements IIOManager {
     }
 
     public int doSyncRead(IFileHandle fHandle, long offset, ByteBuffer data) throws HyracksDataException {
+        if (((FileHandle) fHandle).getDirectChannel() != null) {
+            return (int) doDirectRead(fHandle, offset, new ByteBuffer[] { data });
+        }
         try {
             int n = 0;
             int remaining = data.remaining();
@@ -287,6 +300,125 @@ public class IOManager implements IIOManager {
         }
     }
 
+    @Override
+    public long syncRead(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
+        IoRequest req = asyncRead(fHandle, offset, dataArray);
+        InvokeUtil.doUninterruptibly(req);
+        try {
+            if (req.getState() == State.OPERATION_SUCCEEDED) {
+                return req.getReads();
+            } else if (req.getState() == State.OPERATION_FAILED) {
+                throw req.getFailure();
+            } else {
+                throw new IllegalStateException("Read request completed with state " + req.getState());
+            }
+        } finally {
+            req.recycle();
+        }
+    }
+
+    public long doSyncRead(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
+        if (((FileHandle) fHandle).getDirectChannel() != null) {
+            return doDirectRead(fHandle, offset, dataArray);
+        }
+        try {
+            long n = 0;
+            long remaining = 0;
+            for (ByteBuffer buf : dataArray) {
+                remaining += buf.remaining();
+            }
+            final FileChannel fileChannel = ((FileHandle) fHandle).getFileChannel();
+            while (remaining > 0) {
+                long len;
+                // scattering reads use the channel position, positional reads of other threads are not affected
+                synchronized (fileChannel) {
+                    fileChannel.position(offset);
+                    len = fileChannel.read(dataArray);
+                }
+                if (len < 0) {
+                    return n == 0 ? -1 : n;
+                }
+                remaining -= len;
+                offset += len;
+                n += len;
+            }
+            return n;
+        } catch (ClosedByInterruptException e) {
+            Thread.currentThread().interrupt();
+            // re-open the closed channel. The channel will be closed during the typical file lifecycle
+            ((FileHandle) fHandle).ensureOpen();
+            throw HyracksDataException.create(e);
+        } catch (ClosedChannelException e) {
+            throw HyracksDataException.create(ErrorCode.CANNOT_READ_CLOSED_FILE, e, fHandle.getFileReference());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Reads the aligned range of the file that covers the requested bytes bypassing the OS page cache and copies the
+     * requested bytes into the passed buffers
+     */
+    private long doDirectRead(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
+        try {
+            long length = 0;
+            for (ByteBuffer buf : dataArray) {
+                length += buf.remaining();
+            }
+            final long alignedOffset = DirectIoUtil.alignDown(offset);
+            final int skip = (int) (offset - alignedOffset);
+            final ByteBuffer alignedBuffer = getDirectReadBuffer((int) DirectIoUtil.alignUp(skip + length));
+            final FileChannel directChannel = ((FileHandle) fHandle).getDirectChannel();
+            while (alignedBuffer.hasRemaining()) {
+                int len = directChannel.read(alignedBuffer, alignedOffset + alignedBuffer.position());
+                if (len < 0 || alignedBuffer.position() % DIRECT_IO_ALIGNMENT != 0) {
+                    // end of file
+                    break;
+                }
+            }
+            if (alignedBuffer.position() <= skip) {
+                return length == 0 ? 0 : -1;
+            }
+            alignedBuffer.flip();
+            alignedBuffer.position(skip);
+            long n = 0;
+            for (ByteBuffer buf : dataArray) {
+                int len = Math.min(buf.remaining(), alignedBuffer.remaining());
+                ByteBuffer src = alignedBuffer.duplicate();
+                src.limit(src.position() + len);
+                buf.put(src);
+                alignedBuffer.position(alignedBuffer.position() + len);
+                n += len;
+            }
+            return n;
+        } catch (ClosedByInterruptException e) {
+            Thread.currentThread().interrupt();
+            // re-open the closed channel. The channel will be closed during the typical file lifecycle
+            ((FileHandle) fHandle).ensureOpen();
+            throw HyracksDataException.create(e);
+        } catch (ClosedChannelException e) {
+            throw HyracksDataException.create(ErrorCode.CANNOT_READ_CLOSED_FILE, e, fHandle.getFileReference());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private ByteBuffer getDirectReadBuffer(int size) {
+        ByteBuffer buffer = directReadBuffers.get();
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = DirectIoUtil.allocateAligned(size);
+            directReadBuffers.set(buffer);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+
+    private static boolean isDirectIo(FileReference fileRef) {
+        return fileRef.getDeviceHandle() != null && fileRef.getDeviceHandle().isDirectIo()
+                && !fileRef.getFile().getName().endsWith(WORKSPACE_FILE_SUFFIX);
+    }
+
     @Override
     public IoRequest asyncWrite(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
         IoRequest req = getOrAllocRequest();
@@ -323,6 +455,18 @@ public class IOManager implements IIOManager {
         return req;
     }
 
+    @Override
+    public IoRequest asyncRead(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
+        IoRequest req = getOrAllocRequest();
+        try {
+            req.read(fHandle, offset, dataArray);
+        } catch (HyracksDataException e) {
+            req.recycle();
+            throw e;
+        }
+        return req;
+    }
+
     @Override
     public void close(IFileHandle fHandle) throws HyracksDataException {
         try {
@@ -46,6 +46,7 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     private ByteBuffer[] dataArray;
     private Throwable failure;
     private int read;
+    private long reads;
     private int write;
     private long writes;
 
@@ -76,6 +77,17 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
         queue();
     }
 
+    public void read(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
+        if (state != State.INITIAL) {
+            throw new IllegalStateException("Can't request a read operation through a " + state + " request");
+        }
+        state = State.READ_REQUESTED;
+        this.fHandle = fHandle;
+        this.offset = offset;
+        this.dataArray = dataArray;
+        queue();
+    }
+
     public void write(IFileHandle fHandle, long offset, ByteBuffer[] dataArray) throws HyracksDataException {
         if (state != State.INITIAL) {
             throw new IllegalStateException("Can't request a write operation through a " + state + " request");
@@ -118,7 +130,13 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     synchronized void handle() {
         try {
             if (state == State.READ_REQUESTED) {
-                read = ioManager.doSyncRead(fHandle, offset, data);
+                if (data != null) {
+                    // single buffer
+                    read = ioManager.doSyncRead(fHandle, offset, data);
+                } else {
+                    // multiple buffers
+                    reads = ioManager.doSyncRead(fHandle, offset, dataArray);
+                }
             } else if (state == State.WRITE_REQUESTED) {
                 if (data != null) {
                     // single buffer
@@ -153,6 +171,10 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
         return read;
     }
 
+    public long getReads() {
+        return reads;
+    }
+
     public int getWrite() {
         return write;
     }
@@ -42,8 +42,9 @@ import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
 import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
+import org.apache.hyracks.dataflow.std.group.external.ExternalGroupOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
-import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
+import org.apache.hyracks.dataflow.std.structures.LinearProbingHashTable;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
 import org.apache.logging.log4j.LogManager;
@@ -110,6 +111,17 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
 
         final int numPartitions = getNumOfPartitions(inputDataBytesSize / ctx.getInitialFrameSize(), memoryBudget);
         final int entriesPerPartition = (int) Math.ceil(1.0 * tableSize / numPartitions);
+
+        // The hash table is presized for the entries its share of the budget holds, so that it does not grow, which
+        // would hold the frames of the old and the new slot array at once. A table size that does not come from
+        // that estimate is capped so that the data table keeps its frames.
+        final int frameSize = ctx.getInitialFrameSize();
+        long budgetedEntryCount = Math.min(
+                ExternalGroupOperatorDescriptor.calculateGroupByTableCardinality((long) framesLimit * frameSize,
+                        keyFields.length, frameSize),
+                LinearProbingHashTable.getEntryCapacity(framesLimit - MIN_DATA_TABLE_FRAME_LIMT - OUTPUT_FRAME_LIMT,
+                        frameSize));
+        final int expectedEntryCount = (int) Math.min(tableSize, budgetedEntryCount);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("created hashtable, table size:" + tableSize + " file size:" + inputDataBytesSize
                     + "  #partitions:" + numPartitions);
@@ -129,7 +141,7 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                     new FramePoolBackedFrameBufferManager(framePool);
 
             private final ISerializableTable hashTableForTuplePointer =
-                    new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
+                    new LinearProbingHashTable(tableSize, expectedEntryCount, ctx, bufferManagerForHashTable);
 
             // buffer manager for data table
             final IPartitionedTupleBufferManager bufferManager = new VPartitionTupleBufferManager(
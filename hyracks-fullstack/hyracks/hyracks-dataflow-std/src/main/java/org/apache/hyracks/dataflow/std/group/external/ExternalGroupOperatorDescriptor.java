@@ -33,7 +33,7 @@ import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
 import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
 import org.apache.hyracks.dataflow.std.group.ISpillableTableFactory;
-import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
+import org.apache.hyracks.dataflow.std.structures.LinearProbingHashTable;
 
 /**
  *
@@ -156,8 +156,8 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
      * Based on a rough estimation of a tuple (each field size: 4 bytes) size and the number of possible hash values
      * for the given number of group-by columns, calculates the number of hash entries for the hash table in Group-by.
      * The formula is min(# of possible hash values, # of possible tuples in the data table).
-     * This method assumes that the group-by table consists of hash table that stores hash value of tuple pointer
-     * and data table actually stores the aggregated tuple.
+     * This method assumes that the group-by table consists of a {@link LinearProbingHashTable} that stores a slot per
+     * hash value and data table actually stores the aggregated tuple.
      * For more details, refer to this JIRA issue: https://issues.apache.org/jira/browse/ASTERIXDB-1556
      *
      * @param memoryBudgetByteSize
@@ -184,7 +184,7 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
 
         // Between # of entries in Data table and # of possible hash values, we choose the smaller one.
         long groupByTableCardinality = Math.min(possibleNumberOfHashEntries, maxNumberOfTuplesInDataTable);
-        long groupByTableByteSize = SerializableHashTable.getExpectedTableByteSize(groupByTableCardinality, frameSize);
+        long groupByTableByteSize = LinearProbingHashTable.getExpectedTableByteSize(groupByTableCardinality, frameSize);
 
         // Gets the ratio of hash-table size in the total size (hash + data table).
         double hashTableRatio = (double) groupByTableByteSize / (groupByTableByteSize + memoryBudgetByteSize);
@@ -193,7 +193,7 @@ public class ExternalGroupOperatorDescriptor extends AbstractOperatorDescriptor
         long finalGroupByTableByteSize = (long) (hashTableRatio * memoryBudgetByteSize);
 
         long finalGroupByTableCardinality =
-                finalGroupByTableByteSize / SerializableHashTable.getExpectedByteSizePerHashValue();
+                finalGroupByTableByteSize / LinearProbingHashTable.getExpectedByteSizePerHashValue();
 
         // The maximum cardinality of a hash table: Integer.MAX_VALUE
         return finalGroupByTableCardinality > Integer.MAX_VALUE ? Integer.MAX_VALUE
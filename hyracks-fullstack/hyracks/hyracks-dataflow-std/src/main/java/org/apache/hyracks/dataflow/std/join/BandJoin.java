@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.io.DataOutput;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksJobletContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IMissingWriter;
+import org.apache.hyracks.api.dataflow.value.ITuplePairComparator;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
+
+/**
+ * Plane sweep join of a left input sorted ascending on its start field and a cached right input sorted ascending on
+ * its start field. Each tuple describes a closed range [start, end] of values and a left and a right tuple are only
+ * candidates if their ranges overlap, i.e. if right start <= left end and left start <= right end; a point is a
+ * range with the same start and end field. The candidates of a left tuple are found in two parts:
+ * <ul>
+ * <li>the right tuples that start at or before the left start. They are moved from the right input to an active
+ * list in start order, and dropped from it as soon as they end before the left start, since the left starts never
+ * decrease;</li>
+ * <li>the right tuples that start after the left start but at or before the left end, which directly follow the
+ * sweep position in the right input.</li>
+ * </ul>
+ * Whether a candidate pair actually joins is decided by the tuple pair comparator. Left tuples are joined in their
+ * arrival order, hence the output keeps the order of the left input. If the right input is spilled, the frames from
+ * the first active tuple up to the end of the look-ahead stay pinned in memory as far as the budget allows, and the
+ * frames behind the sweep are released.
+ */
+public class BandJoin {
+    private static final int START = 0;
+    private static final int END = 1;
+
+    private final FrameTupleAccessor accessorLeft;
+    private final FrameTupleAccessor accessorRight;
+    private final FrameTuplePairComparator startComparator;
+    private final FrameTuplePairComparator endComparator;
+    private final FrameTuplePairComparator lookAheadComparator;
+    private ITuplePairComparator tpComparator;
+    private final boolean isLeftOuter;
+    private final ArrayTupleBuilder missingTupleBuilder;
+    private final FrameTupleAppender appender;
+    private final IFrame outBuffer;
+
+    // the cached right input
+    private final IndexedFrameCache rightCache;
+    private final IndexedFrameCache.Reader sweepReader;
+    private final IndexedFrameCache.Reader activeReader;
+    private final IndexedFrameCache.Reader lookAheadReader;
+    private int numRightFrames;
+
+    // the sweep position in the right input and the right tuples before it that may still join, as (frame, tuple)
+    private int sweepFrame;
+    private int sweepTuple;
+    private int[] activeFrames = new int[64];
+    private int[] activeTuples = new int[64];
+    private int activeCount;
+
+    /**
+     * @param leftKeys
+     *            the start and the end field of the left input
+     * @param rightKeys
+     *            the start and the end field of the right input
+     * @param comparators
+     *            the comparators of the left start with the right start, of the left start with the right end and of
+     *            the left end with the right start
+     */
+    public BandJoin(IHyracksJobletContext jobletCtx, RecordDescriptor leftRd, RecordDescriptor rightRd, int[] leftKeys,
+            int[] rightKeys, IBinaryComparator[] comparators, int memSizeInFrames, boolean isLeftOuter,
+            IMissingWriter[] missingWriters) throws HyracksDataException {
+        if (memSizeInFrames < 2) {
+            throw new HyracksDataException("Not enough memory is available for Band Join");
+        }
+        this.accessorLeft = new FrameTupleAccessor(leftRd);
+        this.accessorRight = new FrameTupleAccessor(rightRd);
+        this.startComparator = new FrameTuplePairComparator(new int[] { leftKeys[START] },
+                new int[] { rightKeys[START] }, new IBinaryComparator[] { comparators[0] });
+        this.endComparator = new FrameTuplePairComparator(new int[] { leftKeys[START] }, new int[] { rightKeys[END] },
+                new IBinaryComparator[] { comparators[1] });
+        this.lookAheadComparator = new FrameTuplePairComparator(new int[] { leftKeys[END] },
+                new int[] { rightKeys[START] }, new IBinaryComparator[] { comparators[2] });
+        this.appender = new FrameTupleAppender();
+        this.outBuffer = new VSizeFrame(jobletCtx);
+        this.appender.reset(outBuffer, true);
+        // one frame is reserved for the output
+        this.rightCache = new IndexedFrameCache(jobletCtx, this.getClass().getSimpleName(),
+                jobletCtx.getInitialFrameSize() * (memSizeInFrames - 1));
+        this.sweepReader = rightCache.createReader();
+        this.activeReader = rightCache.createReader();
+        this.lookAheadReader = rightCache.createReader();
+
+        this.isLeftOuter = isLeftOuter;
+        if (isLeftOuter) {
+            int rightFieldCount = accessorRight.getFieldCount();
+            missingTupleBuilder = new ArrayTupleBuilder(rightFieldCount);
+            DataOutput out = missingTupleBuilder.getDataOutput();
+            for (int i = 0; i < rightFieldCount; i++) {
+                missingWriters[i].writeMissing(out);
+                missingTupleBuilder.addFieldEndOffset();
+            }
+        } else {
+            missingTupleBuilder = null;
+        }
+    }
+
+    /**
+     * Adds the next frame of the right input. The frame is copied, so the caller keeps ownership of the buffer.
+     *
+     * @param buffer the next right frame, in start order
+     */
+    public void cache(ByteBuffer buffer) throws HyracksDataException {
+        rightCache.cache(buffer);
+    }
+
+    /**
+     * Must be called once the whole right input has been cached and before starting to join.
+     */
+    public void closeCache() throws HyracksDataException {
+        rightCache.close();
+        numRightFrames = rightCache.getFrameCount();
+        sweepFrame = skipEmptyFrames(sweepReader, 0);
+        sweepTuple = 0;
+        activeCount = 0;
+    }
+
+    /**
+     * Must be called before starting to join to set the right comparator with the right context.
+     *
+     * @param comparator the comparator that decides whether a left and a right tuple join
+     */
+    void setComparator(ITuplePairComparator comparator) {
+        tpComparator = comparator;
+    }
+
+    public void join(ByteBuffer leftBuffer, IFrameWriter writer) throws HyracksDataException {
+        accessorLeft.reset(leftBuffer);
+        int tupleCount = accessorLeft.getTupleCount();
+        for (int i = 0; i < tupleCount; i++) {
+            sweep(i);
+            boolean matchFound = joinWithActive(i, writer);
+            // the active list is in frame order, so no frame before its first entry or the sweep is read again
+            rightCache.unpinBefore(activeCount > 0 ? activeFrames[0] : sweepFrame);
+            matchFound |= joinWithLookAhead(i, writer);
+            if (!matchFound) {
+                appendMissing(i, writer);
+            }
+        }
+    }
+
+    /**
+     * Moves the right tuples that start at or before the start of the given left tuple to the active list.
+     */
+    private void sweep(int leftTupleIndex) throws HyracksDataException {
+        while (sweepFrame < numRightFrames) {
+            accessorRight.reset(sweepReader.read(sweepFrame));
+            if (startComparator.compare(accessorLeft, leftTupleIndex, accessorRight, sweepTuple) < 0) {
+                return;
+            }
+            addActive(sweepFrame, sweepTuple);
+            sweepTuple++;
+            if (sweepTuple >= accessorRight.getTupleCount()) {
+                sweepTuple = 0;
+                sweepFrame = skipEmptyFrames(sweepReader, sweepFrame + 1);
+            }
+        }
+    }
+
+    private void addActive(int frame, int tuple) {
+        if (activeCount == activeFrames.length) {
+            activeFrames = Arrays.copyOf(activeFrames, activeCount * 2);
+            activeTuples = Arrays.copyOf(activeTuples, activeCount * 2);
+        }
+        activeFrames[activeCount] = frame;
+        activeTuples[activeCount] = tuple;
+        activeCount++;
+    }
+
+    /**
+     * Joins the given left tuple with the active right tuples and drops those that end before its start.
+     *
+     * @return true if a match was found
+     */
+    private boolean joinWithActive(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        boolean matchFound = false;
+        int kept = 0;
+        for (int k = 0; k < activeCount; k++) {
+            accessorRight.reset(activeReader.read(activeFrames[k]));
+            int j = activeTuples[k];
+            if (endComparator.compare(accessorLeft, leftTupleIndex, accessorRight, j) > 0) {
+                continue;
+            }
+            activeFrames[kept] = activeFrames[k];
+            activeTuples[kept] = j;
+            kept++;
+            matchFound |= joinPair(leftTupleIndex, j, writer);
+        }
+        activeCount = kept;
+        return matchFound;
+    }
+
+    /**
+     * Joins the given left tuple with the right tuples that start after its start but not after its end.
+     *
+     * @return true if a match was found
+     */
+    private boolean joinWithLookAhead(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        boolean matchFound = false;
+        int f = sweepFrame;
+        int j = sweepTuple;
+        while (f < numRightFrames) {
+            accessorRight.reset(lookAheadReader.read(f));
+            if (lookAheadComparator.compare(accessorLeft, leftTupleIndex, accessorRight, j) < 0) {
+                break;
+            }
+            matchFound |= joinPair(leftTupleIndex, j, writer);
+            j++;
+            if (j >= accessorRight.getTupleCount()) {
+                j = 0;
+                f = skipEmptyFrames(lookAheadReader, f + 1);
+            }
+        }
+        return matchFound;
+    }
+
+    private int skipEmptyFrames(IndexedFrameCache.Reader reader, int frame) throws HyracksDataException {
+        while (frame < numRightFrames) {
+            accessorRight.reset(reader.read(frame));
+            if (accessorRight.getTupleCount() > 0) {
+                return frame;
+            }
+            frame++;
+        }
+        return frame;
+    }
+
+    private boolean joinPair(int leftTupleIndex, int rightTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        if (tpComparator.compare(accessorLeft, leftTupleIndex, accessorRight, rightTupleIndex) != 0) {
+            return false;
+        }
+        FrameUtils.appendConcatToWriter(writer, appender, accessorLeft, leftTupleIndex, accessorRight, rightTupleIndex);
+        return true;
+    }
+
+    private void appendMissing(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        if (isLeftOuter) {
+            final int[] ntFieldEndOffsets = missingTupleBuilder.getFieldEndOffsets();
+            final byte[] ntByteArray = missingTupleBuilder.getByteArray();
+            final int ntSize = missingTupleBuilder.getSize();
+            FrameUtils.appendConcatToWriter(writer, appender, accessorLeft, leftTupleIndex, ntFieldEndOffsets,
+                    ntByteArray, 0, ntSize);
+        }
+    }
+
+    public void completeJoin(IFrameWriter writer) throws HyracksDataException {
+        appender.write(writer, true);
+    }
+
+    /**
+     * Releases the cached right input, in memory or on disk. Can be called at any point and more than once.
+     */
+    public void releaseCache() throws HyracksDataException {
+        numRightFrames = 0;
+        activeCount = 0;
+        rightCache.release();
+    }
+}
@@ -63,6 +63,8 @@ public class InMemoryHashJoin {
     // To release frames
     private final ISimpleFrameBufferManager bufferManager;
     private final boolean isTableCapacityNotZero;
+    // Table entries of the tuples of the current probe frame
+    private int[] probeEntries = new int[0];
 
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -120,9 +122,8 @@ public class InMemoryHashJoin {
             int entry = tpcBuild.partition(accessorBuild, i, table.getTableSize());
             storedTuplePointer.reset(bIndex, i);
             // If an insertion fails, then tries to insert the same tuple pointer again after compacting the table.
-            if (!table.insert(entry, storedTuplePointer)) {
-                // TODO(ali): should check if insertion failed even after compaction and take action
-                compactTableAndInsertAgain(entry, storedTuplePointer);
+            if (!table.insert(entry, storedTuplePointer) && !compactTableAndInsertAgain(entry, storedTuplePointer)) {
+                throw new HyracksDataException("Not enough memory to insert a build tuple into the hash table.");
             }
         }
     }
@@ -161,9 +162,12 @@ public class InMemoryHashJoin {
      * This method assumes that the accessorProbe is already set to the current probe frame.
      */
     void join(int tid, IFrameWriter writer) throws HyracksDataException {
+        join(tid, isTableCapacityNotZero ? tpcProbe.partition(accessorProbe, tid, table.getTableSize()) : -1, writer);
+    }
+
+    private void join(int tid, int entry, IFrameWriter writer) throws HyracksDataException {
         boolean matchFound = false;
         if (isTableCapacityNotZero) {
-            int entry = tpcProbe.partition(accessorProbe, tid, table.getTableSize());
             int tupleCount = table.getTupleCount(entry);
             for (int i = 0; i < tupleCount; i++) {
                 table.getTuplePointer(entry, i, storedTuplePointer);
@@ -190,8 +194,22 @@ public class InMemoryHashJoin {
     public void join(ByteBuffer buffer, IFrameWriter writer) throws HyracksDataException {
         accessorProbe.reset(buffer);
         int tupleCount0 = accessorProbe.getTupleCount();
+        if (!isTableCapacityNotZero) {
+            for (int i = 0; i < tupleCount0; ++i) {
+                join(i, -1, writer);
+            }
+            return;
+        }
+        // Hashes the whole frame before probing, so that neither loop is interrupted by the other's memory accesses.
+        if (probeEntries.length < tupleCount0) {
+            probeEntries = new int[tupleCount0];
+        }
+        int tableSize = table.getTableSize();
+        for (int i = 0; i < tupleCount0; ++i) {
+            probeEntries[i] = tpcProbe.partition(accessorProbe, i, tableSize);
+        }
         for (int i = 0; i < tupleCount0; ++i) {
-            join(i, writer);
+            join(i, probeEntries[i], writer);
         }
     }
 
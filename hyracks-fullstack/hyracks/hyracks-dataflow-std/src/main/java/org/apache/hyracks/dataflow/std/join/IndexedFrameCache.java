@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksJobletContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.common.io.RunFileReader;
+import org.apache.hyracks.dataflow.common.io.RunFileWriter;
+
+/**
+ * Caches the frames of a join input so that they can be read back by index. The frames are kept in memory as long as
+ * they fit into the budget. Once they do not, all of them are written to a run file and the offset of each frame in
+ * the file is remembered; the budget then holds a window of pinned frames that are loaded on first read and stay in
+ * memory until the join moves past them with {@link #unpinBefore(int)}. Reads that do not fit into the window go
+ * through the private frame of the reader instead.
+ */
+class IndexedFrameCache {
+    private final IHyracksJobletContext jobletCtx;
+    private final String fileNamePrefix;
+    private final int memBudgetInBytes;
+    // the frames in memory by index, null if not in memory
+    private ByteBuffer[] pinnedFrames = new ByteBuffer[16];
+    private int pinnedBytes;
+    // no frame before this index is pinned
+    private int firstPinnedFrame;
+    private RunFileWriter runFileWriter;
+    private RunFileReader runFileReader;
+    private IFrame loadFrame;
+    private long[] frameOffsets = new long[16];
+    private long runFileSize;
+    private int numFrames;
+
+    IndexedFrameCache(IHyracksJobletContext jobletCtx, String fileNamePrefix, int memBudgetInBytes) {
+        this.jobletCtx = jobletCtx;
+        this.fileNamePrefix = fileNamePrefix;
+        this.memBudgetInBytes = memBudgetInBytes;
+    }
+
+    /**
+     * Adds the next frame. The frame is copied, so the caller keeps ownership of the buffer.
+     */
+    void cache(ByteBuffer buffer) throws HyracksDataException {
+        if (runFileWriter == null) {
+            if (pinnedBytes + buffer.capacity() <= memBudgetInBytes) {
+                ByteBuffer copyBuffer = jobletCtx.allocateFrame(buffer.capacity());
+                FrameUtils.copyAndFlip(buffer, copyBuffer);
+                pin(numFrames, copyBuffer);
+                numFrames++;
+                return;
+            }
+            spillPinnedFrames();
+        }
+        appendToRunFile(numFrames, buffer);
+        numFrames++;
+    }
+
+    /**
+     * Writes the frames cached so far to the run file. They stay pinned, so that the join starts from memory.
+     */
+    private void spillPinnedFrames() throws HyracksDataException {
+        FileReference file = jobletCtx.createManagedWorkspaceFile(fileNamePrefix);
+        runFileWriter = new RunFileWriter(file, jobletCtx.getIoManager());
+        runFileWriter.open();
+        for (int i = 0; i < numFrames; i++) {
+            appendToRunFile(i, pinnedFrames[i]);
+        }
+    }
+
+    private void appendToRunFile(int index, ByteBuffer buffer) throws HyracksDataException {
+        if (index == frameOffsets.length) {
+            frameOffsets = Arrays.copyOf(frameOffsets, frameOffsets.length * 2);
+        }
+        frameOffsets[index] = runFileWriter.getFileSize();
+        runFileWriter.nextFrame(buffer);
+    }
+
+    private void pin(int index, ByteBuffer buffer) {
+        if (index >= pinnedFrames.length) {
+            pinnedFrames = Arrays.copyOf(pinnedFrames, Math.max(pinnedFrames.length * 2, index + 1));
+        }
+        pinnedFrames[index] = buffer;
+        pinnedBytes += buffer.capacity();
+    }
+
+    /**
+     * Releases the pinned frames before the given index, which the join no longer reads. Frames are only released
+     * once they are in the run file, so that they can still be read back if needed.
+     */
+    void unpinBefore(int index) {
+        if (runFileReader == null) {
+            return;
+        }
+        int end = Math.min(index, numFrames);
+        int bytes = 0;
+        for (int i = firstPinnedFrame; i < Math.min(end, pinnedFrames.length); i++) {
+            if (pinnedFrames[i] != null) {
+                bytes += pinnedFrames[i].capacity();
+                pinnedFrames[i] = null;
+            }
+        }
+        firstPinnedFrame = Math.max(firstPinnedFrame, end);
+        if (bytes > 0) {
+            jobletCtx.deallocateFrames(bytes);
+            pinnedBytes -= bytes;
+        }
+    }
+
+    private void unpinAll() {
+        if (pinnedBytes > 0) {
+            jobletCtx.deallocateFrames(pinnedBytes);
+        }
+        Arrays.fill(pinnedFrames, null);
+        pinnedBytes = 0;
+        firstPinnedFrame = 0;
+    }
+
+    /**
+     * Must be called once all frames have been cached and before reading any of them.
+     */
+    void close() throws HyracksDataException {
+        if (runFileWriter != null) {
+            runFileWriter.close();
+            runFileSize = runFileWriter.getFileSize();
+            runFileReader = runFileWriter.createDeleteOnCloseReader();
+            runFileReader.open();
+        }
+    }
+
+    int getFrameCount() {
+        return numFrames;
+    }
+
+    /**
+     * @return a new reader with its own frame buffer, so that several positions in the cache can be read alternately
+     *         without evicting each other
+     */
+    Reader createReader() {
+        return new Reader();
+    }
+
+    /**
+     * Releases the cached frames, in memory or on disk. Can be called at any point and more than once.
+     */
+    void release() throws HyracksDataException {
+        unpinAll();
+        try {
+            if (runFileReader != null) {
+                runFileReader.close();
+            } else if (runFileWriter != null) {
+                runFileWriter.close();
+                runFileWriter.erase();
+            }
+        } finally {
+            runFileReader = null;
+            runFileWriter = null;
+            numFrames = 0;
+        }
+    }
+
+    private void readFromRunFile(int index, IFrame frame) throws HyracksDataException {
+        runFileReader.seek(frameOffsets[index]);
+        if (!runFileReader.nextFrame(frame)) {
+            throw new HyracksDataException("Could not read the cached frame " + index + " of the join");
+        }
+    }
+
+    /**
+     * Loads the given frame from the run file into the window of pinned frames.
+     *
+     * @return the pinned frame, or null if it does not fit into the budget
+     */
+    private ByteBuffer load(int index) throws HyracksDataException {
+        if (index < firstPinnedFrame) {
+            // the join has moved past this frame, do not pin it again
+            return null;
+        }
+        long frameSize = (index + 1 < numFrames ? frameOffsets[index + 1] : runFileSize) - frameOffsets[index];
+        if (pinnedBytes + frameSize > memBudgetInBytes) {
+            return null;
+        }
+        if (loadFrame == null) {
+            loadFrame = new VSizeFrame(jobletCtx);
+        }
+        readFromRunFile(index, loadFrame);
+        ByteBuffer buffer = loadFrame.getBuffer();
+        ByteBuffer copyBuffer = jobletCtx.allocateFrame(buffer.capacity());
+        FrameUtils.copyAndFlip(buffer, copyBuffer);
+        pin(index, copyBuffer);
+        return copyBuffer;
+    }
+
+    class Reader {
+        private IFrame frame;
+        private int frameIndex = -1;
+
+        ByteBuffer read(int index) throws HyracksDataException {
+            if (index < pinnedFrames.length && pinnedFrames[index] != null) {
+                return pinnedFrames[index];
+            }
+            if (index != frameIndex) {
+                ByteBuffer pinned = load(index);
+                if (pinned != null) {
+                    return pinned;
+                }
+                if (frame == null) {
+                    frame = new VSizeFrame(jobletCtx);
+                }
+                readFromRunFile(index, frame);
+                frameIndex = index;
+            }
+            return frame.getBuffer();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+
+/**
+ * A bloom filter over the join keys of the build side of a hash join. Each partition of a
+ * {@link RuntimeFilterBuildOperatorDescriptor} fills one while the build side is consumed, and
+ * {@link RuntimeFilterOperatorDescriptor} merges them all to drop probe tuples that cannot find a match before they
+ * are shipped to the join.
+ * The build and the probe side must hash their keys with hash function families that agree on equal keys, which is
+ * already required for the partitioning done by the join itself. The hash values must also spread over the whole int
+ * range: a family meant only to pick a partition, such as UTF8StringBinaryHashFunctionFamily whose values stay below a
+ * small prime, maps most keys to the same few bits and lets most probe tuples through.
+ */
+public class JoinRuntimeFilter {
+    // Seed 0 is used to partition the join inputs; a different seed keeps the filter bits independent of it.
+    public static final int HASH_SEED = 1;
+    private static final int NUM_HASHES = 3;
+    // Above this ratio of set bits the false positive rate (ratio^3) makes the filter not worth applying.
+    private static final double MAX_FILL_RATIO = 0.5;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final long[] bits;
+    private final int numBits;
+
+    /**
+     * @param sizeInBytes
+     *            the size of the bit array, rounded up to a multiple of 8 bytes and capped at 256MB
+     */
+    public JoinRuntimeFilter(int sizeInBytes) {
+        long numWords = ((long) sizeInBytes + Long.BYTES - 1) / Long.BYTES;
+        bits = new long[(int) Math.max(1, Math.min(numWords, Integer.MAX_VALUE / Long.SIZE))];
+        numBits = bits.length * Long.SIZE;
+    }
+
+    public int getSizeInBytes() {
+        return bits.length * Long.BYTES;
+    }
+
+    public void insert(int hash) {
+        long mixed = (hash & 0xFFFFFFFFL) * GOLDEN_RATIO;
+        int h1 = (int) (mixed >>> Integer.SIZE);
+        int h2 = (int) mixed | 1;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(int hash) {
+        long mixed = (hash & 0xFFFFFFFFL) * GOLDEN_RATIO;
+        int h1 = (int) (mixed >>> Integer.SIZE);
+        int h2 = (int) mixed | 1;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the keys of a filter of the same size written by {@link #write(DataOutput)}
+     *
+     * @param bytes
+     *            the array holding the written filter
+     * @param offset
+     *            the offset of the written filter
+     * @param length
+     *            the length of the written filter
+     * @throws HyracksDataException
+     *             if the written filter does not have the size of this one
+     */
+    public void union(byte[] bytes, int offset, int length) throws HyracksDataException {
+        if (length != getSizeInBytes()) {
+            throw new HyracksDataException(
+                    "Runtime filter of " + length + " bytes can not be merged into one of " + getSizeInBytes());
+        }
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= LongPointable.getLong(bytes, offset + i * Long.BYTES);
+        }
+    }
+
+    public void write(DataOutput out) throws IOException {
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * @return true if so many bits are set that the filter would let most non-matching keys through
+     */
+    public boolean isSaturated() {
+        long setBits = 0;
+        for (long word : bits) {
+            setBits += Long.bitCount(word);
+        }
+        return setBits > MAX_FILL_RATIO * numBits;
+    }
+
+    public static IBinaryHashFunction[] createHashFunctions(IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        IBinaryHashFunction[] hashFunctions = new IBinaryHashFunction[hashFunctionFamilies.length];
+        for (int i = 0; i < hashFunctionFamilies.length; i++) {
+            hashFunctions[i] = hashFunctionFamilies[i].createBinaryHashFunction(HASH_SEED);
+        }
+        return hashFunctions;
+    }
+
+    public static int hash(IBinaryHashFunction[] hashFunctions, int[] keyFields, IFrameTupleAccessor accessor,
+            int tIndex) throws HyracksDataException {
+        int h = 0;
+        int startOffset = accessor.getTupleStartOffset(tIndex) + accessor.getFieldSlotsLength();
+        for (int i = 0; i < keyFields.length; i++) {
+            int fStart = accessor.getFieldStartOffset(tIndex, keyFields[i]);
+            int fEnd = accessor.getFieldEndOffset(tIndex, keyFields[i]);
+            h = 31 * h + hashFunctions[i].hash(accessor.getBuffer().array(), startOffset + fStart, fEnd - fStart);
+        }
+        return h;
+    }
+}
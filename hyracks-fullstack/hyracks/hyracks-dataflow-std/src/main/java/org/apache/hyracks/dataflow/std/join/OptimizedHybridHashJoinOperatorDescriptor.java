@@ -61,6 +61,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferM
 import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.LinearProbingHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -99,9 +100,10 @@ import org.apache.logging.log4j.Logger;
  *         Once scanning of S is done, we try to join partition pairs (Ri, Si) of the spilled partitions:
  *         if any of Ri or Si is smaller than M, then we simply use an in-memory hash join to join them
  *         otherwise we apply HHJ recursively:
- *         if after applying HHJ recursively, we do not gain enough size reduction (max size of the
- *         resulting partitions were more than 80% of the initial Ri,Si size) then we switch to
- *         nested loop join for joining.
+ *         every resulting partition pair that did not gain enough size reduction (its size is more than
+ *         80% of the initial Ri,Si size) is skewed by heavy-hitter keys that rehashing can not split, so it is
+ *         joined with an in-memory hash join if one of its sides fits in M and with a nested loop join otherwise,
+ *         while the other resulting pairs keep being joined the same way as (Ri, Si).
  *         (At each step of partition-pair joining, we consider role reversal, which means if size of Si were
  *         greater than Ri, then we make sure that we switch the roles of build/probe between them)
  */
@@ -444,7 +446,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             }
                             int bSize = state.hybridHJ.getBuildPartitionSizeInTup(pid);
                             int pSize = state.hybridHJ.getProbePartitionSizeInTup(pid);
-                            joinPartitionPair(bReader, pReader, bSize, pSize, 1);
+                            joinPartitionPair(bReader, pReader, bSize, pSize, 1, true);
                         }
                     } catch (Exception e) {
                         // Since writer.nextFrame() is called in the above "try" body, we have to call writer.fail()
@@ -471,8 +473,10 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                 }
 
                 //The buildSideReader should be always the original buildSideReader, so should the probeSideReader
+                //canRecurse is false for a skewed pair, which falls back to a nested loop join if it does not fit
                 private void joinPartitionPair(RunFileReader buildSideReader, RunFileReader probeSideReader,
-                        int buildSizeInTuple, int probeSizeInTuple, int level) throws HyracksDataException {
+                        int buildSizeInTuple, int probeSizeInTuple, int level, boolean canRecurse)
+                        throws HyracksDataException {
                     ITuplePartitionComputer probeHpc =
                             new FieldHashPartitionComputerFamily(probeKeys, propHashFunctionFactories)
                                     .createPartitioner(level);
@@ -489,7 +493,7 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                         LOGGER.debug("\n>>>Joining Partition Pairs (thread_id " + Thread.currentThread().getId()
                                 + ") (pid " + ") - (level " + level + ")" + " - BuildSize:\t" + buildPartSize
                                 + "\tProbeSize:\t" + probePartSize + " - MemForJoin " + (state.memForJoin)
-                                + "  - LeftOuter is " + isLeftOuter);
+                                + "  - LeftOuter is " + isLeftOuter + " - CanRecurse is " + canRecurse);
                     }
 
                     // Calculate the expected hash table size for the both side.
@@ -533,6 +537,23 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                                     probeSideReader, buildSideReader, buildComp); // checked-confirmed
                         }
                     }
+                    //Apply NLJ on a skewed pair
+                    else if (!canRecurse) {
+                        // NLJ order is outer + inner, the order is reversed from the other joins
+                        if (isLeftOuter || probeSizeInTuple < buildSizeInTuple) {
+                            if (LOGGER.isDebugEnabled()) {
+                                LOGGER.debug("\t>>>Case 3.1 - Skewed pair, NLJ WITH (isLeftOuter || probe<build)"
+                                        + " - [Level " + level + "]");
+                            }
+                            applyNestedLoopJoin(probeRd, buildRd, memSizeInFrames, probeSideReader, buildSideReader);
+                        } else {
+                            if (LOGGER.isDebugEnabled()) {
+                                LOGGER.debug(
+                                        "\t>>>Case 3.2 - Skewed pair, NLJ WITH RoleReversal - [Level " + level + "]");
+                            }
+                            applyNestedLoopJoin(buildRd, probeRd, memSizeInFrames, buildSideReader, probeSideReader);
+                        }
+                    }
                     //Apply (Recursive) HHJ
                     else {
                         if (LOGGER.isDebugEnabled()) {
@@ -612,77 +633,36 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     }
 
                     try {
-                        int maxAfterBuildSize = rHHj.getMaxBuildPartitionSize();
-                        int maxAfterProbeSize = rHHj.getMaxProbePartitionSize();
-                        int afterMax = Math.max(maxAfterBuildSize, maxAfterProbeSize);
-
                         BitSet rPStatus = rHHj.getPartitionStatus();
-                        if (!forceNLJ && (afterMax < (NLJ_SWITCH_THRESHOLD * beforeMax))) {
-                            //Case 2.1.1 - Keep applying HHJ
-                            if (LOGGER.isDebugEnabled()) {
-                                LOGGER.debug("\t\t>>>Case 2.1.1 - KEEP APPLYING RecursiveHHJ WITH "
-                                        + "(isLeftOuter || build<probe) - [Level " + level + "]");
-                            }
-                            for (int rPid = rPStatus.nextSetBit(0); rPid >= 0; rPid = rPStatus.nextSetBit(rPid + 1)) {
-                                RunFileReader rbrfw = rHHj.getBuildRFReader(rPid);
-                                RunFileReader rprfw = rHHj.getProbeRFReader(rPid);
-                                int rbSizeInTuple = rHHj.getBuildPartitionSizeInTup(rPid);
-                                int rpSizeInTuple = rHHj.getProbePartitionSizeInTup(rPid);
-
-                                if (rbrfw == null || rprfw == null) {
-                                    if (isLeftOuter && rprfw != null) {
-                                        // For the outer join, we don't reverse the role.
-                                        appendNullToProbeTuples(rprfw);
-                                    }
-                                    if (rbrfw != null) {
-                                        rbrfw.close();
-                                    }
-                                    if (rprfw != null) {
-                                        rprfw.close();
-                                    }
-                                    continue;
+                        for (int rPid = rPStatus.nextSetBit(0); rPid >= 0; rPid = rPStatus.nextSetBit(rPid + 1)) {
+                            RunFileReader rbrfw = rHHj.getBuildRFReader(rPid);
+                            RunFileReader rprfw = rHHj.getProbeRFReader(rPid);
+                            int rbSizeInTuple = rHHj.getBuildPartitionSizeInTup(rPid);
+                            int rpSizeInTuple = rHHj.getProbePartitionSizeInTup(rPid);
+
+                            if (rbrfw == null || rprfw == null) {
+                                if (isLeftOuter && rprfw != null) {
+                                    // For the outer join, we don't reverse the role.
+                                    appendNullToProbeTuples(rprfw);
                                 }
-
-                                if (isReversed) {
-                                    joinPartitionPair(rprfw, rbrfw, rpSizeInTuple, rbSizeInTuple, level + 1);
-                                } else {
-                                    joinPartitionPair(rbrfw, rprfw, rbSizeInTuple, rpSizeInTuple, level + 1);
+                                if (rbrfw != null) {
+                                    rbrfw.close();
                                 }
-                            }
-
-                        } else { //Case 2.1.2 - Switch to NLJ
-                            if (LOGGER.isDebugEnabled()) {
-                                LOGGER.debug("\t\t>>>Case 2.1.2 - SWITCHED to NLJ RecursiveHHJ WITH "
-                                        + "(isLeftOuter || build<probe) - [Level " + level + "]");
-                            }
-                            for (int rPid = rPStatus.nextSetBit(0); rPid >= 0; rPid = rPStatus.nextSetBit(rPid + 1)) {
-                                RunFileReader rbrfw = rHHj.getBuildRFReader(rPid);
-                                RunFileReader rprfw = rHHj.getProbeRFReader(rPid);
-
-                                if (rbrfw == null || rprfw == null) {
-                                    if (isLeftOuter && rprfw != null) {
-                                        // For the outer join, we don't reverse the role.
-                                        appendNullToProbeTuples(rprfw);
-                                    }
-                                    if (rbrfw != null) {
-                                        rbrfw.close();
-                                    }
-                                    if (rprfw != null) {
-                                        rprfw.close();
-                                    }
-                                    continue;
+                                if (rprfw != null) {
+                                    rprfw.close();
                                 }
+                                continue;
+                            }
 
-                                int buildSideInTups = rHHj.getBuildPartitionSizeInTup(rPid);
-                                int probeSideInTups = rHHj.getProbePartitionSizeInTup(rPid);
-                                // NLJ order is outer + inner, the order is reversed from the other joins
-                                if (isLeftOuter || probeSideInTups < buildSideInTups) {
-                                    //checked-modified
-                                    applyNestedLoopJoin(probeRd, buildRd, memSizeInFrames, rprfw, rbrfw);
-                                } else {
-                                    //checked-modified
-                                    applyNestedLoopJoin(buildRd, probeRd, memSizeInFrames, rbrfw, rprfw);
-                                }
+                            // A pair that did not shrink enough is dominated by a few heavy-hitter keys that no hash
+                            // function can split, so recursing on it again would only spill the same tuples again.
+                            // Its siblings are unaffected and keep being joined by hashing.
+                            boolean isSkewed = forceNLJ
+                                    || Math.max(rbSizeInTuple, rpSizeInTuple) >= NLJ_SWITCH_THRESHOLD * beforeMax;
+                            if (isReversed) {
+                                joinPartitionPair(rprfw, rbrfw, rpSizeInTuple, rbSizeInTuple, level + 1, !isSkewed);
+                            } else {
+                                joinPartitionPair(rbrfw, rprfw, rbSizeInTuple, rpSizeInTuple, level + 1, !isSkewed);
                             }
                         }
                     } catch (Exception e) {
@@ -728,7 +708,8 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                             new DeallocatableFramePool(jobletCtx, state.memForJoin * jobletCtx.getInitialFrameSize());
                     ISimpleFrameBufferManager bufferManager = new FramePoolBackedFrameBufferManager(framePool);
 
-                    ISerializableTable table = new SerializableHashTable(tabSize, jobletCtx, bufferManager);
+                    ISerializableTable table = new LinearProbingHashTable(LinearProbingHashTable.HASH_CODE_TABLE_SIZE,
+                            tabSize, jobletCtx, bufferManager);
                     InMemoryHashJoin joiner = new InMemoryHashJoin(jobletCtx, new FrameTupleAccessor(probeRDesc),
                             hpcRepProbe, new FrameTupleAccessor(buildRDesc), buildRDesc, hpcRepBuild, isLeftOuter,
                             nonMatchWriter, table, predEvaluator, isReversed, bufferManager);
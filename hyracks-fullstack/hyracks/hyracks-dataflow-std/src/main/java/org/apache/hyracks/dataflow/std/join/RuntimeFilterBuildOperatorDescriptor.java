@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.common.data.marshalling.ByteArraySerializerDeserializer;
+import org.apache.hyracks.dataflow.std.base.AbstractSingleActivityOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputOperatorNodePushable;
+import org.apache.hyracks.util.encoding.VarLenIntEncoderDecoder;
+
+/**
+ * Passes the build side of a hash join through to the join on its first output and fills a {@link JoinRuntimeFilter}
+ * over the build keys on the way. Once its input is done, each partition writes its filter as a single tuple to its
+ * second output, which is meant to be broadcast to every partition of a {@link RuntimeFilterOperatorDescriptor} on
+ * the probe side. The filter tuple has a single binary field holding the bits of the filter, see {@link #FILTER_DESC}.
+ */
+public class RuntimeFilterBuildOperatorDescriptor extends AbstractSingleActivityOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    public static final RecordDescriptor FILTER_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { ByteArraySerializerDeserializer.INSTANCE });
+
+    private final int[] keyFields;
+    private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+    private final int filterSize;
+
+    /**
+     * @param rDesc
+     *            the record descriptor of the build side
+     * @param keyFields
+     *            the build keys of the join
+     * @param hashFunctionFamilies
+     *            the build hash function families of the join
+     * @param filterSize
+     *            the size in bytes of the filter of each partition, which must be the same for all of them
+     */
+    public RuntimeFilterBuildOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor rDesc,
+            int[] keyFields, IBinaryHashFunctionFamily[] hashFunctionFamilies, int filterSize) {
+        super(spec, 1, 2);
+        outRecDescs[0] = rDesc;
+        outRecDescs[1] = FILTER_DESC;
+        this.keyFields = keyFields;
+        this.hashFunctionFamilies = hashFunctionFamilies;
+        this.filterSize = filterSize;
+    }
+
+    @Override
+    public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+            IRecordDescriptorProvider recordDescProvider, int partition, int nPartitions) throws HyracksDataException {
+        return new AbstractUnaryInputOperatorNodePushable() {
+            private final FrameTupleAccessor accessor = new FrameTupleAccessor(outRecDescs[0]);
+            private final IBinaryHashFunction[] hashFunctions =
+                    JoinRuntimeFilter.createHashFunctions(hashFunctionFamilies);
+            private final IFrameWriter[] writers = new IFrameWriter[2];
+            private JoinRuntimeFilter filter;
+            private boolean failed;
+
+            @Override
+            public void open() throws HyracksDataException {
+                filter = new JoinRuntimeFilter(filterSize);
+                writers[0].open();
+                writers[1].open();
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                accessor.reset(buffer);
+                for (int i = 0, n = accessor.getTupleCount(); i < n; i++) {
+                    filter.insert(JoinRuntimeFilter.hash(hashFunctions, keyFields, accessor, i));
+                }
+                FrameUtils.flushFrame(buffer, writers[0]);
+            }
+
+            @Override
+            public void fail() throws HyracksDataException {
+                failed = true;
+                try {
+                    writers[0].fail();
+                } finally {
+                    writers[1].fail();
+                }
+            }
+
+            @Override
+            public void close() throws HyracksDataException {
+                try {
+                    if (!failed) {
+                        writeFilter();
+                    }
+                } catch (Exception e) {
+                    fail();
+                    throw e;
+                } finally {
+                    filter = null;
+                    try {
+                        writers[0].close();
+                    } finally {
+                        writers[1].close();
+                    }
+                }
+            }
+
+            private void writeFilter() throws HyracksDataException {
+                ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+                byte[] meta = new byte[VarLenIntEncoderDecoder.getBytesRequired(filter.getSizeInBytes())];
+                VarLenIntEncoderDecoder.encode(filter.getSizeInBytes(), meta, 0);
+                try {
+                    tb.getDataOutput().write(meta);
+                    filter.write(tb.getDataOutput());
+                } catch (IOException e) {
+                    throw HyracksDataException.create(e);
+                }
+                tb.addFieldEndOffset();
+                FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx));
+                FrameUtils.appendToWriter(writers[1], appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0,
+                        tb.getSize());
+                appender.write(writers[1], true);
+            }
+
+            @Override
+            public void flush() throws HyracksDataException {
+                writers[0].flush();
+            }
+
+            @Override
+            public void setOutputFrameWriter(int index, IFrameWriter writer, RecordDescriptor recordDesc) {
+                writers[index] = writer;
+            }
+        };
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
+import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Drops the probe-side tuples of a hash join whose keys are not in the build side of the join. The filters of all
+ * partitions of a {@link RuntimeFilterBuildOperatorDescriptor} on the build side are broadcast to the second input of
+ * this operator, and every partition merges them into one filter over all build keys. The probe side on the first
+ * input is only consumed once that merge is done, so the operator can sit anywhere on the probe side below the
+ * exchange that partitions it for the join, ideally right above the scan so that filtered tuples are neither shipped
+ * nor probed. A merged filter with too many bits set is not applied and every tuple is passed through.
+ * The join must not be a left outer join, which has to keep every probe tuple.
+ */
+public class RuntimeFilterOperatorDescriptor extends AbstractOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int MERGE_ACTIVITY_ID = 0;
+    private static final int FILTER_ACTIVITY_ID = 1;
+
+    private final int[] keyFields;
+    private final IBinaryHashFunctionFamily[] hashFunctionFamilies;
+
+    /**
+     * @param rDesc
+     *            the record descriptor of the probe side
+     * @param keyFields
+     *            the probe keys of the join
+     * @param hashFunctionFamilies
+     *            the probe hash function families of the join
+     */
+    public RuntimeFilterOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor rDesc, int[] keyFields,
+            IBinaryHashFunctionFamily[] hashFunctionFamilies) {
+        super(spec, 2, 1);
+        outRecDescs[0] = rDesc;
+        this.keyFields = keyFields;
+        this.hashFunctionFamilies = hashFunctionFamilies;
+    }
+
+    @Override
+    public void contributeActivities(IActivityGraphBuilder builder) {
+        ActivityId mergeAid = new ActivityId(odId, MERGE_ACTIVITY_ID);
+        ActivityId filterAid = new ActivityId(odId, FILTER_ACTIVITY_ID);
+        MergeActivityNode merge = new MergeActivityNode(mergeAid);
+        FilterActivityNode filter = new FilterActivityNode(filterAid, mergeAid);
+
+        builder.addActivity(this, merge);
+        builder.addSourceEdge(1, merge, 0);
+
+        builder.addActivity(this, filter);
+        builder.addSourceEdge(0, filter, 0);
+
+        builder.addBlockingEdge(merge, filter);
+
+        builder.addTargetEdge(0, filter, 0);
+    }
+
+    public static class MergedFilterTaskState extends AbstractStateObject {
+        private JoinRuntimeFilter filter;
+
+        public MergedFilterTaskState() {
+        }
+
+        private MergedFilterTaskState(JobId jobId, TaskId taskId) {
+            super(jobId, taskId);
+        }
+
+        @Override
+        public void toBytes(DataOutput out) throws IOException {
+
+        }
+
+        @Override
+        public void fromBytes(DataInput in) throws IOException {
+
+        }
+    }
+
+    /**
+     * ORs the filters received from every build partition into the filter of this partition
+     */
+    private class MergeActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public MergeActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            final FrameTupleAccessor accessor =
+                    new FrameTupleAccessor(recordDescProvider.getInputRecordDescriptor(getActivityId(), 0));
+            return new AbstractUnaryInputSinkOperatorNodePushable() {
+                private MergedFilterTaskState state;
+                private int numFilters;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    state = new MergedFilterTaskState(ctx.getJobletContext().getJobId(),
+                            new TaskId(getActivityId(), partition));
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    accessor.reset(buffer);
+                    byte[] bytes = buffer.array();
+                    for (int i = 0, n = accessor.getTupleCount(); i < n; i++) {
+                        int start = accessor.getAbsoluteFieldStartOffset(i, 0);
+                        int length = ByteArrayPointable.getContentLength(bytes, start);
+                        if (state.filter == null) {
+                            state.filter = new JoinRuntimeFilter(length);
+                        }
+                        state.filter.union(bytes, start + ByteArrayPointable.getNumberBytesToStoreMeta(length), length);
+                        numFilters++;
+                    }
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    // a partial filter would drop probe tuples that have a match
+                    if (state != null) {
+                        state.filter = null;
+                    }
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    if (state.filter != null && state.filter.isSaturated()) {
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Runtime filter merged from " + numFilters + " build partitions is saturated"
+                                    + " and will not be applied");
+                        }
+                        state.filter = null;
+                    }
+                    ctx.setStateObject(state);
+                }
+            };
+        }
+    }
+
+    /**
+     * Passes the probe tuples that might find a match through to the join
+     */
+    private class FilterActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        private final ActivityId mergeAid;
+
+        public FilterActivityNode(ActivityId id, ActivityId mergeAid) {
+            super(id);
+            this.mergeAid = mergeAid;
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+                private final FrameTupleAccessor accessor = new FrameTupleAccessor(outRecDescs[0]);
+                private final IBinaryHashFunction[] hashFunctions =
+                        JoinRuntimeFilter.createHashFunctions(hashFunctionFamilies);
+                private FrameTupleAppender appender;
+                private JoinRuntimeFilter filter;
+                private long inputCount;
+                private long droppedCount;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    MergedFilterTaskState state =
+                            (MergedFilterTaskState) ctx.getStateObject(new TaskId(mergeAid, partition));
+                    filter = state.filter;
+                    if (filter != null) {
+                        appender = new FrameTupleAppender(new VSizeFrame(ctx));
+                    }
+                    writer.open();
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    if (filter == null) {
+                        writer.nextFrame(buffer);
+                        return;
+                    }
+                    accessor.reset(buffer);
+                    int tupleCount = accessor.getTupleCount();
+                    inputCount += tupleCount;
+                    int firstDropped = 0;
+                    while (firstDropped < tupleCount && mightMatch(firstDropped)) {
+                        firstDropped++;
+                    }
+                    if (firstDropped == tupleCount) {
+                        FrameUtils.flushFrame(buffer, writer);
+                        return;
+                    }
+                    for (int i = 0; i < firstDropped; i++) {
+                        FrameUtils.appendToWriter(writer, appender, accessor, i);
+                    }
+                    droppedCount++;
+                    for (int i = firstDropped + 1; i < tupleCount; i++) {
+                        if (mightMatch(i)) {
+                            FrameUtils.appendToWriter(writer, appender, accessor, i);
+                        } else {
+                            droppedCount++;
+                        }
+                    }
+                }
+
+                private boolean mightMatch(int tIndex) throws HyracksDataException {
+                    return filter.mightContain(JoinRuntimeFilter.hash(hashFunctions, keyFields, accessor, tIndex));
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    writer.fail();
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    try {
+                        if (appender != null) {
+                            appender.write(writer, true);
+                        }
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Runtime filter " + getOperatorId() + " dropped " + droppedCount + " of "
+                                    + inputCount + " tuples");
+                        }
+                    } finally {
+                        writer.close();
+                    }
+                }
+
+                @Override
+                public void flush() throws HyracksDataException {
+                    if (appender != null) {
+                        appender.flush(writer);
+                    } else {
+                        writer.flush();
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.io.DataOutput;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksJobletContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IMissingWriter;
+import org.apache.hyracks.api.dataflow.value.IPredicateEvaluator;
+import org.apache.hyracks.api.dataflow.value.ITuplePairComparator;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
+
+/**
+ * Merge join of a left input and a cached right input that are both sorted in ascending order on the join keys.
+ * The right input is kept in memory as long as it fits into the budget and is spilled to a run file otherwise, keeping
+ * the frames from the current group onwards pinned as far as the budget allows; in both cases its frames are addressed
+ * by index so that the merge can return to the start of the current group of equal right keys for every left tuple of
+ * that group. Left tuples are joined in their arrival order, hence the output keeps the order of the left input.
+ */
+public class SortMergeJoin {
+    private final IHyracksJobletContext jobletCtx;
+    private final FrameTupleAccessor accessorLeft;
+    private final FrameTupleAccessor accessorRight;
+    private final FrameTupleAccessor accessorGroupKey;
+    private final FrameTuplePairComparator keyComparator;
+    private ITuplePairComparator tpComparator;
+    private final IPredicateEvaluator predEvaluator;
+    private final boolean isLeftOuter;
+    private final ArrayTupleBuilder missingTupleBuilder;
+    private final FrameTupleAppender appender;
+    private final IFrame outBuffer;
+    private final FrameTupleAppender groupKeyAppender;
+    private final IFrame groupKeyBuffer;
+
+    // the cached right input
+    private final IndexedFrameCache rightCache;
+    private final IndexedFrameCache.Reader cursorReader;
+    private final IndexedFrameCache.Reader groupReader;
+    private int numRightFrames;
+
+    // the merge position in the right input: the next right tuple to look at and the current group of equal keys
+    private int cursorFrame;
+    private int cursorTuple;
+    private boolean hasGroup;
+    private int groupStartFrame;
+    private int groupStartTuple;
+    private int groupEndFrame;
+    private int groupEndTuple;
+
+    public SortMergeJoin(IHyracksJobletContext jobletCtx, RecordDescriptor leftRd, RecordDescriptor rightRd,
+            int[] leftKeys, int[] rightKeys, IBinaryComparator[] comparators, int memSizeInFrames,
+            IPredicateEvaluator predEval, boolean isLeftOuter, IMissingWriter[] missingWriters)
+            throws HyracksDataException {
+        if (memSizeInFrames < 3) {
+            throw new HyracksDataException("Not enough memory is available for Sort Merge Join");
+        }
+        this.jobletCtx = jobletCtx;
+        this.accessorLeft = new FrameTupleAccessor(leftRd);
+        this.accessorRight = new FrameTupleAccessor(rightRd);
+        this.accessorGroupKey = new FrameTupleAccessor(rightRd);
+        this.keyComparator = new FrameTuplePairComparator(leftKeys, rightKeys, comparators);
+        this.predEvaluator = predEval;
+        this.appender = new FrameTupleAppender();
+        this.outBuffer = new VSizeFrame(jobletCtx);
+        this.appender.reset(outBuffer, true);
+        this.groupKeyAppender = new FrameTupleAppender();
+        this.groupKeyBuffer = new VSizeFrame(jobletCtx);
+        // one frame is reserved for the output and one for the copy of the current group key
+        this.rightCache = new IndexedFrameCache(jobletCtx, this.getClass().getSimpleName(),
+                jobletCtx.getInitialFrameSize() * (memSizeInFrames - 2));
+        // separate readers, so that the merge cursor and the group scan do not evict each other's frame
+        this.cursorReader = rightCache.createReader();
+        this.groupReader = rightCache.createReader();
+
+        this.isLeftOuter = isLeftOuter;
+        if (isLeftOuter) {
+            int rightFieldCount = accessorRight.getFieldCount();
+            missingTupleBuilder = new ArrayTupleBuilder(rightFieldCount);
+            DataOutput out = missingTupleBuilder.getDataOutput();
+            for (int i = 0; i < rightFieldCount; i++) {
+                missingWriters[i].writeMissing(out);
+                missingTupleBuilder.addFieldEndOffset();
+            }
+        } else {
+            missingTupleBuilder = null;
+        }
+    }
+
+    /**
+     * Adds the next frame of the right input. The frame is copied, so the caller keeps ownership of the buffer.
+     *
+     * @param buffer the next right frame, in sort order
+     */
+    public void cache(ByteBuffer buffer) throws HyracksDataException {
+        rightCache.cache(buffer);
+    }
+
+    /**
+     * Must be called once the whole right input has been cached and before starting to join.
+     */
+    public void closeCache() throws HyracksDataException {
+        rightCache.close();
+        numRightFrames = rightCache.getFrameCount();
+        cursorFrame = 0;
+        cursorTuple = 0;
+        hasGroup = false;
+        skipEmptyFrames();
+    }
+
+    /**
+     * Must be called before starting to join to set the right comparator with the right context.
+     *
+     * @param comparator the comparator that decides whether a left and a right tuple join
+     */
+    void setComparator(ITuplePairComparator comparator) {
+        tpComparator = comparator;
+    }
+
+    public void join(ByteBuffer leftBuffer, IFrameWriter writer) throws HyracksDataException {
+        accessorLeft.reset(leftBuffer);
+        int tupleCount = accessorLeft.getTupleCount();
+        for (int i = 0; i < tupleCount; i++) {
+            if (!seekGroup(i)) {
+                appendMissing(i, writer);
+                continue;
+            }
+            joinWithGroup(i, writer);
+        }
+    }
+
+    /**
+     * Positions the current group on the right tuples whose keys are equal to the keys of the given left tuple.
+     *
+     * @return true if such right tuples exist
+     */
+    private boolean seekGroup(int leftTupleIndex) throws HyracksDataException {
+        if (hasGroup) {
+            int c = keyComparator.compare(accessorLeft, leftTupleIndex, accessorGroupKey, 0);
+            if (c <= 0) {
+                // the left input is sorted, so a smaller key has no match at all
+                return c == 0;
+            }
+            hasGroup = false;
+        }
+        while (cursorFrame < numRightFrames) {
+            accessorRight.reset(cursorReader.read(cursorFrame));
+            int c = keyComparator.compare(accessorLeft, leftTupleIndex, accessorRight, cursorTuple);
+            if (c < 0) {
+                return false;
+            }
+            if (c == 0) {
+                break;
+            }
+            advanceCursor();
+        }
+        if (cursorFrame >= numRightFrames) {
+            return false;
+        }
+        groupStartFrame = cursorFrame;
+        groupStartTuple = cursorTuple;
+        // the left input is sorted, so no frame before the new group is read again
+        rightCache.unpinBefore(groupStartFrame);
+        groupKeyAppender.reset(groupKeyBuffer, true);
+        if (!groupKeyAppender.append(accessorRight, cursorTuple)) {
+            throw new HyracksDataException("The group key does not fit into a frame");
+        }
+        accessorGroupKey.reset(groupKeyBuffer.getBuffer());
+        advanceCursor();
+        while (cursorFrame < numRightFrames) {
+            accessorRight.reset(cursorReader.read(cursorFrame));
+            if (keyComparator.compare(accessorLeft, leftTupleIndex, accessorRight, cursorTuple) != 0) {
+                break;
+            }
+            advanceCursor();
+        }
+        groupEndFrame = cursorFrame;
+        groupEndTuple = cursorTuple;
+        hasGroup = true;
+        return true;
+    }
+
+    private void advanceCursor() throws HyracksDataException {
+        cursorTuple++;
+        if (cursorTuple >= accessorRight.getTupleCount()) {
+            cursorFrame++;
+            cursorTuple = 0;
+            skipEmptyFrames();
+        }
+    }
+
+    private void skipEmptyFrames() throws HyracksDataException {
+        while (cursorFrame < numRightFrames) {
+            accessorRight.reset(cursorReader.read(cursorFrame));
+            if (accessorRight.getTupleCount() > 0) {
+                return;
+            }
+            cursorFrame++;
+        }
+    }
+
+    private void joinWithGroup(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        boolean matchFound = false;
+        // the group ends before (groupEndFrame, groupEndTuple), which may be the first tuple of a frame or the end
+        int lastFrame = groupEndTuple == 0 ? groupEndFrame - 1 : groupEndFrame;
+        for (int f = groupStartFrame; f <= lastFrame; f++) {
+            accessorRight.reset(groupReader.read(f));
+            int start = f == groupStartFrame ? groupStartTuple : 0;
+            int end = f == groupEndFrame ? groupEndTuple : accessorRight.getTupleCount();
+            for (int j = start; j < end; j++) {
+                if (tpComparator.compare(accessorLeft, leftTupleIndex, accessorRight, j) == 0 && (predEvaluator == null
+                        || predEvaluator.evaluate(accessorLeft, leftTupleIndex, accessorRight, j))) {
+                    matchFound = true;
+                    FrameUtils.appendConcatToWriter(writer, appender, accessorLeft, leftTupleIndex, accessorRight, j);
+                }
+            }
+        }
+        if (!matchFound) {
+            appendMissing(leftTupleIndex, writer);
+        }
+    }
+
+    private void appendMissing(int leftTupleIndex, IFrameWriter writer) throws HyracksDataException {
+        if (isLeftOuter) {
+            final int[] ntFieldEndOffsets = missingTupleBuilder.getFieldEndOffsets();
+            final byte[] ntByteArray = missingTupleBuilder.getByteArray();
+            final int ntSize = missingTupleBuilder.getSize();
+            FrameUtils.appendConcatToWriter(writer, appender, accessorLeft, leftTupleIndex, ntFieldEndOffsets,
+                    ntByteArray, 0, ntSize);
+        }
+    }
+
+    public void completeJoin(IFrameWriter writer) throws HyracksDataException {
+        appender.write(writer, true);
+    }
+
+    /**
+     * Releases the cached right input, in memory or on disk. Can be called at any point and more than once.
+     */
+    public void releaseCache() throws HyracksDataException {
+        numRightFrames = 0;
+        rightCache.release();
+    }
+}
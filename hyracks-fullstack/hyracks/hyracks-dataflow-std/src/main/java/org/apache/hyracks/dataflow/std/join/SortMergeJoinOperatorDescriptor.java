@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksJobletContext;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IMissingWriter;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.IPredicateEvaluator;
+import org.apache.hyracks.api.dataflow.value.IPredicateEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.ITuplePairComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.dataflow.std.base.AbstractActivityNode;
+import org.apache.hyracks.dataflow.std.base.AbstractOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputSinkOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+
+/**
+ * Equi-join of two inputs that are already sorted in ascending order on their join keys, e.g. because both come
+ * from indexes on the keys or from an earlier sort. Unlike the hash joins it neither builds a hash table nor
+ * partitions and spills its inputs: the right input (input 1) is cached, in memory while it fits and in a run file
+ * otherwise, and the left input (input 0) is streamed through a merge against it. The output keeps the order of the
+ * left input.
+ * <p>
+ * The comparators given as {@code comparatorFactories} order a left key against a right key, field by field, in the
+ * order the inputs are sorted in. Whether two tuples with equal keys actually join is decided by the tuple pair
+ * comparator and the optional predicate evaluator, like in the other joins, so null and missing keys keep their
+ * join semantics.
+ */
+public class SortMergeJoinOperatorDescriptor extends AbstractOperatorDescriptor {
+    private static final int JOIN_CACHE_ACTIVITY_ID = 0;
+    private static final int SM_JOIN_ACTIVITY_ID = 1;
+
+    private static final long serialVersionUID = 1L;
+    private final int memSizeInFrames;
+    private final int[] keys0;
+    private final int[] keys1;
+    private final IBinaryComparatorFactory[] comparatorFactories;
+    private final ITuplePairComparatorFactory tuplePairComparatorFactory;
+    private final IPredicateEvaluatorFactory predEvaluatorFactory;
+    private final boolean isLeftOuter;
+    private final IMissingWriterFactory[] nonMatchWriterFactories;
+
+    public SortMergeJoinOperatorDescriptor(IOperatorDescriptorRegistry spec, int memSizeInFrames, int[] keys0,
+            int[] keys1, IBinaryComparatorFactory[] comparatorFactories,
+            ITuplePairComparatorFactory tuplePairComparatorFactory, RecordDescriptor recordDescriptor) {
+        this(spec, memSizeInFrames, keys0, keys1, comparatorFactories, tuplePairComparatorFactory, recordDescriptor,
+                null, false, null);
+    }
+
+    public SortMergeJoinOperatorDescriptor(IOperatorDescriptorRegistry spec, int memSizeInFrames, int[] keys0,
+            int[] keys1, IBinaryComparatorFactory[] comparatorFactories,
+            ITuplePairComparatorFactory tuplePairComparatorFactory, RecordDescriptor recordDescriptor,
+            IPredicateEvaluatorFactory predEvaluatorFactory, boolean isLeftOuter,
+            IMissingWriterFactory[] nonMatchWriterFactories) {
+        super(spec, 2, 1);
+        this.memSizeInFrames = memSizeInFrames;
+        this.keys0 = keys0;
+        this.keys1 = keys1;
+        this.comparatorFactories = comparatorFactories;
+        this.tuplePairComparatorFactory = tuplePairComparatorFactory;
+        this.outRecDescs[0] = recordDescriptor;
+        this.predEvaluatorFactory = predEvaluatorFactory;
+        this.isLeftOuter = isLeftOuter;
+        this.nonMatchWriterFactories = nonMatchWriterFactories;
+    }
+
+    @Override
+    public void contributeActivities(IActivityGraphBuilder builder) {
+        ActivityId jcaId = new ActivityId(getOperatorId(), JOIN_CACHE_ACTIVITY_ID);
+        ActivityId smjAid = new ActivityId(getOperatorId(), SM_JOIN_ACTIVITY_ID);
+        JoinCacheActivityNode jc = new JoinCacheActivityNode(jcaId, smjAid);
+        SortMergeJoinActivityNode smj = new SortMergeJoinActivityNode(smjAid);
+
+        builder.addActivity(this, jc);
+        builder.addSourceEdge(1, jc, 0);
+
+        builder.addActivity(this, smj);
+        builder.addSourceEdge(0, smj, 0);
+
+        builder.addTargetEdge(0, smj, 0);
+        builder.addBlockingEdge(jc, smj);
+    }
+
+    public static class JoinCacheTaskState extends AbstractStateObject {
+        private SortMergeJoin joiner;
+
+        private JoinCacheTaskState(JobId jobId, TaskId taskId) {
+            super(jobId, taskId);
+        }
+    }
+
+    private class JoinCacheActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        private final ActivityId smjAid;
+
+        public JoinCacheActivityNode(ActivityId id, ActivityId smjAid) {
+            super(id);
+            this.smjAid = smjAid;
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions)
+                throws HyracksDataException {
+            final IHyracksJobletContext jobletCtx = ctx.getJobletContext();
+            final RecordDescriptor rd0 = recordDescProvider.getInputRecordDescriptor(smjAid, 0);
+            final RecordDescriptor rd1 = recordDescProvider.getInputRecordDescriptor(getActivityId(), 0);
+            final IBinaryComparator[] comparators = new IBinaryComparator[comparatorFactories.length];
+            for (int i = 0; i < comparatorFactories.length; i++) {
+                comparators[i] = comparatorFactories[i].createBinaryComparator();
+            }
+            final IPredicateEvaluator predEvaluator =
+                    (predEvaluatorFactory != null) ? predEvaluatorFactory.createPredicateEvaluator() : null;
+
+            final IMissingWriter[] nonMatchWriters =
+                    isLeftOuter ? new IMissingWriter[nonMatchWriterFactories.length] : null;
+            if (isLeftOuter) {
+                for (int i = 0; i < nonMatchWriterFactories.length; i++) {
+                    nonMatchWriters[i] = nonMatchWriterFactories[i].createMissingWriter();
+                }
+            }
+
+            return new AbstractUnaryInputSinkOperatorNodePushable() {
+                private JoinCacheTaskState state;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    state = new JoinCacheTaskState(jobletCtx.getJobId(), new TaskId(getActivityId(), partition));
+                    state.joiner = new SortMergeJoin(jobletCtx, rd0, rd1, keys0, keys1, comparators, memSizeInFrames,
+                            predEvaluator, isLeftOuter, nonMatchWriters);
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    state.joiner.cache(buffer);
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    state.joiner.closeCache();
+                    ctx.setStateObject(state);
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    if (state != null && state.joiner != null) {
+                        state.joiner.releaseCache();
+                    }
+                }
+            };
+        }
+    }
+
+    private class SortMergeJoinActivityNode extends AbstractActivityNode {
+        private static final long serialVersionUID = 1L;
+
+        public SortMergeJoinActivityNode(ActivityId id) {
+            super(id);
+        }
+
+        @Override
+        public IOperatorNodePushable createPushRuntime(final IHyracksTaskContext ctx,
+                IRecordDescriptorProvider recordDescProvider, final int partition, int nPartitions) {
+            return new AbstractUnaryInputUnaryOutputOperatorNodePushable() {
+                private JoinCacheTaskState state;
+                boolean failed = false;
+
+                @Override
+                public void open() throws HyracksDataException {
+                    writer.open();
+                    state = (JoinCacheTaskState) ctx.getStateObject(
+                            new TaskId(new ActivityId(getOperatorId(), JOIN_CACHE_ACTIVITY_ID), partition));
+                    state.joiner.setComparator(tuplePairComparatorFactory.createTuplePairComparator(ctx));
+                }
+
+                @Override
+                public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+                    state.joiner.join(buffer, writer);
+                }
+
+                @Override
+                public void close() throws HyracksDataException {
+                    if (failed) {
+                        try {
+                            state.joiner.releaseCache();
+                        } finally {
+                            writer.close();
+                        }
+                        return;
+                    }
+                    try {
+                        try {
+                            state.joiner.completeJoin(writer);
+                        } finally {
+                            state.joiner.releaseCache();
+                        }
+                    } catch (Exception e) {
+                        writer.fail();
+                        throw e;
+                    } finally {
+                        writer.close();
+                    }
+                }
+
+                @Override
+                public void fail() throws HyracksDataException {
+                    failed = true;
+                    writer.fail();
+                }
+            };
+        }
+    }
+}
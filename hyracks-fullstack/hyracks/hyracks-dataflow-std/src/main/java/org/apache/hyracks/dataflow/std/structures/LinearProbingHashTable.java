@@ -0,0 +1,497 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
+import org.apache.hyracks.dataflow.std.structures.SimpleSerializableHashTable.IntSerDeBuffer;
+
+/**
+ * An open addressing hash table that keeps every distinct entry in its own slot of a single array spread over frames.
+ * A slot is [entry], [count], followed by the tuple pointer ([frameIndex], [tupleIndex]) when the entry has a single
+ * tuple, or by the first and last node ([head], [tail]) of a chain of tuple pointers when it has several. Chain nodes
+ * are [frameIndex], [tupleIndex], [next] and live in frames of their own, so the slot array stays small and a lookup
+ * walks at most the distinct entries of a cluster no matter how many tuples share an entry. Keys with many duplicates
+ * cost one slot and one chain node per tuple, and counting or deleting the tuples of an entry does not touch the
+ * other entries of its cluster.
+ * The stored entry doubles as a fingerprint: when the table is created with a table size of
+ * {@link #HASH_CODE_TABLE_SIZE}, entries are (almost) full hash codes, and callers only need to compare the tuples
+ * of a slot whose entry matches. Colliding keys of other entries are skipped without touching their tuples.
+ * Deletion shifts the following slots back and returns the chain nodes to a free list, so the table never needs
+ * garbage collection. The slot array grows by doubling once it is three quarters full, and an insertion is refused
+ * when the buffer manager cannot provide the frames for the slots or chain nodes it needs. Growing holds the frames of
+ * the old and the new slot array at once, so callers with a memory budget should presize the table with
+ * {@link #getExpectedTableFrameCount(long, int)}. Once the table is empty again, by {@link #reset()} or by deleting
+ * every entry, the chain frames and the slot frames beyond the presized ones go back to the buffer manager.
+ */
+public class LinearProbingHashTable implements ISerializableTable {
+
+    /**
+     * The table size to use when entries are computed from hash codes rather than from a number of buckets.
+     */
+    public static final int HASH_CODE_TABLE_SIZE = Integer.MAX_VALUE;
+
+    private static final int INT_SIZE = 4;
+    // entry, count, frameIndex or head, tupleIndex or tail
+    private static final int SLOT_SIZE = 4;
+    private static final int ENTRY = 0;
+    private static final int COUNT = 1;
+    private static final int FRAME_INDEX = 2;
+    private static final int TUPLE_INDEX = 3;
+    private static final int HEAD = 2;
+    private static final int TAIL = 3;
+    // frameIndex, tupleIndex, next
+    private static final int NODE_SIZE = 3;
+    private static final int NODE_FRAME_INDEX = 0;
+    private static final int NODE_TUPLE_INDEX = 1;
+    private static final int NEXT = 2;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int EMPTY = -1;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final ISimpleFrameBufferManager bufferManager;
+    private final int tableSize;
+    private final int frameSize;
+    private final int slotsPerFrame;
+    private final int nodesPerFrame;
+    private IntSerDeBuffer[] frames;
+    private IntSerDeBuffer[] nodeFrames;
+    private int capacity;
+    private int initialFrameCount;
+    private int entryCount;
+    private int tupleCount;
+    // The chain nodes ever handed out, and the first of the nodes that were freed since then
+    private int nodeCount;
+    private int freeNode = EMPTY;
+    // The last pointer returned by getTuplePointer() so that iterating over the pointers of an entry stays linear
+    private int lastEntry = EMPTY;
+    private int lastOffset;
+    private int lastNode;
+
+    public LinearProbingHashTable(int tableSize, IHyracksFrameMgrContext ctx, ISimpleFrameBufferManager bufferManager)
+            throws HyracksDataException {
+        this(tableSize, 0, ctx, bufferManager);
+    }
+
+    /**
+     * @param tableSize
+     *            the exclusive upper bound of the entries
+     * @param expectedTupleCount
+     *            the number of distinct entries to make room for up front
+     */
+    public LinearProbingHashTable(int tableSize, int expectedTupleCount, IHyracksFrameMgrContext ctx,
+            ISimpleFrameBufferManager bufferManager) throws HyracksDataException {
+        this.bufferManager = bufferManager;
+        this.tableSize = tableSize;
+        frameSize = ctx.getInitialFrameSize();
+        slotsPerFrame = frameSize / (SLOT_SIZE * INT_SIZE);
+        nodesPerFrame = frameSize / (NODE_SIZE * INT_SIZE);
+        frames = new IntSerDeBuffer[0];
+        nodeFrames = new IntSerDeBuffer[0];
+        if (tableSize > 0) {
+            IntSerDeBuffer[] newFrames = allocate((long) Math.ceil(expectedTupleCount / MAX_LOAD_FACTOR));
+            if (newFrames == null) {
+                throw new HyracksDataException("Can't allocate frames for Hash Table. Please allocate more budget.");
+            }
+            setFrames(newFrames);
+            initialFrameCount = newFrames.length;
+        }
+    }
+
+    /**
+     * @return the bytes of slot array an entry takes once the table is as full as it gets before growing
+     */
+    public static int getExpectedByteSizePerHashValue() {
+        return (int) Math.ceil(SLOT_SIZE * INT_SIZE / MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Calculates the frames of a table presized for the given number of distinct entries. The chain nodes of entries
+     * with several tuples are not included.
+     *
+     * @param entryCount
+     *            the number of distinct entries
+     * @param frameSize
+     *            the frame size
+     * @return the number of frames of the slot array
+     */
+    public static long getExpectedTableFrameCount(long entryCount, int frameSize) {
+        long slots = (long) Math.ceil(entryCount / MAX_LOAD_FACTOR);
+        long slotsPerFrame = frameSize / (SLOT_SIZE * INT_SIZE);
+        return Math.max(1, (slots + slotsPerFrame - 1) / slotsPerFrame);
+    }
+
+    public static long getExpectedTableByteSize(long entryCount, int frameSize) {
+        return getExpectedTableFrameCount(entryCount, frameSize) * frameSize;
+    }
+
+    /**
+     * @return the number of distinct entries a table of the given number of frames holds without growing
+     */
+    public static long getEntryCapacity(long frameCount, int frameSize) {
+        return (long) (frameCount * (frameSize / (SLOT_SIZE * INT_SIZE)) * MAX_LOAD_FACTOR);
+    }
+
+    @Override
+    public boolean insert(int entry, TuplePointer tuplePointer) throws HyracksDataException {
+        if (capacity > 0) {
+            int slot = findSlot(entry);
+            if (getSlotField(slot, ENTRY) == entry) {
+                return append(slot, tuplePointer);
+            }
+        }
+        if (entryCount + 1 > capacity * MAX_LOAD_FACTOR && !grow()) {
+            return false;
+        }
+        writeSlot(findSlot(entry), entry, 1, tuplePointer.getFrameIndex(), tuplePointer.getTupleIndex());
+        entryCount++;
+        tupleCount++;
+        lastEntry = EMPTY;
+        return true;
+    }
+
+    @Override
+    public void delete(int entry) {
+        if (capacity == 0) {
+            return;
+        }
+        int slot = findSlot(entry);
+        if (getSlotField(slot, ENTRY) != entry) {
+            return;
+        }
+        int count = getSlotField(slot, COUNT);
+        if (count > 1) {
+            // the whole chain goes to the free list at once
+            setNodeField(getSlotField(slot, TAIL), NEXT, freeNode);
+            freeNode = getSlotField(slot, HEAD);
+        }
+        removeSlot(slot);
+        entryCount--;
+        tupleCount -= count;
+        lastEntry = EMPTY;
+        if (entryCount == 0) {
+            shrink();
+        }
+    }
+
+    @Override
+    public boolean getTuplePointer(int entry, int offset, TuplePointer tuplePointer) {
+        if (entry == lastEntry && offset == lastOffset + 1) {
+            return setTuplePointer(entry, offset, getNodeField(lastNode, NEXT), tuplePointer);
+        }
+        int slot = capacity == 0 ? EMPTY : findSlot(entry);
+        if (slot == EMPTY || getSlotField(slot, ENTRY) != entry || offset >= getSlotField(slot, COUNT)) {
+            tuplePointer.reset(EMPTY, EMPTY);
+            return false;
+        }
+        if (getSlotField(slot, COUNT) == 1) {
+            tuplePointer.reset(getSlotField(slot, FRAME_INDEX), getSlotField(slot, TUPLE_INDEX));
+            lastEntry = EMPTY;
+            return true;
+        }
+        int node = getSlotField(slot, HEAD);
+        for (int i = 0; i < offset; i++) {
+            node = getNodeField(node, NEXT);
+        }
+        return setTuplePointer(entry, offset, node, tuplePointer);
+    }
+
+    @Override
+    public int getCurrentByteSize() {
+        return (frames.length + nodeFrames.length) * frameSize;
+    }
+
+    @Override
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    @Override
+    public int getTupleCount(int entry) {
+        if (capacity == 0) {
+            return 0;
+        }
+        int slot = findSlot(entry);
+        return getSlotField(slot, ENTRY) == entry ? getSlotField(slot, COUNT) : 0;
+    }
+
+    @Override
+    public void reset() {
+        for (IntSerDeBuffer frame : frames) {
+            frame.resetFrame();
+        }
+        entryCount = 0;
+        tupleCount = 0;
+        lastEntry = EMPTY;
+        shrink();
+    }
+
+    @Override
+    public void close() {
+        release(frames);
+        release(nodeFrames);
+        frames = new IntSerDeBuffer[0];
+        nodeFrames = new IntSerDeBuffer[0];
+        capacity = 0;
+        entryCount = 0;
+        tupleCount = 0;
+        nodeCount = 0;
+        freeNode = EMPTY;
+        lastEntry = EMPTY;
+    }
+
+    @Override
+    public boolean isGarbageCollectionNeeded() {
+        return false;
+    }
+
+    @Override
+    public int collectGarbage(ITuplePointerAccessor bufferAccessor, ITuplePartitionComputer tpc)
+            throws HyracksDataException {
+        return -1;
+    }
+
+    @Override
+    public String printInfo() {
+        return "LinearProbingHashTable: tuples " + tupleCount + ", entries " + entryCount + ", slots " + capacity
+                + ", frames " + frames.length + ", chain frames " + nodeFrames.length;
+    }
+
+    @Override
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Adds a tuple pointer to an entry that already has a slot. The first duplicate moves the pointer kept in the
+     * slot to the chain, so that the pointers are returned in insertion order.
+     */
+    private boolean append(int slot, TuplePointer tuplePointer) throws HyracksDataException {
+        int count = getSlotField(slot, COUNT);
+        int node = allocateNode();
+        if (node == EMPTY) {
+            return false;
+        }
+        if (count == 1) {
+            int head = allocateNode();
+            if (head == EMPTY) {
+                freeNode(node);
+                return false;
+            }
+            writeNode(head, getSlotField(slot, FRAME_INDEX), getSlotField(slot, TUPLE_INDEX), node);
+            setSlotField(slot, HEAD, head);
+        } else {
+            setNodeField(getSlotField(slot, TAIL), NEXT, node);
+        }
+        writeNode(node, tuplePointer.getFrameIndex(), tuplePointer.getTupleIndex(), EMPTY);
+        setSlotField(slot, TAIL, node);
+        setSlotField(slot, COUNT, count + 1);
+        tupleCount++;
+        lastEntry = EMPTY;
+        return true;
+    }
+
+    private boolean setTuplePointer(int entry, int offset, int node, TuplePointer tuplePointer) {
+        if (node == EMPTY) {
+            tuplePointer.reset(EMPTY, EMPTY);
+            lastEntry = EMPTY;
+            return false;
+        }
+        tuplePointer.reset(getNodeField(node, NODE_FRAME_INDEX), getNodeField(node, NODE_TUPLE_INDEX));
+        lastEntry = entry;
+        lastOffset = offset;
+        lastNode = node;
+        return true;
+    }
+
+    /**
+     * @return the slot of the given entry, or the empty slot at which the entry would be inserted
+     */
+    private int findSlot(int entry) {
+        int slot = getHomeSlot(entry);
+        int e;
+        while ((e = getSlotField(slot, ENTRY)) != EMPTY && e != entry) {
+            slot = nextSlot(slot);
+        }
+        return slot;
+    }
+
+    private boolean grow() throws HyracksDataException {
+        IntSerDeBuffer[] newFrames = allocate(Math.max(slotsPerFrame, 2L * capacity));
+        if (newFrames == null) {
+            return false;
+        }
+        IntSerDeBuffer[] oldFrames = frames;
+        int oldCapacity = capacity;
+        setFrames(newFrames);
+        for (int i = 0; i < oldCapacity; i++) {
+            IntSerDeBuffer frame = oldFrames[i / slotsPerFrame];
+            int pos = (i % slotsPerFrame) * SLOT_SIZE;
+            int entry = frame.getInt(pos + ENTRY);
+            if (entry != EMPTY) {
+                // entries are distinct, so the first empty slot is the one
+                writeSlot(findSlot(entry), entry, frame.getInt(pos + COUNT), frame.getInt(pos + FRAME_INDEX),
+                        frame.getInt(pos + TUPLE_INDEX));
+            }
+        }
+        release(oldFrames);
+        lastEntry = EMPTY;
+        return true;
+    }
+
+    /**
+     * Returns the chain frames and the slot frames beyond the presized ones of an empty table to the buffer manager
+     */
+    private void shrink() {
+        release(nodeFrames);
+        nodeFrames = new IntSerDeBuffer[0];
+        nodeCount = 0;
+        freeNode = EMPTY;
+        if (frames.length > initialFrameCount) {
+            release(Arrays.copyOfRange(frames, initialFrameCount, frames.length));
+            setFrames(Arrays.copyOf(frames, initialFrameCount));
+        }
+    }
+
+    private IntSerDeBuffer[] allocate(long slots) throws HyracksDataException {
+        long frameCount = Math.max(1, (slots + slotsPerFrame - 1) / slotsPerFrame);
+        if (frameCount * slotsPerFrame > Integer.MAX_VALUE) {
+            return null;
+        }
+        IntSerDeBuffer[] newFrames = new IntSerDeBuffer[(int) frameCount];
+        for (int i = 0; i < newFrames.length; i++) {
+            ByteBuffer buffer = bufferManager.acquireFrame(frameSize);
+            if (buffer == null) {
+                for (int j = 0; j < i; j++) {
+                    bufferManager.releaseFrame(newFrames[j].getByteBuffer());
+                }
+                return null;
+            }
+            newFrames[i] = new IntSerDeBuffer(buffer);
+        }
+        return newFrames;
+    }
+
+    private void setFrames(IntSerDeBuffer[] newFrames) {
+        frames = newFrames;
+        capacity = newFrames.length * slotsPerFrame;
+    }
+
+    private void release(IntSerDeBuffer[] oldFrames) {
+        for (IntSerDeBuffer frame : oldFrames) {
+            bufferManager.releaseFrame(frame.getByteBuffer());
+        }
+    }
+
+    /**
+     * @return a free chain node, or {@link #EMPTY} if a new chain frame is needed and cannot be acquired
+     */
+    private int allocateNode() throws HyracksDataException {
+        if (freeNode != EMPTY) {
+            int node = freeNode;
+            freeNode = getNodeField(node, NEXT);
+            return node;
+        }
+        if (nodeCount == nodeFrames.length * nodesPerFrame) {
+            if ((long) nodeCount + nodesPerFrame > Integer.MAX_VALUE) {
+                return EMPTY;
+            }
+            ByteBuffer buffer = bufferManager.acquireFrame(frameSize);
+            if (buffer == null) {
+                return EMPTY;
+            }
+            nodeFrames = Arrays.copyOf(nodeFrames, nodeFrames.length + 1);
+            nodeFrames[nodeFrames.length - 1] = new IntSerDeBuffer(buffer);
+        }
+        return nodeCount++;
+    }
+
+    private void freeNode(int node) {
+        setNodeField(node, NEXT, freeNode);
+        freeNode = node;
+    }
+
+    /**
+     * Backward-shift deletion: moves every following slot of the cluster that may live at the freed slot into it, so
+     * that no lookup ever stops at a hole before reaching its entries.
+     */
+    private void removeSlot(int slot) {
+        int hole = slot;
+        int next = nextSlot(slot);
+        int entry;
+        while ((entry = getSlotField(next, ENTRY)) != EMPTY) {
+            int home = getHomeSlot(entry);
+            boolean staysInPlace = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!staysInPlace) {
+                writeSlot(hole, entry, getSlotField(next, COUNT), getSlotField(next, FRAME_INDEX),
+                        getSlotField(next, TUPLE_INDEX));
+                hole = next;
+            }
+            next = nextSlot(next);
+        }
+        writeSlot(hole, EMPTY, EMPTY, EMPTY, EMPTY);
+    }
+
+    private int getHomeSlot(int entry) {
+        return (int) (((entry * GOLDEN_RATIO) & 0xFFFFFFFFL) * capacity >>> Integer.SIZE);
+    }
+
+    private int nextSlot(int slot) {
+        return slot + 1 == capacity ? 0 : slot + 1;
+    }
+
+    private int getSlotField(int slot, int field) {
+        return frames[slot / slotsPerFrame].getInt((slot % slotsPerFrame) * SLOT_SIZE + field);
+    }
+
+    private void setSlotField(int slot, int field, int value) {
+        frames[slot / slotsPerFrame].writeInt((slot % slotsPerFrame) * SLOT_SIZE + field, value);
+    }
+
+    private void writeSlot(int slot, int entry, int count, int first, int second) {
+        IntSerDeBuffer frame = frames[slot / slotsPerFrame];
+        int pos = (slot % slotsPerFrame) * SLOT_SIZE;
+        frame.writeInt(pos + ENTRY, entry);
+        frame.writeInt(pos + COUNT, count);
+        frame.writeInt(pos + FRAME_INDEX, first);
+        frame.writeInt(pos + TUPLE_INDEX, second);
+    }
+
+    private int getNodeField(int node, int field) {
+        return nodeFrames[node / nodesPerFrame].getInt((node % nodesPerFrame) * NODE_SIZE + field);
+    }
+
+    private void setNodeField(int node, int field, int value) {
+        nodeFrames[node / nodesPerFrame].writeInt((node % nodesPerFrame) * NODE_SIZE + field, value);
+    }
+
+    private void writeNode(int node, int frameIndex, int tupleIndex, int next) {
+        IntSerDeBuffer frame = nodeFrames[node / nodesPerFrame];
+        int pos = (node % nodesPerFrame) * NODE_SIZE;
+        frame.writeInt(pos + NODE_FRAME_INDEX, frameIndex);
+        frame.writeInt(pos + NODE_TUPLE_INDEX, tupleIndex);
+        frame.writeInt(pos + NEXT, next);
+    }
+}
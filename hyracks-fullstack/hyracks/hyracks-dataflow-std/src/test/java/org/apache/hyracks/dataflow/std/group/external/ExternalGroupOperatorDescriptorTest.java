@@ -42,7 +42,7 @@ public class ExternalGroupOperatorDescriptorTest {
         int frameSize = 256;
         int resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 10);
+        Assert.assertTrue(resultCardinality == 15);
 
         // Sets the frame size to 128KB.
         frameSize = 128 * 1024;
@@ -51,31 +51,31 @@ public class ExternalGroupOperatorDescriptorTest {
         memoryBudgetInBytes = 1024 * 1024;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 20388);
+        Assert.assertTrue(resultCardinality == 31084);
 
         // Test 3: memory size: 100 MB, frame size: 128 KB, 1 column group-by
         memoryBudgetInBytes = 1024 * 1024 * 100;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 2016724);
+        Assert.assertTrue(resultCardinality == 3051003);
 
         // Test 4: memory size: 1 GB, frame size: 128 KB, 1 column group-by
         memoryBudgetInBytes = 1024 * 1024 * 1024;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 20649113);
+        Assert.assertTrue(resultCardinality == 31236468);
 
         // Test 5: memory size: 10 GB, frame size: 128 KB, 1 column group-by
         memoryBudgetInBytes = 1024 * 1024 * 1024 * 10L;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 206489044);
+        Assert.assertTrue(resultCardinality == 312361601);
 
         // Test 6: memory size: 100 GB, frame size: 128 KB, 1 column group-by
         memoryBudgetInBytes = 1024 * 1024 * 1024 * 100L;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 2045222521);
+        Assert.assertTrue(resultCardinality == 2147483647);
 
         // Test 7: memory size: 1 TB, frame size: 128 KB, 1 column group-by
         // The cardinality will be set to Integer.MAX_VALUE in this case since the budget is too huge.
@@ -90,28 +90,28 @@ public class ExternalGroupOperatorDescriptorTest {
         numberOfGroupByColumns = 2;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 17825);
+        Assert.assertTrue(resultCardinality == 25233);
 
         // Test 9: memory size: 1 MB, frame size: 128 KB, 3 columns group-by
         memoryBudgetInBytes = 1024 * 1024;
         numberOfGroupByColumns = 3;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 16227);
+        Assert.assertTrue(resultCardinality == 22242);
 
         // Test 10: memory size: 1 MB, frame size: 128 KB, 4 columns group-by
         memoryBudgetInBytes = 1024 * 1024;
         numberOfGroupByColumns = 4;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 14563);
+        Assert.assertTrue(resultCardinality == 18331);
 
         // Test 11: memory size: 32 MB, frame size: 128 KB, 2 columns group-by
         memoryBudgetInBytes = 1024 * 1024 * 32L;
         numberOfGroupByColumns = 4;
         resultCardinality = (int) PA.invokeMethod(eGByOp, "calculateGroupByTableCardinality(long,int,int)",
                 memoryBudgetInBytes, numberOfGroupByColumns, frameSize);
-        Assert.assertTrue(resultCardinality == 441913);
+        Assert.assertTrue(resultCardinality == 568212);
     }
 
 }
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class JoinRuntimeFilterTest {
+
+    private final Random random = new Random(17);
+
+    @Test
+    public void testNoFalseNegatives() {
+        JoinRuntimeFilter filter = new JoinRuntimeFilter(4096);
+        int[] hashes = new int[1000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextInt();
+            filter.insert(hashes[i]);
+        }
+        for (int hash : hashes) {
+            assertTrue(filter.mightContain(hash));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        JoinRuntimeFilter filter = new JoinRuntimeFilter(4096);
+        for (int i = 0; i < 1000; i++) {
+            filter.insert(i);
+        }
+        int falsePositives = 0;
+        int probes = 100000;
+        for (int i = 1000; i < 1000 + probes; i++) {
+            if (filter.mightContain(i)) {
+                falsePositives++;
+            }
+        }
+        // 1000 keys in 32768 bits with 3 hash functions give a false positive rate of about 0.07%
+        assertTrue("false positives: " + falsePositives, falsePositives < probes / 100);
+    }
+
+    @Test
+    public void testUnion() throws Exception {
+        JoinRuntimeFilter[] partitions = new JoinRuntimeFilter[] { new JoinRuntimeFilter(4096),
+                new JoinRuntimeFilter(4096), new JoinRuntimeFilter(4096) };
+        int[] hashes = new int[300];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextInt();
+            partitions[i % partitions.length].insert(hashes[i]);
+        }
+        JoinRuntimeFilter merged = new JoinRuntimeFilter(4096);
+        for (JoinRuntimeFilter partition : partitions) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            partition.write(new DataOutputStream(bytes));
+            merged.union(bytes.toByteArray(), 0, bytes.size());
+        }
+        for (int hash : hashes) {
+            assertTrue(merged.mightContain(hash));
+        }
+    }
+
+    @Test
+    public void testSaturation() {
+        JoinRuntimeFilter filter = new JoinRuntimeFilter(64);
+        assertFalse(filter.isSaturated());
+        for (int i = 0; i < 1000; i++) {
+            filter.insert(random.nextInt());
+        }
+        assertTrue(filter.isSaturated());
+    }
+}
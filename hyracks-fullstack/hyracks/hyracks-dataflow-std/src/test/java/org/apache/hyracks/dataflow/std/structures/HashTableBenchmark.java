@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.util.Random;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+
+/**
+ * Compares the build and probe cost of {@link SerializableHashTable} and {@link LinearProbingHashTable} the way
+ * InMemoryHashJoin uses them. Build tuples are simulated by an array of keys indexed by the frame index of the tuple
+ * pointers, so every candidate returned by a table costs a random access, like reading a build tuple does.
+ * Run it with: java -cp ... org.apache.hyracks.dataflow.std.structures.HashTableBenchmark [buildTuples] [rounds]
+ */
+public class HashTableBenchmark {
+
+    private static final int FRAME_SIZE = 32768;
+    private static final int PROBES = 4_000_000;
+    // One probe key out of four has a match
+    private static final int MATCH_RATIO = 4;
+
+    private final int buildCount;
+    private final int[] buildKeys;
+    private final int[] probeKeys;
+    private final IHyracksFrameMgrContext ctx = new FrameManager(FRAME_SIZE);
+    private final TuplePointer pointer = new TuplePointer();
+
+    private HashTableBenchmark(int buildCount) {
+        this.buildCount = buildCount;
+        Random random = new Random(42);
+        buildKeys = new int[buildCount];
+        for (int i = 0; i < buildCount; i++) {
+            buildKeys[i] = random.nextInt();
+        }
+        probeKeys = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeKeys[i] = random.nextInt(MATCH_RATIO) == 0 ? buildKeys[random.nextInt(buildCount)] : random.nextInt();
+        }
+    }
+
+    public static void main(String[] args) throws HyracksDataException {
+        int buildCount = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        HashTableBenchmark benchmark = new HashTableBenchmark(buildCount);
+        for (int round = 0; round < rounds; round++) {
+            benchmark.run("SerializableHashTable", false);
+            benchmark.run("LinearProbingHashTable", true);
+        }
+    }
+
+    private void run(String name, boolean linearProbing) throws HyracksDataException {
+        ISimpleFrameBufferManager bufferManager =
+                new FramePoolBackedFrameBufferManager(new DeallocatableFramePool(ctx, Integer.MAX_VALUE));
+        ISerializableTable table = linearProbing
+                ? new LinearProbingHashTable(LinearProbingHashTable.HASH_CODE_TABLE_SIZE, buildCount, ctx,
+                        bufferManager)
+                : new SerializableHashTable(buildCount, ctx, bufferManager);
+        long start = System.nanoTime();
+        for (int i = 0; i < buildCount; i++) {
+            pointer.reset(i, 0);
+            table.insert(getEntry(buildKeys[i], table.getTableSize()), pointer);
+        }
+        long built = System.nanoTime();
+        long matches = 0;
+        for (int key : probeKeys) {
+            int entry = getEntry(key, table.getTableSize());
+            int count = table.getTupleCount(entry);
+            for (int i = 0; i < count; i++) {
+                table.getTuplePointer(entry, i, pointer);
+                if (buildKeys[pointer.getFrameIndex()] == key) {
+                    matches++;
+                }
+            }
+        }
+        long probed = System.nanoTime();
+        System.out.println(String.format("%-24s build %6d ms, probe %6d ms (%d ns/probe), %d matches, %d KB", name,
+                (built - start) / 1_000_000, (probed - built) / 1_000_000, (probed - built) / PROBES, matches,
+                table.getCurrentByteSize() / 1024));
+        table.close();
+    }
+
+    private static int getEntry(int key, int tableSize) {
+        // Same scrambling and range reduction as FieldHashPartitionComputerFamily
+        int h = key * 0x5bd1e995;
+        h ^= h >>> 15;
+        if (h < 0) {
+            h = -(h + 1);
+        }
+        return h % tableSize;
+    }
+}
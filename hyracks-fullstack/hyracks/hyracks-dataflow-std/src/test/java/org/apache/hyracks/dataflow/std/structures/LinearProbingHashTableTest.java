@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LinearProbingHashTableTest {
+
+    final int NUM_PART = 101;
+    final int num = 10000;
+    TuplePointer pointer = new TuplePointer(0, 0);
+    LinearProbingHashTable table;
+    IHyracksFrameMgrContext ctx;
+    ISimpleFrameBufferManager bufferManager;
+
+    @Before
+    public void setup() throws HyracksDataException {
+        ctx = new FrameManager(256);
+        bufferManager = new FramePoolBackedFrameBufferManager(
+                new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 2048));
+        table = new LinearProbingHashTable(NUM_PART, ctx, bufferManager);
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        for (int i = 0; i < num; i++) {
+            pointer.reset(i, i);
+            assertTrue(table.insert(i % NUM_PART, pointer));
+        }
+        assertEquals(num, table.getTupleCount());
+        for (int i = 0; i < NUM_PART; i++) {
+            assertEntry(i);
+        }
+    }
+
+    @Test
+    public void testBatchDeletePartition() throws Exception {
+        testInsert();
+        for (int i = 0; i < NUM_PART; i++) {
+            table.delete(i);
+            assertFalse(table.getTuplePointer(i, 0, pointer));
+            assertEquals(0, table.getTupleCount(i));
+            // The other entries must survive the shifting of their slots
+            for (int j = i + 1; j < NUM_PART; j++) {
+                assertEntry(j);
+            }
+        }
+        assertEquals(0, table.getTupleCount());
+        for (int i = 0; i < num; i++) {
+            pointer.reset(i, i);
+            assertTrue(table.insert(i % NUM_PART, pointer));
+        }
+        for (int i = 0; i < NUM_PART; i++) {
+            assertEntry(i);
+        }
+    }
+
+    @Test
+    public void testHashCodeEntries() throws Exception {
+        table = new LinearProbingHashTable(LinearProbingHashTable.HASH_CODE_TABLE_SIZE, num, ctx, bufferManager);
+        int frameCount = table.getCurrentByteSize() / ctx.getInitialFrameSize();
+        Random random = new Random(11);
+        int[] entries = new int[num];
+        for (int i = 0; i < num; i++) {
+            entries[i] = random.nextInt(Integer.MAX_VALUE);
+            pointer.reset(i, i);
+            assertTrue(table.insert(entries[i], pointer));
+        }
+        // Sized up front, so no growth happened
+        assertEquals(frameCount, table.getCurrentByteSize() / ctx.getInitialFrameSize());
+        for (int i = 0; i < num; i++) {
+            boolean found = false;
+            for (int j = 0; table.getTuplePointer(entries[i], j, pointer); j++) {
+                found |= pointer.getFrameIndex() == i;
+            }
+            assertTrue(found);
+        }
+        assertEquals(0, table.getTupleCount(Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void testEmptyTableReleasesFrames() throws Exception {
+        table = new LinearProbingHashTable(NUM_PART, NUM_PART, ctx, bufferManager);
+        int presizedByteSize = table.getCurrentByteSize();
+        assertEquals(LinearProbingHashTable.getExpectedTableByteSize(NUM_PART, ctx.getInitialFrameSize()),
+                presizedByteSize);
+        assertTrue(LinearProbingHashTable.getEntryCapacity(presizedByteSize / ctx.getInitialFrameSize(),
+                ctx.getInitialFrameSize()) >= NUM_PART);
+        // entries beyond the presized ones grow the slot array, duplicates take chain frames
+        for (int i = 0; i < num; i++) {
+            pointer.reset(i, i);
+            assertTrue(table.insert(i % (4 * NUM_PART), pointer));
+        }
+        assertTrue(table.getCurrentByteSize() > presizedByteSize);
+        table.reset();
+        assertEquals(presizedByteSize, table.getCurrentByteSize());
+
+        testInsert();
+        assertTrue(table.getCurrentByteSize() > presizedByteSize);
+        for (int i = 0; i < NUM_PART; i++) {
+            table.delete(i);
+        }
+        assertEquals(presizedByteSize, table.getCurrentByteSize());
+        testInsert();
+    }
+
+    @Test
+    public void testInsertFailsWithoutMemory() throws Exception {
+        ISimpleFrameBufferManager smallBufferManager =
+                new FramePoolBackedFrameBufferManager(new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 4));
+        table = new LinearProbingHashTable(NUM_PART, ctx, smallBufferManager);
+        int inserted = 0;
+        pointer.reset(0, 0);
+        while (table.insert(inserted % NUM_PART, pointer)) {
+            inserted++;
+        }
+        assertEquals(inserted, table.getTupleCount());
+        // A failed growth keeps the current content
+        for (int i = 0; i < NUM_PART; i++) {
+            assertEquals(inserted / NUM_PART + (i < inserted % NUM_PART ? 1 : 0), table.getTupleCount(i));
+        }
+        table.close();
+        assertEquals(0, table.getCurrentByteSize());
+    }
+
+    @Test
+    public void testManyDuplicates() throws Exception {
+        final int duplicates = 100000;
+        final int hotEntry = 7;
+        ISimpleFrameBufferManager largeBufferManager = new FramePoolBackedFrameBufferManager(
+                new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 8192));
+        table = new LinearProbingHashTable(NUM_PART, ctx, largeBufferManager);
+        // the duplicates of one entry share a slot, so inserting them does not walk the earlier ones
+        for (int i = 0; i < duplicates; i++) {
+            pointer.reset(hotEntry, i);
+            assertTrue(table.insert(hotEntry, pointer));
+            if (i % 1000 == 0) {
+                pointer.reset(i / 1000, i);
+                assertTrue(table.insert(NUM_PART + i / 1000, pointer));
+            }
+        }
+        assertEquals(duplicates + duplicates / 1000, table.getTupleCount());
+        assertEquals(duplicates, table.getTupleCount(hotEntry));
+        // the pointers of an entry come back in insertion order
+        for (int i = 0; i < duplicates; i++) {
+            assertTrue(table.getTuplePointer(hotEntry, i, pointer));
+            assertEquals(i, pointer.getTupleIndex());
+        }
+        assertFalse(table.getTuplePointer(hotEntry, duplicates, pointer));
+        for (int i = 0; i < duplicates / 1000; i++) {
+            assertEquals(1, table.getTupleCount(NUM_PART + i));
+            assertTrue(table.getTuplePointer(NUM_PART + i, 0, pointer));
+            assertEquals(i * 1000, pointer.getTupleIndex());
+        }
+
+        // deleting the entry frees its chain for the next duplicates
+        int byteSize = table.getCurrentByteSize();
+        table.delete(hotEntry);
+        assertEquals(0, table.getTupleCount(hotEntry));
+        assertEquals(duplicates / 1000, table.getTupleCount());
+        for (int i = 0; i < duplicates; i++) {
+            pointer.reset(hotEntry + 1, i);
+            assertTrue(table.insert(hotEntry + 1, pointer));
+        }
+        assertEquals(byteSize, table.getCurrentByteSize());
+        assertEquals(duplicates, table.getTupleCount(hotEntry + 1));
+        table.close();
+        assertEquals(0, table.getCurrentByteSize());
+    }
+
+    private void assertEntry(int entry) {
+        BitSet found = new BitSet();
+        int count = table.getTupleCount(entry);
+        for (int j = 0; j < count; j++) {
+            assertTrue(table.getTuplePointer(entry, j, pointer));
+            assertEquals(entry, pointer.getFrameIndex() % NUM_PART);
+            found.set(pointer.getFrameIndex());
+        }
+        assertFalse(table.getTuplePointer(entry, count, pointer));
+        assertEquals((num - entry + NUM_PART - 1) / NUM_PART, found.cardinality());
+    }
+}
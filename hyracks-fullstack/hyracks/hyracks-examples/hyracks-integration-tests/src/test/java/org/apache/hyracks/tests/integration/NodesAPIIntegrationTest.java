@@ -48,7 +48,8 @@ public class NodesAPIIntegrationTest extends AbstractIntegrationTest {
             "net-signaling-bytes-written", "result-net-payload-bytes-read", "result-net-payload-bytes-written",
             "result-net-signaling-bytes-read", "result-net-signaling-bytes-written", "ipc-messages-sent",
             "ipc-message-bytes-sent", "ipc-messages-received", "ipc-message-bytes-received", "disk-reads",
-            "disk-writes", "config" };
+            "disk-writes", "buffercache-page-hits", "buffercache-page-misses", "buffercache-page-evictions",
+            "io-scheduler-merge-debt", "io-scheduler-throttled-time", "config" };
 
     public static final String ROOT_PATH = "/rest/nodes";
 
@@ -20,6 +20,8 @@ package org.apache.hyracks.tests.integration;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
 import org.apache.hyracks.api.dataflow.IConnectorDescriptor;
@@ -31,6 +33,7 @@ import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.io.FileSplit;
 import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.api.result.ResultSetId;
 import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
@@ -53,11 +56,14 @@ import org.apache.hyracks.dataflow.std.file.PlainFileWriterOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.join.InMemoryHashJoinOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.join.JoinComparatorFactory;
 import org.apache.hyracks.dataflow.std.join.OptimizedHybridHashJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.RuntimeFilterBuildOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.RuntimeFilterOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.misc.MaterializingOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.misc.NullSinkOperatorDescriptor;
 import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
 import org.apache.hyracks.tests.util.NoopMissingWriterFactory;
 import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class TPCHCustomerOrderHashJoinTest extends AbstractIntegrationTest {
@@ -700,6 +706,197 @@ public class TPCHCustomerOrderHashJoinTest extends AbstractIntegrationTest {
         System.out.println("output to " + path);
     }
 
+    @Test
+    public void customerOrderCIDHybridHashJoinWithRuntimeFilter() throws Exception {
+        List<String> expected = runCustomerOrderJoin(false);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, runCustomerOrderJoin(true));
+    }
+
+    @Test
+    public void customerOrderRuntimeFilterDropsOrders() throws Exception {
+        // The customers are scanned and filtered on NC1 while the orders are scanned and filtered on NC2
+        int numOrders = 1500;
+        int numJoined = runCustomerOrderJoin(false).size();
+        List<String> passed = runOrdersRuntimeFilter();
+        int numDropped = numOrders - passed.size();
+        Assert.assertTrue("passed " + passed.size() + " of " + numJoined + " joined", passed.size() >= numJoined);
+        Assert.assertTrue("dropped " + numDropped + " of " + (numOrders - numJoined) + " not joined",
+                numDropped > (numOrders - numJoined) * 0.99);
+    }
+
+    private List<String> runCustomerOrderJoin(boolean useRuntimeFilter) throws Exception {
+        JobSpecification spec = new JobSpecification();
+
+        FileScanOperatorDescriptor ordScanner = createOrdersScanner(spec);
+        FileScanOperatorDescriptor custScanner = createCustomerScanner(spec);
+
+        IBinaryHashFunctionFamily[] hashFunctionFamilies =
+                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE };
+        OptimizedHybridHashJoinOperatorDescriptor join = new OptimizedHybridHashJoinOperatorDescriptor(spec, 32, 20,
+                1.2, new int[] { 1 }, new int[] { 0 }, hashFunctionFamilies, hashFunctionFamilies, custOrderJoinDesc,
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, 1, 0),
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, 0, 1), null);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, join, NC1_ID, NC2_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+
+        IConnectorDescriptor ordJoinConn = new MToNPartitioningConnectorDescriptor(spec,
+                new FieldHashPartitionComputerFactory(new int[] { 1 }, new IBinaryHashFunctionFactory[] {
+                        PointableBinaryHashFunctionFactory.of(UTF8StringPointable.FACTORY) }));
+        IConnectorDescriptor custJoinConn = new MToNPartitioningConnectorDescriptor(spec,
+                new FieldHashPartitionComputerFactory(new int[] { 0 }, new IBinaryHashFunctionFactory[] {
+                        PointableBinaryHashFunctionFactory.of(UTF8StringPointable.FACTORY) }));
+        if (useRuntimeFilter) {
+            IOperatorDescriptor[] filter = connectRuntimeFilter(spec, custScanner, ordScanner);
+            spec.connect(ordJoinConn, filter[1], 0, join, 0);
+            spec.connect(custJoinConn, filter[0], 0, join, 1);
+        } else {
+            spec.connect(ordJoinConn, ordScanner, 0, join, 0);
+            spec.connect(custJoinConn, custScanner, 0, join, 1);
+        }
+
+        IConnectorDescriptor joinPrinterConn = new MToNBroadcastConnectorDescriptor(spec);
+        spec.connect(joinPrinterConn, join, 0, printer, 0);
+
+        spec.addRoot(printer);
+        return runAndSortResults(spec, rsId);
+    }
+
+    private List<String> runOrdersRuntimeFilter() throws Exception {
+        JobSpecification spec = new JobSpecification();
+
+        IOperatorDescriptor[] filter =
+                connectRuntimeFilter(spec, createCustomerScanner(spec), createOrdersScanner(spec));
+
+        IOperatorDescriptor custSink = new NullSinkOperatorDescriptor(spec);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, custSink, NC1_ID);
+        spec.connect(new OneToOneConnectorDescriptor(spec), filter[0], 0, custSink, 0);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), filter[1], 0, printer, 0);
+
+        spec.addRoot(custSink);
+        spec.addRoot(printer);
+        return runAndSortResults(spec, rsId);
+    }
+
+    /**
+     * Builds a runtime filter over the customer keys right above the customer scan and applies it right above the
+     * orders scan, on another node.
+     *
+     * @return the filter build operator, which passes the customers through, and the filter operator, which passes
+     *         the orders that might join through
+     */
+    private IOperatorDescriptor[] connectRuntimeFilter(JobSpecification spec, IOperatorDescriptor custScanner,
+            IOperatorDescriptor ordScanner) {
+        // the string hash family of the join only spreads keys over a few partitions, not over the filter bits
+        IBinaryHashFunctionFamily[] hashFunctionFamilies =
+                new IBinaryHashFunctionFamily[] { MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+        RuntimeFilterBuildOperatorDescriptor filterBuild =
+                new RuntimeFilterBuildOperatorDescriptor(spec, custDesc, new int[] { 0 }, hashFunctionFamilies, 1024);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, filterBuild, NC1_ID);
+        spec.connect(new OneToOneConnectorDescriptor(spec), custScanner, 0, filterBuild, 0);
+
+        RuntimeFilterOperatorDescriptor filter =
+                new RuntimeFilterOperatorDescriptor(spec, ordersDesc, new int[] { 1 }, hashFunctionFamilies);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, filter, NC2_ID);
+        spec.connect(new OneToOneConnectorDescriptor(spec), ordScanner, 0, filter, 0);
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), filterBuild, 1, filter, 1);
+        return new IOperatorDescriptor[] { filterBuild, filter };
+    }
+
+    private FileScanOperatorDescriptor createCustomerScanner(JobSpecification spec) {
+        FileSplit[] custSplits = new FileSplit[] { new ManagedFileSplit(NC1_ID,
+                "data" + File.separator + "tpch0.001" + File.separator + "customer-part1.tbl") };
+        FileScanOperatorDescriptor custScanner =
+                new FileScanOperatorDescriptor(spec, new ConstantFileSplitProvider(custSplits),
+                        new DelimitedDataTupleParserFactory(custValueParserFactories, '|'), custDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, custScanner, NC1_ID);
+        return custScanner;
+    }
+
+    private FileScanOperatorDescriptor createOrdersScanner(JobSpecification spec) {
+        FileSplit[] ordersSplits = new FileSplit[] {
+                new ManagedFileSplit(NC2_ID, "data" + File.separator + "tpch0.001" + File.separator + "orders.tbl") };
+        FileScanOperatorDescriptor ordScanner =
+                new FileScanOperatorDescriptor(spec, new ConstantFileSplitProvider(ordersSplits),
+                        new DelimitedDataTupleParserFactory(orderValueParserFactories, '|'), ordersDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, ordScanner, NC2_ID);
+        return ordScanner;
+    }
+
+    private List<String> runAndSortResults(JobSpecification spec, ResultSetId rsId) throws Exception {
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        hcc.waitForCompletion(jobId);
+        Collections.sort(results);
+        return results;
+    }
+
+    @Test
+    public void orderStatusSkewedHybridHashJoin() throws Exception {
+        // Most orders share the same two statuses, so repartitioning can never split those heavy hitters
+        List<String> expected = runOrderStatusJoin(1000);
+        Assert.assertEquals(50 * 50 + 48 * 48 + 2 * 2, expected.size());
+        Assert.assertEquals(expected, runOrderStatusJoin(6));
+    }
+
+    private List<String> runOrderStatusJoin(int memSizeInFrames) throws Exception {
+        JobSpecification spec = new JobSpecification();
+        spec.setFrameSize(512);
+
+        FileSplit[] ordersSplits = new FileSplit[] {
+                new ManagedFileSplit(NC2_ID, "data" + File.separator + "tpch0.001" + File.separator + "orders1.tbl") };
+        IFileSplitProvider ordersSplitsProvider = new ConstantFileSplitProvider(ordersSplits);
+
+        FileScanOperatorDescriptor probeScanner = new FileScanOperatorDescriptor(spec, ordersSplitsProvider,
+                new DelimitedDataTupleParserFactory(orderValueParserFactories, '|'), ordersDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, probeScanner, NC2_ID);
+
+        FileScanOperatorDescriptor buildScanner = new FileScanOperatorDescriptor(spec, ordersSplitsProvider,
+                new DelimitedDataTupleParserFactory(orderValueParserFactories, '|'), ordersDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, buildScanner, NC2_ID);
+
+        ISerializerDeserializer[] joinFields = new ISerializerDeserializer[ordersDesc.getFieldCount() * 2];
+        Arrays.fill(joinFields, new UTF8StringSerializerDeserializer());
+        OptimizedHybridHashJoinOperatorDescriptor join = new OptimizedHybridHashJoinOperatorDescriptor(spec,
+                memSizeInFrames, 20, 1.2, new int[] { 2 }, new int[] { 2 },
+                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE },
+                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE },
+                new RecordDescriptor(joinFields),
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, 2, 2),
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, 2, 2), null);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, join, NC1_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), probeScanner, 0, join, 0);
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), buildScanner, 0, join, 1);
+        spec.connect(new OneToOneConnectorDescriptor(spec), join, 0, printer, 0);
+
+        spec.addRoot(printer);
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        hcc.waitForCompletion(jobId);
+        Collections.sort(results);
+        return results;
+    }
+
     private IOperatorDescriptor getPrinter(JobSpecification spec, String path) {
         IFileSplitProvider outputSplitProvider =
                 new ConstantFileSplitProvider(new FileSplit[] { new ManagedFileSplit(NC1_ID, path) });
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.io.FileSplit;
+import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.data.std.accessors.UTF8StringBinaryComparatorFactory;
+import org.apache.hyracks.data.std.accessors.UTF8StringBinaryHashFunctionFamily;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
+import org.apache.hyracks.dataflow.std.connectors.MToNBroadcastConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.file.ConstantFileSplitProvider;
+import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.FileScanOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.JoinComparatorFactory;
+import org.apache.hyracks.dataflow.std.join.OptimizedHybridHashJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.SortMergeJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortOperatorDescriptor;
+import org.apache.hyracks.tests.util.NoopMissingWriterFactory;
+import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the sort-merge join on inputs sorted within the job and checks its results against the hybrid hash join.
+ */
+public class TPCHCustomerOrderSortMergeJoinTest extends AbstractIntegrationTest {
+    private static final String CUSTOMER = "customer.tbl";
+    private static final String ORDERS = "orders.tbl";
+    private static final String ORDERS1 = "orders1.tbl";
+
+    private static final IValueParserFactory[] custValueParserFactories = new IValueParserFactory[8];
+    private static final IValueParserFactory[] orderValueParserFactories = new IValueParserFactory[9];
+
+    static {
+        Arrays.fill(custValueParserFactories, UTF8StringParserFactory.INSTANCE);
+        Arrays.fill(orderValueParserFactories, UTF8StringParserFactory.INSTANCE);
+    }
+
+    private enum JoinAlgorithm {
+        SORT_MERGE,
+        HYBRID_HASH
+    }
+
+    @Test
+    public void customerOrderCIDSortMergeJoin() throws Exception {
+        List<String> expected = runJoin(JoinAlgorithm.HYBRID_HASH, CUSTOMER, ORDERS, 0, 1, false, 1000);
+        Assert.assertEquals(1500, expected.size());
+        Assert.assertEquals(expected, runJoin(JoinAlgorithm.SORT_MERGE, CUSTOMER, ORDERS, 0, 1, false, 1000));
+        // the cached orders no longer fit into memory and are read back from the run file
+        Assert.assertEquals(expected, runJoin(JoinAlgorithm.SORT_MERGE, CUSTOMER, ORDERS, 0, 1, false, 3));
+    }
+
+    @Test
+    public void customerOrderCIDSortMergeLeftOuterJoin() throws Exception {
+        List<String> expected = runJoin(JoinAlgorithm.HYBRID_HASH, CUSTOMER, ORDERS, 0, 1, true, 1000);
+        Assert.assertEquals(expected, runJoin(JoinAlgorithm.SORT_MERGE, CUSTOMER, ORDERS, 0, 1, true, 1000));
+        Assert.assertEquals(expected, runJoin(JoinAlgorithm.SORT_MERGE, CUSTOMER, ORDERS, 0, 1, true, 3));
+    }
+
+    @Test
+    public void orderStatusSortMergeJoin() throws Exception {
+        // Few distinct statuses, so the groups of equal keys span many frames of the cached input
+        List<String> expected = runJoin(JoinAlgorithm.HYBRID_HASH, ORDERS1, ORDERS1, 2, 2, false, 1000);
+        Assert.assertEquals(50 * 50 + 48 * 48 + 2 * 2, expected.size());
+        Assert.assertEquals(expected, runJoin(JoinAlgorithm.SORT_MERGE, ORDERS1, ORDERS1, 2, 2, false, 1000));
+        Assert.assertEquals(expected, runJoin(JoinAlgorithm.SORT_MERGE, ORDERS1, ORDERS1, 2, 2, false, 3));
+    }
+
+    private List<String> runJoin(JoinAlgorithm algorithm, String leftFile, String rightFile, int leftKey, int rightKey,
+            boolean isLeftOuter, int memSizeInFrames) throws Exception {
+        JobSpecification spec = new JobSpecification();
+        spec.setFrameSize(512);
+
+        RecordDescriptor leftDesc = getRecordDescriptor(leftFile);
+        RecordDescriptor rightDesc = getRecordDescriptor(rightFile);
+        IOperatorDescriptor leftInput = createSortedScan(spec, leftFile, leftDesc, leftKey);
+        IOperatorDescriptor rightInput = createSortedScan(spec, rightFile, rightDesc, rightKey);
+
+        ISerializerDeserializer[] joinFields =
+                new ISerializerDeserializer[leftDesc.getFieldCount() + rightDesc.getFieldCount()];
+        Arrays.fill(joinFields, new UTF8StringSerializerDeserializer());
+        RecordDescriptor joinDesc = new RecordDescriptor(joinFields);
+        IMissingWriterFactory[] missingWriterFactories = new IMissingWriterFactory[rightDesc.getFieldCount()];
+        Arrays.fill(missingWriterFactories, NoopMissingWriterFactory.INSTANCE);
+
+        JoinComparatorFactory joinComparatorFactory =
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, leftKey, rightKey);
+        IOperatorDescriptor join;
+        if (algorithm == JoinAlgorithm.SORT_MERGE) {
+            join = new SortMergeJoinOperatorDescriptor(spec, memSizeInFrames, new int[] { leftKey },
+                    new int[] { rightKey },
+                    new IBinaryComparatorFactory[] { UTF8StringBinaryComparatorFactory.INSTANCE },
+                    joinComparatorFactory, joinDesc, null, isLeftOuter, missingWriterFactories);
+        } else {
+            join = new OptimizedHybridHashJoinOperatorDescriptor(spec, memSizeInFrames, 20, 1.2, new int[] { leftKey },
+                    new int[] { rightKey },
+                    new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE },
+                    new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE }, joinDesc,
+                    joinComparatorFactory,
+                    new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, rightKey, leftKey), null,
+                    isLeftOuter, missingWriterFactories);
+        }
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, join, NC1_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+
+        spec.connect(new OneToOneConnectorDescriptor(spec), leftInput, 0, join, 0);
+        spec.connect(new OneToOneConnectorDescriptor(spec), rightInput, 0, join, 1);
+        spec.connect(new OneToOneConnectorDescriptor(spec), join, 0, printer, 0);
+
+        spec.addRoot(printer);
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        hcc.waitForCompletion(jobId);
+        Collections.sort(results);
+        return results;
+    }
+
+    private IOperatorDescriptor createSortedScan(JobSpecification spec, String file, RecordDescriptor recDesc,
+            int sortField) {
+        // customer.tbl is on NC1 and the orders files are on NC2
+        String nodeId = CUSTOMER.equals(file) ? NC1_ID : NC2_ID;
+        FileScanOperatorDescriptor scanner =
+                new FileScanOperatorDescriptor(spec,
+                        new ConstantFileSplitProvider(new FileSplit[] { new ManagedFileSplit(nodeId,
+                                "data" + File.separator + "tpch0.001" + File.separator + file) }),
+                        new DelimitedDataTupleParserFactory(
+                                CUSTOMER.equals(file) ? custValueParserFactories : orderValueParserFactories, '|'),
+                        recDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, scanner, nodeId);
+
+        ExternalSortOperatorDescriptor sorter = new ExternalSortOperatorDescriptor(spec, 1000, new int[] { sortField },
+                new IBinaryComparatorFactory[] { UTF8StringBinaryComparatorFactory.INSTANCE }, recDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, sorter, NC1_ID);
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), scanner, 0, sorter, 0);
+        return sorter;
+    }
+
+    private static RecordDescriptor getRecordDescriptor(String file) {
+        ISerializerDeserializer[] fields = new ISerializerDeserializer[CUSTOMER.equals(file)
+                ? custValueParserFactories.length : orderValueParserFactories.length];
+        Arrays.fill(fields, new UTF8StringSerializerDeserializer());
+        return new RecordDescriptor(fields);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITuplePairComparator;
+import org.apache.hyracks.api.dataflow.value.ITuplePairComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileSplit;
+import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.data.std.accessors.UTF8StringBinaryComparatorFactory;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
+import org.apache.hyracks.dataflow.std.connectors.MToNBroadcastConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.file.ConstantFileSplitProvider;
+import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.FileScanOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.BandJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.join.NestedLoopJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.sort.ExternalSortOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
+import org.apache.hyracks.tests.util.NoopMissingWriterFactory;
+import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Runs the band join on inputs sorted within the job and checks its results against the nested loop join. Orders are
+ * joined with the line items that were shipped but not yet received on the order date.
+ */
+public class TPCHOrderLineitemBandJoinTest extends AbstractIntegrationTest {
+    private static final String ORDERS1 = "orders1.tbl";
+    private static final String LINEITEM = "lineitem.tbl";
+
+    private static final int ORDER_DATE = 4;
+    private static final int SHIP_DATE = 10;
+    private static final int RECEIPT_DATE = 12;
+
+    private static final IValueParserFactory[] orderValueParserFactories = new IValueParserFactory[9];
+    private static final IValueParserFactory[] lineitemValueParserFactories = new IValueParserFactory[16];
+
+    static {
+        Arrays.fill(orderValueParserFactories, UTF8StringParserFactory.INSTANCE);
+        Arrays.fill(lineitemValueParserFactories, UTF8StringParserFactory.INSTANCE);
+    }
+
+    private enum JoinAlgorithm {
+        BAND,
+        NESTED_LOOP
+    }
+
+    @Test
+    public void orderDateInShipmentBandJoin() throws Exception {
+        // points on the left, ranges on the right: the candidates come from the active right tuples
+        int[] orderKeys = { ORDER_DATE, ORDER_DATE };
+        int[] lineitemKeys = { SHIP_DATE, RECEIPT_DATE };
+        List<String> expected =
+                runJoin(JoinAlgorithm.NESTED_LOOP, ORDERS1, LINEITEM, orderKeys, lineitemKeys, false, 1000, 512);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, ORDERS1, LINEITEM, orderKeys, lineitemKeys, false, 1000, 512));
+        // the cached line items no longer fit into memory and are read back from the run file
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, ORDERS1, LINEITEM, orderKeys, lineitemKeys, false, 2, 512));
+        // only a window of frames around the sweep stays pinned in memory
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, ORDERS1, LINEITEM, orderKeys, lineitemKeys, false, 8, 512));
+    }
+
+    @Test
+    public void shipmentOverOrderDateBandJoin() throws Exception {
+        // ranges on the left, points on the right: the candidates come from looking ahead in the right input
+        int[] lineitemKeys = { SHIP_DATE, RECEIPT_DATE };
+        int[] orderKeys = { ORDER_DATE, ORDER_DATE };
+        List<String> expected =
+                runJoin(JoinAlgorithm.NESTED_LOOP, LINEITEM, ORDERS1, lineitemKeys, orderKeys, false, 1000, 512);
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, LINEITEM, ORDERS1, lineitemKeys, orderKeys, false, 1000, 512));
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, LINEITEM, ORDERS1, lineitemKeys, orderKeys, false, 2, 512));
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, LINEITEM, ORDERS1, lineitemKeys, orderKeys, false, 8, 512));
+    }
+
+    @Test
+    public void shipmentOverOrderDateBandLeftOuterJoin() throws Exception {
+        int[] lineitemKeys = { SHIP_DATE, RECEIPT_DATE };
+        int[] orderKeys = { ORDER_DATE, ORDER_DATE };
+        // the nested loop join writes a non-match per cached right frame, so all orders have to fit into one frame
+        List<String> expected =
+                runJoin(JoinAlgorithm.NESTED_LOOP, LINEITEM, ORDERS1, lineitemKeys, orderKeys, true, 1000, 32768);
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, LINEITEM, ORDERS1, lineitemKeys, orderKeys, true, 1000, 512));
+        Assert.assertEquals(expected,
+                runJoin(JoinAlgorithm.BAND, LINEITEM, ORDERS1, lineitemKeys, orderKeys, true, 2, 512));
+    }
+
+    private List<String> runJoin(JoinAlgorithm algorithm, String leftFile, String rightFile, int[] leftKeys,
+            int[] rightKeys, boolean isLeftOuter, int memSizeInFrames, int frameSize) throws Exception {
+        JobSpecification spec = new JobSpecification();
+        spec.setFrameSize(frameSize);
+
+        RecordDescriptor leftDesc = getRecordDescriptor(leftFile);
+        RecordDescriptor rightDesc = getRecordDescriptor(rightFile);
+        IOperatorDescriptor leftInput = createSortedScan(spec, leftFile, leftDesc, leftKeys[0]);
+        IOperatorDescriptor rightInput = createSortedScan(spec, rightFile, rightDesc, rightKeys[0]);
+
+        ISerializerDeserializer[] joinFields =
+                new ISerializerDeserializer[leftDesc.getFieldCount() + rightDesc.getFieldCount()];
+        Arrays.fill(joinFields, new UTF8StringSerializerDeserializer());
+        RecordDescriptor joinDesc = new RecordDescriptor(joinFields);
+        IMissingWriterFactory[] missingWriterFactories = new IMissingWriterFactory[rightDesc.getFieldCount()];
+        Arrays.fill(missingWriterFactories, NoopMissingWriterFactory.INSTANCE);
+
+        ITuplePairComparatorFactory overlapComparatorFactory = new OverlapComparatorFactory(leftKeys, rightKeys);
+        IOperatorDescriptor join;
+        if (algorithm == JoinAlgorithm.BAND) {
+            IBinaryComparatorFactory[] comparatorFactories = new IBinaryComparatorFactory[3];
+            Arrays.fill(comparatorFactories, UTF8StringBinaryComparatorFactory.INSTANCE);
+            join = new BandJoinOperatorDescriptor(spec, memSizeInFrames, leftKeys, rightKeys, comparatorFactories,
+                    overlapComparatorFactory, joinDesc, isLeftOuter, missingWriterFactories);
+        } else {
+            join = new NestedLoopJoinOperatorDescriptor(spec, overlapComparatorFactory, joinDesc, memSizeInFrames,
+                    isLeftOuter, missingWriterFactories);
+        }
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, join, NC1_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+
+        spec.connect(new OneToOneConnectorDescriptor(spec), leftInput, 0, join, 0);
+        spec.connect(new OneToOneConnectorDescriptor(spec), rightInput, 0, join, 1);
+        spec.connect(new OneToOneConnectorDescriptor(spec), join, 0, printer, 0);
+
+        spec.addRoot(printer);
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        hcc.waitForCompletion(jobId);
+        Collections.sort(results);
+        return results;
+    }
+
+    private IOperatorDescriptor createSortedScan(JobSpecification spec, String file, RecordDescriptor recDesc,
+            int sortField) {
+        // lineitem.tbl is on NC1 and orders1.tbl is on NC2
+        String nodeId = LINEITEM.equals(file) ? NC1_ID : NC2_ID;
+        FileScanOperatorDescriptor scanner =
+                new FileScanOperatorDescriptor(spec,
+                        new ConstantFileSplitProvider(new FileSplit[] { new ManagedFileSplit(nodeId,
+                                "data" + File.separator + "tpch0.001" + File.separator + file) }),
+                        new DelimitedDataTupleParserFactory(
+                                LINEITEM.equals(file) ? lineitemValueParserFactories : orderValueParserFactories, '|'),
+                        recDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, scanner, nodeId);
+
+        ExternalSortOperatorDescriptor sorter = new ExternalSortOperatorDescriptor(spec, 1000, new int[] { sortField },
+                new IBinaryComparatorFactory[] { UTF8StringBinaryComparatorFactory.INSTANCE }, recDesc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, sorter, NC1_ID);
+        spec.connect(new MToNBroadcastConnectorDescriptor(spec), scanner, 0, sorter, 0);
+        return sorter;
+    }
+
+    private static RecordDescriptor getRecordDescriptor(String file) {
+        ISerializerDeserializer[] fields = new ISerializerDeserializer[LINEITEM.equals(file)
+                ? lineitemValueParserFactories.length : orderValueParserFactories.length];
+        Arrays.fill(fields, new UTF8StringSerializerDeserializer());
+        return new RecordDescriptor(fields);
+    }
+
+    /**
+     * Matches a left and a right tuple if their ranges [start, end] overlap.
+     */
+    private static class OverlapComparatorFactory implements ITuplePairComparatorFactory {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] leftKeys;
+        private final int[] rightKeys;
+
+        OverlapComparatorFactory(int[] leftKeys, int[] rightKeys) {
+            this.leftKeys = leftKeys;
+            this.rightKeys = rightKeys;
+        }
+
+        @Override
+        public ITuplePairComparator createTuplePairComparator(IHyracksTaskContext ctx) {
+            IBinaryComparator[] comparators =
+                    new IBinaryComparator[] { UTF8StringBinaryComparatorFactory.INSTANCE.createBinaryComparator() };
+            FrameTuplePairComparator leftEndRightStart =
+                    new FrameTuplePairComparator(new int[] { leftKeys[1] }, new int[] { rightKeys[0] }, comparators);
+            FrameTuplePairComparator leftStartRightEnd =
+                    new FrameTuplePairComparator(new int[] { leftKeys[0] }, new int[] { rightKeys[1] }, comparators);
+            return new ITuplePairComparator() {
+                @Override
+                public int compare(IFrameTupleAccessor accessor0, int tIndex0, IFrameTupleAccessor accessor1,
+                        int tIndex1) throws HyracksDataException {
+                    return leftEndRightStart.compare(accessor0, tIndex0, accessor1, tIndex1) >= 0
+                            && leftStartRightEnd.compare(accessor0, tIndex0, accessor1, tIndex1) <= 0 ? 0 : 1;
+                }
+            };
+        }
+    }
+}
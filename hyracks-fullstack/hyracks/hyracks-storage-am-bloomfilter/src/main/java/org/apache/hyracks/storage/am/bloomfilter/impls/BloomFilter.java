@@ -49,9 +49,17 @@ public class BloomFilter {
 
     private static final int BLOCKED_BLOOM_FILTER_VERSION = 1;
 
+    // a block is split into 64-bit words and every key sets exactly one bit in each of them
+    private static final int SPLIT_BLOCK_BLOOM_FILTER_VERSION = 2;
+    private static final int NUM_WORDS_PER_BLOCK = NUM_BITS_PER_BLOCK / Long.SIZE;
+    // odd multipliers taken from the split block bloom filters of Impala and Parquet
+    private static final int[] SALT =
+            { 0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31 };
+
     private final IBufferCache bufferCache;
     private final FileReference file;
     private final int[] keyFields;
+    private final boolean splitBlock;
     private int fileId = -1;
     private boolean isActivated = false;
 
@@ -70,13 +78,46 @@ public class BloomFilter {
     private static final long SEED = 0L;
 
     public BloomFilter(IBufferCache bufferCache, FileReference file, int[] keyFields) throws HyracksDataException {
+        this(bufferCache, file, keyFields, false);
+    }
+
+    /**
+     * @param splitBlock
+     *            whether new filters are built as split block bloom filters, which set a fixed number of bits per key
+     *            (one in each 64-bit word of a cache line) and can be probed without branches. Existing filters are
+     *            read according to the layout they were built with.
+     */
+    public BloomFilter(IBufferCache bufferCache, FileReference file, int[] keyFields, boolean splitBlock)
+            throws HyracksDataException {
         this.bufferCache = bufferCache;
         this.file = file;
         this.keyFields = keyFields;
+        this.splitBlock = splitBlock;
         this.numBitsPerPage = bufferCache.getPageSize() * Byte.SIZE;
         this.numBlocksPerPage = this.numBitsPerPage / NUM_BITS_PER_BLOCK;
     }
 
+    public int[] getKeyFields() {
+        return keyFields;
+    }
+
+    /**
+     * @return true if the filter is built on the first fields of the tuples, in which case it can be probed with
+     *         any key that has at least as many fields
+     */
+    public boolean isPrefixFilter() {
+        for (int i = 0; i < keyFields.length; i++) {
+            if (keyFields[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isSplitBlock() {
+        return splitBlock;
+    }
+
     public int getFileId() {
         return fileId;
     }
@@ -92,7 +133,7 @@ public class BloomFilter {
                 pages = new ICachedPage[numPages];
             }
             for (int i = 0; i < numPages; i++) {
-                pages[i] = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i + 1), false);
+                pages[i] = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i + 1), false, true);
             }
             pagesPinned = true;
         }
@@ -127,8 +168,30 @@ public class BloomFilter {
         if (numPages == 0) {
             return false;
         }
+        computeHashes(tuple, hashes);
+        return contains(hashes);
+    }
+
+    /**
+     * Computes the hashes of the key of the tuple. The hashes only depend on the key fields, so they can be used to
+     * probe all filters that are built on the same key fields, see {@link #contains(long[])}.
+     */
+    public void computeHashes(ITupleReference tuple, long[] hashes) {
         MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
-        if (version == BLOCKED_BLOOM_FILTER_VERSION) {
+    }
+
+    /**
+     * @param hashes
+     *            the hashes of a key computed by {@link #computeHashes(ITupleReference, long[])}
+     * @return false if the key is definitely not in the filter
+     */
+    public boolean contains(long[] hashes) throws HyracksDataException {
+        if (numPages == 0) {
+            return false;
+        }
+        if (version == SPLIT_BLOCK_BLOOM_FILTER_VERSION) {
+            return splitBlockContains(hashes);
+        } else if (version == BLOCKED_BLOOM_FILTER_VERSION) {
             return blockContains(hashes);
         } else {
             return legacyContains(hashes);
@@ -147,7 +210,7 @@ public class BloomFilter {
         if (pagesPinned) {
             page = pages[pageId];
         } else {
-            page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId + 1), false);
+            page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId + 1), false, true);
             unpinWhenExit = true;
         }
         ByteBuffer buffer = page.getBuffer();
@@ -171,14 +234,53 @@ public class BloomFilter {
 
     }
 
+    private boolean splitBlockContains(long[] hashes) throws HyracksDataException {
+        long blockId = Math.floorMod(hashes[0], getNumBlocks(numBits));
+        int pageId = (int) (blockId / numBlocksPerPage);
+        int blockOffset = (int) (blockId % numBlocksPerPage) * (NUM_BITS_PER_BLOCK / Byte.SIZE);
+        int key = (int) hashes[1];
+
+        boolean unpinWhenExit = false;
+        ICachedPage page;
+        if (pagesPinned) {
+            page = pages[pageId];
+        } else {
+            page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId + 1), false, true);
+            unpinWhenExit = true;
+        }
+        try {
+            ByteBuffer buffer = page.getBuffer();
+            // no early exit, all words of the block are checked so that the loop is free of branches
+            int missing = 0;
+            for (int i = 0; i < NUM_WORDS_PER_BLOCK; i++) {
+                int bitIndex = splitBlockBitIndex(key, i);
+                missing |= ~buffer.get(blockOffset + i * Long.BYTES + (bitIndex >> 3)) & (1 << (bitIndex & 0x07));
+            }
+            return missing == 0;
+        } finally {
+            if (unpinWhenExit) {
+                bufferCache.unpin(page);
+            }
+        }
+    }
+
+    private static int splitBlockBitIndex(int key, int word) {
+        // the top 6 bits of the salted key select the bit of the word
+        return (key * SALT[word]) >>> (Integer.SIZE - 6);
+    }
+
+    private static long getNumBlocks(long numBits) {
+        return (numBits + NUM_BITS_PER_BLOCK - 1) / NUM_BITS_PER_BLOCK;
+    }
+
     // membership check for legacy bloom filters
     private boolean legacyContains(long[] hashes) throws HyracksDataException {
         for (int i = 0; i < numHashes; ++i) {
             long hash = Math.abs((hashes[0] + i * hashes[1]) % numBits);
 
             // we increment the page id by one, since the metadata page id of the filter is 0.
-            ICachedPage page =
-                    bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, (int) (hash / numBitsPerPage) + 1), false);
+            ICachedPage page = bufferCache
+                    .pin(BufferedFileHandle.getDiskPageId(fileId, (int) (hash / numBitsPerPage) + 1), false, true);
             page.acquireReadLatch();
             try {
                 ByteBuffer buffer = page.getBuffer();
@@ -283,6 +385,7 @@ public class BloomFilter {
         private final int numHashes;
         private final long numBits;
         private final int numPages;
+        private final int version;
         private long actualNumElements;
         private final IFIFOPageWriter pageWriter;
         private final ICachedPage[] pages;
@@ -296,7 +399,13 @@ public class BloomFilter {
             }
             pageWriter = bufferCache.createFIFOWriter(callback, this);
             this.estimatedNumElements = estimatedNumElemenets;
-            this.numHashes = numHashes;
+            if (splitBlock) {
+                version = SPLIT_BLOCK_BLOOM_FILTER_VERSION;
+                this.numHashes = NUM_WORDS_PER_BLOCK;
+            } else {
+                version = BLOCKED_BLOOM_FILTER_VERSION;
+                this.numHashes = numHashes;
+            }
             numBits = this.estimatedNumElements * numBitsPerElement;
             long tmp = (long) Math.ceil(numBits / (double) numBitsPerPage);
             if (tmp > Integer.MAX_VALUE) {
@@ -346,7 +455,7 @@ public class BloomFilter {
             metaDataPage.getBuffer().putInt(NUM_HASHES_USED_OFFSET, numHashes);
             metaDataPage.getBuffer().putLong(NUM_ELEMENTS_OFFSET, actualNumElements);
             metaDataPage.getBuffer().putLong(NUM_BITS_OFFSET, numBits);
-            metaDataPage.getBuffer().putInt(VERSION_OFFSET, BLOCKED_BLOOM_FILTER_VERSION);
+            metaDataPage.getBuffer().putInt(VERSION_OFFSET, version);
         }
 
         @Override
@@ -356,6 +465,10 @@ public class BloomFilter {
             }
             actualNumElements++;
             MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
+            if (version == SPLIT_BLOCK_BLOOM_FILTER_VERSION) {
+                addToSplitBlock();
+                return;
+            }
 
             long hash = Math.abs(hashes[0] % numBits);
             long groupId = hash / NUM_BITS_PER_BLOCK;
@@ -375,6 +488,18 @@ public class BloomFilter {
             }
         }
 
+        private void addToSplitBlock() {
+            long blockId = Math.floorMod(hashes[0], getNumBlocks(numBits));
+            ByteBuffer buffer = pages[(int) (blockId / numBlocksPerPage)].getBuffer();
+            int blockOffset = (int) (blockId % numBlocksPerPage) * (NUM_BITS_PER_BLOCK / Byte.SIZE);
+            int key = (int) hashes[1];
+            for (int i = 0; i < NUM_WORDS_PER_BLOCK; i++) {
+                int bitIndex = splitBlockBitIndex(key, i);
+                int byteIndex = blockOffset + i * Long.BYTES + (bitIndex >> 3);
+                buffer.put(byteIndex, (byte) (buffer.get(byteIndex) | (1 << (bitIndex & 0x07))));
+            }
+        }
+
         @Override
         public void end() throws HyracksDataException {
             allocateAndInitMetaDataPage();
@@ -389,7 +514,7 @@ public class BloomFilter {
             BloomFilter.this.numHashes = numHashes;
             BloomFilter.this.numElements = actualNumElements;
             BloomFilter.this.numPages = numPages;
-            BloomFilter.this.version = BLOCKED_BLOOM_FILTER_VERSION;
+            BloomFilter.this.version = version;
         }
 
         @Override
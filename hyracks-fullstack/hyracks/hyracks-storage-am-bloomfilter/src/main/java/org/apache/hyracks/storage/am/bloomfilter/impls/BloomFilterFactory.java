@@ -26,17 +26,27 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 public class BloomFilterFactory {
     private final IBufferCache bufferCache;
     private final int[] bloomFilterKeyFields;
+    private final boolean splitBlock;
 
     public BloomFilterFactory(IBufferCache bufferCache, int[] bloomFilterKeyFields) {
+        this(bufferCache, bloomFilterKeyFields, false);
+    }
+
+    public BloomFilterFactory(IBufferCache bufferCache, int[] bloomFilterKeyFields, boolean splitBlock) {
         this.bufferCache = bufferCache;
         this.bloomFilterKeyFields = bloomFilterKeyFields;
+        this.splitBlock = splitBlock;
     }
 
     public BloomFilter createBloomFiltertInstance(FileReference file) throws HyracksDataException {
-        return new BloomFilter(bufferCache, file, bloomFilterKeyFields);
+        return new BloomFilter(bufferCache, file, bloomFilterKeyFields, splitBlock);
     }
 
     public int[] getBloomFilterKeyFields() {
         return bloomFilterKeyFields;
     }
+
+    public boolean isSplitBlock() {
+        return splitBlock;
+    }
 }
@@ -19,6 +19,8 @@
 
 package org.apache.hyracks.storage.am.btree.impls;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -891,6 +893,14 @@ public class BTree extends AbstractTreeIndex {
             return createSearchCursor(exclusive);
         }
 
+        /**
+         * Creates a cursor for point searches. A stateful cursor keeps its position when it is closed so that a
+         * following search of a larger key can resume from it, which only disk btrees support.
+         */
+        public BTreeRangeSearchCursor createPointCursor(boolean exclusive, boolean stateful) {
+            return createPointCursor(exclusive);
+        }
+
         @Override
         public void search(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException {
             ctx.setOperation(IndexOperation.SEARCH);
@@ -1002,18 +1012,40 @@ public class BTree extends AbstractTreeIndex {
         return new BTreeBulkLoader(fillFactor, verifyInput, callback);
     }
 
+    @Override
+    public IIndexBulkLoader resumeBulkLoader(float fillFactor, boolean verifyInput, IPageWriteCallback callback,
+            DataInput checkpoint) throws HyracksDataException {
+        return new BTreeBulkLoader(fillFactor, verifyInput, callback, checkpoint);
+    }
+
     public class BTreeBulkLoader extends AbstractTreeIndex.AbstractTreeIndexBulkLoader {
         protected final ISplitKey splitKey;
         protected final boolean verifyInput;
 
         public BTreeBulkLoader(float fillFactor, boolean verifyInput, IPageWriteCallback callback)
                 throws HyracksDataException {
-            super(fillFactor, callback);
+            this(fillFactor, verifyInput, callback, null);
+        }
+
+        public BTreeBulkLoader(float fillFactor, boolean verifyInput, IPageWriteCallback callback, DataInput checkpoint)
+                throws HyracksDataException {
+            super(fillFactor, callback, checkpoint);
             this.verifyInput = verifyInput;
             splitKey = new BTreeSplitKey(leafFrame.getTupleWriter().createTupleReference());
             splitKey.getTuple().setFieldCount(cmp.getKeyFieldCount());
         }
 
+        @Override
+        public boolean checkpoint(DataOutput out) throws HyracksDataException {
+            // a large leaf spans several pages and a compressed file keeps its page offsets in memory until the end
+            if (getFileReference().isCompressed() || ((IBTreeLeafFrame) leafFrame).getLargeFlag()) {
+                return false;
+            }
+            bufferCache.force(getFileId(), true);
+            writeFrontiers(out);
+            return true;
+        }
+
         @Override
         public void add(ITupleReference tuple) throws HyracksDataException {
             try {
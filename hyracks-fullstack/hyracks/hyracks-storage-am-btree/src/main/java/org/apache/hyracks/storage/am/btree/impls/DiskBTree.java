@@ -19,6 +19,8 @@
 
 package org.apache.hyracks.storage.am.btree.impls;
 
+import java.util.Map;
+
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
@@ -91,7 +93,7 @@ public class DiskBTree extends BTree {
 
         if (diskCursor.numSearchPages() == 0) {
             // we have to search from root to leaf
-            ICachedPage rootNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), rootPage), false);
+            ICachedPage rootNode = pinInteriorPage(rootPage);
             diskCursor.addSearchPage(rootPage);
             searchDown(rootNode, rootPage, ctx, diskCursor);
         } else {
@@ -123,7 +125,7 @@ public class DiskBTree extends BTree {
         // no need to check root page
         for (; index >= 0; index--) {
             int pageId = cursor.getLastSearchPage();
-            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), pageId), false);
+            ICachedPage page = pinInteriorPage(pageId);
             ctx.getInteriorFrame().setPage(page);
             if (index == 0 || fitInPage(ctx.getPred().getLowKey(), ctx.getPred().getLowKeyComparator(),
                     ctx.getInteriorFrame())) {
@@ -138,11 +140,19 @@ public class DiskBTree extends BTree {
 
         // if no page is available (which is the case for single-level BTree)
         // we simply return the root page
-        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), rootPage), false);
+        ICachedPage page = pinInteriorPage(rootPage);
         cursor.addSearchPage(rootPage);
         return page;
     }
 
+    /**
+     * Pins a page that is expected to be an interior node, i.e. the root or a page on the current search path above
+     * the leaf level. Interior nodes are shared by all searches of the tree, so the buffer cache is hinted to keep them.
+     */
+    private ICachedPage pinInteriorPage(int pageId) throws HyracksDataException {
+        return bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), pageId), false, true);
+    }
+
     private boolean fitInPage(ITupleReference key, MultiComparator comparator, IBTreeFrame frame)
             throws HyracksDataException {
         ITupleReference rightmostTuple = frame.getRightmostTuple();
@@ -167,8 +177,10 @@ public class DiskBTree extends BTree {
 
                 // save the child page tuple index
                 cursor.addSearchPage(childPageId);
+                boolean childIsInterior = ctx.getInteriorFrame().getLevel() > 1;
                 bufferCache.unpin(currentPage);
-                currentPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), childPageId), false);
+                currentPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), childPageId), false,
+                        childIsInterior);
                 ctx.getInteriorFrame().setPage(currentPage);
             }
 
@@ -228,8 +240,12 @@ public class DiskBTree extends BTree {
         @Override
         public DiskBTreeRangeSearchCursor createSearchCursor(boolean exclusive) {
             IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) btree.getLeafFrameFactory().createFrame();
-            return new DiskBTreeRangeSearchCursor(leafFrame, exclusive, (IIndexCursorStats) iap.getParameters()
-                    .getOrDefault(HyracksConstants.INDEX_CURSOR_STATS, NoOpIndexCursorStats.INSTANCE));
+            Map<String, Object> parameters = iap.getParameters();
+            return new DiskBTreeRangeSearchCursor(leafFrame, exclusive,
+                    (IIndexCursorStats) parameters.getOrDefault(HyracksConstants.INDEX_CURSOR_STATS,
+                            NoOpIndexCursorStats.INSTANCE),
+                    (Integer) parameters.getOrDefault(HyracksConstants.INDEX_CURSOR_READ_AHEAD_PAGES,
+                            DiskBTreeRangeSearchCursor.DEFAULT_READ_AHEAD_PAGES));
         }
 
         @Override
@@ -238,6 +254,12 @@ public class DiskBTree extends BTree {
             return new DiskBTreePointSearchCursor(leafFrame, exclusive);
         }
 
+        @Override
+        public BTreeRangeSearchCursor createPointCursor(boolean exclusive, boolean stateful) {
+            IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) btree.getLeafFrameFactory().createFrame();
+            return new DiskBTreePointSearchCursor(leafFrame, exclusive, stateful);
+        }
+
         @Override
         public void search(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException {
             ctx.setOperation(IndexOperation.SEARCH);
@@ -29,9 +29,17 @@ import org.apache.hyracks.storage.common.ISearchPredicate;
 public class DiskBTreePointSearchCursor extends DiskBTreeRangeSearchCursor {
 
     private boolean nextHasBeenCalled;
+    // a stateful cursor keeps its leaf page pinned and its search path when it is closed so that the next search,
+    // of a key that is not smaller than the previous one, can start from them instead of from the root
+    private final boolean stateful;
 
     public DiskBTreePointSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes) {
+        this(frame, exclusiveLatchNodes, false);
+    }
+
+    public DiskBTreePointSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes, boolean stateful) {
         super(frame, exclusiveLatchNodes);
+        this.stateful = stateful;
     }
 
     @Override
@@ -73,4 +81,33 @@ public class DiskBTreePointSearchCursor extends DiskBTreeRangeSearchCursor {
         tupleIndex = getLowKeyIndex();
     }
 
+    @Override
+    public void doClose() throws HyracksDataException {
+        if (stateful && page != null) {
+            tupleIndex = 0;
+            pred = null;
+            return;
+        }
+        super.doClose();
+    }
+
+    @Override
+    public void doDestroy() throws HyracksDataException {
+        releaseSearchPath();
+        super.doDestroy();
+    }
+
+    /**
+     * Unpins the leaf page and forgets the search path kept by a closed stateful cursor. Must be called before the
+     * index is deactivated or the cursor is used to search another index.
+     *
+     * @throws HyracksDataException
+     */
+    public void releaseSearchPath() throws HyracksDataException {
+        if (page != null) {
+            releasePage();
+            page = null;
+        }
+        searchPages.clear();
+    }
 }
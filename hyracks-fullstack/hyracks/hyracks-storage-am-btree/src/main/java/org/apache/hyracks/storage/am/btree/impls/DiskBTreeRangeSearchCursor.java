@@ -23,22 +23,46 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IAsyncRequest;
+import org.apache.hyracks.api.util.InvokeUtil;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
 import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
 public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
+    public static final int DEFAULT_READ_AHEAD_PAGES = 8;
+    // the number of leaves reached through sibling pointers before the scan is considered sequential
+    private static final int SEQUENTIAL_LEAVES_BEFORE_READ_AHEAD = 2;
 
     // keep track of the pages (root -> leaf) we've searched
     protected final List<Integer> searchPages = new ArrayList<>(5);
 
+    /*
+     * Leaves of disk btrees are bulk loaded into (mostly) consecutive pages, so once a scan follows sibling pointers
+     * we read the next readAheadPages pages ahead of it. The window is refilled once half of it has been consumed so
+     * that the missing pages are read in runs rather than one by one. The requests are kept in a ring buffer and are
+     * awaited before the slot is reused and when the cursor is closed.
+     */
+    private final IAsyncRequest[] readAheadRequests;
+    private int readAheadIndex;
+    private int lastReadAheadPageId = -1;
+    private int numFilePages = -1;
+    private int sequentialLeaves;
+
     public DiskBTreeRangeSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes) {
-        super(frame, exclusiveLatchNodes);
+        this(frame, exclusiveLatchNodes, NoOpIndexCursorStats.INSTANCE);
     }
 
     public DiskBTreeRangeSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes, IIndexCursorStats stats) {
+        this(frame, exclusiveLatchNodes, stats, 0);
+    }
+
+    public DiskBTreeRangeSearchCursor(IBTreeLeafFrame frame, boolean exclusiveLatchNodes, IIndexCursorStats stats,
+            int readAheadPages) {
         super(frame, exclusiveLatchNodes, stats);
+        readAheadRequests = new IAsyncRequest[readAheadPages];
     }
 
     @Override
@@ -67,6 +91,41 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
         return true;
     }
 
+    @Override
+    protected void fetchNextLeafPage(int nextLeafPage) throws HyracksDataException {
+        if (readAheadRequests.length > 0 && ++sequentialLeaves >= SEQUENTIAL_LEAVES_BEFORE_READ_AHEAD) {
+            readAhead(nextLeafPage);
+        }
+        super.fetchNextLeafPage(nextLeafPage);
+    }
+
+    private void readAhead(int nextLeafPage) throws HyracksDataException {
+        if (numFilePages < 0) {
+            numFilePages = bufferCache.getNumPagesOfFile(fileId);
+        }
+        if (nextLeafPage > lastReadAheadPageId || nextLeafPage < lastReadAheadPageId - readAheadRequests.length) {
+            // the scan is not where we expected it to be, restart reading ahead from its position
+            lastReadAheadPageId = nextLeafPage;
+        }
+        int lastPageId = Math.min(nextLeafPage + readAheadRequests.length, numFilePages - 1);
+        int numPages = lastPageId - lastReadAheadPageId;
+        if (numPages > 0 && (numPages * 2 >= readAheadRequests.length || lastPageId == numFilePages - 1)) {
+            awaitReadAhead(readAheadIndex);
+            readAheadRequests[readAheadIndex] =
+                    bufferCache.prefetch(BufferedFileHandle.getDiskPageId(fileId, lastReadAheadPageId + 1), numPages);
+            readAheadIndex = (readAheadIndex + 1) % readAheadRequests.length;
+            lastReadAheadPageId = lastPageId;
+        }
+    }
+
+    private void awaitReadAhead(int index) {
+        IAsyncRequest request = readAheadRequests[index];
+        if (request != null) {
+            InvokeUtil.doUninterruptibly(request::await);
+            readAheadRequests[index] = null;
+        }
+    }
+
     @Override
     protected void resetBeforeOpen() throws HyracksDataException {
         // do nothing
@@ -108,5 +167,12 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
     public void doClose() throws HyracksDataException {
         super.doClose();
         searchPages.clear();
+        for (int i = 0; i < readAheadRequests.length; i++) {
+            awaitReadAhead(i);
+        }
+        readAheadIndex = 0;
+        lastReadAheadPageId = -1;
+        numFilePages = -1;
+        sequentialLeaves = 0;
     }
 }
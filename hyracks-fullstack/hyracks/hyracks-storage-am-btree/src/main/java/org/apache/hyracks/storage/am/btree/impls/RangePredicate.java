@@ -154,4 +154,22 @@ public class RangePredicate extends AbstractSearchPredicate {
         return originalKeyComparator.compare(getLowKey(), getHighKey()) == 0;
 
     }
+
+    /**
+     * @return true if every key in the range has the same first numFields fields, i.e., if the low and high keys
+     *         are both compared on at least numFields fields and agree on them
+     */
+    public boolean isPrefixPredicate(MultiComparator originalKeyComparator, int numFields) throws HyracksDataException {
+        if (getLowKey() == null || getHighKey() == null) {
+            return false;
+        }
+        if (getLowKeyComparator() == null || getHighKeyComparator() == null) {
+            return false;
+        }
+        if (numFields > originalKeyComparator.getKeyFieldCount() || getLowKeyComparator().getKeyFieldCount() < numFields
+                || getHighKeyComparator().getKeyFieldCount() < numFields) {
+            return false;
+        }
+        return originalKeyComparator.fieldRangeCompare(getLowKey(), getHighKey(), 0, numFields) == 0;
+    }
 }
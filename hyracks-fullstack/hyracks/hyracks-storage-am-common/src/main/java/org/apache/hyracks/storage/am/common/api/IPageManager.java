@@ -167,4 +167,17 @@ public interface IPageManager {
      * @throws HyracksDataException
      */
     void setRootPageId(int rootPage) throws HyracksDataException;
+
+    /**
+     * Continue allocating pages of a partially written file opened by {@link #open(int)}. Pages up to and including
+     * maxPage are considered taken and the metadata is written after the last page taken when the file is closed.
+     *
+     * @param maxPage
+     *            the largest page id taken before the write was interrupted
+     * @throws HyracksDataException
+     */
+    default void resume(int maxPage) throws HyracksDataException {
+        throw new UnsupportedOperationException(
+                "Resuming a partially written file is not supported by " + getClass().getName());
+    }
 }
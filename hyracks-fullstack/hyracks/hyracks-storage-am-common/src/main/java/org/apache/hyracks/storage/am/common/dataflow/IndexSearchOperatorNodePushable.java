@@ -92,7 +92,7 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
     protected ArrayTupleBuilder nonFilterTupleBuild;
     protected final ISearchOperationCallbackFactory searchCallbackFactory;
     protected boolean failed = false;
-    private IOperatorStats stats;
+    protected IOperatorStats stats;
 
     // Used when the result of the search operation callback needs to be passed.
     protected boolean appendSearchCallbackProceedResult;
@@ -232,41 +232,55 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
         while (cursor.hasNext()) {
             cursor.next();
             matchingTupleCount++;
-            ITupleReference tuple = cursor.getTuple();
-            if (tupleFilter != null && !tupleFilter.accept(referenceFilterTuple.reset(tuple))) {
-                continue;
-            }
-            tb.reset();
-
-            if (retainInput) {
-                frameTuple.reset(accessor, tupleIndex);
-                for (int i = 0; i < frameTuple.getFieldCount(); i++) {
-                    dos.write(frameTuple.getFieldData(i), frameTuple.getFieldStart(i), frameTuple.getFieldLength(i));
-                    tb.addFieldEndOffset();
-                }
-            }
-            writeTupleToOutput(tuple);
-            if (appendSearchCallbackProceedResult) {
-                writeSearchCallbackProceedResult(tb,
-                        ((ILSMIndexCursor) cursor).getSearchOperationCallbackProceedResult());
-            }
-            if (appendIndexFilter) {
-                writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMinTuple());
-                writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMaxTuple());
-            }
-            FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
-            if (outputLimit >= 0 && ++outputCount >= outputLimit) {
-                finished = true;
+            writeSearchResult(tupleIndex, cursor.getTuple());
+            if (finished) {
                 break;
             }
         }
         stats.getTupleCounter().update(matchingTupleCount);
 
         if (matchingTupleCount == 0 && retainInput && retainMissing) {
-            FrameUtils.appendConcatToWriter(writer, appender, accessor, tupleIndex,
-                    nonMatchTupleBuild.getFieldEndOffsets(), nonMatchTupleBuild.getByteArray(), 0,
-                    nonMatchTupleBuild.getSize());
+            writeMissingResult(tupleIndex);
+        }
+    }
+
+    /**
+     * Writes a tuple found by the cursor for the input tuple at the given index unless it is rejected by the tuple
+     * filter, and sets {@link #finished} once the output limit is reached.
+     */
+    protected void writeSearchResult(int tupleIndex, ITupleReference tuple) throws IOException {
+        if (tupleFilter != null && !tupleFilter.accept(referenceFilterTuple.reset(tuple))) {
+            return;
         }
+        tb.reset();
+
+        if (retainInput) {
+            frameTuple.reset(accessor, tupleIndex);
+            for (int i = 0; i < frameTuple.getFieldCount(); i++) {
+                dos.write(frameTuple.getFieldData(i), frameTuple.getFieldStart(i), frameTuple.getFieldLength(i));
+                tb.addFieldEndOffset();
+            }
+        }
+        writeTupleToOutput(tuple);
+        if (appendSearchCallbackProceedResult) {
+            writeSearchCallbackProceedResult(tb, ((ILSMIndexCursor) cursor).getSearchOperationCallbackProceedResult());
+        }
+        if (appendIndexFilter) {
+            writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMinTuple());
+            writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMaxTuple());
+        }
+        FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+        if (outputLimit >= 0 && ++outputCount >= outputLimit) {
+            finished = true;
+        }
+    }
+
+    /**
+     * Writes the input tuple at the given index padded with missing values for an input tuple without matches.
+     */
+    protected void writeMissingResult(int tupleIndex) throws HyracksDataException {
+        FrameUtils.appendConcatToWriter(writer, appender, accessor, tupleIndex, nonMatchTupleBuild.getFieldEndOffsets(),
+                nonMatchTupleBuild.getByteArray(), 0, nonMatchTupleBuild.getSize());
     }
 
     @Override
@@ -158,7 +158,7 @@ public class AppendOnlyLinkedMetadataPageManager implements IMetadataPageManager
             if (mdPage < 0) {
                 return IBufferCache.INVALID_PAGEID;
             }
-            metaNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, mdPage), false);
+            metaNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, mdPage), false, true);
         } else {
             metaNode = confiscatedPage;
         }
@@ -209,6 +209,29 @@ public class AppendOnlyLinkedMetadataPageManager implements IMetadataPageManager
         }
     }
 
+    @Override
+    public void resume(int maxPage) throws HyracksDataException {
+        ITreeIndexMetadataFrame metaFrame = createMetadataFrame();
+        if (confiscatedPage == null) {
+            ICachedPage metaNode = bufferCache.confiscatePage(BufferCache.INVALID_DPID);
+            try {
+                metaFrame.setPage(metaNode);
+                metaFrame.init();
+            } finally {
+                confiscatedPage = metaNode;
+            }
+        }
+        confiscatedPage.acquireWriteLatch();
+        try {
+            metaFrame.setPage(confiscatedPage);
+            metaFrame.setMaxPage(maxPage);
+        } finally {
+            confiscatedPage.releaseWriteLatch(false);
+        }
+        // the last page of a partially written file is not a metadata page
+        metadataPage = IBufferCache.INVALID_PAGEID;
+    }
+
     @Override
     public void close(IPageWriteFailureCallback failureCallback) throws HyracksDataException {
         if (ready) {
@@ -282,7 +305,7 @@ public class AppendOnlyLinkedMetadataPageManager implements IMetadataPageManager
     public int getRootPageId() throws HyracksDataException {
         ICachedPage metaNode;
         if (confiscatedPage == null) {
-            metaNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, getMetadataPageId()), false);
+            metaNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, getMetadataPageId()), false, true);
         } else {
             metaNode = confiscatedPage;
         }
@@ -321,7 +344,7 @@ public class AppendOnlyLinkedMetadataPageManager implements IMetadataPageManager
 
     private ICachedPage pinPage() throws HyracksDataException {
         return confiscatedPage == null
-                ? bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, getMetadataPageId()), false)
+                ? bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, getMetadataPageId()), false, true)
                 : confiscatedPage;
     }
 
@@ -28,6 +28,9 @@ public abstract class AbstractSearchPredicate implements ISearchPredicate {
 
     protected ITupleReference minFilterTuple = null;
     protected ITupleReference maxFilterTuple = null;
+    protected int[] zoneMapFields = null;
+    protected ITupleReference zoneMapLowKey = null;
+    protected ITupleReference zoneMapHighKey = null;
 
     public AbstractSearchPredicate(ITupleReference minFilterTuple, ITupleReference maxFilterTuple) {
         this.minFilterTuple = minFilterTuple;
@@ -45,4 +48,33 @@ public abstract class AbstractSearchPredicate implements ISearchPredicate {
     public ITupleReference getMaxFilterTuple() {
         return maxFilterTuple;
     }
+
+    /**
+     * Restrict the search to disk components whose zone maps may contain tuples with each of the fields in an
+     * inclusive range. This only prunes components, tuples outside of the ranges are not filtered out.
+     *
+     * @param fields
+     *            the fields of the index tuple which are restricted or null to not prune by zone maps
+     * @param lowKey
+     *            the tuple holding the lower bound of fields[i] in its field i, or null if there are no lower bounds
+     * @param highKey
+     *            the tuple holding the upper bound of fields[i] in its field i, or null if there are no upper bounds
+     */
+    public void setZoneMapRange(int[] fields, ITupleReference lowKey, ITupleReference highKey) {
+        this.zoneMapFields = fields;
+        this.zoneMapLowKey = lowKey;
+        this.zoneMapHighKey = highKey;
+    }
+
+    public int[] getZoneMapFields() {
+        return zoneMapFields;
+    }
+
+    public ITupleReference getZoneMapLowKey() {
+        return zoneMapLowKey;
+    }
+
+    public ITupleReference getZoneMapHighKey() {
+        return zoneMapHighKey;
+    }
 }
@@ -19,6 +19,10 @@
 
 package org.apache.hyracks.storage.am.common.impls;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -248,13 +252,23 @@ public abstract class AbstractTreeIndex implements ITreeIndex {
         private final ICompressedPageWriter compressedPageWriter;
 
         public AbstractTreeIndexBulkLoader(float fillFactor, IPageWriteCallback callback) throws HyracksDataException {
+            this(fillFactor, callback, null);
+        }
+
+        /**
+         * @param checkpoint
+         *            the frontiers written by {@link #writeFrontiers(DataOutput)} before the load was interrupted, or
+         *            null to start loading an empty tree
+         */
+        protected AbstractTreeIndexBulkLoader(float fillFactor, IPageWriteCallback callback, DataInput checkpoint)
+                throws HyracksDataException {
             leafFrame = leafFrameFactory.createFrame();
             interiorFrame = interiorFrameFactory.createFrame();
             metaFrame = freePageManager.createMetadataFrame();
 
             pageWriter = bufferCache.createFIFOWriter(callback, this);
 
-            if (!isEmptyTree(leafFrame)) {
+            if (checkpoint == null && !isEmptyTree(leafFrame)) {
                 throw HyracksDataException.create(ErrorCode.CANNOT_BULK_LOAD_NON_EMPTY_TREE);
             }
 
@@ -264,24 +278,73 @@ public abstract class AbstractTreeIndex implements ITreeIndex {
             interiorFrame.setMultiComparator(cmp);
 
             tupleWriter = leafFrame.getTupleWriter();
+            pagesToWrite = new ArrayList<>();
+            compressedPageWriter = bufferCache.getCompressedPageWriter(fileId);
 
-            NodeFrontier leafFrontier = new NodeFrontier(leafFrame.createTupleReference());
-            leafFrontier.pageId = freePageManager.takePage(metaFrame);
-            leafFrontier.page =
-                    bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, leafFrontier.pageId));
-
-            interiorFrame.setPage(leafFrontier.page);
-            interiorFrame.initBuffer((byte) 0);
+            if (checkpoint == null) {
+                NodeFrontier leafFrontier = new NodeFrontier(leafFrame.createTupleReference());
+                leafFrontier.pageId = freePageManager.takePage(metaFrame);
+                leafFrontier.page =
+                        bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, leafFrontier.pageId));
+
+                interiorFrame.setPage(leafFrontier.page);
+                interiorFrame.initBuffer((byte) 0);
+                leafFrame.setPage(leafFrontier.page);
+                leafFrame.initBuffer((byte) 0);
+                nodeFrontiers.add(leafFrontier);
+            } else {
+                readFrontiers(checkpoint);
+                interiorFrame.setPage(nodeFrontiers.get(0).page);
+                leafFrame.setPage(nodeFrontiers.get(0).page);
+            }
             interiorMaxBytes = (int) (interiorFrame.getBuffer().capacity() * fillFactor);
-
-            leafFrame.setPage(leafFrontier.page);
-            leafFrame.initBuffer((byte) 0);
             leafMaxBytes = (int) (leafFrame.getBuffer().capacity() * fillFactor);
             slotSize = leafFrame.getSlotSize();
+        }
 
-            nodeFrontiers.add(leafFrontier);
-            pagesToWrite = new ArrayList<>();
-            compressedPageWriter = bufferCache.getCompressedPageWriter(fileId);
+        /**
+         * Write the state needed to continue this load on the pages written so far: the largest page id taken and the
+         * content of the frontier pages that are still held in memory. The caller must force the written pages before
+         * the state is persisted.
+         */
+        protected void writeFrontiers(DataOutput out) throws HyracksDataException {
+            try {
+                out.writeInt(freePageManager.getMaxPageId(metaFrame));
+                out.writeInt(nodeFrontiers.size());
+                for (NodeFrontier frontier : nodeFrontiers) {
+                    ByteBuffer buffer = frontier.page.getBuffer();
+                    out.writeInt(frontier.pageId);
+                    out.write(buffer.array(), 0, buffer.capacity());
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        private void readFrontiers(DataInput in) throws HyracksDataException {
+            try {
+                freePageManager.resume(in.readInt());
+                int numLevels = in.readInt();
+                for (int level = 0; level < numLevels; level++) {
+                    NodeFrontier frontier;
+                    int pageId = in.readInt();
+                    if (level == 0) {
+                        frontier = new NodeFrontier(leafFrame.createTupleReference());
+                        frontier.page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, pageId));
+                    } else {
+                        frontier = new NodeFrontier(tupleWriter.createTupleReference());
+                        frontier.page = bufferCache.confiscatePage(IBufferCache.INVALID_DPID);
+                        frontier.lastTuple.setFieldCount(cmp.getKeyFieldCount());
+                    }
+                    frontier.pageId = pageId;
+                    nodeFrontiers.add(frontier);
+                    ByteBuffer buffer = frontier.page.getBuffer();
+                    in.readFully(buffer.array(), 0, buffer.capacity());
+                }
+            } catch (IOException e) {
+                handleException();
+                throw HyracksDataException.create(e);
+            }
         }
 
         protected void handleException() {
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.dataflow;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.btree.dataflow.BTreeSearchOperatorNodePushable;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndex;
+import org.apache.hyracks.storage.am.common.api.ITupleFilterFactory;
+import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+/**
+ * Looks up the keys of all tuples of a frame with a single search of a batched point search cursor instead of
+ * searching the index once per tuple. The results are written in the order of the input tuples.
+ */
+public class LSMBTreeBatchPointSearchOperatorNodePushable extends BTreeSearchOperatorNodePushable {
+
+    private final int[] keyFields;
+
+    public LSMBTreeBatchPointSearchOperatorNodePushable(IHyracksTaskContext ctx, int partition,
+            RecordDescriptor inputRecDesc, int[] keyFields, IIndexDataflowHelperFactory indexHelperFactory,
+            boolean retainInput, boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory, ITupleFilterFactory tupleFilterFactory,
+            long outputLimit) throws HyracksDataException {
+        super(ctx, partition, inputRecDesc, keyFields, keyFields, true, true, null, null, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, false, tupleFilterFactory,
+                outputLimit, false, null, null);
+        this.keyFields = keyFields;
+    }
+
+    @Override
+    protected ISearchPredicate createSearchPredicate() {
+        ITreeIndex treeIndex = (ITreeIndex) index;
+        lowKeySearchCmp = BTreeUtils.getSearchMultiComparator(treeIndex.getComparatorFactories(), lowKey);
+        highKeySearchCmp = lowKeySearchCmp;
+        return new BatchPredicate(keyFields, lowKeySearchCmp);
+    }
+
+    @Override
+    protected IIndexCursor createCursor() throws HyracksDataException {
+        return ((ILSMIndexAccessor) indexAccessor).createBatchPointSearchCursor();
+    }
+
+    @Override
+    public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        accessor.reset(buffer);
+        if (finished) {
+            return;
+        }
+        try {
+            ((BatchPredicate) searchPred).reset(accessor);
+            cursor.close();
+            indexAccessor.search(cursor, searchPred);
+            writeBatchSearchResults(accessor.getTupleCount());
+        } catch (Exception e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private void writeBatchSearchResults(int tupleCount) throws Exception {
+        boolean writeMissing = retainInput && retainMissing;
+        long matchingTupleCount = 0;
+        int nextTupleIndex = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            matchingTupleCount++;
+            int tupleIndex = ((ILSMBatchPointSearchCursor) cursor).getKeyIndex();
+            for (; writeMissing && nextTupleIndex < tupleIndex; nextTupleIndex++) {
+                writeMissingResult(nextTupleIndex);
+            }
+            writeSearchResult(tupleIndex, cursor.getTuple());
+            nextTupleIndex = tupleIndex + 1;
+            if (finished) {
+                break;
+            }
+        }
+        stats.getTupleCounter().update(matchingTupleCount);
+
+        for (; writeMissing && !finished && nextTupleIndex < tupleCount; nextTupleIndex++) {
+            writeMissingResult(nextTupleIndex);
+        }
+    }
+}
@@ -45,12 +45,16 @@ import org.apache.hyracks.storage.common.IStorageManager;
 import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class LSMBTreeLocalResource extends LsmResource {
 
     private static final long serialVersionUID = 1L;
     private static final String HAS_BLOOM_FILTER_FIELD = "hasBloomFilter";
+    private static final String SPLIT_BLOCK_BLOOM_FILTER_FIELD = "splitBlockBloomFilter";
+    private static final String ZONE_MAP_FIELDS_FIELD = "zoneMapFields";
+    private static final String ZONE_MAP_CMP_FACTORIES_FIELD = "zoneMapCmpFactories";
 
     protected final boolean hasBloomFilter;
     protected final int[] bloomFilterKeyFields;
@@ -58,6 +62,9 @@ public class LSMBTreeLocalResource extends LsmResource {
     protected final boolean isPrimary;
     protected final int[] btreeFields;
     protected final ICompressorDecompressorFactory compressorDecompressorFactory;
+    protected final boolean splitBlockBloomFilter;
+    protected final int[] zoneMapFields;
+    protected final IBinaryComparatorFactory[] zoneMapCmpFactories;
 
     public LSMBTreeLocalResource(ITypeTraits[] typeTraits, IBinaryComparatorFactory[] cmpFactories,
             int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate, boolean isPrimary, String path,
@@ -69,6 +76,42 @@ public class LSMBTreeLocalResource extends LsmResource {
             IMetadataPageManagerFactory metadataPageManagerFactory, IVirtualBufferCacheProvider vbcProvider,
             ILSMIOOperationSchedulerProvider ioSchedulerProvider, boolean durable,
             ICompressorDecompressorFactory compressorDecompressorFactory, boolean hasBloomFilter) {
+        this(typeTraits, cmpFactories, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary, path,
+                storageManager, mergePolicyFactory, mergePolicyProperties, filterTypeTraits, filterCmpFactories,
+                btreeFields, filterFields, opTrackerProvider, ioOpCallbackFactory, pageWriteCallbackFactory,
+                metadataPageManagerFactory, vbcProvider, ioSchedulerProvider, durable, compressorDecompressorFactory,
+                hasBloomFilter, false);
+    }
+
+    public LSMBTreeLocalResource(ITypeTraits[] typeTraits, IBinaryComparatorFactory[] cmpFactories,
+            int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate, boolean isPrimary, String path,
+            IStorageManager storageManager, ILSMMergePolicyFactory mergePolicyFactory,
+            Map<String, String> mergePolicyProperties, ITypeTraits[] filterTypeTraits,
+            IBinaryComparatorFactory[] filterCmpFactories, int[] btreeFields, int[] filterFields,
+            ILSMOperationTrackerFactory opTrackerProvider, ILSMIOOperationCallbackFactory ioOpCallbackFactory,
+            ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
+            IMetadataPageManagerFactory metadataPageManagerFactory, IVirtualBufferCacheProvider vbcProvider,
+            ILSMIOOperationSchedulerProvider ioSchedulerProvider, boolean durable,
+            ICompressorDecompressorFactory compressorDecompressorFactory, boolean hasBloomFilter,
+            boolean splitBlockBloomFilter) {
+        this(typeTraits, cmpFactories, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary, path,
+                storageManager, mergePolicyFactory, mergePolicyProperties, filterTypeTraits, filterCmpFactories,
+                btreeFields, filterFields, opTrackerProvider, ioOpCallbackFactory, pageWriteCallbackFactory,
+                metadataPageManagerFactory, vbcProvider, ioSchedulerProvider, durable, compressorDecompressorFactory,
+                hasBloomFilter, splitBlockBloomFilter, null, null);
+    }
+
+    public LSMBTreeLocalResource(ITypeTraits[] typeTraits, IBinaryComparatorFactory[] cmpFactories,
+            int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate, boolean isPrimary, String path,
+            IStorageManager storageManager, ILSMMergePolicyFactory mergePolicyFactory,
+            Map<String, String> mergePolicyProperties, ITypeTraits[] filterTypeTraits,
+            IBinaryComparatorFactory[] filterCmpFactories, int[] btreeFields, int[] filterFields,
+            ILSMOperationTrackerFactory opTrackerProvider, ILSMIOOperationCallbackFactory ioOpCallbackFactory,
+            ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
+            IMetadataPageManagerFactory metadataPageManagerFactory, IVirtualBufferCacheProvider vbcProvider,
+            ILSMIOOperationSchedulerProvider ioSchedulerProvider, boolean durable,
+            ICompressorDecompressorFactory compressorDecompressorFactory, boolean hasBloomFilter,
+            boolean splitBlockBloomFilter, int[] zoneMapFields, IBinaryComparatorFactory[] zoneMapCmpFactories) {
         super(path, storageManager, typeTraits, cmpFactories, filterTypeTraits, filterCmpFactories, filterFields,
                 opTrackerProvider, ioOpCallbackFactory, pageWriteCallbackFactory, metadataPageManagerFactory,
                 vbcProvider, ioSchedulerProvider, mergePolicyFactory, mergePolicyProperties, durable);
@@ -78,12 +121,32 @@ public class LSMBTreeLocalResource extends LsmResource {
         this.btreeFields = btreeFields;
         this.compressorDecompressorFactory = compressorDecompressorFactory;
         this.hasBloomFilter = hasBloomFilter;
+        this.splitBlockBloomFilter = splitBlockBloomFilter;
+        this.zoneMapFields = zoneMapFields;
+        this.zoneMapCmpFactories = zoneMapCmpFactories;
     }
 
     protected LSMBTreeLocalResource(IPersistedResourceRegistry registry, JsonNode json, int[] bloomFilterKeyFields,
             double bloomFilterFalsePositiveRate, boolean isPrimary, int[] btreeFields,
             ICompressorDecompressorFactory compressorDecompressorFactory, boolean hasBloomFilter)
             throws HyracksDataException {
+        this(registry, json, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary, btreeFields,
+                compressorDecompressorFactory, hasBloomFilter, false);
+    }
+
+    protected LSMBTreeLocalResource(IPersistedResourceRegistry registry, JsonNode json, int[] bloomFilterKeyFields,
+            double bloomFilterFalsePositiveRate, boolean isPrimary, int[] btreeFields,
+            ICompressorDecompressorFactory compressorDecompressorFactory, boolean hasBloomFilter,
+            boolean splitBlockBloomFilter) throws HyracksDataException {
+        this(registry, json, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary, btreeFields,
+                compressorDecompressorFactory, hasBloomFilter, splitBlockBloomFilter, null, null);
+    }
+
+    protected LSMBTreeLocalResource(IPersistedResourceRegistry registry, JsonNode json, int[] bloomFilterKeyFields,
+            double bloomFilterFalsePositiveRate, boolean isPrimary, int[] btreeFields,
+            ICompressorDecompressorFactory compressorDecompressorFactory, boolean hasBloomFilter,
+            boolean splitBlockBloomFilter, int[] zoneMapFields, IBinaryComparatorFactory[] zoneMapCmpFactories)
+            throws HyracksDataException {
         super(registry, json);
         this.bloomFilterKeyFields = bloomFilterKeyFields;
         this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
@@ -91,6 +154,9 @@ public class LSMBTreeLocalResource extends LsmResource {
         this.btreeFields = btreeFields;
         this.compressorDecompressorFactory = compressorDecompressorFactory;
         this.hasBloomFilter = hasBloomFilter;
+        this.splitBlockBloomFilter = splitBlockBloomFilter;
+        this.zoneMapFields = zoneMapFields;
+        this.zoneMapCmpFactories = zoneMapCmpFactories;
     }
 
     @Override
@@ -108,7 +174,8 @@ public class LSMBTreeLocalResource extends LsmResource {
                 opTrackerProvider.getOperationTracker(serviceCtx, this), ioSchedulerProvider.getIoScheduler(serviceCtx),
                 ioOpCallbackFactory, pageWriteCallbackFactory, isPrimary, filterTypeTraits, filterCmpFactories,
                 btreeFields, filterFields, durable, metadataPageManagerFactory, updateAware, serviceCtx.getTracer(),
-                compressorDecompressorFactory, hasBloomFilter);
+                compressorDecompressorFactory, hasBloomFilter, splitBlockBloomFilter, zoneMapFields,
+                zoneMapCmpFactories);
     }
 
     @Override
@@ -124,12 +191,28 @@ public class LSMBTreeLocalResource extends LsmResource {
         final double bloomFilterFalsePositiveRate = json.get("bloomFilterFalsePositiveRate").asDouble();
         final boolean isPrimary = json.get("isPrimary").asBoolean();
         boolean hasBloomFilter = getOrDefaultHasBloomFilter(json, isPrimary);
+        // resources persisted before split block bloom filters were added use the blocked layout
+        final boolean splitBlockBloomFilter =
+                json.has(SPLIT_BLOCK_BLOOM_FILTER_FIELD) && json.get(SPLIT_BLOCK_BLOOM_FILTER_FIELD).asBoolean();
         final int[] btreeFields = OBJECT_MAPPER.convertValue(json.get("btreeFields"), int[].class);
+        // resources persisted before zone maps were added have none
+        final int[] zoneMapFields = json.has(ZONE_MAP_FIELDS_FIELD)
+                ? OBJECT_MAPPER.convertValue(json.get(ZONE_MAP_FIELDS_FIELD), int[].class) : null;
+        IBinaryComparatorFactory[] zoneMapCmpFactories = null;
+        if (json.has(ZONE_MAP_CMP_FACTORIES_FIELD)) {
+            final ArrayNode jsonZoneMapCmpFactories = (ArrayNode) json.get(ZONE_MAP_CMP_FACTORIES_FIELD);
+            zoneMapCmpFactories = new IBinaryComparatorFactory[jsonZoneMapCmpFactories.size()];
+            for (int i = 0; i < zoneMapCmpFactories.length; i++) {
+                zoneMapCmpFactories[i] =
+                        (IBinaryComparatorFactory) registry.deserialize(jsonZoneMapCmpFactories.get(i));
+            }
+        }
         final JsonNode compressorDecompressorNode = json.get("compressorDecompressorFactory");
         final ICompressorDecompressorFactory compDecompFactory = (ICompressorDecompressorFactory) registry
                 .deserializeOrDefault(compressorDecompressorNode, NoOpCompressorDecompressorFactory.class);
         return new LSMBTreeLocalResource(registry, json, bloomFilterKeyFields, bloomFilterFalsePositiveRate, isPrimary,
-                btreeFields, compDecompFactory, hasBloomFilter);
+                btreeFields, compDecompFactory, hasBloomFilter, splitBlockBloomFilter, zoneMapFields,
+                zoneMapCmpFactories);
     }
 
     @Override
@@ -137,6 +220,17 @@ public class LSMBTreeLocalResource extends LsmResource {
             throws HyracksDataException {
         super.appendToJson(json, registry);
         json.put(HAS_BLOOM_FILTER_FIELD, hasBloomFilter);
+        json.put(SPLIT_BLOCK_BLOOM_FILTER_FIELD, splitBlockBloomFilter);
+        if (zoneMapFields != null) {
+            json.putPOJO(ZONE_MAP_FIELDS_FIELD, zoneMapFields);
+        }
+        if (zoneMapCmpFactories != null) {
+            final ArrayNode zoneMapCmpArray = OBJECT_MAPPER.createArrayNode();
+            for (IBinaryComparatorFactory factory : zoneMapCmpFactories) {
+                zoneMapCmpArray.add(factory.toJson(registry));
+            }
+            json.set(ZONE_MAP_CMP_FACTORIES_FIELD, zoneMapCmpArray);
+        }
         json.putPOJO("bloomFilterKeyFields", bloomFilterKeyFields);
         json.put("bloomFilterFalsePositiveRate", bloomFilterFalsePositiveRate);
         json.put("isPrimary", isPrimary);
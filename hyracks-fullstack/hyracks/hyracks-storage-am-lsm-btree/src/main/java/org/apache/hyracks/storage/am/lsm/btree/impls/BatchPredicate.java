@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.data.accessors.PermutingFrameTupleReference;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * The predicate of a batched point lookup. The keys of the batch are the key fields of the tuples of a frame, and the
+ * predicate is an inclusive point predicate on one of them at a time, see {@link #setKeyIndex(int)}.
+ */
+public class BatchPredicate extends RangePredicate {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final PermutingFrameTupleReference keyTuple;
+    protected IFrameTupleAccessor accessor;
+    protected int keyIndex = -1;
+
+    public BatchPredicate(int[] keyFields, MultiComparator keyCmp) {
+        super(null, null, true, true, keyCmp, keyCmp);
+        keyTuple = new PermutingFrameTupleReference(keyFields);
+    }
+
+    public void reset(IFrameTupleAccessor accessor) {
+        this.accessor = accessor;
+        keyIndex = -1;
+        lowKey = null;
+        highKey = null;
+    }
+
+    public int getNumKeys() {
+        return accessor.getTupleCount();
+    }
+
+    public int getKeyIndex() {
+        return keyIndex;
+    }
+
+    public void setKeyIndex(int keyIndex) {
+        this.keyIndex = keyIndex;
+        keyTuple.reset(accessor, keyIndex);
+        lowKey = keyTuple;
+        highKey = keyTuple;
+    }
+}
@@ -59,12 +59,17 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMOperationTracker;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMPageWriteCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
 import org.apache.hyracks.storage.am.lsm.common.freepage.VirtualFreePageManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMMemoryComponent;
+import org.apache.hyracks.storage.am.lsm.common.impls.ChainedLSMDiskComponentBulkLoader;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentZoneMap;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor.ICursorFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.MergeCheckpoint;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
 import org.apache.hyracks.storage.common.IIndexAccessor;
 import org.apache.hyracks.storage.common.IIndexCursor;
@@ -78,7 +83,9 @@ import org.apache.hyracks.util.trace.ITracer;
 
 public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
 
+    public static final long DEFAULT_MERGE_CHECKPOINT_INTERVAL = 1L << 20;
     private static final ICursorFactory cursorFactory = LSMBTreeSearchCursor::new;
+    private static final ICursorFactory batchPointCursorFactory = LSMBTreeBatchPointSearchCursor::new;
     // Common for in-memory and on-disk components.
     protected final ITreeIndexFrameFactory insertLeafFrameFactory;
     protected final ITreeIndexFrameFactory deleteLeafFrameFactory;
@@ -90,6 +97,11 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
     // Primary and Primary Key LSMBTree has a Bloomfilter, but Secondary one doesn't have.
     private final boolean hasBloomFilter;
 
+    private final int[] zoneMapFields;
+    private final IBinaryComparatorFactory[] zoneMapCmpFactories;
+
+    private long mergeCheckpointInterval = DEFAULT_MERGE_CHECKPOINT_INTERVAL;
+
     public LSMBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
             ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
             ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache diskBufferCache,
@@ -101,6 +113,34 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             ILSMIOOperationCallbackFactory ioOpCallbackFactory, ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
             boolean needKeyDupCheck, boolean hasBloomFilter, int[] btreeFields, int[] filterFields, boolean durable,
             boolean updateAware, ITracer tracer) throws HyracksDataException {
+        this(ioManager, virtualBufferCaches, interiorFrameFactory, insertLeafFrameFactory, deleteLeafFrameFactory,
+                diskBufferCache, fileManager, componentFactory, bulkLoadComponentFactory, filterHelper,
+                filterFrameFactory, filterManager, bloomFilterFalsePositiveRate, fieldCount, cmpFactories, mergePolicy,
+                opTracker, ioScheduler, ioOpCallbackFactory, pageWriteCallbackFactory, needKeyDupCheck, hasBloomFilter,
+                btreeFields, filterFields, durable, updateAware, tracer, null, null);
+    }
+
+    /**
+     * @param zoneMapFields
+     *            the fields on which every disk component keeps min/max values, or null for no zone maps. If one of
+     *            them is not a key field, the tuples which modifications replace or delete must be passed to
+     *            {@link #updateFilter}, see {@link LSMComponentZoneMap}.
+     * @param zoneMapCmpFactories
+     *            the comparators of zoneMapFields, or null if they are all key fields and are compared by the key
+     *            comparators
+     */
+    public LSMBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
+            ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache diskBufferCache,
+            ILSMIndexFileManager fileManager, ILSMDiskComponentFactory componentFactory,
+            ILSMDiskComponentFactory bulkLoadComponentFactory, IComponentFilterHelper filterHelper,
+            ILSMComponentFilterFrameFactory filterFrameFactory, LSMComponentFilterManager filterManager,
+            double bloomFilterFalsePositiveRate, int fieldCount, IBinaryComparatorFactory[] cmpFactories,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallbackFactory ioOpCallbackFactory, ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
+            boolean needKeyDupCheck, boolean hasBloomFilter, int[] btreeFields, int[] filterFields, boolean durable,
+            boolean updateAware, ITracer tracer, int[] zoneMapFields, IBinaryComparatorFactory[] zoneMapCmpFactories)
+            throws HyracksDataException {
         super(ioManager, virtualBufferCaches, diskBufferCache, fileManager, bloomFilterFalsePositiveRate, mergePolicy,
                 opTracker, ioScheduler, ioOpCallbackFactory, pageWriteCallbackFactory, componentFactory,
                 bulkLoadComponentFactory, filterFrameFactory, filterManager, filterFields, durable, filterHelper,
@@ -109,6 +149,10 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.deleteLeafFrameFactory = deleteLeafFrameFactory;
         this.cmpFactories = cmpFactories;
         this.updateAware = updateAware;
+        // set before the memory components are created, which create their zone maps from them
+        this.zoneMapFields = zoneMapFields;
+        this.zoneMapCmpFactories = zoneMapFields == null ? null
+                : getZoneMapCmpFactories(zoneMapFields, zoneMapCmpFactories, cmpFactories, fieldCount);
         int i = 0;
         for (IVirtualBufferCache virtualBufferCache : virtualBufferCaches) {
             LSMBTreeMemoryComponent mutableComponent = new LSMBTreeMemoryComponent(this,
@@ -123,6 +167,28 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.hasBloomFilter = hasBloomFilter;
     }
 
+    private static IBinaryComparatorFactory[] getZoneMapCmpFactories(int[] zoneMapFields,
+            IBinaryComparatorFactory[] zoneMapCmpFactories, IBinaryComparatorFactory[] cmpFactories, int fieldCount) {
+        if (zoneMapCmpFactories != null && zoneMapCmpFactories.length != zoneMapFields.length) {
+            throw new IllegalArgumentException(
+                    "Expected " + zoneMapFields.length + " zone map comparators, got " + zoneMapCmpFactories.length);
+        }
+        IBinaryComparatorFactory[] factories = new IBinaryComparatorFactory[zoneMapFields.length];
+        for (int i = 0; i < zoneMapFields.length; i++) {
+            if (zoneMapFields[i] < 0 || zoneMapFields[i] >= fieldCount) {
+                throw new IllegalArgumentException("Zone map field " + zoneMapFields[i] + " is not a field");
+            }
+            if (zoneMapCmpFactories != null) {
+                factories[i] = zoneMapCmpFactories[i];
+            } else if (zoneMapFields[i] < cmpFactories.length) {
+                factories[i] = cmpFactories[zoneMapFields[i]];
+            } else {
+                throw new IllegalArgumentException("Zone map field " + zoneMapFields[i] + " is not a key field");
+            }
+        }
+        return factories;
+    }
+
     // Without memory components
     public LSMBTree(IIOManager ioManager, ITreeIndexFrameFactory insertLeafFrameFactory,
             ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache bufferCache, ILSMIndexFileManager fileManager,
@@ -140,6 +206,29 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.needKeyDupCheck = needKeyDupCheck;
         this.hasBloomFilter = true;
         this.updateAware = false;
+        this.zoneMapFields = null;
+        this.zoneMapCmpFactories = null;
+    }
+
+    @Override
+    public LSMComponentZoneMap createZoneMap() {
+        return zoneMapFields == null ? null : new LSMComponentZoneMap(zoneMapFields, zoneMapCmpFactories);
+    }
+
+    public int[] getZoneMapFields() {
+        return zoneMapFields;
+    }
+
+    @Override
+    public boolean hasNonKeyZoneMapFields() {
+        if (zoneMapFields != null) {
+            for (int field : zoneMapFields) {
+                if (field >= cmpFactories.length) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     @Override
@@ -174,7 +263,12 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
                 ctx.getCurrentMutableBTreeAccessor().upsert(indexTuple);
                 break;
         }
-        updateFilter(ctx, tuple);
+        updateComponentFilter(ctx, tuple);
+        if (ctx.isRecovery() && hasNonKeyZoneMapFields()) {
+            // the tuples which the redone modifications replaced are not in the log
+            ((AbstractLSMMemoryComponent) memoryComponents.get(currentMutableComponentId.get())).getZoneMap()
+                    .invalidate();
+        }
     }
 
     private boolean insert(ITupleReference tuple, LSMBTreeOpContext ctx) throws HyracksDataException {
@@ -322,6 +416,10 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         // Use the copy of the metadata in the opContext
         // TODO This code should be in the callback and not in the index
         flushingComponent.getMetadata().copy(component.getMetadata());
+        if (component.getZoneMap() != null) {
+            // the values which the flushed tuples replaced or deleted
+            component.getZoneMap().union(flushingComponent.getZoneMap());
+        }
 
         componentBulkLoader.end();
 
@@ -332,24 +430,59 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
     public ILSMDiskComponent doMerge(ILSMIOOperation operation) throws HyracksDataException {
         LSMBTreeMergeOperation mergeOp = (LSMBTreeMergeOperation) operation;
         IIndexCursor cursor = mergeOp.getCursor();
+        FileReference checkpointFile = MergeCheckpoint.getFileReference(fileManager.getBaseDir(), mergeOp.getTarget());
         ILSMDiskComponent mergedComponent;
         ILSMDiskComponentBulkLoader componentBulkLoader = null;
         try {
             try {
+                List<ILSMComponent> mergedComponents = mergeOp.getMergingComponents();
+                long numElements = getNumberOfElements(mergedComponents);
+                MergeCheckpoint resumeFrom = getResumeCheckpoint(mergeOp, checkpointFile);
+                mergeOp.setResumeCheckpoint(resumeFrom);
+                if (resumeFrom == null) {
+                    mergedComponent = createDiskComponent(componentFactory, mergeOp.getTarget(), null,
+                            mergeOp.getBloomFilterTarget(), true);
+                } else {
+                    resumeFrom.truncate(mergeOp.getTarget());
+                    mergedComponent = componentFactory.createComponent(this,
+                            new LSMComponentFileReferences(mergeOp.getTarget(), null, mergeOp.getBloomFilterTarget()));
+                    ((AbstractLSMDiskComponent) mergedComponent).activateForResume();
+                }
+                IPageWriteCallback pageWriteCallback = pageWriteCallbackFactory.createPageWriteCallback();
+                componentBulkLoader = mergedComponent.createBulkLoader(operation, 1.0f, false, numElements, false,
+                        false, false, pageWriteCallback);
+                ChainedLSMDiskComponentBulkLoader chainedBulkLoader =
+                        (ChainedLSMDiskComponentBulkLoader) componentBulkLoader;
                 RangePredicate rangePred = new RangePredicate(null, null, true, true, null, null);
+                if (resumeFrom != null) {
+                    // the target already holds the tuples up to the last one checkpointed, only the state that is
+                    // written at the end of the bulkload (e.g. the bloom filter) is rebuilt from them
+                    MultiComparator keyCmp = MultiComparator.create(cmpFactories);
+                    search(mergeOp.getAccessor().getOpContext(), cursor,
+                            new RangePredicate(null, resumeFrom.getLastTuple(), true, true, null, keyCmp));
+                    try {
+                        while (cursor.hasNext()) {
+                            cursor.next();
+                            chainedBulkLoader.replay(cursor.getTuple());
+                        }
+                    } finally {
+                        cursor.close();
+                    }
+                    rangePred = new RangePredicate(resumeFrom.getLastTuple(), null, false, true, keyCmp, null);
+                }
                 search(mergeOp.getAccessor().getOpContext(), cursor, rangePred);
                 try {
-                    List<ILSMComponent> mergedComponents = mergeOp.getMergingComponents();
-                    long numElements = getNumberOfElements(mergedComponents);
-                    mergedComponent = createDiskComponent(componentFactory, mergeOp.getTarget(), null,
-                            mergeOp.getBloomFilterTarget(), true);
-                    IPageWriteCallback pageWriteCallback = pageWriteCallbackFactory.createPageWriteCallback();
-                    componentBulkLoader = mergedComponent.createBulkLoader(operation, 1.0f, false, numElements, false,
-                            false, false, pageWriteCallback);
+                    long sinceCheckpoint = 0;
                     while (cursor.hasNext()) {
                         cursor.next();
                         ITupleReference frameTuple = cursor.getTuple();
                         componentBulkLoader.add(frameTuple);
+                        if (mergeCheckpointInterval > 0 && ++sinceCheckpoint >= mergeCheckpointInterval) {
+                            // a checkpoint that cannot be taken at this tuple is retried after another interval, not
+                            // on every following tuple
+                            sinceCheckpoint = 0;
+                            MergeCheckpoint.write(checkpointFile, mergeOp.getTarget(), frameTuple, chainedBulkLoader);
+                        }
                     }
                 } finally {
                     cursor.close();
@@ -368,20 +501,55 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
                 getFilterManager().writeFilter(mergedComponent.getLSMComponentFilter(),
                         mergedComponent.getMetadataHolder());
             }
+            if (mergedComponent.getZoneMap() != null) {
+                // the merged tuples do not cover the values which the merging components replaced or deleted
+                for (ILSMComponent c : mergeOp.getMergingComponents()) {
+                    mergedComponent.getZoneMap().union(((ILSMDiskComponent) c).getZoneMap());
+                }
+            }
         } catch (Throwable e) { // NOSONAR.. As per the contract, we should either abort or end
             try {
                 if (componentBulkLoader != null) {
                     componentBulkLoader.abort();
                 }
+                // a failed merge is cleaned up and scheduled again from the beginning
+                MergeCheckpoint.delete(checkpointFile);
             } catch (Throwable th) { // NOSONAR Don't lose the root failure
                 e.addSuppressed(th);
             }
             throw e;
         }
         componentBulkLoader.end();
+        // must be gone before the merged component is marked as valid, see AbstractLSMIndexFileManager
+        MergeCheckpoint.delete(checkpointFile);
         return mergedComponent;
     }
 
+    /**
+     * @return the checkpoint of an interrupted run of the given merge, or null if the merge must start from the
+     *         beginning
+     */
+    private MergeCheckpoint getResumeCheckpoint(LSMBTreeMergeOperation mergeOp, FileReference checkpointFile)
+            throws HyracksDataException {
+        fileManager.deleteInterruptedMerges(mergeOp.getTarget());
+        MergeCheckpoint checkpoint = MergeCheckpoint.read(checkpointFile);
+        if (checkpoint != null && mergeOp.getTarget().getFile().exists()) {
+            return checkpoint;
+        }
+        MergeCheckpoint.delete(checkpointFile);
+        return null;
+    }
+
+    /**
+     * Set how many tuples are merged between two checkpoints of a merge. A merge interrupted by a restart continues
+     * from its last checkpoint when it is scheduled again. Zero disables merge checkpoints.
+     * Merges into compressed files are never checkpointed: the page offsets of a compressed file are only written to
+     * its look aside file when the bulkload ends, so the pages written before an interruption cannot be found again.
+     */
+    public void setMergeCheckpointInterval(long mergeCheckpointInterval) {
+        this.mergeCheckpointInterval = mergeCheckpointInterval;
+    }
+
     private long getNumberOfElements(List<ILSMComponent> mergedComponents) throws HyracksDataException {
         long numElements = 0L;
         if (hasBloomFilter) {
@@ -418,7 +586,7 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
     }
 
     public ILSMIndexAccessor createAccessor(AbstractLSMIndexOperationContext opCtx) {
-        return new LSMTreeIndexAccessor(getHarness(), opCtx, cursorFactory);
+        return new LSMTreeIndexAccessor(getHarness(), opCtx, cursorFactory, batchPointCursorFactory);
     }
 
     @Override
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTreePointSearchCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+/**
+ * Looks up the keys of a {@link BatchPredicate} one after the other with the same semantics as
+ * {@link LSMBTreePointSearchCursor}. The bloom filters of all disk components are probed for all keys when the cursor
+ * is opened, hashing every key only once, and the disk component cursors are stateful, so that the lookup of a key
+ * starts from the leaf of the previous key and each leaf is visited at most once when the keys are sorted.
+ */
+public class LSMBTreeBatchPointSearchCursor extends LSMBTreePointSearchCursor implements ILSMBatchPointSearchCursor {
+
+    private final long[] hashes = BloomFilter.createHashArray();
+    private BatchPredicate batchPredicate;
+    private long[] keyHashes = new long[0];
+    // whether the bloom filter of component i may contain key k, at [i * numKeys + k]
+    private boolean[] candidates = new boolean[0];
+    private int numKeys;
+    private int keyIndex;
+
+    public LSMBTreeBatchPointSearchCursor(ILSMIndexOperationContext opCtx) {
+        super(opCtx);
+    }
+
+    @Override
+    public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        super.doOpen(initialState, searchPred);
+        batchPredicate = (BatchPredicate) predicate;
+        numKeys = batchPredicate.getNumKeys();
+        keyIndex = -1;
+        probeBloomFilters();
+    }
+
+    private void probeBloomFilters() throws HyracksDataException {
+        BloomFilter anyFilter = null;
+        for (int i = 0; i < numBTrees && anyFilter == null; i++) {
+            anyFilter = bloomFilters[i];
+        }
+        if (anyFilter == null) {
+            return;
+        }
+        if (keyHashes.length < 2 * numKeys) {
+            keyHashes = new long[2 * numKeys];
+        }
+        if (candidates.length < numBTrees * numKeys) {
+            candidates = new boolean[numBTrees * numKeys];
+        }
+        for (int k = 0; k < numKeys; k++) {
+            batchPredicate.setKeyIndex(k);
+            anyFilter.computeHashes(batchPredicate.getLowKey(), hashes);
+            keyHashes[2 * k] = hashes[0];
+            keyHashes[2 * k + 1] = hashes[1];
+        }
+        // probe one filter at a time so that its pages stay hot
+        for (int i = 0; i < numBTrees; i++) {
+            if (bloomFilters[i] == null) {
+                continue;
+            }
+            int offset = i * numKeys;
+            for (int k = 0; k < numKeys; k++) {
+                hashes[0] = keyHashes[2 * k];
+                hashes[1] = keyHashes[2 * k + 1];
+                candidates[offset + k] = bloomFilters[i].contains(hashes);
+            }
+        }
+    }
+
+    @Override
+    public boolean doHasNext() throws HyracksDataException {
+        if (foundTuple && !nextHasBeenCalled) {
+            return true;
+        }
+        while (keyIndex + 1 < numKeys) {
+            // memory component cursors hold latches, disk component cursors keep their position
+            super.closeCursors();
+            foundTuple = false;
+            nextHasBeenCalled = false;
+            batchPredicate.setKeyIndex(++keyIndex);
+            if (super.doHasNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean isSearchCandidate(int componentIndex) {
+        return bloomFilters[componentIndex] == null || candidates[componentIndex * numKeys + keyIndex];
+    }
+
+    @Override
+    protected ITreeIndexCursor createCursor(LSMComponentType type, BTreeAccessor btreeAccessor) {
+        return btreeAccessor.createPointCursor(false, type == LSMComponentType.DISK);
+    }
+
+    @Override
+    protected void closeCursors() throws HyracksDataException {
+        super.closeCursors();
+        if (btreeCursors != null) {
+            for (int i = 0; i < numBTrees; ++i) {
+                if (btreeCursors[i] instanceof DiskBTreePointSearchCursor) {
+                    ((DiskBTreePointSearchCursor) btreeCursors[i]).releaseSearchPath();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getKeyIndex() {
+        return keyIndex;
+    }
+}
@@ -44,17 +44,17 @@ import org.apache.hyracks.storage.common.ISearchPredicate;
 
 public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements ILSMIndexCursor {
 
-    private ITreeIndexCursor[] btreeCursors;
+    protected ITreeIndexCursor[] btreeCursors;
     private final ILSMIndexOperationContext opCtx;
     private ISearchOperationCallback searchCallback;
-    private RangePredicate predicate;
+    protected RangePredicate predicate;
     private boolean includeMutableComponent;
-    private int numBTrees;
+    protected int numBTrees;
     private BTreeAccessor[] btreeAccessors;
-    private BloomFilter[] bloomFilters;
+    protected BloomFilter[] bloomFilters;
     private ILSMHarness lsmHarness;
-    private boolean nextHasBeenCalled;
-    private boolean foundTuple;
+    protected boolean nextHasBeenCalled;
+    protected boolean foundTuple;
     private int foundIn = -1;
     private ITupleReference frameTuple;
     private List<ILSMComponent> operationalComponents;
@@ -75,7 +75,7 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
         }
         boolean reconciled = false;
         for (int i = 0; i < numBTrees; ++i) {
-            if (bloomFilters[i] != null && !bloomFilters[i].contains(predicate.getLowKey(), hashes)) {
+            if (!isSearchCandidate(i)) {
                 continue;
             }
             btreeAccessors[i].search(btreeCursors[i], predicate);
@@ -196,7 +196,7 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
 
             if (btreeAccessors[i] == null) {
                 btreeAccessors[i] = btree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
-                btreeCursors[i] = btreeAccessors[i].createPointCursor(false);
+                btreeCursors[i] = createCursor(component.getType(), btreeAccessors[i]);
             } else {
                 // re-use
                 btreeAccessors[i].reset(btree, NoOpIndexAccessParameters.INSTANCE);
@@ -207,6 +207,18 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
         foundTuple = false;
     }
 
+    /**
+     * @return whether the component at the given index may contain the searched key
+     */
+    protected boolean isSearchCandidate(int componentIndex) throws HyracksDataException {
+        return bloomFilters[componentIndex] == null
+                || bloomFilters[componentIndex].contains(predicate.getLowKey(), hashes);
+    }
+
+    protected ITreeIndexCursor createCursor(LSMComponentType type, BTreeAccessor btreeAccessor) {
+        return btreeAccessor.createPointCursor(false);
+    }
+
     private void destroyAndNullifyCursorAtIndex(int i) throws HyracksDataException {
         // component at location i was a disk component before, and is now a memory component, or vise versa
         bloomFilters[i] = null;
@@ -259,7 +271,7 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
         return null;
     }
 
-    private void closeCursors() throws HyracksDataException {
+    protected void closeCursors() throws HyracksDataException {
         if (btreeCursors != null) {
             for (int i = 0; i < numBTrees; ++i) {
                 if (btreeCursors[i] != null) {
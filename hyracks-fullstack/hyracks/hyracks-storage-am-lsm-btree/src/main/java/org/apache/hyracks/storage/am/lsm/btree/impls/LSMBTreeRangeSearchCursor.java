@@ -26,15 +26,19 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.util.CleanupUtils;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMMemoryComponent;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentZoneMap;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
 import org.apache.hyracks.storage.common.ICursorInitialState;
 import org.apache.hyracks.storage.common.IIndexCursor;
@@ -50,6 +54,8 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
     private ISearchOperationCallback searchCallback;
     private BTreeAccessor[] btreeAccessors;
     private boolean[] isMemoryComponent;
+    private boolean[] isFilteredOut;
+    private final long[] hashes = BloomFilter.createHashArray();
     private ArrayTupleBuilder tupleBuilder;
     private boolean canCallProceed = true;
     private boolean resultOfSearchCallbackProceed = false;
@@ -350,6 +356,7 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
             rangeCursors = new IIndexCursor[numBTrees];
             btreeAccessors = new BTreeAccessor[numBTrees];
             isMemoryComponent = new boolean[numBTrees];
+            isFilteredOut = new boolean[numBTrees];
         } else if (rangeCursors.length != numBTrees) {
             // should destroy first
             Throwable failure = CleanupUtils.destroy(null, btreeAccessors);
@@ -362,6 +369,7 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
             rangeCursors = new IIndexCursor[numBTrees];
             btreeAccessors = new BTreeAccessor[numBTrees];
             isMemoryComponent = new boolean[numBTrees];
+            isFilteredOut = new boolean[numBTrees];
         }
         for (int i = 0; i < numBTrees; i++) {
             ILSMComponent component = operationalComponents.get(i);
@@ -379,8 +387,9 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
                 rangeCursors[i].close();
             }
             isMemoryComponent[i] = component.getType() == LSMComponentType.MEMORY;
+            isFilteredOut[i] = !isMemoryComponent[i] && isFilteredOut(component, predicate);
         }
-        IndexCursorUtils.open(btreeAccessors, rangeCursors, searchPred);
+        open(searchPred);
         try {
             setPriorityQueueComparator();
             initPriorityQueue();
@@ -391,6 +400,68 @@ public class LSMBTreeRangeSearchCursor extends LSMIndexSearchCursor {
         }
     }
 
+    /**
+     * A disk component can be skipped if its bloom filter is built on a key prefix which is fixed by the predicate,
+     * e.g. (tenant_id) for a range of (tenant_id, ts) keys with a single tenant_id, and the prefix is not in the
+     * bloom filter.
+     */
+    private boolean isFilteredOut(ILSMComponent component, RangePredicate predicate) throws HyracksDataException {
+        LSMComponentZoneMap zoneMap = ((ILSMDiskComponent) component).getZoneMap();
+        if (zoneMap != null && isFilteredOut(zoneMap, predicate)) {
+            return true;
+        }
+        if (!(component instanceof LSMBTreeWithBloomFilterDiskComponent)) {
+            return false;
+        }
+        BloomFilter bloomFilter = ((LSMBTreeWithBloomFilterDiskComponent) component).getBloomFilter();
+        return bloomFilter.isPrefixFilter() && predicate.isPrefixPredicate(cmp, bloomFilter.getKeyFields().length)
+                && !bloomFilter.contains(predicate.getLowKey(), hashes);
+    }
+
+    /**
+     * A disk component can be skipped if its zone map rules out the fields bounded by the range: the leading key
+     * fields on which the low and high keys agree are fixed, and the next field is between the low and high keys,
+     * e.g. the ts field of a range of (device_id, ts) keys with a single device_id.
+     */
+    private boolean isFilteredOut(LSMComponentZoneMap zoneMap, RangePredicate predicate) throws HyracksDataException {
+        ITupleReference lowKey = predicate.getLowKey();
+        ITupleReference highKey = predicate.getHighKey();
+        int numLowKeyFields = lowKey == null ? 0 : predicate.getLowKeyComparator().getKeyFieldCount();
+        int numHighKeyFields = highKey == null ? 0 : predicate.getHighKeyComparator().getKeyFieldCount();
+        for (int field = 0; field < Math.max(numLowKeyFields, numHighKeyFields); field++) {
+            ITupleReference low = field < numLowKeyFields ? lowKey : null;
+            ITupleReference high = field < numHighKeyFields ? highKey : null;
+            if (!zoneMap.satisfy(field, low, field, high, field)) {
+                return true;
+            }
+            if (low == null || high == null || cmp.fieldRangeCompare(low, high, field, 1) != 0) {
+                // the following fields are not bounded
+                break;
+            }
+        }
+        return false;
+    }
+
+    private void open(ISearchPredicate searchPred) throws HyracksDataException {
+        try {
+            for (int i = 0; i < rangeCursors.length; i++) {
+                if (!isFilteredOut[i]) {
+                    btreeAccessors[i].search(rangeCursors[i], searchPred);
+                }
+            }
+        } catch (Throwable th) { // NOSONAR: Must catch all failures
+            throw HyracksDataException.create(IndexCursorUtils.close(rangeCursors, th));
+        }
+    }
+
+    @Override
+    protected void pushIntoQueueFromCursorAndReplaceThisElement(PriorityQueueElement e) throws HyracksDataException {
+        // the cursors of filtered out components are never opened
+        if (!isFilteredOut[e.getCursorIndex()]) {
+            super.pushIntoQueueFromCursorAndReplaceThisElement(e);
+        }
+    }
+
     private boolean destroyIncompatible(ILSMComponent component, int index) throws HyracksDataException {
         // exclusive or. if the component is memory and the previous one at that index was a disk component
         // or vice versa, then we should destroy the cursor and accessor since they need to be recreated
@@ -60,6 +60,17 @@ public abstract class AbstractLSMWithBloomFilterDiskComponent extends AbstractLS
         getBloomFilter().activate();
     }
 
+    @Override
+    public void activateForResume() throws HyracksDataException {
+        super.activateForResume();
+        // the bloom filter is only written at the end of the bulkload and is rebuilt when the bulkload is resumed
+        if (getBloomFilter().getFileReference().getFile().exists()) {
+            getBloomFilter().destroy();
+        }
+        getBloomFilter().create();
+        getBloomFilter().activate();
+    }
+
     @Override
     public void destroy() throws HyracksDataException {
         super.destroy();
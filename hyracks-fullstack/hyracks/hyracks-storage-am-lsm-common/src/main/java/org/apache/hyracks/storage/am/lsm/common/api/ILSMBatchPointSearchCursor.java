@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.api;
+
+import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
+
+/**
+ * A cursor over the results of point lookups of a batch of keys, see
+ * {@link ILSMIndexAccessor#createBatchPointSearchCursor()}. The cursor returns at most one tuple per key, in the order
+ * of the keys in the batch.
+ */
+public interface ILSMBatchPointSearchCursor extends ILSMIndexCursor {
+
+    /**
+     * @return the position within the batch of the key that the current tuple was found for
+     */
+    int getKeyIndex();
+}
@@ -24,6 +24,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.common.api.ITreeIndex;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.impls.DiskComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentZoneMap;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteFailureCallback;
 
@@ -58,6 +59,13 @@ public interface ILSMDiskComponent extends ILSMComponent {
      */
     ITreeIndex getMetadataHolder();
 
+    /**
+     * @return the per-field min/max values of the component or null if the index does not keep them
+     */
+    default LSMComponentZoneMap getZoneMap() {
+        return null;
+    }
+
     /**
      * @return a set of files describing the contents of the disk component
      */
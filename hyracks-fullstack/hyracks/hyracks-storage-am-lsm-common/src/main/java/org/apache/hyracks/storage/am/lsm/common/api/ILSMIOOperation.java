@@ -176,4 +176,16 @@ public interface ILSMIOOperation extends Callable<LSMIOOperationStatus>, IPageWr
      */
     boolean isActive();
 
+    /**
+     * @return the rate limiter that throttles the page writes of this IO operation
+     */
+    ILSMIORateLimiter getRateLimiter();
+
+    /**
+     * Set the rate limiter that throttles the page writes of this IO operation
+     *
+     * @param rateLimiter
+     */
+    void setRateLimiter(ILSMIORateLimiter rateLimiter);
+
 }
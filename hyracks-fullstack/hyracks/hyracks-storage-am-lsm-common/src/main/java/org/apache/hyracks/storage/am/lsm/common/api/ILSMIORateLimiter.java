@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Throttles the disk writes of an IO operation
+ */
+@FunctionalInterface
+public interface ILSMIORateLimiter {
+
+    /**
+     * Account for bytes written by the IO operation. The call blocks as long as the operation has to be throttled.
+     *
+     * @param bytes
+     *            the number of written bytes
+     * @throws HyracksDataException
+     *             if the operation is interrupted while throttled
+     */
+    void acquire(int bytes) throws HyracksDataException;
+}
@@ -27,6 +27,7 @@ import org.apache.hyracks.api.replication.IReplicationJob.ReplicationOperation;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.common.api.IIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMHarness;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexReadStats;
 import org.apache.hyracks.storage.common.IIndex;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
 import org.apache.hyracks.storage.common.IIndexBulkLoader;
@@ -154,7 +155,9 @@ public interface ILSMIndex extends IIndex {
     boolean isDurable();
 
     /**
-     * Update the filter with the passed tuple
+     * Update the filter with the passed tuple. A modification which replaces or deletes a tuple passes the replaced
+     * index tuple, so that the filter and, if {@link #hasNonKeyZoneMapFields()}, the zone map of the memory component
+     * keep covering it.
      *
      * @param ictx
      * @param tuple
@@ -162,6 +165,12 @@ public interface ILSMIndex extends IIndex {
      */
     void updateFilter(ILSMIndexOperationContext ictx, ITupleReference tuple) throws HyracksDataException;
 
+    /**
+     * @return true if the components of the index keep zone maps on non-key fields, which requires the tuples that
+     *         modifications replace or delete to be passed to {@link #updateFilter}
+     */
+    boolean hasNonKeyZoneMapFields();
+
     /**
      * Creates a disk component for the bulk load operation
      *
@@ -204,4 +213,9 @@ public interface ILSMIndex extends IIndex {
      */
     void resetCurrentComponentIndex();
 
+    /**
+     * @return the statistics of the searches of this index
+     */
+    LSMIndexReadStats getReadStats();
+
 }
@@ -255,6 +255,20 @@ public interface ILSMIndexAccessor extends IIndexAccessor {
      */
     void deleteComponents(Predicate<ILSMComponent> predicate) throws HyracksDataException;
 
+    /**
+     * Create a cursor for point lookups of a batch of keys, e.g. the sorted primary keys produced by a secondary index
+     * search. The cursor is opened by {@link IIndexAccessor#search} with a predicate over all keys of the batch.
+     * Bloom filters are probed once per key and, when the keys are sorted, the leaves of each disk component are
+     * visited at most once instead of descending the component for every key.
+     *
+     * @return the cursor
+     * @throws UnsupportedOperationException
+     *             if the index does not support batched point lookups
+     */
+    default ILSMBatchPointSearchCursor createBatchPointSearchCursor() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support batched point lookups");
+    }
+
     /**
      * Update the filter of an LSM index
      *
@@ -73,6 +73,15 @@ public interface ILSMIndexFileManager {
      */
     void recoverTransaction() throws HyracksDataException;
 
+    /**
+     * Delete the checkpoints, and the partially written targets, of the interrupted merges that share components with
+     * a merge into the given target. These merges can no longer be resumed.
+     *
+     * @param mergeTarget
+     * @throws HyracksDataException
+     */
+    void deleteInterruptedMerges(FileReference mergeTarget) throws HyracksDataException;
+
     /**
      * @return a reference to the transaction disk component file reference
      * @throws IOException
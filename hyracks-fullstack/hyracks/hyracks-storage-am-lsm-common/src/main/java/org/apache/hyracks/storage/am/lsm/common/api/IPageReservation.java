@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.api;
+
+/**
+ * Charges pages that a tenant of virtual buffer caches holds above its initial budget to a memory budget shared by
+ * all tenants.
+ */
+public interface IPageReservation {
+
+    IPageReservation UNLIMITED = new IPageReservation() {
+        @Override
+        public boolean reserve(long numPages) {
+            return true;
+        }
+
+        @Override
+        public void release(long numPages) {
+            // nothing is reserved
+        }
+    };
+
+    /**
+     * @param numPages
+     *            the number of pages to reserve
+     * @return true, if the pages are reserved, otherwise false
+     */
+    boolean reserve(long numPages);
+
+    /**
+     * @param numPages
+     *            the number of previously reserved pages to release
+     */
+    void release(long numPages);
+}
@@ -30,4 +30,24 @@ public interface IVirtualBufferCache extends IBufferCache {
     void reset();
 
     IFileMapManager getFileMapProvider();
+
+    /**
+     * @return the number of pages currently held by the cache
+     */
+    int getUsage();
+
+    /**
+     * @return the number of pages allocated by the cache since it was created. Unlike {@link #getUsage()}, the
+     *         count does not drop when the cache is reset and can be used to measure the write rate of its tenants.
+     */
+    long getAllocatedPageCount();
+
+    /**
+     * Change the number of pages after which the cache is considered full. The cache keeps free pages for reuse
+     * only up to its current budget, so lowering the budget releases the free pages above it.
+     *
+     * @param pageBudget
+     *            the new page budget
+     */
+    void setPageBudget(int pageBudget);
 }
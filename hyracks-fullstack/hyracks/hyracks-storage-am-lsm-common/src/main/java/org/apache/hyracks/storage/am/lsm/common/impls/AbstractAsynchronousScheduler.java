@@ -34,11 +34,26 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 
 public abstract class AbstractAsynchronousScheduler implements ILSMIOOperationScheduler, Closeable {
     protected final ExecutorService executor;
-    protected final Map<String, ILSMIOOperation> runningFlushOperations = new HashMap<>();
+    protected final Map<String, Deque<ILSMIOOperation>> runningFlushOperations = new HashMap<>();
     protected final Map<String, Deque<ILSMIOOperation>> waitingFlushOperations = new HashMap<>();
     protected final Map<String, Throwable> failedGroups = new HashMap<>();
+    protected final int maxConcurrentFlushes;
 
     public AbstractAsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback) {
+        this(threadFactory, callback, 1);
+    }
+
+    /**
+     * @param maxConcurrentFlushes
+     *            the maximum number of flushes of the same index that run at the same time. Flushes of an index
+     *            are still installed in the order they were scheduled, see {@link LSMHarness#flush(ILSMIOOperation)}
+     */
+    public AbstractAsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback,
+            int maxConcurrentFlushes) {
+        if (maxConcurrentFlushes < 1) {
+            throw new IllegalArgumentException("maxConcurrentFlushes must be positive: " + maxConcurrentFlushes);
+        }
+        this.maxConcurrentFlushes = maxConcurrentFlushes;
         executor = new IoOperationExecutor(threadFactory, this, callback, runningFlushOperations,
                 waitingFlushOperations, failedGroups);
     }
@@ -74,7 +89,8 @@ public abstract class AbstractAsynchronousScheduler implements ILSMIOOperationSc
                 operation.complete();
                 return;
             }
-            if (runningFlushOperations.containsKey(id)) {
+            Deque<ILSMIOOperation> running = runningFlushOperations.computeIfAbsent(id, key -> new ArrayDeque<>());
+            if (running.size() >= maxConcurrentFlushes) {
                 if (waitingFlushOperations.containsKey(id)) {
                     waitingFlushOperations.get(id).offer(operation);
                 } else {
@@ -83,12 +99,16 @@ public abstract class AbstractAsynchronousScheduler implements ILSMIOOperationSc
                     waitingFlushOperations.put(id, q);
                 }
             } else {
-                runningFlushOperations.put(id, operation);
+                running.offer(operation);
                 executor.submit(operation);
             }
         }
     }
 
+    public int getMaxConcurrentFlushes() {
+        return maxConcurrentFlushes;
+    }
+
     @Override
     public void close() throws IOException {
         executor.shutdown();
@@ -30,6 +30,7 @@ import org.apache.hyracks.api.util.ExceptionUtils;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIORateLimiter;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.api.IoOperationCompleteListener;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
@@ -46,6 +47,7 @@ public abstract class AbstractIoOperation implements ILSMIOOperation {
     private ILSMDiskComponent newComponent;
     private boolean completed = false;
     private List<IoOperationCompleteListener> completeListeners;
+    private volatile ILSMIORateLimiter rateLimiter = NoOpIORateLimiter.INSTANCE;
 
     private final AtomicBoolean isActive = new AtomicBoolean(true);
 
@@ -202,6 +204,16 @@ public abstract class AbstractIoOperation implements ILSMIOOperation {
         return isActive.get();
     }
 
+    @Override
+    public ILSMIORateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    @Override
+    public void setRateLimiter(ILSMIORateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
     public void waitIfPaused() throws HyracksDataException {
         synchronized (this) {
             while (!isActive.get()) {
@@ -46,12 +46,14 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
     // since componentId is immutable, we do not want to read from metadata every time the componentId
     // is requested.
     private ILSMComponentId componentId;
+    private final LSMComponentZoneMap zoneMap;
 
     public AbstractLSMDiskComponent(AbstractLSMIndex lsmIndex, IMetadataPageManager mdPageManager,
             ILSMComponentFilter filter) {
         super(lsmIndex, filter);
         state = ComponentState.READABLE_UNWRITABLE;
         metadata = new DiskComponentMetadata(mdPageManager);
+        zoneMap = lsmIndex.createZoneMap();
     }
 
     @Override
@@ -124,6 +126,11 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
         }
     }
 
+    @Override
+    public LSMComponentZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
     @Override
     public DiskComponentMetadata getMetadata() {
         return metadata;
@@ -173,6 +180,19 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
         if (getLSMComponentFilter() != null && !createNewComponent) {
             getLsmIndex().getFilterManager().readFilter(getLSMComponentFilter(), getMetadataHolder());
         }
+        if (zoneMap != null && !createNewComponent) {
+            zoneMap.read(metadata);
+        }
+    }
+
+    /**
+     * Activate the component over the partially written files of an interrupted merge whose bulkload is resumed from
+     * {@link MergeOperation#getResumeCheckpoint()}
+     *
+     * @throws HyracksDataException
+     */
+    public void activateForResume() throws HyracksDataException {
+        getIndex().activate();
     }
 
     @Override
@@ -230,17 +250,32 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
     public ChainedLSMDiskComponentBulkLoader createBulkLoader(ILSMIOOperation operation, float fillFactor,
             boolean verifyInput, long numElementsHint, boolean checkIfEmptyIndex, boolean withFilter,
             boolean cleanupEmptyComponent, IPageWriteCallback callback) throws HyracksDataException {
+        final IPageWriteCallback writeCallback = operation.getRateLimiter() == NoOpIORateLimiter.INSTANCE ? callback
+                : new RateLimitedPageWriteCallback(callback, operation.getRateLimiter());
         ChainedLSMDiskComponentBulkLoader chainedBulkLoader =
                 new ChainedLSMDiskComponentBulkLoader(operation, this, cleanupEmptyComponent);
         if (withFilter && getLsmIndex().getFilterFields() != null) {
             chainedBulkLoader.addBulkLoader(createFilterBulkLoader());
         }
-        IChainedComponentBulkLoader indexBulkloader = operation.getIOOpertionType() == LSMIOOperationType.MERGE
-                ? createMergeIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex, callback)
-                : createIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex, callback);
+        if (zoneMap != null) {
+            chainedBulkLoader.addBulkLoader(new ZoneMapBulkLoader(zoneMap, metadata));
+        }
+        MergeCheckpoint resumeFrom = operation.getIOOpertionType() == LSMIOOperationType.MERGE
+                ? ((MergeOperation) operation).getResumeCheckpoint() : null;
+        IChainedComponentBulkLoader indexBulkloader;
+        if (resumeFrom != null) {
+            indexBulkloader = new LSMIndexBulkLoader(
+                    getIndex().resumeBulkLoader(fillFactor, verifyInput, writeCallback, resumeFrom.getIndexState()));
+        } else if (operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+            indexBulkloader = createMergeIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex,
+                    writeCallback);
+        } else {
+            indexBulkloader =
+                    createIndexBulkLoader(fillFactor, verifyInput, numElementsHint, checkIfEmptyIndex, writeCallback);
+        }
         chainedBulkLoader.addBulkLoader(indexBulkloader);
 
-        callback.initialize(chainedBulkLoader);
+        writeCallback.initialize(chainedBulkLoader);
         return chainedBulkLoader;
     }
 
@@ -111,6 +111,7 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
     // Factory for creating on-disk index components during bulkload.
     protected final ILSMDiskComponentFactory bulkLoadComponentFactory;
     protected final ILSMPageWriteCallbackFactory pageWriteCallbackFactory;
+    protected final LSMIndexReadStats readStats = new LSMIndexReadStats();
     private int numScheduledFlushes = 0;
 
     public AbstractLSMIndex(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
@@ -333,18 +334,11 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
                 if (memoryComponentsAllocated) {
                     addOperationalMemoryComponents(operationalComponents, false);
                 }
-                if (filterManager != null) {
-                    for (int i = 0; i < diskComponents.size(); i++) {
-                        ILSMComponent c = diskComponents.get(i);
-                        if (c.getLSMComponentFilter().satisfy(
-                                ((AbstractSearchPredicate) ctx.getSearchPredicate()).getMinFilterTuple(),
-                                ((AbstractSearchPredicate) ctx.getSearchPredicate()).getMaxFilterTuple(),
-                                ctx.getFilterCmp())) {
-                            operationalComponents.add(c);
-                        }
+                for (int i = 0; i < diskComponents.size(); i++) {
+                    ILSMDiskComponent c = diskComponents.get(i);
+                    if (isSearchCandidate(c, ctx)) {
+                        operationalComponents.add(c);
                     }
-                } else {
-                    operationalComponents.addAll(diskComponents);
                 }
 
                 break;
@@ -359,6 +353,23 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         }
     }
 
+    /**
+     * A disk component is not searched if its filter or its zone map rule out all tuples matching the predicate
+     */
+    private boolean isSearchCandidate(ILSMDiskComponent c, ILSMIndexOperationContext ctx) throws HyracksDataException {
+        if (filterManager != null && !c.getLSMComponentFilter().satisfy(
+                ((AbstractSearchPredicate) ctx.getSearchPredicate()).getMinFilterTuple(),
+                ((AbstractSearchPredicate) ctx.getSearchPredicate()).getMaxFilterTuple(), ctx.getFilterCmp())) {
+            return false;
+        }
+        if (c.getZoneMap() != null && ctx.getSearchPredicate() instanceof AbstractSearchPredicate) {
+            AbstractSearchPredicate predicate = (AbstractSearchPredicate) ctx.getSearchPredicate();
+            return predicate.getZoneMapFields() == null || c.getZoneMap().satisfy(predicate.getZoneMapFields(),
+                    predicate.getZoneMapLowKey(), predicate.getZoneMapHighKey());
+        }
+        return true;
+    }
+
     @Override
     public void scanDiskComponents(ILSMIndexOperationContext ctx, IIndexCursor cursor) throws HyracksDataException {
         throw HyracksDataException.create(ErrorCode.DISK_COMPONENT_SCAN_NOT_ALLOWED_FOR_SECONDARY_INDEX);
@@ -466,7 +477,11 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         }
     }
 
-    private ILSMMemoryComponent getOldestReadableMemoryComponent() {
+    /**
+     * @return true if the component is one of the readable memory components scheduled for flush. Those components
+     *         may be flushed concurrently since the harness installs the flushed components in order
+     */
+    private boolean isScheduledForFlush(ILSMMemoryComponent component) {
         synchronized (getOperationTracker()) {
             int cmc = currentMutableComponentId.get();
             int numImmutableMemoryComponents = Integer.min(numScheduledFlushes, memoryComponents.size());
@@ -476,19 +491,11 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
                 if (next < 0) {
                     next = memoryComponents.size() - 1;
                 }
-            }
-
-            // start going forward
-            for (int i = 0; i < numImmutableMemoryComponents; i++) {
-                if (memoryComponents.get(next).isReadable()) {
-                    return memoryComponents.get(next);
-                }
-                next++;
-                if (next == memoryComponents.size()) {
-                    next = 0;
+                if (memoryComponents.get(next) == component) {
+                    return component.isReadable();
                 }
             }
-            throw new IllegalStateException("Couldn't find any readable component");
+            return false;
         }
     }
 
@@ -765,8 +772,27 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         return bloomFilterFalsePositiveRate;
     }
 
+    /**
+     * Update the filter of the current memory component with a tuple which a modification replaces or deletes, and
+     * fold it into the zone map of the component if it is on non-key fields, see {@link LSMComponentZoneMap}
+     */
     @Override
     public void updateFilter(ILSMIndexOperationContext ctx, ITupleReference tuple) throws HyracksDataException {
+        updateComponentFilter(ctx, tuple);
+        if (hasNonKeyZoneMapFields()) {
+            LSMComponentZoneMap zoneMap =
+                    ((AbstractLSMMemoryComponent) memoryComponents.get(currentMutableComponentId.get())).getZoneMap();
+            if (ctx.isRecovery()) {
+                // the replaced tuples are not in the log
+                zoneMap.invalidate();
+            } else {
+                zoneMap.update(tuple);
+            }
+        }
+    }
+
+    protected void updateComponentFilter(ILSMIndexOperationContext ctx, ITupleReference tuple)
+            throws HyracksDataException {
         if (ctx.getFilterTuple() != null && !ctx.isFilterSkipped()) {
             if (ctx.isRecovery()) {
                 memoryComponents.get(currentMutableComponentId.get()).getLSMComponentFilter().update(tuple,
@@ -787,6 +813,18 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         return treeFields;
     }
 
+    /**
+     * @return a new zone map for a disk component or null if the disk components of the index have no zone maps
+     */
+    public LSMComponentZoneMap createZoneMap() {
+        return null;
+    }
+
+    @Override
+    public boolean hasNonKeyZoneMapFields() {
+        return false;
+    }
+
     public LSMComponentFilterManager getFilterManager() {
         return filterManager;
     }
@@ -796,6 +834,11 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         return lsmHarness;
     }
 
+    @Override
+    public LSMIndexReadStats getReadStats() {
+        return readStats;
+    }
+
     @Override
     public final void validate() throws HyracksDataException {
         if (memoryComponentsAllocated) {
@@ -846,8 +889,8 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         ILSMIndexAccessor accessor = operation.getAccessor();
         ILSMIndexOperationContext opCtx = accessor.getOpContext();
         ILSMMemoryComponent memoryComponent = (ILSMMemoryComponent) opCtx.getComponentHolder().get(0);
-        if (memoryComponent != getOldestReadableMemoryComponent()) {
-            throw new IllegalStateException("An attempt to flush a memory component that is not the oldest");
+        if (!isScheduledForFlush(memoryComponent)) {
+            throw new IllegalStateException("An attempt to flush a memory component that is not scheduled for flush");
         }
         if (!memoryComponent.isModified() || opCtx.getOperation() == IndexOperation.DELETE_COMPONENTS) {
             return EmptyComponent.INSTANCE;
@@ -83,9 +83,15 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
      * Hides transaction components until they are either committed by removing this file or deleted along with the file
      */
     public static final String TXN_PREFIX = ".T";
+    /**
+     * Marks the partially written target of an interrupted merge to be kept until the merge is resumed
+     */
+    public static final String MERGE_CHECKPOINT_PREFIX = ".M";
 
     public static final FilenameFilter COMPONENT_FILES_FILTER = (dir, name) -> !name.startsWith(".");
     protected static final FilenameFilter txnFileNameFilter = (dir, name) -> name.startsWith(TXN_PREFIX);
+    private static final FilenameFilter mergeCheckpointFilter =
+            (dir, name) -> name.startsWith(MERGE_CHECKPOINT_PREFIX) && !name.endsWith(MergeCheckpoint.TEMP_SUFFIX);
     protected static FilenameFilter bloomFilterFilter =
             (dir, name) -> !name.startsWith(".") && name.endsWith(BLOOM_FILTER_SUFFIX);
     protected static final Comparator<String> cmp = new FileNameComparator();
@@ -149,6 +155,10 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
         String[] files = listDirFiles(baseDir, filter);
         for (String fileName : files) {
             FileReference fileRef = getFileReference(fileName);
+            if (MergeCheckpoint.getFileReference(baseDir, fileRef).getFile().exists()) {
+                // the target of an interrupted merge, kept until the merge is resumed
+                continue;
+            }
             if (treeFactory == null) {
                 allFiles.add(IndexComponentFileReference.of(fileRef));
                 continue;
@@ -363,6 +373,23 @@ public abstract class AbstractLSMIndexFileManager implements ILSMIndexFileManage
         }
     }
 
+    @Override
+    public void deleteInterruptedMerges(FileReference mergeTarget) throws HyracksDataException {
+        IndexComponentFileReference target = IndexComponentFileReference.of(mergeTarget);
+        String[] checkpoints = listDirFiles(baseDir, mergeCheckpointFilter);
+        for (String checkpoint : checkpoints) {
+            String interruptedTarget = checkpoint.substring(MERGE_CHECKPOINT_PREFIX.length());
+            if (interruptedTarget.equals(mergeTarget.getFile().getName())) {
+                continue;
+            }
+            IndexComponentFileReference interrupted = IndexComponentFileReference.of(interruptedTarget);
+            if (!interrupted.isMoreRecentThan(target) && !target.isMoreRecentThan(interrupted)) {
+                IoUtil.delete(baseDir.getChild(interruptedTarget));
+                IoUtil.delete(baseDir.getChild(checkpoint));
+            }
+        }
+    }
+
     protected void delete(IBufferCache bufferCache, FileReference fileRef) throws HyracksDataException {
         bufferCache.deleteFile(fileRef);
     }
@@ -42,6 +42,7 @@ public abstract class AbstractLSMMemoryComponent extends AbstractLSMComponent im
     private int pendingFlushes = 0;
     private final MemoryComponentMetadata metadata;
     private ILSMComponentId componentId;
+    private final LSMComponentZoneMap zoneMap;
 
     public AbstractLSMMemoryComponent(AbstractLSMIndex lsmIndex, IVirtualBufferCache vbc, ILSMComponentFilter filter) {
         super(lsmIndex, filter);
@@ -50,6 +51,7 @@ public abstract class AbstractLSMMemoryComponent extends AbstractLSMComponent im
         state = ComponentState.INACTIVE;
         isModified = new AtomicBoolean();
         metadata = new MemoryComponentMetadata();
+        zoneMap = lsmIndex.createZoneMap();
     }
 
     /**
@@ -236,6 +238,9 @@ public abstract class AbstractLSMMemoryComponent extends AbstractLSMComponent im
         if (filter != null) {
             filter.reset();
         }
+        if (zoneMap != null) {
+            zoneMap.reset();
+        }
         doReset();
         lsmIndex.memoryComponentsReset();
         // a flush can be pending on a component that just completed its flush... here is when this can happen:
@@ -266,6 +271,14 @@ public abstract class AbstractLSMMemoryComponent extends AbstractLSMComponent im
         return metadata;
     }
 
+    /**
+     * @return the values which the component replaced or deleted, to be folded into the zone map of the flushed
+     *         component, or null if the index does not keep zone maps
+     */
+    public LSMComponentZoneMap getZoneMap() {
+        return zoneMap;
+    }
+
     @Override
     public final void allocate() throws HyracksDataException {
         boolean allocated = false;
@@ -48,6 +48,11 @@ public class AsynchronousScheduler extends AbstractAsynchronousScheduler {
         super(threadFactory, callback);
     }
 
+    public AsynchronousScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
+            int maxConcurrentFlushes) {
+        super(threadFactory, callback, maxConcurrentFlushes);
+    }
+
     @Override
     protected void scheduleMerge(ILSMIOOperation operation) {
         executor.submit(operation);
@@ -18,6 +18,7 @@
  */
 package org.apache.hyracks.storage.am.lsm.common.impls;
 
+import java.io.DataOutput;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -99,6 +100,42 @@ public class ChainedLSMDiskComponentBulkLoader implements ILSMDiskComponentBulkL
         }
     }
 
+    /**
+     * Rebuild the state of the bulkloaders from a tuple that a resumed bulkload already wrote to the component
+     */
+    @SuppressWarnings("squid:S1181")
+    public void replay(ITupleReference tuple) throws HyracksDataException {
+        try {
+            ITupleReference t = tuple;
+            final int bulkloadersCount = bulkloaderChain.size();
+            for (int i = 0; i < bulkloadersCount; i++) {
+                t = bulkloaderChain.get(i).replay(t);
+            }
+        } catch (Throwable e) {
+            operation.setFailure(e);
+            cleanupArtifacts();
+            throw e;
+        }
+        if (isEmptyComponent) {
+            isEmptyComponent = false;
+        }
+    }
+
+    /**
+     * Write the state needed to resume this bulkload after a restart
+     *
+     * @return false if one of the bulkloaders cannot be checkpointed at its current position
+     */
+    public boolean checkpoint(DataOutput out) throws HyracksDataException {
+        final int bulkloadersCount = bulkloaderChain.size();
+        for (int i = 0; i < bulkloadersCount; i++) {
+            if (!bulkloaderChain.get(i).checkpoint(out)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void cleanupArtifacts() throws HyracksDataException {
         if (!cleanedUpArtifacts) {
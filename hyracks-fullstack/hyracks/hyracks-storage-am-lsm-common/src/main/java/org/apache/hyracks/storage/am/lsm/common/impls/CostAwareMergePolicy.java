@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+
+/**
+ * A {@link ConcurrentMergePolicy} that only merges an index when its read amplification is costly. The cost is the
+ * number of disk components read by searches and scans of the index, counted between two added disk components and
+ * halved on every added disk component so that older reads matter less. While the cost is below the minimum read
+ * cost, merges are deferred so that indexes which are hardly read do not take merge bandwidth from the indexes that
+ * are. They are deferred only until the index is one full merge away from the maximum component count, so that the
+ * merge can finish before {@link #isMergeLagging(ILSMIndex)} stops the flushes of the index.
+ */
+public class CostAwareMergePolicy extends ConcurrentMergePolicy {
+
+    /**
+     * The read cost from which components are merged as soon as they are mergable
+     */
+    private double minReadCost;
+
+    /**
+     * The number of disk components from which merges are no longer deferred
+     */
+    private int maxDeferredComponentCount;
+
+    private double readCost;
+
+    private long lastReadDiskComponentCount;
+
+    @Override
+    public void diskComponentAdded(final ILSMIndex index, boolean fullMergeIsRequested) throws HyracksDataException {
+        if (updateReadCost(index) >= minReadCost || fullMergeIsRequested
+                || index.getDiskComponents().size() >= maxDeferredComponentCount) {
+            super.diskComponentAdded(index, fullMergeIsRequested);
+        }
+    }
+
+    @Override
+    public void configure(Map<String, String> properties) {
+        super.configure(properties);
+        minReadCost = Double.parseDouble(properties.get(CostAwareMergePolicyFactory.MIN_READ_COST));
+        int maxComponentCount = Integer.parseInt(properties.get(CostAwareMergePolicyFactory.MAX_COMPONENT_COUNT));
+        int maxMergeComponentCount =
+                Integer.parseInt(properties.get(CostAwareMergePolicyFactory.MAX_MERGE_COMPONENT_COUNT));
+        int minMergeComponentCount =
+                Integer.parseInt(properties.get(CostAwareMergePolicyFactory.MIN_MERGE_COMPONENT_COUNT));
+        maxDeferredComponentCount = Math.max(maxComponentCount - maxMergeComponentCount, minMergeComponentCount);
+    }
+
+    /**
+     * @return the read cost of the index
+     */
+    public synchronized double getReadCost() {
+        return readCost;
+    }
+
+    private synchronized double updateReadCost(ILSMIndex index) {
+        final long readDiskComponentCount = index.getReadStats().getReadDiskComponentCount();
+        readCost = readCost / 2 + (readDiskComponentCount - lastReadDiskComponentCount);
+        lastReadDiskComponentCount = readDiskComponentCount;
+        return readCost;
+    }
+}
@@ -56,6 +56,10 @@ public class GreedyScheduler extends AbstractAsynchronousScheduler {
         super(threadFactory, callback);
     }
 
+    public GreedyScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback, int maxConcurrentFlushes) {
+        super(threadFactory, callback, maxConcurrentFlushes);
+    }
+
     protected void scheduleMerge(ILSMIOOperation operation) {
         operation.pause();
         String id = operation.getIndexIdentifier();
@@ -18,8 +18,11 @@
  */
 package org.apache.hyracks.storage.am.lsm.common.impls;
 
+import java.io.DataOutput;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteFailureCallback;
 
 public interface IChainedComponentBulkLoader extends IPageWriteFailureCallback {
@@ -41,6 +44,18 @@ public interface IChainedComponentBulkLoader extends IPageWriteFailureCallback {
      */
     ITupleReference delete(ITupleReference tuple) throws HyracksDataException;
 
+    /**
+     * Adds a tuple that a resumed bulkload already wrote to the component before it was interrupted, in order to
+     * rebuild the state that was not persisted with the partially written component
+     *
+     * @param tuple
+     * @return Potentially modified tuple, which is used as an input for downstream bulkloaders
+     * @throws HyracksDataException
+     */
+    default ITupleReference replay(ITupleReference tuple) throws HyracksDataException {
+        return add(tuple);
+    }
+
     /**
      * Correctly finalizes bulkloading process and releases all resources
      *
@@ -67,4 +82,17 @@ public interface IChainedComponentBulkLoader extends IPageWriteFailureCallback {
      * @throws HyracksDataException
      */
     void force() throws HyracksDataException;
+
+    /**
+     * Writes the state needed to resume the bulkloading process after a restart, see
+     * {@link IIndexBulkLoader#checkpoint(DataOutput)}. Bulkloaders whose state is rebuilt by
+     * {@link #replay(ITupleReference)} write nothing.
+     *
+     * @param out
+     * @return false if the bulkloading process cannot be checkpointed at its current position
+     * @throws HyracksDataException
+     */
+    default boolean checkpoint(DataOutput out) throws HyracksDataException {
+        return true;
+    }
 }
@@ -38,12 +38,12 @@ public class IoOperationExecutor extends ThreadPoolExecutor {
 
     private final ILSMIOOperationScheduler scheduler;
     private final IIoOperationFailedCallback callback;
-    private final Map<String, ILSMIOOperation> runningFlushOperations;
+    private final Map<String, Deque<ILSMIOOperation>> runningFlushOperations;
     private final Map<String, Throwable> failedGroups;
     private final Map<String, Deque<ILSMIOOperation>> waitingFlushOperations;
 
     public IoOperationExecutor(ThreadFactory threadFactory, ILSMIOOperationScheduler scheduler,
-            IIoOperationFailedCallback callback, Map<String, ILSMIOOperation> runningFlushOperations,
+            IIoOperationFailedCallback callback, Map<String, Deque<ILSMIOOperation>> runningFlushOperations,
             Map<String, Deque<ILSMIOOperation>> waitingFlushOperations, Map<String, Throwable> failedGroups) {
         super(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
         this.scheduler = scheduler;
@@ -83,7 +83,7 @@ public class IoOperationExecutor extends ThreadPoolExecutor {
         if (executedOp.getIOOpertionType() == LSMIOOperationType.FLUSH) {
             String id = executedOp.getIndexIdentifier();
             synchronized (this) {
-                runningFlushOperations.remove(id);
+                removeRunningFlush(executedOp);
                 if (waitingFlushOperations.containsKey(id)) {
                     ILSMIOOperation op = waitingFlushOperations.get(id).poll();
                     if (op != null) {
@@ -105,7 +105,7 @@ public class IoOperationExecutor extends ThreadPoolExecutor {
             synchronized (this) {
                 String id = executedOp.getIndexIdentifier();
                 failedGroups.put(id, t);
-                runningFlushOperations.remove(id);
+                removeRunningFlush(executedOp);
                 if (waitingFlushOperations.containsKey(id)) {
                     Deque<ILSMIOOperation> ops = waitingFlushOperations.remove(id);
                     ILSMIOOperation next = ops.poll();
@@ -119,4 +119,15 @@ public class IoOperationExecutor extends ThreadPoolExecutor {
             }
         }
     }
+
+    private void removeRunningFlush(ILSMIOOperation executedOp) {
+        String id = executedOp.getIndexIdentifier();
+        Deque<ILSMIOOperation> running = runningFlushOperations.get(id);
+        if (running != null) {
+            running.remove(executedOp);
+            if (running.isEmpty()) {
+                runningFlushOperations.remove(id);
+            }
+        }
+    }
 }
@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+
+/**
+ * Per-field min/max values of the tuples of a component. Unlike {@link LSMComponentFilter}, which keeps the
+ * lexicographic min and max of a single filter tuple, each field is tracked on its own, so a disk component can be
+ * pruned by a range on any of the fields, e.g. on the second field of a (device_id, ts) key.
+ * The zone map of a disk component is computed when the component is bulk loaded by a flush, merge or bulk load, and
+ * is stored in the metadata page of the component. Components without a stored zone map, e.g. components written
+ * before zone maps were enabled, are never pruned.
+ * A non-key field may be tracked too, as long as every value that a component replaces or deletes is folded into its
+ * zone map: a newer component hides the older versions of its keys, so it must not be pruned by a range that one of
+ * the hidden versions is in. Such values are folded into the zone map of the memory component by
+ * {@link ILSMIndex#updateFilter}, which flushes union into the zone map of the flushed component. A zone map which
+ * might miss replaced values, e.g. of a memory component that was recovered from the log, is invalidated and never
+ * prunes a component, nor does any component merged from it.
+ */
+public class LSMComponentZoneMap {
+
+    public static final MutableArrayValueReference ZONE_MAP_KEY = new MutableArrayValueReference("ZoneMap".getBytes());
+
+    private final int[] fields;
+    private final IBinaryComparator[] cmps;
+    private final ArrayBackedValueStorage[] minValues;
+    private final ArrayBackedValueStorage[] maxValues;
+    private final boolean[] isFieldSet;
+    private boolean isValid = true;
+
+    /**
+     * @param fields
+     *            the fields of the index tuple which are tracked
+     * @param cmpFactories
+     *            the comparators of the tracked fields
+     */
+    public LSMComponentZoneMap(int[] fields, IBinaryComparatorFactory[] cmpFactories) {
+        this.fields = fields;
+        cmps = new IBinaryComparator[fields.length];
+        minValues = new ArrayBackedValueStorage[fields.length];
+        maxValues = new ArrayBackedValueStorage[fields.length];
+        isFieldSet = new boolean[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            cmps[i] = cmpFactories[i].createBinaryComparator();
+            minValues[i] = new ArrayBackedValueStorage();
+            maxValues[i] = new ArrayBackedValueStorage();
+        }
+    }
+
+    public int[] getFields() {
+        return fields;
+    }
+
+    /**
+     * @return true if the zone map is valid and holds the values of at least one field
+     */
+    public synchronized boolean isSet() {
+        if (!isValid) {
+            return false;
+        }
+        for (boolean isSet : isFieldSet) {
+            if (isSet) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Fold the tracked fields of a tuple into the zone map. Fields which the tuple does not have, e.g. the non-key
+     * fields of an anti-matter tuple, are skipped.
+     *
+     * @param tuple
+     *            the index tuple
+     * @throws HyracksDataException
+     */
+    public synchronized void update(ITupleReference tuple) throws HyracksDataException {
+        if (!isValid) {
+            return;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] >= tuple.getFieldCount()) {
+                continue;
+            }
+            update(i, tuple.getFieldData(fields[i]), tuple.getFieldStart(fields[i]), tuple.getFieldLength(fields[i]));
+        }
+    }
+
+    /**
+     * Fold another zone map of the same fields into the zone map. The zone map is invalidated if the other one is
+     * invalid.
+     *
+     * @param other
+     *            the zone map to fold in
+     * @throws HyracksDataException
+     */
+    public synchronized void union(LSMComponentZoneMap other) throws HyracksDataException {
+        if (!isValid) {
+            return;
+        }
+        if (!other.isValid) {
+            isValid = false;
+            return;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (other.isFieldSet[i]) {
+                ArrayBackedValueStorage min = other.minValues[i];
+                ArrayBackedValueStorage max = other.maxValues[i];
+                update(i, min.getByteArray(), min.getStartOffset(), min.getLength());
+                update(i, max.getByteArray(), max.getStartOffset(), max.getLength());
+            }
+        }
+    }
+
+    /**
+     * Mark the zone map as unknown, so that it never prunes its component
+     */
+    public synchronized void invalidate() {
+        isValid = false;
+    }
+
+    /**
+     * Clear the zone map, e.g. when its memory component is reset after a flush
+     */
+    public synchronized void reset() {
+        isValid = true;
+        Arrays.fill(isFieldSet, false);
+    }
+
+    private void update(int i, byte[] data, int start, int length) throws HyracksDataException {
+        if (!isFieldSet[i] || compare(i, minValues[i], data, start, length) > 0) {
+            minValues[i].set(data, start, length);
+        }
+        if (!isFieldSet[i] || compare(i, maxValues[i], data, start, length) < 0) {
+            maxValues[i].set(data, start, length);
+        }
+        isFieldSet[i] = true;
+    }
+
+    /**
+     * Check whether the component may contain tuples whose field is in the inclusive range [low, high]
+     *
+     * @param field
+     *            the field of the index tuple
+     * @param low
+     *            the tuple holding the lower bound or null if there is no lower bound
+     * @param lowField
+     *            the field of the lower bound in low
+     * @param high
+     *            the tuple holding the upper bound or null if there is no upper bound
+     * @param highField
+     *            the field of the upper bound in high
+     * @return false if no tuple of the component is in the range, true otherwise, including if the field is not
+     *         tracked or the zone map is not valid
+     * @throws HyracksDataException
+     */
+    public synchronized boolean satisfy(int field, ITupleReference low, int lowField, ITupleReference high,
+            int highField) throws HyracksDataException {
+        if (!isValid) {
+            return true;
+        }
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != field || !isFieldSet[i]) {
+                continue;
+            }
+            if (low != null && compare(i, maxValues[i], low.getFieldData(lowField), low.getFieldStart(lowField),
+                    low.getFieldLength(lowField)) < 0) {
+                return false;
+            }
+            if (high != null && compare(i, minValues[i], high.getFieldData(highField), high.getFieldStart(highField),
+                    high.getFieldLength(highField)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the component may contain tuples whose fields are all in the given inclusive ranges
+     *
+     * @param rangeFields
+     *            the fields of the index tuple which are restricted
+     * @param low
+     *            the tuple holding the lower bound of rangeFields[i] in its field i, or null if there are no lower
+     *            bounds
+     * @param high
+     *            the tuple holding the upper bound of rangeFields[i] in its field i, or null if there are no upper
+     *            bounds
+     * @return false if no tuple of the component satisfies all ranges, true otherwise
+     * @throws HyracksDataException
+     */
+    public boolean satisfy(int[] rangeFields, ITupleReference low, ITupleReference high) throws HyracksDataException {
+        for (int i = 0; i < rangeFields.length; i++) {
+            if (!satisfy(rangeFields[i], low, i, high, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Store the zone map in the metadata of a component. An invalid zone map is not stored, so the component is
+     * read back without a valid zone map.
+     *
+     * @param metadata
+     *            the metadata of the component
+     * @throws HyracksDataException
+     */
+    public synchronized void write(IComponentMetadata metadata) throws HyracksDataException {
+        if (!isValid) {
+            return;
+        }
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        DataOutput out = value.getDataOutput();
+        try {
+            out.writeInt(fields.length);
+            for (int i = 0; i < fields.length; i++) {
+                out.writeInt(fields[i]);
+                if (isFieldSet[i]) {
+                    writeValue(out, minValues[i]);
+                    writeValue(out, maxValues[i]);
+                } else {
+                    out.writeInt(-1);
+                }
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        metadata.put(ZONE_MAP_KEY, value);
+    }
+
+    /**
+     * Read the zone map of a component. The zone map is invalid if the component has no zone map or it was computed
+     * on different fields.
+     *
+     * @param metadata
+     *            the metadata of the component
+     * @throws HyracksDataException
+     */
+    public synchronized void read(IComponentMetadata metadata) throws HyracksDataException {
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        metadata.get(ZONE_MAP_KEY, value);
+        Arrays.fill(isFieldSet, false);
+        isValid = false;
+        if (value.getLength() == 0) {
+            return;
+        }
+        byte[] data = value.getByteArray();
+        int offset = value.getStartOffset();
+        if (IntegerPointable.getInteger(data, offset) != fields.length) {
+            return;
+        }
+        offset += Integer.BYTES;
+        for (int i = 0; i < fields.length; i++) {
+            if (IntegerPointable.getInteger(data, offset) != fields[i]) {
+                return;
+            }
+            offset += Integer.BYTES;
+            if (IntegerPointable.getInteger(data, offset) < 0) {
+                offset += Integer.BYTES;
+                continue;
+            }
+            offset = readValue(data, offset, minValues[i]);
+            offset = readValue(data, offset, maxValues[i]);
+            isFieldSet[i] = true;
+        }
+        isValid = true;
+    }
+
+    private int compare(int i, ArrayBackedValueStorage value, byte[] data, int start, int length)
+            throws HyracksDataException {
+        return cmps[i].compare(value.getByteArray(), value.getStartOffset(), value.getLength(), data, start, length);
+    }
+
+    private static void writeValue(DataOutput out, ArrayBackedValueStorage value) throws IOException {
+        out.writeInt(value.getLength());
+        out.write(value.getByteArray(), value.getStartOffset(), value.getLength());
+    }
+
+    private static int readValue(byte[] data, int offset, ArrayBackedValueStorage value) {
+        int length = IntegerPointable.getInteger(data, offset);
+        value.set(data, offset + Integer.BYTES, length);
+        return offset + Integer.BYTES + length;
+    }
+}
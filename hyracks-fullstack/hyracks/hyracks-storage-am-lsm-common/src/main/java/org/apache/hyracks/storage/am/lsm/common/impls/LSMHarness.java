@@ -19,7 +19,9 @@
 
 package org.apache.hyracks.storage.am.lsm.common.impls;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -71,6 +73,8 @@ public class LSMHarness implements ILSMHarness {
     protected final ILSMOperationTracker opTracker;
     protected final AtomicBoolean fullMergeIsRequested;
     protected final boolean replicationEnabled;
+    // contexts of the scheduled flushes that have not been installed yet, in the order they were scheduled
+    private final Deque<ILSMIndexOperationContext> pendingFlushes = new ArrayDeque<>();
     protected List<ILSMDiskComponent> componentsToBeReplicated;
     protected ITracer tracer;
     protected long traceCategory;
@@ -433,6 +437,7 @@ public class LSMHarness implements ILSMHarness {
         // the updates made by the writer should be seen by these subsequent readers.
         ctx.getSearchOperationCallback().before(pred.getLowKey());
         getAndEnterComponents(ctx, opType, false);
+        lsmIndex.getReadStats().searched(getNumDiskComponents(ctx));
         try {
             lsmIndex.search(ctx, cursor, pred);
         } catch (Exception e) {
@@ -441,6 +446,18 @@ public class LSMHarness implements ILSMHarness {
         }
     }
 
+    private static int getNumDiskComponents(ILSMIndexOperationContext ctx) {
+        final List<ILSMComponent> components = ctx.getComponentHolder();
+        final int componentsCount = components.size();
+        int numDiskComponents = 0;
+        for (int i = 0; i < componentsCount; i++) {
+            if (components.get(i).getType() == LSMComponentType.DISK) {
+                numDiskComponents++;
+            }
+        }
+        return numDiskComponents;
+    }
+
     @Override
     public void endSearch(ILSMIndexOperationContext ctx) throws HyracksDataException {
         if (ctx.getOperation() == IndexOperation.SEARCH) {
@@ -459,6 +476,7 @@ public class LSMHarness implements ILSMHarness {
         }
         LSMOperationType opType = LSMOperationType.DISK_COMPONENT_SCAN;
         getAndEnterComponents(ctx, opType, false);
+        lsmIndex.getReadStats().scanned(getNumDiskComponents(ctx));
         try {
             ctx.getSearchOperationCallback().before(null);
             lsmIndex.scanDiskComponents(ctx, cursor);
@@ -489,6 +507,7 @@ public class LSMHarness implements ILSMHarness {
         synchronized (opTracker) {
             try {
                 flush = lsmIndex.createFlushOperation(ctx);
+                pendingFlushes.offer(flush.getAccessor().getOpContext());
             } finally {
                 // Notify all waiting threads whenever a flush has been scheduled since they will check
                 // again if they can grab and enter the mutable component.
@@ -516,8 +535,15 @@ public class LSMHarness implements ILSMHarness {
         try {
             doIo(operation);
         } finally {
-            exitComponents(operation.getAccessor().getOpContext(), LSMOperationType.FLUSH, operation.getNewComponent(),
-                    operation.getStatus() == LSMIOOperationStatus.FAILURE);
+            try {
+                exitComponents(operation.getAccessor().getOpContext(), LSMOperationType.FLUSH,
+                        operation.getNewComponent(), operation.getStatus() == LSMIOOperationStatus.FAILURE);
+            } finally {
+                synchronized (opTracker) {
+                    pendingFlushes.remove(operation.getAccessor().getOpContext());
+                    opTracker.notifyAll();
+                }
+            }
             opTracker.completeOperation(lsmIndex, LSMOperationType.FLUSH,
                     operation.getAccessor().getOpContext().getSearchOperationCallback(),
                     operation.getAccessor().getOpContext().getModificationCallback());
@@ -545,6 +571,9 @@ public class LSMHarness implements ILSMHarness {
             }
         } finally {
             try {
+                if (operation.getIOOpertionType() == LSMIOOperationType.FLUSH) {
+                    waitForPrecedingFlushes(operation);
+                }
                 operation.getCallback().afterFinalize(operation);
             } catch (Throwable th) {// NOSONAR Must catch all
                 operation.setStatus(LSMIOOperationStatus.FAILURE);
@@ -742,6 +771,24 @@ public class LSMHarness implements ILSMHarness {
         }
     }
 
+    /**
+     * Flushes of an index may write their components concurrently, but they are finalized and added to the disk
+     * components in the order they were scheduled so that component ids and flushed LSNs never go backwards
+     */
+    private void waitForPrecedingFlushes(ILSMIOOperation operation) throws HyracksDataException {
+        ILSMIndexOperationContext flushCtx = operation.getAccessor().getOpContext();
+        synchronized (opTracker) {
+            while (pendingFlushes.contains(flushCtx) && pendingFlushes.peek() != flushCtx) {
+                try {
+                    opTracker.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw HyracksDataException.create(e);
+                }
+            }
+        }
+    }
+
     @SuppressWarnings("squid:S2142")
     @Override
     public void deleteComponents(ILSMIndexOperationContext ctx, Predicate<ILSMComponent> predicate)
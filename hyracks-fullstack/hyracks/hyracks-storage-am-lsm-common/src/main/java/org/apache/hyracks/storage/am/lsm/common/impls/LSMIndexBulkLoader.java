@@ -18,6 +18,8 @@
  */
 package org.apache.hyracks.storage.am.lsm.common.impls;
 
+import java.io.DataOutput;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.common.impls.AbstractTreeIndex.AbstractTreeIndexBulkLoader;
@@ -56,6 +58,17 @@ public class LSMIndexBulkLoader implements IChainedComponentBulkLoader {
         return tuple;
     }
 
+    @Override
+    public ITupleReference replay(ITupleReference tuple) throws HyracksDataException {
+        // already persisted in the partially written index
+        return tuple;
+    }
+
+    @Override
+    public boolean checkpoint(DataOutput out) throws HyracksDataException {
+        return bulkLoader.checkpoint(out);
+    }
+
     @Override
     public void end() throws HyracksDataException {
         bulkLoader.end();
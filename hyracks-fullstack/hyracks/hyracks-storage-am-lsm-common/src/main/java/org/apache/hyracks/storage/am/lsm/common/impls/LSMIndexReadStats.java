@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the searches and disk component scans of an LSM index and the disk components they had to read, i.e. the
+ * read amplification caused by the number of disk components of the index
+ */
+public class LSMIndexReadStats {
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder readDiskComponents = new LongAdder();
+
+    public void searched(int numDiskComponents) {
+        searches.increment();
+        readDiskComponents.add(numDiskComponents);
+    }
+
+    public void scanned(int numDiskComponents) {
+        scans.increment();
+        readDiskComponents.add(numDiskComponents);
+    }
+
+    /**
+     * @return the number of searches of the index
+     */
+    public long getSearchCount() {
+        return searches.sum();
+    }
+
+    /**
+     * @return the number of disk component scans of the index
+     */
+    public long getScanCount() {
+        return scans.sum();
+    }
+
+    /**
+     * @return the total number of disk components read by searches and scans
+     */
+    public long getReadDiskComponentCount() {
+        return readDiskComponents.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "{\"searches\":" + getSearchCount() + ",\"scans\":" + getScanCount() + ",\"readDiskComponents\":"
+                + getReadDiskComponentCount() + "}";
+    }
+}
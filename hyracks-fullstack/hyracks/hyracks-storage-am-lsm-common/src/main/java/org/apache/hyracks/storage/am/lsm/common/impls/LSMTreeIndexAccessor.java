@@ -30,6 +30,7 @@ import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameTupleProcessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMBatchPointSearchCursor;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
@@ -49,12 +50,19 @@ public class LSMTreeIndexAccessor implements ILSMIndexAccessor {
     protected final ILSMHarness lsmHarness;
     protected final ILSMIndexOperationContext ctx;
     protected final ICursorFactory cursorFactory;
+    protected final ICursorFactory batchPointCursorFactory;
     private boolean destroyed = false;
 
     public LSMTreeIndexAccessor(ILSMHarness lsmHarness, ILSMIndexOperationContext ctx, ICursorFactory cursorFactory) {
+        this(lsmHarness, ctx, cursorFactory, null);
+    }
+
+    public LSMTreeIndexAccessor(ILSMHarness lsmHarness, ILSMIndexOperationContext ctx, ICursorFactory cursorFactory,
+            ICursorFactory batchPointCursorFactory) {
         this.lsmHarness = lsmHarness;
         this.ctx = ctx;
         this.cursorFactory = cursorFactory;
+        this.batchPointCursorFactory = batchPointCursorFactory;
     }
 
     public ILSMIndexOperationContext getCtx() {
@@ -203,6 +211,14 @@ public class LSMTreeIndexAccessor implements ILSMIndexAccessor {
         return cursorFactory.create(ctx);
     }
 
+    @Override
+    public ILSMBatchPointSearchCursor createBatchPointSearchCursor() {
+        if (batchPointCursorFactory == null) {
+            return ILSMIndexAccessor.super.createBatchPointSearchCursor();
+        }
+        return (ILSMBatchPointSearchCursor) batchPointCursorFactory.create(ctx);
+    }
+
     @Override
     public void updateFilter(ITupleReference tuple) throws HyracksDataException {
         ctx.setOperation(IndexOperation.UPSERT);
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * The progress of a merge, persisted next to its partially written target so that a merge interrupted by a node
+ * restart continues from where it stopped instead of rewriting the target from the beginning.
+ * A checkpoint holds the last tuple loaded into the target, which is also the position of every input cursor, the
+ * length of the target file when the checkpoint was taken and the state of the target's index bulkloader.
+ */
+public class MergeCheckpoint {
+    private static final int VERSION = 1;
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private final ArrayTupleReference lastTuple;
+    private final long targetLength;
+    private final byte[] indexState;
+
+    private MergeCheckpoint(ArrayTupleReference lastTuple, long targetLength, byte[] indexState) {
+        this.lastTuple = lastTuple;
+        this.targetLength = targetLength;
+        this.indexState = indexState;
+    }
+
+    public ITupleReference getLastTuple() {
+        return lastTuple;
+    }
+
+    public DataInput getIndexState() {
+        return new DataInputStream(new ByteArrayInputStream(indexState));
+    }
+
+    /**
+     * Drop the pages written to the target after this checkpoint was taken. Must be called before the target is
+     * opened.
+     */
+    public void truncate(FileReference target) throws HyracksDataException {
+        try (RandomAccessFile file = new RandomAccessFile(target.getFile(), "rw")) {
+            file.setLength(targetLength);
+            file.getChannel().force(true);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * @return the checkpoint file of a merge into the given target
+     */
+    public static FileReference getFileReference(FileReference baseDir, FileReference target) {
+        return baseDir.getChild(AbstractLSMIndexFileManager.MERGE_CHECKPOINT_PREFIX + target.getFile().getName());
+    }
+
+    /**
+     * Checkpoint a merge after lastTuple was added to its bulkloader. The checkpoint replaces the previous one
+     * atomically.
+     *
+     * @return false if the bulkloader cannot be checkpointed at its current position
+     */
+    public static boolean write(FileReference file, FileReference target, ITupleReference lastTuple,
+            ChainedLSMDiskComponentBulkLoader bulkLoader) throws HyracksDataException {
+        try {
+            ByteArrayOutputStream indexState = new ByteArrayOutputStream();
+            if (!bulkLoader.checkpoint(new DataOutputStream(indexState))) {
+                return false;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(VERSION);
+            out.writeInt(lastTuple.getFieldCount());
+            for (int i = 0; i < lastTuple.getFieldCount(); i++) {
+                out.writeInt(lastTuple.getFieldLength(i));
+                out.write(lastTuple.getFieldData(i), lastTuple.getFieldStart(i), lastTuple.getFieldLength(i));
+            }
+            out.writeLong(target.getFile().length());
+            indexState.writeTo(out);
+            out.flush();
+            Path path = file.getFile().toPath();
+            Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * @return the checkpoint stored in the given file, or null if there is none or it was written by another version
+     */
+    public static MergeCheckpoint read(FileReference file) throws HyracksDataException {
+        if (!file.getFile().exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.getFile().toPath()))) {
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+            int fieldCount = in.readInt();
+            ArrayTupleBuilder builder = new ArrayTupleBuilder(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                byte[] field = new byte[in.readInt()];
+                in.readFully(field);
+                builder.addField(field, 0, field.length);
+            }
+            ArrayTupleReference lastTuple = new ArrayTupleReference();
+            lastTuple.reset(builder.getFieldEndOffsets(), builder.getByteArray());
+            long targetLength = in.readLong();
+            ByteArrayOutputStream indexState = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+                indexState.write(buffer, 0, read);
+            }
+            return new MergeCheckpoint(lastTuple, targetLength, indexState.toByteArray());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    public static void delete(FileReference file) throws HyracksDataException {
+        if (file.getFile().exists()) {
+            IoUtil.delete(file);
+        }
+    }
+}
@@ -34,6 +34,7 @@ public abstract class MergeOperation extends AbstractIoOperation {
     protected final IIndexCursor cursor;
     protected final IIndexCursorStats stats;
     protected final long totalPages;
+    private MergeCheckpoint resumeFrom;
 
     public MergeOperation(ILSMIndexAccessor accessor, FileReference target, ILSMIOOperationCallback callback,
             String indexIdentifier, IIndexCursor cursor, IIndexCursorStats stats) {
@@ -88,4 +89,16 @@ public abstract class MergeOperation extends AbstractIoOperation {
     public IIndexCursorStats getCursorStats() {
         return stats;
     }
+
+    /**
+     * @return the checkpoint of an interrupted run of this merge that the bulkload of the target continues from, or
+     *         null if the target is loaded from the beginning
+     */
+    public MergeCheckpoint getResumeCheckpoint() {
+        return resumeFrom;
+    }
+
+    public void setResumeCheckpoint(MergeCheckpoint resumeFrom) {
+        this.resumeFrom = resumeFrom;
+    }
 }
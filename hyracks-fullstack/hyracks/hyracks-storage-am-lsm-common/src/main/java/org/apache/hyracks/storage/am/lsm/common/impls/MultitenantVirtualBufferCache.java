@@ -98,6 +98,21 @@ public class MultitenantVirtualBufferCache implements IVirtualBufferCache {
         return vbc.getPageBudget();
     }
 
+    @Override
+    public void setPageBudget(int pageBudget) {
+        vbc.setPageBudget(pageBudget);
+    }
+
+    @Override
+    public int getUsage() {
+        return vbc.getUsage();
+    }
+
+    @Override
+    public long getAllocatedPageCount() {
+        return vbc.getAllocatedPageCount();
+    }
+
     @Override
     public synchronized void close() throws HyracksDataException {
         --openCount;
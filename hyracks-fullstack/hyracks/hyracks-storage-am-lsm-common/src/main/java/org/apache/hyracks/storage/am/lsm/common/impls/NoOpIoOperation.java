@@ -27,6 +27,7 @@ import org.apache.hyracks.api.io.IODeviceHandle;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIORateLimiter;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.api.IoOperationCompleteListener;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
@@ -158,4 +159,14 @@ public class NoOpIoOperation implements ILSMIOOperation {
         return false;
     }
 
+    @Override
+    public ILSMIORateLimiter getRateLimiter() {
+        return NoOpIORateLimiter.INSTANCE;
+    }
+
+    @Override
+    public void setRateLimiter(ILSMIORateLimiter rateLimiter) {
+        // No Op
+    }
+
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IIOSchedulerPerformanceCounters;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.IIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIORateLimiter;
+
+/**
+ * An asynchronous scheduler that schedules merge operations as they arrive, like {@link AsynchronousScheduler}, but
+ * limits the disk bandwidth taken by their writes. The pages written by flushes and merges are taken from a global
+ * token bucket and from a token bucket of the device they are written to. Flushes are never throttled and may put a
+ * bucket in debt, while merges wait until the buckets are out of debt. Flushes therefore always get the bandwidth
+ * they need and merges share what is left of the budget. The merge debt and throttled time are reported with the
+ * node heartbeat.
+ */
+public class RateLimitedScheduler extends AbstractAsynchronousScheduler implements IIOSchedulerPerformanceCounters {
+    public static final String NAME = "rate-limited";
+
+    private final TokenBucket globalBucket;
+    private final long deviceBytesPerSecond;
+    private final Map<IODeviceHandle, TokenBucket> deviceBuckets = new ConcurrentHashMap<>();
+    private final Set<ILSMIOOperation> mergeOperations = ConcurrentHashMap.newKeySet();
+    private final AtomicLong throttledNanos = new AtomicLong();
+
+    /**
+     * @param globalBytesPerSecond
+     *            the write bandwidth of all flushes and merges, no limit if not positive
+     * @param deviceBytesPerSecond
+     *            the write bandwidth of flushes and merges on each IO device, no limit if not positive
+     */
+    public RateLimitedScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
+            long globalBytesPerSecond, long deviceBytesPerSecond) {
+        this(threadFactory, callback, globalBytesPerSecond, deviceBytesPerSecond, 1);
+    }
+
+    /**
+     * @param globalBytesPerSecond
+     *            the write bandwidth of all flushes and merges, no limit if not positive
+     * @param deviceBytesPerSecond
+     *            the write bandwidth of flushes and merges on each IO device, no limit if not positive
+     * @param maxConcurrentFlushes
+     *            the maximum number of flushes of the same index that run at the same time
+     */
+    public RateLimitedScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
+            long globalBytesPerSecond, long deviceBytesPerSecond, int maxConcurrentFlushes) {
+        super(threadFactory, callback, maxConcurrentFlushes);
+        globalBucket = globalBytesPerSecond > 0 ? new TokenBucket(globalBytesPerSecond) : null;
+        this.deviceBytesPerSecond = deviceBytesPerSecond;
+    }
+
+    @Override
+    protected void scheduleFlush(ILSMIOOperation operation) {
+        operation.setRateLimiter(createRateLimiter(operation.getDevice(), false));
+        super.scheduleFlush(operation);
+    }
+
+    @Override
+    protected void scheduleMerge(ILSMIOOperation operation) {
+        operation.setRateLimiter(createRateLimiter(operation.getDevice(), true));
+        mergeOperations.add(operation);
+        executor.submit(operation);
+    }
+
+    @Override
+    public void completeOperation(ILSMIOOperation operation) {
+        if (operation.getIOOpertionType() == LSMIOOperationType.MERGE) {
+            mergeOperations.remove(operation);
+        }
+    }
+
+    @Override
+    public long getMergeDebt() {
+        long remainingPages = 0;
+        for (ILSMIOOperation operation : mergeOperations) {
+            remainingPages += operation.getRemainingPages();
+        }
+        return remainingPages;
+    }
+
+    @Override
+    public long getThrottledTime() {
+        return TimeUnit.NANOSECONDS.toMillis(throttledNanos.get());
+    }
+
+    private ILSMIORateLimiter createRateLimiter(IODeviceHandle device, boolean throttle) {
+        final TokenBucket deviceBucket = device != null && deviceBytesPerSecond > 0
+                ? deviceBuckets.computeIfAbsent(device, key -> new TokenBucket(deviceBytesPerSecond)) : null;
+        if (globalBucket == null && deviceBucket == null) {
+            return NoOpIORateLimiter.INSTANCE;
+        }
+        return bytes -> {
+            long waitNanos = 0;
+            if (globalBucket != null) {
+                waitNanos = globalBucket.consume(bytes);
+            }
+            if (deviceBucket != null) {
+                waitNanos = Math.max(waitNanos, deviceBucket.consume(bytes));
+            }
+            if (throttle && waitNanos > 0) {
+                throttle(waitNanos);
+            }
+        };
+    }
+
+    private void throttle(long waitNanos) throws HyracksDataException {
+        throttledNanos.addAndGet(waitNanos);
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+
+/**
+ * A size-tiered merge policy. Disk components are assigned to levels by their size: level 0 holds the components
+ * smaller than the minimum component size and each following level holds components size-ratio times larger than
+ * the previous one. Once size-ratio adjacent components are on the same level, they are merged into one component
+ * of the next level. An entry is therefore rewritten once per level, i.e. logarithmically often in the size of the
+ * index, rather than whenever a new component is merged into the largest one. Components that reach the maximum
+ * mergable size are not merged anymore, which bounds the duration of a merge regardless of the size of the index.
+ */
+public class TieredMergePolicy implements ILSMMergePolicy {
+    /**
+     * The number of components of a level that are merged together and the size ratio of adjacent levels
+     */
+    private int sizeRatio;
+
+    /**
+     * The size of the components of level 0, i.e. about the size of a flushed component
+     */
+    private long minComponentSize;
+
+    /**
+     * Components of this size or larger are never merged
+     */
+    private long maxMergableComponentSize;
+
+    /**
+     * The maximum number of mergable disk components allowed before stopping flushes
+     */
+    private int maxComponentCount;
+
+    @Override
+    public void diskComponentAdded(final ILSMIndex index, boolean fullMergeIsRequested) throws HyracksDataException {
+        if (fullMergeIsRequested) {
+            List<ILSMDiskComponent> diskComponents = index.getDiskComponents();
+            if (!diskComponents.stream().allMatch(d -> d.getState() == ComponentState.READABLE_UNWRITABLE)) {
+                return;
+            }
+            index.createAccessor(NoOpIndexAccessParameters.INSTANCE).scheduleFullMerge();
+            return;
+        }
+        scheduleMerge(index);
+    }
+
+    @Override
+    public void configure(Map<String, String> properties) {
+        sizeRatio = Integer.parseInt(properties.get(TieredMergePolicyFactory.SIZE_RATIO));
+        minComponentSize = Long.parseLong(properties.get(TieredMergePolicyFactory.MIN_COMPONENT_SIZE));
+        maxMergableComponentSize = Long.parseLong(properties.get(TieredMergePolicyFactory.MAX_MERGABLE_SIZE));
+        maxComponentCount = Integer.parseInt(properties.get(TieredMergePolicyFactory.MAX_COMPONENT_COUNT));
+        if (sizeRatio < 2) {
+            throw new IllegalArgumentException(TieredMergePolicyFactory.SIZE_RATIO + " must be at least 2");
+        }
+        if (minComponentSize <= 0) {
+            throw new IllegalArgumentException(TieredMergePolicyFactory.MIN_COMPONENT_SIZE + " must be positive");
+        }
+    }
+
+    @Override
+    public boolean isMergeLagging(ILSMIndex index) throws HyracksDataException {
+        List<ILSMDiskComponent> diskComponents = index.getDiskComponents();
+        long mergableComponentCount =
+                diskComponents.stream().filter(d -> d.getComponentSize() < maxMergableComponentSize).count();
+        if (mergableComponentCount < maxComponentCount) {
+            // not reach the component threshold, simply return false
+            return false;
+        }
+        if (diskComponents.stream().anyMatch(d -> d.getState() == ComponentState.READABLE_MERGING)) {
+            // reach the component threshold and some components are being merged, return true (stop flushing)
+            return true;
+        }
+        // reach the component threshold but no components are being merged, e.g. the system just recovers.
+        // Unlike other policies, never fall back to a full merge since that would rewrite the largest components.
+        return scheduleMerge(index);
+    }
+
+    /**
+     * schedule a merge operation according to this merge policy
+     *
+     * @param index
+     * @return true if merge is scheduled, false otherwise.
+     * @throws HyracksDataException
+     */
+    protected boolean scheduleMerge(final ILSMIndex index) throws HyracksDataException {
+        List<ILSMDiskComponent> diskComponents = index.getDiskComponents();
+        Pair<Integer, Integer> mergableIndexes = getMergableComponentsIndex(diskComponents);
+        if (mergableIndexes == null) {
+            return false;
+        }
+        List<ILSMDiskComponent> mergableComponents =
+                diskComponents.subList(mergableIndexes.getLeft(), mergableIndexes.getRight() + 1);
+        index.createAccessor(NoOpIndexAccessParameters.INSTANCE).scheduleMerge(mergableComponents);
+        return true;
+    }
+
+    /**
+     * Given a list of disk components (ordered from newest to oldest), find the longest prefix of components that
+     * are not being merged and, among its runs of adjacent mergable components on the same level, pick the run on
+     * the lowest level which has at least size-ratio components. The oldest size-ratio components of the run are
+     * merged, the oldest run is picked if several runs are on the lowest level.
+     *
+     * @param diskComponents
+     * @return a pair of indexes indicating the start (inclusive) and end (inclusive) position of the sequence
+     *         otherwise, return null if no sequence is found
+     */
+    protected Pair<Integer, Integer> getMergableComponentsIndex(List<ILSMDiskComponent> diskComponents) {
+        int count = 0;
+        while (count < diskComponents.size()
+                && diskComponents.get(count).getState() == ComponentState.READABLE_UNWRITABLE) {
+            count++;
+        }
+        Pair<Integer, Integer> mergableIndexes = null;
+        int mergeLevel = Integer.MAX_VALUE;
+        int runEnd = count - 1;
+        int runLevel = -1;
+        for (int i = count - 1; i >= 0; i--) {
+            long size = diskComponents.get(i).getComponentSize();
+            int level = size < maxMergableComponentSize ? getLevel(size) : -1;
+            if (level != runLevel) {
+                runEnd = i;
+                runLevel = level;
+            }
+            if (level >= 0 && level < mergeLevel && runEnd - i + 1 == sizeRatio) {
+                mergableIndexes = Pair.of(i, runEnd);
+                mergeLevel = level;
+            }
+        }
+        return mergableIndexes;
+    }
+
+    private int getLevel(long componentSize) {
+        int level = 0;
+        long levelSize = minComponentSize;
+        while (componentSize >= levelSize) {
+            level++;
+            if (levelSize > Long.MAX_VALUE / sizeRatio) {
+                break;
+            }
+            levelSize *= sizeRatio;
+        }
+        return level;
+    }
+}
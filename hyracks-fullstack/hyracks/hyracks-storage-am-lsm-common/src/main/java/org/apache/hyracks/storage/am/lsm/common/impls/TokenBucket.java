@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket of bytes which is refilled at a fixed rate up to a capacity of one second worth of bytes.
+ * Consuming never blocks. A consumer that takes more bytes than available puts the bucket in debt and is told how
+ * long to wait until the debt is paid back. Consumers that ignore the wait, e.g. flushes, still add to the debt, so
+ * the consumers that wait get what is left of the rate.
+ */
+public class TokenBucket {
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final LongSupplier nanoClock;
+    private final double bytesPerNano;
+    private final double capacity;
+    private double available;
+    private long lastRefill;
+
+    public TokenBucket(long bytesPerSecond) {
+        this(bytesPerSecond, System::nanoTime);
+    }
+
+    public TokenBucket(long bytesPerSecond, LongSupplier nanoClock) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate " + bytesPerSecond + " bytes/s");
+        }
+        this.nanoClock = nanoClock;
+        bytesPerNano = bytesPerSecond / NANOS_PER_SECOND;
+        capacity = bytesPerSecond;
+        available = capacity;
+        lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take bytes from the bucket
+     *
+     * @param bytes
+     *            the number of bytes
+     * @return the time in nanoseconds until the bucket is out of debt, 0 if it is not in debt
+     */
+    public synchronized long consume(long bytes) {
+        refill();
+        available -= bytes;
+        return available >= 0 ? 0 : (long) Math.ceil(-available / bytesPerNano);
+    }
+
+    /**
+     * @return the number of bytes that can be consumed without waiting, negative if the bucket is in debt
+     */
+    public synchronized long getAvailable() {
+        refill();
+        return (long) available;
+    }
+
+    private void refill() {
+        final long now = nanoClock.getAsLong();
+        available = Math.min(capacity, available + (now - lastRefill) * bytesPerNano);
+        lastRefill = now;
+    }
+}
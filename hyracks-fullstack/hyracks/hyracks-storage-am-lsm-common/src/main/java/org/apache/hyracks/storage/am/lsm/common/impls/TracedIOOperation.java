@@ -27,6 +27,7 @@ import org.apache.hyracks.api.io.IODeviceHandle;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIORateLimiter;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.api.IoOperationCompleteListener;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
@@ -194,4 +195,14 @@ class TracedIOOperation implements ILSMIOOperation {
     public boolean isActive() {
         return ioOp.isActive();
     }
+
+    @Override
+    public ILSMIORateLimiter getRateLimiter() {
+        return ioOp.getRateLimiter();
+    }
+
+    @Override
+    public void setRateLimiter(ILSMIORateLimiter rateLimiter) {
+        ioOp.setRateLimiter(rateLimiter);
+    }
 }
@@ -21,9 +21,10 @@ package org.apache.hyracks.storage.am.lsm.common.impls;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hyracks.api.exceptions.ErrorCode;
@@ -51,11 +52,12 @@ public class VirtualBufferCache implements IVirtualBufferCache {
     private final ICacheMemoryAllocator allocator;
     private final IFileMapManager fileMapManager;
     private final int pageSize;
-    private final int pageBudget;
     private final CacheBucket[] buckets;
     private final BlockingQueue<VirtualPage> freePages;
     private final AtomicInteger largePages;
     private final AtomicInteger used;
+    private final AtomicLong allocatedPages;
+    private volatile int pageBudget;
     private boolean open;
 
     public VirtualBufferCache(ICacheMemoryAllocator allocator, int pageSize, int pageBudget) {
@@ -67,9 +69,10 @@ public class VirtualBufferCache implements IVirtualBufferCache {
         }
         this.pageBudget = pageBudget;
         buckets = new CacheBucket[this.pageBudget];
-        freePages = new ArrayBlockingQueue<>(this.pageBudget);
+        freePages = new LinkedBlockingQueue<>();
         largePages = new AtomicInteger(0);
         used = new AtomicInteger(0);
+        allocatedPages = new AtomicLong(0);
         open = false;
     }
 
@@ -87,10 +90,16 @@ public class VirtualBufferCache implements IVirtualBufferCache {
         return largePages.get();
     }
 
+    @Override
     public int getUsage() {
         return used.get();
     }
 
+    @Override
+    public long getAllocatedPageCount() {
+        return allocatedPages.get();
+    }
+
     public int getPreAllocatedPages() {
         return freePages.size();
     }
@@ -100,6 +109,20 @@ public class VirtualBufferCache implements IVirtualBufferCache {
         return pageBudget;
     }
 
+    @Override
+    public void setPageBudget(int pageBudget) {
+        if (pageBudget <= 0) {
+            throw new IllegalArgumentException("Page Budget must be positive: " + pageBudget);
+        }
+        this.pageBudget = pageBudget;
+        // free pages above the new budget are released rather than kept for later allocations
+        while (used.get() + freePages.size() > pageBudget) {
+            if (freePages.poll() == null) {
+                break;
+            }
+        }
+    }
+
     @Override
     public boolean isFull() {
         return used.get() >= pageBudget;
@@ -198,7 +221,7 @@ public class VirtualBufferCache implements IVirtualBufferCache {
     private void recycle(VirtualPage page) {
         // recycle only if
         // 1. not a large page
-        // 2. allocation is not above budget
+        // 2. allocation is not above the current budget
         if (DEBUG) {
             int readCount = page.getReadLatchCount();
             if (readCount > 0 || page.isWriteLatched()) {
@@ -206,7 +229,7 @@ public class VirtualBufferCache implements IVirtualBufferCache {
                         + ", write: " + page.isWriteLatched() + ")");
             }
         }
-        if (used.get() < pageBudget && !page.isLargePage()) {
+        if (used.get() + freePages.size() < pageBudget && !page.isLargePage()) {
             page.reset();
             freePages.offer(page);
         }
@@ -258,6 +281,7 @@ public class VirtualBufferCache implements IVirtualBufferCache {
         }
         page.dpid(dpid);
         used.incrementAndGet();
+        allocatedPages.incrementAndGet();
         return page;
     }
 
@@ -277,6 +301,7 @@ public class VirtualBufferCache implements IVirtualBufferCache {
             largePages.getAndAdd(multiplier);
             int diff = multiplier - 1;
             used.getAndAdd(diff);
+            allocatedPages.getAndAdd(diff);
             for (int i = 0; i < diff; i++) {
                 freePages.poll();
             }
@@ -287,6 +312,9 @@ public class VirtualBufferCache implements IVirtualBufferCache {
             int diff = multiplier - origMultiplier;
             largePages.getAndAdd(diff);
             used.getAndAdd(diff);
+            if (diff > 0) {
+                allocatedPages.getAndAdd(diff);
+            }
             for (int i = 0; i < diff; i++) {
                 freePages.poll();
             }
@@ -319,8 +347,8 @@ public class VirtualBufferCache implements IVirtualBufferCache {
         if (open) {
             throw HyracksDataException.create(ErrorCode.VBC_ALREADY_OPEN);
         }
-        allocator.reserveAllocation(pageSize, pageBudget);
-        for (int i = 0; i < pageBudget; i++) {
+        allocator.reserveAllocation(pageSize, buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
             buckets[i] = new CacheBucket();
         }
         largePages.set(0);
@@ -330,9 +358,10 @@ public class VirtualBufferCache implements IVirtualBufferCache {
 
     @Override
     public void reset() {
-        recycleAllPages();
+        // the pages are recycled once they are no longer counted as used, so that up to the budget is kept
         used.set(0);
         largePages.set(0);
+        recycleAllPages();
     }
 
     private void recycleAllPages() {
@@ -358,7 +387,7 @@ public class VirtualBufferCache implements IVirtualBufferCache {
             throw HyracksDataException.create(ErrorCode.VBC_ALREADY_CLOSED);
         }
         freePages.clear();
-        for (int i = 0; i < pageBudget; i++) {
+        for (int i = 0; i < buckets.length; i++) {
             buckets[i].cachedPage = null;
         }
         open = false;
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.hyracks.storage.am.lsm.common.api.IPageReservation;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Redistributes the page budgets of the virtual buffer caches of several tenants (e.g. datasets) according to the
+ * rate at which each tenant writes to its memory components. The sum of the budgets is kept constant, so tenants
+ * with a high write rate get larger memory components, and therefore fewer and larger flushed components, at the
+ * expense of tenants with a low write rate. Every tenant keeps at least a fixed share of the budget it was created
+ * with.
+ * The pages a tenant may hold above its initial budget are first taken from the pages that tenants below their
+ * initial budget leave unused, hottest tenant first. Only the pages that these cannot cover are reserved against a
+ * shared memory budget through the {@link IPageReservation} of the tenant, and a tenant grows only as far as the
+ * unused pages and its reservation allow. Shrinking a budget only releases the free pages of the caches, hence
+ * {@link #rebalance()} returns the tenants that hold more pages than they are entitled to, coldest first, so that
+ * their memory components can be flushed.
+ */
+public class VirtualBufferCacheArbiter {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final double minShare;
+    private final double smoothing;
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    /**
+     * @param minShare
+     *            the fraction of its initial budget that a tenant keeps regardless of its write rate, in [0, 1]
+     * @param smoothing
+     *            the weight of the past write rate when a new rate is observed, in [0, 1)
+     */
+    public VirtualBufferCacheArbiter(double minShare, double smoothing) {
+        if (minShare < 0 || minShare > 1) {
+            throw new IllegalArgumentException("Minimum share must be in [0, 1]: " + minShare);
+        }
+        if (smoothing < 0 || smoothing >= 1) {
+            throw new IllegalArgumentException("Smoothing must be in [0, 1): " + smoothing);
+        }
+        this.minShare = minShare;
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Register a tenant. The caches are looked up at every rebalance since they might be created lazily, the
+     * budget that a cache has when it is first seen is taken as its initial budget.
+     *
+     * @param tenant
+     *            the tenant name
+     * @param caches
+     *            the caches of the tenant
+     */
+    public synchronized void register(String tenant, Supplier<Collection<IVirtualBufferCache>> caches) {
+        register(tenant, caches, IPageReservation.UNLIMITED);
+    }
+
+    /**
+     * Register a tenant whose pages above its initial budget are reserved through {@code reservation}
+     *
+     * @param tenant
+     *            the tenant name
+     * @param caches
+     *            the caches of the tenant
+     * @param reservation
+     *            the reservation of the pages above the initial budget of the tenant
+     */
+    public synchronized void register(String tenant, Supplier<Collection<IVirtualBufferCache>> caches,
+            IPageReservation reservation) {
+        if (tenants.containsKey(tenant)) {
+            throw new IllegalStateException("Tenant " + tenant + " is already registered");
+        }
+        tenants.put(tenant, new Tenant(caches, reservation));
+    }
+
+    /**
+     * Unregister a tenant, restore the initial budgets of its caches and release its reserved pages. The pages that
+     * the tenant left unused for others are no longer available, so the other tenants reserve them or shrink.
+     *
+     * @param tenant
+     *            the tenant name
+     */
+    public synchronized void unregister(String tenant) {
+        Tenant removed = tenants.remove(tenant);
+        if (removed != null) {
+            removed.initialBudgets.forEach(IVirtualBufferCache::setPageBudget);
+            removed.reservation.release(removed.reserved);
+            for (Tenant remaining : tenants.values()) {
+                remaining.plan(remaining.budget);
+            }
+            fund();
+        }
+    }
+
+    /**
+     * Observe the write rates of the tenants since the last rebalance and redistribute the budgets accordingly.
+     *
+     * @return the tenants that should flush their memory components to free memory, coldest first
+     */
+    public synchronized List<String> rebalance() {
+        long totalBudget = 0;
+        double totalRate = 0;
+        for (Tenant tenant : tenants.values()) {
+            tenant.observe();
+            totalBudget += tenant.initialBudget;
+            totalRate += tenant.rate;
+        }
+        for (Tenant tenant : tenants.values()) {
+            if (totalRate > 0 && tenant.initialBudget > 0) {
+                // without any writes there is nothing to learn from and the current budgets are kept
+                double share = minShare * tenant.initialBudget + (1 - minShare) * totalBudget * tenant.rate / totalRate;
+                tenant.plan((long) share);
+            } else {
+                tenant.plan(tenant.budget);
+            }
+        }
+        fund();
+        long totalUsage = 0;
+        for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+            Tenant tenant = entry.getValue();
+            totalUsage += tenant.usage;
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug(
+                        "Tenant {} with write rate {} pages got a budget of {} pages, {} of them left unused by"
+                                + " other tenants and {} reserved",
+                        entry.getKey(), tenant.rate, tenant.budget, tenant.borrowed, tenant.reserved);
+            }
+        }
+        List<Map.Entry<String, Tenant>> coldestFirst = new ArrayList<>(tenants.entrySet());
+        coldestFirst.sort(Comparator.comparingDouble(entry -> entry.getValue().rate));
+        List<String> toFlush = new ArrayList<>();
+        for (Map.Entry<String, Tenant> entry : coldestFirst) {
+            Tenant tenant = entry.getValue();
+            if (tenant.usage > 0 && (tenant.usage > tenant.budget || totalUsage > totalBudget)) {
+                toFlush.add(entry.getKey());
+                totalUsage -= tenant.usage;
+            }
+        }
+        return toFlush;
+    }
+
+    /**
+     * Hand the pages that tenants below their initial budget leave unused to the tenants that grow above theirs,
+     * hottest first, and reserve the rest of the growth through the reservations of the growing tenants. Reservations
+     * that shrink are released before any reservation grows.
+     */
+    private void fund() {
+        long unused = 0;
+        for (Tenant tenant : tenants.values()) {
+            unused += Math.max(0, tenant.initialBudget - tenant.getPlannedHeldPages());
+        }
+        List<Tenant> hottestFirst = new ArrayList<>(tenants.values());
+        hottestFirst.sort(Comparator.comparingDouble((Tenant tenant) -> tenant.rate).reversed());
+        for (Tenant tenant : hottestFirst) {
+            tenant.borrowed = Math.min(unused, Math.max(0, tenant.getPlannedHeldPages() - tenant.initialBudget));
+            unused -= tenant.borrowed;
+        }
+        for (Tenant tenant : hottestFirst) {
+            if (tenant.getRequiredReservation() <= tenant.reserved) {
+                tenant.reserve();
+                tenant.apply();
+            }
+        }
+        for (Tenant tenant : hottestFirst) {
+            if (tenant.getRequiredReservation() > tenant.reserved) {
+                if (!tenant.reserve()) {
+                    // the shared memory budget cannot cover the growth, grow as far as the current reservation allows
+                    tenant.plan(
+                            Math.min(tenant.plannedBudget, tenant.initialBudget + tenant.borrowed + tenant.reserved));
+                    tenant.borrowed =
+                            Math.min(tenant.borrowed, Math.max(0, tenant.getPlannedHeldPages() - tenant.initialBudget));
+                    // the pages in use are held until the caches are flushed, whether they can be reserved or not
+                    tenant.reserve();
+                }
+                tenant.apply();
+            }
+        }
+    }
+
+    /**
+     * @param tenant
+     *            the tenant name
+     * @return the smoothed number of pages written by the tenant between two rebalances
+     */
+    public synchronized double getWriteRate(String tenant) {
+        Tenant t = tenants.get(tenant);
+        return t == null ? 0 : t.rate;
+    }
+
+    /**
+     * @param tenant
+     *            the tenant name
+     * @return the current page budget of the tenant
+     */
+    public synchronized long getPageBudget(String tenant) {
+        Tenant t = tenants.get(tenant);
+        return t == null ? 0 : t.budget;
+    }
+
+    public synchronized Map<String, Object> getState() {
+        Map<String, Object> state = new HashMap<>();
+        for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+            Map<String, Object> tenantState = new HashMap<>();
+            tenantState.put("rate", entry.getValue().rate);
+            tenantState.put("budget", entry.getValue().budget);
+            tenantState.put("initialBudget", entry.getValue().initialBudget);
+            tenantState.put("borrowed", entry.getValue().borrowed);
+            tenantState.put("reserved", entry.getValue().reserved);
+            state.put(entry.getKey(), tenantState);
+        }
+        return state;
+    }
+
+    private class Tenant {
+        private final Supplier<Collection<IVirtualBufferCache>> caches;
+        private final IPageReservation reservation;
+        private final Map<IVirtualBufferCache, Integer> initialBudgets = new IdentityHashMap<>();
+        private final Map<IVirtualBufferCache, Long> lastAllocated = new IdentityHashMap<>();
+        private final Map<IVirtualBufferCache, Integer> plannedBudgets = new IdentityHashMap<>();
+        private long initialBudget;
+        private long budget;
+        private long plannedBudget;
+        private long usage;
+        private long borrowed;
+        private long reserved;
+        private double rate;
+        private boolean observed;
+
+        private Tenant(Supplier<Collection<IVirtualBufferCache>> caches, IPageReservation reservation) {
+            this.caches = caches;
+            this.reservation = reservation;
+        }
+
+        private void observe() {
+            long written = 0;
+            usage = 0;
+            budget = 0;
+            for (IVirtualBufferCache vbc : caches.get()) {
+                if (!initialBudgets.containsKey(vbc)) {
+                    initialBudgets.put(vbc, vbc.getPageBudget());
+                    initialBudget += vbc.getPageBudget();
+                }
+                budget += vbc.getPageBudget();
+                long allocated = vbc.getAllocatedPageCount();
+                Long last = lastAllocated.put(vbc, allocated);
+                written += last == null ? allocated : allocated - last;
+                usage += vbc.getUsage();
+            }
+            rate = observed ? smoothing * rate + (1 - smoothing) * written : written;
+            observed = true;
+        }
+
+        /**
+         * Compute the budgets of the caches for a new budget of the tenant, they take effect on {@link #apply()}
+         *
+         * @param newBudget
+         *            the new budget of the tenant
+         */
+        private void plan(long newBudget) {
+            plannedBudgets.clear();
+            plannedBudget = 0;
+            if (newBudget == budget) {
+                plannedBudget = budget;
+                return;
+            }
+            double factor = initialBudget > 0 ? (double) newBudget / initialBudget : 1;
+            for (Map.Entry<IVirtualBufferCache, Integer> entry : initialBudgets.entrySet()) {
+                int pageBudget = Math.max(1, (int) (entry.getValue() * factor));
+                plannedBudgets.put(entry.getKey(), pageBudget);
+                plannedBudget += pageBudget;
+            }
+        }
+
+        private void apply() {
+            plannedBudgets.forEach(IVirtualBufferCache::setPageBudget);
+            plannedBudgets.clear();
+            budget = plannedBudget;
+        }
+
+        /**
+         * @return the pages the tenant holds with its planned budget, the pages in use are held until the caches are
+         *         flushed, even if the planned budget is lower
+         */
+        private long getPlannedHeldPages() {
+            return Math.max(plannedBudget, usage);
+        }
+
+        private long getRequiredReservation() {
+            return Math.max(0, getPlannedHeldPages() - initialBudget - borrowed);
+        }
+
+        /**
+         * Adjust the reserved pages to the pages held above the initial budget that other tenants do not leave unused
+         *
+         * @return true, if the reservation covers the pages, otherwise false
+         */
+        private boolean reserve() {
+            long required = getRequiredReservation();
+            if (required > reserved) {
+                if (!reservation.reserve(required - reserved)) {
+                    return false;
+                }
+            } else if (required < reserved) {
+                reservation.release(reserved - required);
+            }
+            reserved = required;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+
+public class ZoneMapBulkLoader implements IChainedComponentBulkLoader {
+
+    private final LSMComponentZoneMap zoneMap;
+    private final IComponentMetadata metadata;
+
+    public ZoneMapBulkLoader(LSMComponentZoneMap zoneMap, IComponentMetadata metadata) {
+        this.zoneMap = zoneMap;
+        this.metadata = metadata;
+    }
+
+    @Override
+    public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+        zoneMap.update(tuple);
+        return tuple;
+    }
+
+    @Override
+    public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+        // anti-matter tuples must be covered as well, since they hide tuples of older components
+        zoneMap.update(tuple);
+        return tuple;
+    }
+
+    @Override
+    public void end() throws HyracksDataException {
+        zoneMap.write(metadata);
+    }
+
+    @Override
+    public void abort() throws HyracksDataException {
+        //Noop
+    }
+
+    @Override
+    public void cleanupArtifacts() throws HyracksDataException {
+        //Noop
+    }
+
+    @Override
+    public void writeFailed(ICachedPage page, Throwable failure) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasFailed() {
+        return false;
+    }
+
+    @Override
+    public Throwable getFailure() {
+        return null;
+    }
+
+    @Override
+    public void force() throws HyracksDataException {
+        // no op
+    }
+}
@@ -19,6 +19,9 @@
 
 package org.apache.hyracks.storage.common;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
@@ -140,6 +143,22 @@ public interface IIndex {
     public IIndexBulkLoader createBulkLoader(float fillFactor, boolean verifyInput, long numElementsHint,
             boolean checkIfEmptyIndex, IPageWriteCallback callback) throws HyracksDataException;
 
+    /**
+     * Create a bulkloader that continues a load interrupted after {@link IIndexBulkLoader#checkpoint(DataOutput)}.
+     * The index must be activated over the partially written file.
+     *
+     * @param fillFactor
+     * @param verifyInput
+     * @param callback
+     * @param checkpoint
+     *            the state written by the interrupted bulkloader
+     * @throws HyracksDataException
+     */
+    default IIndexBulkLoader resumeBulkLoader(float fillFactor, boolean verifyInput, IPageWriteCallback callback,
+            DataInput checkpoint) throws HyracksDataException {
+        throw new UnsupportedOperationException("Resuming a bulk load is not supported by " + getClass().getName());
+    }
+
     /**
      * TODO: This should be moved to ILSMIndex since filters don't make sense in non LSM context
      *
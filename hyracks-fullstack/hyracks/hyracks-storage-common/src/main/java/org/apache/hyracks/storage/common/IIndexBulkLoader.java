@@ -18,6 +18,8 @@
  */
 package org.apache.hyracks.storage.common;
 
+import java.io.DataOutput;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteFailureCallback;
@@ -58,4 +60,17 @@ public interface IIndexBulkLoader extends IPageWriteFailureCallback {
      * @throws HyracksDataException
      */
     void force() throws HyracksDataException;
+
+    /**
+     * Persist the pages written so far and capture the in-memory state of this bulkloader so that the load can be
+     * resumed on the partially written file after a restart.
+     *
+     * @param out
+     *            the output to write the state to
+     * @return true if a checkpoint was written, false if this bulkloader cannot be checkpointed at its current position
+     * @throws HyracksDataException
+     */
+    default boolean checkpoint(DataOutput out) throws HyracksDataException {
+        return false;
+    }
 }
@@ -71,6 +71,25 @@ public abstract class AbstractBufferedFileIOManager {
      */
     public abstract void read(CachedPage cPage) throws HyracksDataException;
 
+    /**
+     * Read consecutive CachedPages from disk
+     *
+     * @param cPages
+     *            CachedPages in {@link BufferCache} of consecutive pages of the file
+     * @param offset
+     *            the index of the first page to read
+     * @param length
+     *            the number of pages to read
+     * @return the number of pages, starting from the first one, which have been read
+     * @throws HyracksDataException
+     */
+    public int read(CachedPage[] cPages, int offset, int length) throws HyracksDataException {
+        for (int i = 0; i < length; i++) {
+            read(cPages[offset + i]);
+        }
+        return length;
+    }
+
     /**
      * Write the CachedPage into disk
      *
@@ -276,6 +295,10 @@ public abstract class AbstractBufferedFileIOManager {
         return ioManager.syncRead(fileHandle, offset, buf);
     }
 
+    protected final long readToBuffers(ByteBuffer[] buf, long offset) throws HyracksDataException {
+        return ioManager.syncRead(fileHandle, offset, buf);
+    }
+
     protected final long writeToFile(ByteBuffer buf, long offset) throws HyracksDataException {
         return ioManager.doSyncWrite(fileHandle, offset, buf);
     }
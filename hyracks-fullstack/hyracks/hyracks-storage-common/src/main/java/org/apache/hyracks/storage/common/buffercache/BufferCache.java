@@ -23,6 +23,7 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +32,10 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -39,6 +43,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.apache.hyracks.api.exceptions.ErrorCode;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IAsyncRequest;
 import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponent;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
@@ -62,8 +67,12 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     private static final int PIN_MAX_WAIT_TIME = 50;
     private static final int PIN_ATTEMPT_CYCLES_WARNING_THRESHOLD = 3;
     private static final int MAX_PIN_ATTEMPT_CYCLES = 1000;
+    private static final long MAX_PINNED_PAGE_WAIT_TIME = 1000;
     private static final int MAX_PAGE_READ_ATTEMPTS = 5;
     private static final long PERIOD_BETWEEN_READ_ATTEMPTS = 100;
+    private static final long READ_AHEAD_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final IAsyncRequest COMPLETED_REQUEST = () -> {
+    };
     public static final boolean DEBUG = false;
 
     private final int pageSize;
@@ -71,9 +80,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     final IIOManager ioManager;
     private final CacheBucket[] pageMap;
     private final IPageReplacementStrategy pageReplacementStrategy;
+    private final BufferCachePerformanceCounters performanceCounters;
     private final IPageCleanerPolicy pageCleanerPolicy;
     private final IFileMapManager fileMapManager;
     private final CleanerThread cleanerThread;
+    private final ThreadPoolExecutor readAheadExecutor;
     private final Map<Integer, BufferedFileHandle> fileInfoMap;
     private final BlockingQueue<BufferCacheHeaderHelper> headerPageCache;
 
@@ -104,13 +115,18 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             pageMap[i] = new CacheBucket();
         }
         this.pageReplacementStrategy = pageReplacementStrategy;
+        this.performanceCounters = pageReplacementStrategy.getPerformanceCounters();
         this.pageCleanerPolicy = pageCleanerPolicy;
         this.fileMapManager = fileMapManager;
 
         Executor executor = Executors.newCachedThreadPool(threadFactory);
-        fileInfoMap = new HashMap<>();
+        fileInfoMap = new ConcurrentHashMap<>();
         cleanerThread = new CleanerThread();
         executor.execute(cleanerThread);
+        // read-ahead requests are served by at most ioQueuelen threads which block on the io manager
+        readAheadExecutor = new ThreadPoolExecutor(ioQueuelen, ioQueuelen, READ_AHEAD_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        readAheadExecutor.allowCoreThreadTimeOut(true);
         closed = false;
 
         if (DEBUG) {
@@ -153,10 +169,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
         // check whether file has been created and opened
         int fileId = BufferedFileHandle.getFileId(dpid);
-        BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         if (fInfo == null || fInfo.hasBeenDeleted() || !fInfo.hasBeenOpened()) {
             throw new HyracksDataException("pin called on a fileId " + fileId + " that has not been created.");
         } else if (fInfo.getReferenceCount() <= 0) {
@@ -166,8 +179,12 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException {
-        // Calling the pinSanityCheck should be used only for debugging, since
-        // the synchronized block over the fileInfoMap is a hot spot.
+        return pin(dpid, newPage, false);
+    }
+
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean priority) throws HyracksDataException {
+        // Calling the pinSanityCheck should be used only for debugging
         if (DEBUG) {
             pinSanityCheck(dpid);
         }
@@ -189,34 +206,83 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                     confiscateLock.unlock();
                 }
             }
-            // Resolve race of multiple threads trying to read the page from
-            // disk.
-            synchronized (cPage) {
-                if (!cPage.valid) {
-                    try {
-                        tryRead(cPage);
-                        cPage.valid = true;
-                    } catch (Exception e) {
-                        LOGGER.log(ExceptionUtils.causedByInterrupt(e) ? Level.DEBUG : Level.WARN,
-                                "Failure while trying to read a page from disk", e);
-                        throw e;
-                    } finally {
-                        if (!cPage.valid) {
-                            unpin(cPage);
-                        }
-                    }
-                }
+            if (cPage.valid) {
+                performanceCounters.pageHit();
+            } else {
+                readIfInvalid(cPage);
             }
         } else {
             cPage.valid = true;
         }
-        pageReplacementStrategy.notifyCachePageAccess(cPage);
+        if (priority) {
+            pageReplacementStrategy.notifyCachePagePriorityAccess(cPage);
+        } else {
+            pageReplacementStrategy.notifyCachePageAccess(cPage);
+        }
         if (DEBUG) {
             pinnedPageOwner.put(cPage, Thread.currentThread().getStackTrace());
         }
         return cPage;
     }
 
+    @Override
+    public IAsyncRequest prefetch(long dpid) throws HyracksDataException {
+        return prefetch(dpid, 1);
+    }
+
+    @Override
+    public IAsyncRequest prefetch(long dpid, int numPages) throws HyracksDataException {
+        final List<CachedPage> missingPages = new ArrayList<>(numPages);
+        try {
+            for (int i = 0; i < numPages; i++) {
+                if (DEBUG) {
+                    pinSanityCheck(dpid + i);
+                }
+                CachedPage cPage = findPage(dpid + i);
+                if (cPage.valid) {
+                    unpin(cPage);
+                } else {
+                    missingPages.add(cPage);
+                }
+            }
+        } catch (Exception e) {
+            for (CachedPage cPage : missingPages) {
+                unpin(cPage);
+            }
+            throw e;
+        }
+        if (missingPages.isEmpty()) {
+            return COMPLETED_REQUEST;
+        }
+        ReadAheadRequest request = new ReadAheadRequest(missingPages.toArray(new CachedPage[0]));
+        readAheadExecutor.execute(request);
+        return request;
+    }
+
+    private void readIfInvalid(CachedPage cPage) throws HyracksDataException {
+        // Resolve race of multiple threads trying to read the page from
+        // disk.
+        synchronized (cPage) {
+            if (!cPage.valid) {
+                performanceCounters.pageMiss();
+                try {
+                    tryRead(cPage);
+                    cPage.valid = true;
+                } catch (Exception e) {
+                    LOGGER.log(ExceptionUtils.causedByInterrupt(e) ? Level.DEBUG : Level.WARN,
+                            "Failure while trying to read a page from disk", e);
+                    throw e;
+                } finally {
+                    if (!cPage.valid) {
+                        unpin(cPage);
+                    }
+                }
+            } else {
+                performanceCounters.pageHit();
+            }
+        }
+    }
+
     private CachedPage findPage(long dpid) throws HyracksDataException {
         return (CachedPage) getPageLoop(dpid, -1, false);
     }
@@ -229,6 +295,17 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
          */
         int hash = hash(dpid);
         CacheBucket bucket = pageMap[hash];
+        /*
+         * Resident pages are pinned without taking the bucket lock. A page that moves to another chain while we
+         * traverse it can only make us miss, in which case we fall back to the locked lookup below.
+         */
+        cPage = bucket.cachedPage;
+        while (cPage != null) {
+            if (cPage.dpid == dpid && cPage.tryPin(dpid)) {
+                return cPage;
+            }
+            cPage = cPage.next;
+        }
         bucket.bucketLock.lock();
         try {
             cPage = bucket.cachedPage;
@@ -356,7 +433,15 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 if (cPage != null) {
                     return cPage;
                 }
-                victim.reset(dpid);
+                if (!claimIdentity(victim)) {
+                    return null;
+                }
+                try {
+                    victim.reset(dpid);
+                } finally {
+                    victim.endIdentityChange();
+                }
+                performanceCounters.pageEvicted();
             } finally {
                 bucket.bucketLock.unlock();
             }
@@ -393,21 +478,29 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 if (cPage != null) {
                     return cPage;
                 }
-                if (victimBucket.cachedPage == victim) {
-                    victimBucket.cachedPage = victim.next;
-                } else {
-                    CachedPage victimPrev = victimBucket.cachedPage;
-                    while (victimPrev.next != victim) {
-                        victimPrev = victimPrev.next;
-                        if (victimPrev == null) {
-                            throw new IllegalStateException();
+                if (!claimIdentity(victim)) {
+                    return null;
+                }
+                try {
+                    if (victimBucket.cachedPage == victim) {
+                        victimBucket.cachedPage = victim.next;
+                    } else {
+                        CachedPage victimPrev = victimBucket.cachedPage;
+                        while (victimPrev.next != victim) {
+                            victimPrev = victimPrev.next;
+                            if (victimPrev == null) {
+                                throw new IllegalStateException();
+                            }
                         }
+                        victimPrev.next = victim.next;
                     }
-                    victimPrev.next = victim.next;
+                    victim.reset(dpid);
+                    victim.next = bucket.cachedPage;
+                    bucket.cachedPage = victim;
+                } finally {
+                    victim.endIdentityChange();
                 }
-                victim.reset(dpid);
-                victim.next = bucket.cachedPage;
-                bucket.cachedPage = victim;
+                performanceCounters.pageEvicted();
             } finally {
                 victimBucket.bucketLock.unlock();
                 bucket.bucketLock.unlock();
@@ -419,6 +512,22 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         }
     }
 
+    /**
+     * Must be called after acquiring the exclusive pin (0 -> 1) of a victim whose current dpid is reachable from the
+     * page map and before changing its dpid or unlinking it. Fails, releasing the pin, if a lock-free
+     * {@link CachedPage#tryPin(long)} raced with the exclusive pin.
+     * On success, the caller must call {@link CachedPage#endIdentityChange()} once the change is done.
+     */
+    private static boolean claimIdentity(CachedPage victim) {
+        victim.beginIdentityChange();
+        if (victim.pinCount.get() != 1) {
+            victim.endIdentityChange();
+            victim.pinCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
     private CachedPage findTargetInBucket(long dpid, CachedPage cPage, CachedPage victim) {
         while (cPage != null) {
             if (cPage.dpid == dpid) {
@@ -441,6 +550,8 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         buffer.append("Number of physical pages: ").append(pageReplacementStrategy.getMaxAllowedNumPages())
                 .append('\n');
         buffer.append("Hash table size: ").append(pageMap.length).append('\n');
+        buffer.append("Page replacement strategy: ").append(pageReplacementStrategy.getClass().getSimpleName())
+                .append(' ').append(performanceCounters).append('\n');
         buffer.append("Page Map:\n");
         buffer.append("cpid -> [fileId:pageId, pinCount, valid/invalid, confiscated/physical, dirty/clean]");
         int nCachedPages = 0;
@@ -522,10 +633,18 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     }
 
     private void tryRead(CachedPage cPage) throws HyracksDataException {
+        tryRead(new CachedPage[] { cPage }, 0, 1);
+    }
+
+    /**
+     * Reads consecutive pages of a file with as few reads as possible
+     *
+     * @return the number of pages, starting from the first one, which have been read
+     */
+    private int tryRead(CachedPage[] cPages, int offset, int length) throws HyracksDataException {
         for (int i = 1; i <= MAX_PAGE_READ_ATTEMPTS; i++) {
             try {
-                read(cPage);
-                return;
+                return read(cPages, offset, length);
             } catch (HyracksDataException readException) {
                 if (readException.getErrorCode() == ErrorCode.CANNOT_READ_CLOSED_FILE && i <= MAX_PAGE_READ_ATTEMPTS) {
                     /**
@@ -546,12 +665,15 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 }
             }
         }
+        return 0;
     }
 
-    private void read(CachedPage cPage) throws HyracksDataException {
-        BufferedFileHandle fInfo = getFileHandle(cPage);
-        cPage.buffer.clear();
-        fInfo.read(cPage);
+    private int read(CachedPage[] cPages, int offset, int length) throws HyracksDataException {
+        BufferedFileHandle fInfo = getFileHandle(cPages[offset]);
+        for (int i = 0; i < length; i++) {
+            cPages[offset + i].buffer.clear();
+        }
+        return fInfo.read(cPages, offset, length);
     }
 
     @Override
@@ -600,7 +722,8 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     private static class CacheBucket {
         private final Lock bucketLock;
-        private CachedPage cachedPage;
+        // volatile to allow lock-free traversal of the chain by findPageInner()
+        private volatile CachedPage cachedPage;
 
         public CacheBucket() {
             bucketLock = new ReentrantLock();
@@ -614,6 +737,81 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         }
     }
 
+    /**
+     * Reads pages that have been pinned on behalf of the request and unpins them once the read is done. A thread that
+     * pins one of the pages in the meantime either waits for the read in progress or reads the page itself if the
+     * request has not started yet, in which case the request has nothing left to do for that page. Runs of
+     * consecutive pages that are still missing are read from the file with a single scattering read.
+     */
+    private class ReadAheadRequest implements IAsyncRequest, Runnable {
+        private final CachedPage[] cPages;
+        private boolean done;
+
+        ReadAheadRequest(CachedPage[] cPages) {
+            this.cPages = cPages;
+        }
+
+        @Override
+        public void run() {
+            try {
+                readLocked(0);
+            } catch (Exception e) {
+                // the pages stay invalid, a pin of a page will retry the read and report the failure
+                LOGGER.log(Level.DEBUG, "Failure while reading ahead pages from disk", e);
+            } finally {
+                for (CachedPage cPage : cPages) {
+                    try {
+                        unpin(cPage);
+                    } catch (Exception e) {
+                        LOGGER.log(Level.WARN, "Failure while unpinning a page read ahead", e);
+                    }
+                }
+                synchronized (this) {
+                    done = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Locks the pages in the order of their page ids, which is the same for all requests, and reads them once
+         * all of them are locked
+         */
+        private void readLocked(int index) throws HyracksDataException {
+            if (index < cPages.length) {
+                synchronized (cPages[index]) {
+                    readLocked(index + 1);
+                }
+                return;
+            }
+            int start = 0;
+            while (start < cPages.length) {
+                if (cPages[start].valid) {
+                    start++;
+                    continue;
+                }
+                int end = start + 1;
+                while (end < cPages.length && !cPages[end].valid && cPages[end].dpid == cPages[end - 1].dpid + 1) {
+                    end++;
+                }
+                // pages left unread, e.g. the rest of a large page, are read by their pins
+                int numPagesRead = tryRead(cPages, start, end - start);
+                for (int i = start; i < start + numPagesRead; i++) {
+                    performanceCounters.pageMiss();
+                    cPages[i].valid = true;
+                }
+                start = end;
+            }
+        }
+
+        @Override
+        public synchronized void await() throws InterruptedException {
+            while (!done) {
+                wait();
+            }
+        }
+    }
+
     private class CleanerThread implements Runnable {
         private volatile boolean shutdownStart = false;
         private volatile boolean shutdownComplete = false;
@@ -714,6 +912,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     @Override
     public void close() {
         closed = true;
+        readAheadExecutor.shutdown();
         try {
             synchronized (cleanerThread.threadLock) {
                 cleanerThread.shutdownStart = true;
@@ -852,57 +1051,99 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
             return;
         }
         final int fileId = fInfo.getFileId();
+        List<CacheBucket> bucketsWithPinnedPages = new ArrayList<>();
         for (final CacheBucket bucket : pageMap) {
-            bucket.bucketLock.lock();
-            try {
-                CachedPage prev = bucket.cachedPage;
-                while (prev != null) {
-                    CachedPage cPage = prev.next;
-                    if (cPage == null) {
-                        break;
-                    }
-                    if (invalidateIfFileIdMatch(fileId, cPage, flushDirtyPages)) {
-                        prev.next = cPage.next;
-                        cPage.next = null;
-                    } else {
-                        prev = cPage;
-                    }
-                }
-                // Take care of the head of the chain.
-                if (bucket.cachedPage != null && invalidateIfFileIdMatch(fileId, bucket.cachedPage, flushDirtyPages)) {
-                    CachedPage cPage = bucket.cachedPage;
-                    bucket.cachedPage = bucket.cachedPage.next;
-                    cPage.next = null;
+            if (sweepBucket(bucket, fileId, flushDirtyPages) != null) {
+                bucketsWithPinnedPages.add(bucket);
+            }
+        }
+        /*
+         * A page of the file can still be pinned for a short time, e.g. by a lock-free lookup that is about to back
+         * off or by an evictor that is inspecting it. Retry those buckets until their pages are released.
+         */
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_PINNED_PAGE_WAIT_TIME);
+        while (!bucketsWithPinnedPages.isEmpty()) {
+            Thread.yield();
+            for (Iterator<CacheBucket> it = bucketsWithPinnedPages.iterator(); it.hasNext();) {
+                CachedPage pinnedPage = sweepBucket(it.next(), fileId, flushDirtyPages);
+                if (pinnedPage == null) {
+                    it.remove();
+                } else if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("Page " + BufferedFileHandle.getFileId(pinnedPage.dpid) + ":"
+                            + BufferedFileHandle.getPageId(pinnedPage.dpid)
+                            + " is pinned and file is being closed. Pincount is: " + pinnedPage.pinCount.get()
+                            + " Page is confiscated: " + pinnedPage.confiscated);
                 }
-            } finally {
-                bucket.bucketLock.unlock();
             }
         }
     }
 
-    private boolean invalidateIfFileIdMatch(int fileId, CachedPage cPage, boolean flushDirtyPages)
+    /**
+     * Invalidates and unlinks the pages of the file in the bucket.
+     *
+     * @return a page of the file that is pinned and was left in the bucket, or null if there is none
+     */
+    private CachedPage sweepBucket(CacheBucket bucket, int fileId, boolean flushDirtyPages)
             throws HyracksDataException {
-        if (BufferedFileHandle.getFileId(cPage.dpid) == fileId) {
-            int pinCount;
-            if (cPage.dirty.get()) {
-                if (flushDirtyPages) {
-                    write(cPage);
+        CachedPage pinnedPage = null;
+        bucket.bucketLock.lock();
+        try {
+            CachedPage prev = bucket.cachedPage;
+            while (prev != null) {
+                CachedPage cPage = prev.next;
+                if (cPage == null) {
+                    break;
+                }
+                if (BufferedFileHandle.getFileId(cPage.dpid) != fileId) {
+                    prev = cPage;
+                } else if (invalidateIfUnpinned(cPage, flushDirtyPages)) {
+                    prev.next = cPage.next;
+                    cPage.next = null;
+                } else {
+                    pinnedPage = cPage;
+                    prev = cPage;
                 }
-                cPage.dirty.set(false);
-                pinCount = cPage.pinCount.decrementAndGet();
-            } else {
-                pinCount = cPage.pinCount.get();
             }
-            if (pinCount > 0) {
-                throw new IllegalStateException("Page " + BufferedFileHandle.getFileId(cPage.dpid) + ":"
-                        + BufferedFileHandle.getPageId(cPage.dpid)
-                        + " is pinned and file is being closed. Pincount is: " + pinCount + " Page is confiscated: "
-                        + cPage.confiscated);
+            // Take care of the head of the chain.
+            CachedPage cPage = bucket.cachedPage;
+            if (cPage != null && BufferedFileHandle.getFileId(cPage.dpid) == fileId) {
+                if (invalidateIfUnpinned(cPage, flushDirtyPages)) {
+                    bucket.cachedPage = cPage.next;
+                    cPage.next = null;
+                } else {
+                    pinnedPage = cPage;
+                }
+            }
+        } finally {
+            bucket.bucketLock.unlock();
+        }
+        return pinnedPage;
+    }
+
+    /**
+     * Invalidates a page of a file that is being closed or deleted. Must be called while holding the page's bucket
+     * lock.
+     *
+     * @return false if the page is pinned and was left as is
+     */
+    private boolean invalidateIfUnpinned(CachedPage cPage, boolean flushDirtyPages) throws HyracksDataException {
+        if (cPage.dirty.get()) {
+            if (flushDirtyPages) {
+                write(cPage);
+            }
+            cPage.dirty.set(false);
+            cPage.pinCount.decrementAndGet();
+        }
+        cPage.beginIdentityChange();
+        try {
+            if (cPage.pinCount.get() > 0) {
+                return false;
             }
             cPage.invalidate();
-            return true;
+        } finally {
+            cPage.endIdentityChange();
         }
-        return false;
+        return true;
     }
 
     @Override
@@ -936,10 +1177,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public void force(int fileId, boolean metadata) throws HyracksDataException {
-        BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         fInfo.force(metadata);
     }
 
@@ -994,14 +1232,12 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     }
 
     @Override
-    public synchronized int getFileReferenceCount(int fileId) {
-        synchronized (fileInfoMap) {
-            BufferedFileHandle fInfo = fileInfoMap.get(fileId);
-            if (fInfo != null) {
-                return fInfo.getReferenceCount();
-            } else {
-                return 0;
-            }
+    public int getFileReferenceCount(int fileId) {
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
+        if (fInfo != null) {
+            return fInfo.getReferenceCount();
+        } else {
+            return 0;
         }
     }
 
@@ -1063,39 +1299,47 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                     victim.pinCount.decrementAndGet();
                     return false;
                 }
-                // readjust the next pointers to remove this page from
-                // the pagemap
-                CachedPage curr = bucket.cachedPage;
-                CachedPage prev = null;
-                boolean found = false;
-                //traverse the bucket's linked list to find the victim.
-                while (curr != null) {
-                    if (curr == victim) {
-                        // we found where the victim
-                        // resides in the hash table
-                        if (DEBUG) {
-                            assert curr != curr.next;
-                        }
-                        if (prev == null) {
-                            // if this is the first page in the bucket
-                            bucket.cachedPage = curr.next;
-                        } else {
-                            // if it isn't we need to make the previous
-                            // node point to where it should
-                            prev.next = curr.next;
+                if (!claimIdentity(victim)) {
+                    return false;
+                }
+                try {
+                    // readjust the next pointers to remove this page from
+                    // the pagemap
+                    CachedPage curr = bucket.cachedPage;
+                    CachedPage prev = null;
+                    boolean found = false;
+                    //traverse the bucket's linked list to find the victim.
+                    while (curr != null) {
+                        if (curr == victim) {
+                            // we found where the victim
+                            // resides in the hash table
                             if (DEBUG) {
-                                assert prev.next != prev;
+                                assert curr != curr.next;
+                            }
+                            if (prev == null) {
+                                // if this is the first page in the bucket
+                                bucket.cachedPage = curr.next;
+                            } else {
+                                // if it isn't we need to make the previous
+                                // node point to where it should
+                                prev.next = curr.next;
+                                if (DEBUG) {
+                                    assert prev.next != prev;
+                                }
                             }
+                            curr.next = null;
+                            found = true;
+                            break;
                         }
-                        curr.next = null;
-                        found = true;
-                        break;
+                        // go to the next entry
+                        prev = curr;
+                        curr = curr.next;
                     }
-                    // go to the next entry
-                    prev = curr;
-                    curr = curr.next;
+                    assert found;
+                } finally {
+                    victim.endIdentityChange();
                 }
-                assert found;
+                performanceCounters.pageEvicted();
             } finally {
                 bucket.bucketLock.unlock();
             }
@@ -1116,13 +1360,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public int getNumPagesOfFile(int fileId) throws HyracksDataException {
-        synchronized (fileInfoMap) {
-            BufferedFileHandle fInfo = fileInfoMap.get(fileId);
-            if (fInfo == null) {
-                throw new HyracksDataException("No such file mapped for fileId:" + fileId);
-            }
-            return fInfo.getNumberOfPages();
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
+        if (fInfo == null) {
+            throw new HyracksDataException("No such file mapped for fileId:" + fileId);
         }
+        return fInfo.getNumberOfPages();
     }
 
     @Override
@@ -1163,8 +1405,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 victim.pinCount.decrementAndGet();
                 return null;
             }
+            victim.beginIdentityChange();
+            victim.dpid = dpid;
+            victim.confiscated.set(true);
+            victim.endIdentityChange();
             returnPage = victim;
-            ((CachedPage) returnPage).dpid = dpid;
         } else {
             // Case 2a/b
             int pageHash = hash(victim.getDiskPageId());
@@ -1180,7 +1425,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 while (curr != null) {
                     if (curr == victim) { // we found where the victim
                         // resides in the hash table
-                        if (!victim.pinCount.compareAndSet(0, 1)) {
+                        if (!victim.pinCount.compareAndSet(0, 1) || !claimIdentity(victim)) {
                             break;
                         }
                         if (DEBUG) {
@@ -1198,6 +1443,9 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                             }
                         }
                         curr.next = null;
+                        victim.dpid = dpid;
+                        victim.confiscated.set(true);
+                        victim.endIdentityChange();
                         found = true;
                         break;
                     }
@@ -1207,7 +1455,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
                 }
                 if (found) {
                     returnPage = victim;
-                    ((CachedPage) returnPage).dpid = dpid;
+                    performanceCounters.pageEvicted();
                 } //otherwise, someone took the same victim before we acquired the lock. try again!
             } finally {
                 bucket.bucketLock.unlock();
@@ -1249,10 +1497,8 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
     }
 
     private BufferedFileHandle getFileHandle(int fileId) throws HyracksDataException {
-        BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
+        // fileInfoMap is concurrent, lookups do not need to synchronize on it
+        BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         if (fInfo == null) {
             throw HyracksDataException.create(ErrorCode.FILE_DOES_NOT_EXIST, fileId);
         }
@@ -1423,11 +1669,7 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
 
     @Override
     public ICompressedPageWriter getCompressedPageWriter(int fileId) {
-        final BufferedFileHandle fInfo;
-        synchronized (fileInfoMap) {
-            fInfo = fileInfoMap.get(fileId);
-        }
-
+        final BufferedFileHandle fInfo = fileInfoMap.get(fileId);
         return fInfo.getCompressedPageWriter();
     }
 
@@ -55,11 +55,77 @@ public class BufferCacheHeaderHelper {
     }
 
     public ByteBuffer prepareRead(int size) {
+        ensureBufferCapacity(size);
         buf.position(0);
         buf.limit(size);
         return buf;
     }
 
+    /**
+     * Prepares a scattering read of consecutive pages, each page is preceded by its header in the file
+     *
+     * @param cPages
+     *            the pages to read
+     * @param offset
+     *            the index of the first page to read
+     * @param length
+     *            the number of pages to read
+     * @param pageSize
+     *            the size of a page without its header
+     * @return the buffers to read into, alternating between the header and the first page size bytes of the buffer
+     *         of each page
+     */
+    public ByteBuffer[] prepareRead(CachedPage[] cPages, int offset, int length, int pageSize) {
+        ensureBufferCapacity(length * RESERVED_HEADER_BYTES);
+        final ByteBuffer[] buffers = new ByteBuffer[length * 2];
+        for (int i = 0; i < length; i++) {
+            buf.position(i * RESERVED_HEADER_BYTES);
+            buf.limit(buf.position() + RESERVED_HEADER_BYTES);
+            buffers[i * 2] = buf.slice();
+            // the buffer of a page may still be sized for a large page it held before, only its first page is read
+            final ByteBuffer pageBuf = cPages[offset + i].buffer.duplicate();
+            pageBuf.position(0);
+            pageBuf.limit(pageSize);
+            buffers[i * 2 + 1] = pageBuf;
+        }
+        return buffers;
+    }
+
+    /**
+     * Sets the page info of a page read by a scattering read prepared by
+     * {@link #prepareRead(CachedPage[], int, int, int)}
+     *
+     * @param cPage
+     *            the page
+     * @param index
+     *            the index of the page within the pages that were read
+     */
+    public void processHeader(CachedPage cPage, int index) {
+        final int headerOffset = index * RESERVED_HEADER_BYTES;
+        cPage.setFrameSizeMultiplier(buf.getInt(headerOffset + FRAME_MULTIPLIER_OFF));
+        cPage.setExtraBlockPageId(buf.getInt(headerOffset + EXTRA_BLOCK_PAGE_ID_OFF));
+    }
+
+    /**
+     * Sets the page info of a compressed page read along with other compressed pages by a single read prepared by
+     * {@link #prepareRead(int)}
+     *
+     * @param cPage
+     *            the page
+     * @param offset
+     *            the offset of the page (i.e., its header) within the pages that were read
+     * @param size
+     *            the size of the compressed page including its header
+     * @return the buffer positioned at the compressed content of the page
+     */
+    public ByteBuffer processHeader(CachedPage cPage, int offset, int size) {
+        cPage.setFrameSizeMultiplier(buf.getInt(offset + FRAME_MULTIPLIER_OFF));
+        cPage.setExtraBlockPageId(buf.getInt(offset + EXTRA_BLOCK_PAGE_ID_OFF));
+        buf.limit(offset + size);
+        buf.position(offset + RESERVED_HEADER_BYTES);
+        return buf;
+    }
+
     public ByteBuffer processHeader(CachedPage cPage) {
         cPage.setFrameSizeMultiplier(buf.getInt(FRAME_MULTIPLIER_OFF));
         cPage.setExtraBlockPageId(buf.getInt(EXTRA_BLOCK_PAGE_ID_OFF));
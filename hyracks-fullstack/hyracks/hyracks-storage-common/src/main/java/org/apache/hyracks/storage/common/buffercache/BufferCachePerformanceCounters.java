@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.hyracks.api.io.IBufferCachePerformanceCounters;
+
+/**
+ * Hit, miss and eviction counters kept by a page replacement strategy. {@link LongAdder}s are used since the
+ * counters are updated on every pin by all threads.
+ */
+public class BufferCachePerformanceCounters implements IBufferCachePerformanceCounters {
+    private final LongAdder pageHits = new LongAdder();
+    private final LongAdder pageMisses = new LongAdder();
+    private final LongAdder pageEvictions = new LongAdder();
+
+    public void pageHit() {
+        pageHits.increment();
+    }
+
+    public void pageMiss() {
+        pageMisses.increment();
+    }
+
+    public void pageEvicted() {
+        pageEvictions.increment();
+    }
+
+    @Override
+    public long getPageHits() {
+        return pageHits.sum();
+    }
+
+    @Override
+    public long getPageMisses() {
+        return pageMisses.sum();
+    }
+
+    @Override
+    public long getPageEvictions() {
+        return pageEvictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "{ \"hits\": " + getPageHits() + ", \"misses\": " + getPageMisses() + ", \"evictions\": "
+                + getPageEvictions() + " }";
+    }
+}
@@ -35,7 +35,9 @@ public class CachedPage implements ICachedPageInternal {
     private final Object replacementStrategyObject;
     private final IPageReplacementStrategy pageReplacementStrategy;
     volatile long dpid; // disk page id (composed of file id and page id)
-    CachedPage next;
+    volatile CachedPage next;
+    // odd while the page's identity (dpid or hash chain membership) is being changed, see tryPin(long)
+    private volatile int identityVersion;
     volatile boolean valid;
     final AtomicBoolean confiscated;
     private int multiplier;
@@ -77,6 +79,38 @@ public class CachedPage implements ICachedPageInternal {
         ctorStack = DEBUG ? new Throwable().getStackTrace() : null;
     }
 
+    /**
+     * Optimistically pins this page without holding its bucket lock. The pin is only kept if the page still holds
+     * {@code dpid} and its identity did not change while pinning; otherwise the pin is undone.
+     *
+     * @return true if the page was pinned for {@code dpid}, false if the caller needs to take the locked path
+     */
+    boolean tryPin(long dpid) {
+        final int version = identityVersion;
+        if ((version & 1) != 0 || this.dpid != dpid) {
+            return false;
+        }
+        pinCount.incrementAndGet();
+        if (this.dpid == dpid && identityVersion == version && !confiscated.get()) {
+            return true;
+        }
+        pinCount.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Marks the start of an identity change. Must be called while holding the bucket lock of the page (or an
+     * exclusive pin on a page not reachable from the page map). Callers must re-check the pin count after this call
+     * since a concurrent {@link #tryPin(long)} may have succeeded before it.
+     */
+    void beginIdentityChange() {
+        identityVersion++;
+    }
+
+    void endIdentityChange() {
+        identityVersion++;
+    }
+
     public void reset(long dpid) {
         this.dpid = dpid;
         dirty.set(false);
@@ -20,7 +20,6 @@ package org.apache.hyracks.storage.common.buffercache;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -30,6 +29,9 @@ import org.apache.logging.log4j.Logger;
 public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int MAX_UNSUCCESSFUL_CYCLE_COUNT = 3;
+    // the number of times the clock hand skips a page before it can be replaced
+    private static final int ACCESSED_CHANCES = 1;
+    private static final int PRIORITY_ACCESSED_CHANCES = MAX_UNSUCCESSFUL_CYCLE_COUNT - 1;
 
     private IBufferCacheInternal bufferCache;
     private AtomicInteger clockPtr;
@@ -39,6 +41,7 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
     private final int pageSize;
     private final int maxAllowedNumPages;
     private final ConcurrentLinkedQueue<Integer> cpIdFreeList;
+    private final BufferCachePerformanceCounters performanceCounters;
 
     public ClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages) {
         this.allocator = allocator;
@@ -48,11 +51,12 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         this.numPages = new AtomicInteger(0);
         this.cpIdCounter = new AtomicInteger(0);
         cpIdFreeList = new ConcurrentLinkedQueue<>();
+        performanceCounters = new BufferCachePerformanceCounters();
     }
 
     @Override
     public Object createPerPageStrategyObject(int cpid) {
-        return new AtomicBoolean();
+        return new AtomicInteger();
     }
 
     @Override
@@ -67,12 +71,24 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
 
     @Override
     public void notifyCachePageReset(ICachedPageInternal cPage) {
-        getPerPageObject(cPage).set(false);
+        getPerPageObject(cPage).set(0);
     }
 
     @Override
     public void notifyCachePageAccess(ICachedPageInternal cPage) {
-        getPerPageObject(cPage).set(true);
+        grantChances(getPerPageObject(cPage), ACCESSED_CHANCES);
+    }
+
+    @Override
+    public void notifyCachePagePriorityAccess(ICachedPageInternal cPage) {
+        grantChances(getPerPageObject(cPage), PRIORITY_ACCESSED_CHANCES);
+    }
+
+    private static void grantChances(AtomicInteger chances, int numChances) {
+        // avoid writing the shared state of pages that are accessed repeatedly
+        if (chances.get() < numChances) {
+            chances.set(numChances);
+        }
     }
 
     @Override
@@ -109,21 +125,8 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         boolean looped = false;
         while (true) {
             ICachedPageInternal cPage = bufferCache.getPage(clockPtr);
-            if (cPage != null) {
-                /*
-                 * We do two things here:
-                 * 1. If the page has been accessed, then we skip it -- The CAS would return
-                 * false if the current value is false which makes the page a possible candidate
-                 * for replacement.
-                 * 2. We check with the buffer manager if it feels it's a good idea to use this
-                 * page as a victim.
-                 */
-                AtomicBoolean accessedFlag = getPerPageObject(cPage);
-                if (!accessedFlag.compareAndSet(true, false)) {
-                    if (cPage.isGoodVictim()) {
-                        return cPage;
-                    }
-                }
+            if (cPage != null && isReplacementCandidate(cPage, cycleCount) && cPage.isGoodVictim()) {
+                return cPage;
             }
             if (clockPtr < lastClockPtr) {
                 looped = true;
@@ -144,6 +147,30 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         }
     }
 
+    /**
+     * Called for each page the clock hand passes while looking for a victim. The page is only used as a victim if it
+     * is also a good victim according to the buffer cache.
+     *
+     * @param cPage
+     *            the page under the clock hand
+     * @param cycleCount
+     *            the number of full clock cycles completed so far without finding a victim
+     * @return true if the page can be replaced
+     */
+    protected boolean isReplacementCandidate(ICachedPageInternal cPage, int cycleCount) {
+        /*
+         * If the page has been accessed since the clock hand last passed it, then we skip it and take away
+         * one of its chances. A failed CAS means the page has just been accessed again, so we skip it as well.
+         */
+        AtomicInteger chances = getPerPageObject(cPage);
+        int current = chances.get();
+        if (current == 0) {
+            return true;
+        }
+        chances.compareAndSet(current, current - 1);
+        return false;
+    }
+
     @Override
     public int getNumPages() {
         return numPages.get();
@@ -243,8 +270,8 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
 
     }
 
-    private AtomicBoolean getPerPageObject(ICachedPageInternal cPage) {
-        return (AtomicBoolean) cPage.getReplacementStrategyObject();
+    private AtomicInteger getPerPageObject(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
     }
 
     @Override
@@ -257,10 +284,15 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         return maxAllowedNumPages;
     }
 
+    @Override
+    public BufferCachePerformanceCounters getPerformanceCounters() {
+        return performanceCounters;
+    }
+
     @Override
     public void adviseWontNeed(ICachedPageInternal cPage) {
         //make the page appear as if it wasn't accessed even if it was
-        getPerPageObject(cPage).set(false);
+        getPerPageObject(cPage).set(0);
     }
 
 }
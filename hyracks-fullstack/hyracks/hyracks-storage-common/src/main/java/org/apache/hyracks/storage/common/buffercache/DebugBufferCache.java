@@ -23,6 +23,7 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IAsyncRequest;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
 
 /**
@@ -83,6 +84,23 @@ public class DebugBufferCache implements IBufferCache {
         return page;
     }
 
+    @Override
+    public ICachedPage pin(long dpid, boolean newPage, boolean priority) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(dpid, newPage, priority);
+        pinCount.addAndGet(1);
+        return page;
+    }
+
+    @Override
+    public IAsyncRequest prefetch(long dpid) throws HyracksDataException {
+        return bufferCache.prefetch(dpid);
+    }
+
+    @Override
+    public IAsyncRequest prefetch(long dpid, int numPages) throws HyracksDataException {
+        return bufferCache.prefetch(dpid, numPages);
+    }
+
     @Override
     public void unpin(ICachedPage page) throws HyracksDataException {
         bufferCache.unpin(page);
@@ -20,6 +20,7 @@ package org.apache.hyracks.storage.common.buffercache;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IAsyncRequest;
 import org.apache.hyracks.api.replication.IIOReplicationManager;
 import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
 
@@ -104,6 +105,62 @@ public interface IBufferCache {
      */
     ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException;
 
+    /**
+     * Pin the page so it can't be evicted from the buffer cache, optionally hinting that the page holds index
+     * structure, e.g. interior tree nodes, bloom filter pages or metadata pages, which is accessed by most searches
+     * of the index and should be retained in preference to other pages once unpinned.
+     *
+     * @param dpid
+     *            page id is a unique id that is a combination of file id and page id
+     * @param newPage
+     *            whether this page is expected to be new.
+     * @param priority
+     *            whether the page should be retained in preference to other pages
+     * @return the pinned page
+     * @throws HyracksDataException
+     */
+    default ICachedPage pin(long dpid, boolean newPage, boolean priority) throws HyracksDataException {
+        return pin(dpid, newPage);
+    }
+
+    /**
+     * Start reading a page into the buffer cache in the background unless it is cached already. The page can be
+     * pinned as usual at any time, a pin waits for the read in progress instead of reading the page again.
+     * The returned request must be awaited before the file of the page is closed.
+     *
+     * @param dpid
+     *            page id is a unique id that is a combination of file id and page id
+     * @return the read request
+     * @throws HyracksDataException
+     */
+    default IAsyncRequest prefetch(long dpid) throws HyracksDataException {
+        return () -> {
+        };
+    }
+
+    /**
+     * Start reading consecutive pages of a file into the buffer cache in the background, see {@link #prefetch(long)}.
+     * Pages which are not cached already are read together with as few reads as possible.
+     *
+     * @param dpid
+     *            the unique (fileId,pageId) of the first page
+     * @param numPages
+     *            the number of pages to read
+     * @return the read request of all pages
+     * @throws HyracksDataException
+     */
+    default IAsyncRequest prefetch(long dpid, int numPages) throws HyracksDataException {
+        final IAsyncRequest[] requests = new IAsyncRequest[numPages];
+        for (int i = 0; i < numPages; i++) {
+            requests[i] = prefetch(dpid + i);
+        }
+        return () -> {
+            for (IAsyncRequest request : requests) {
+                request.await();
+            }
+        };
+    }
+
     /**
      * Unpin a pinned page so its buffer can be recycled
      *
@@ -31,6 +31,16 @@ public interface IPageReplacementStrategy {
 
     public void notifyCachePageAccess(ICachedPageInternal cPage);
 
+    /**
+     * Notifies the strategy of an access to a page that holds index structure, e.g. interior tree nodes or bloom
+     * filter pages, which should be retained in preference to pages only accessed through
+     * {@link #notifyCachePageAccess(ICachedPageInternal)}.
+     *
+     * @param cPage
+     *            the accessed page
+     */
+    void notifyCachePagePriorityAccess(ICachedPageInternal cPage);
+
     public void adviseWontNeed(ICachedPageInternal cPage);
 
     public ICachedPageInternal findVictim();
@@ -47,4 +57,9 @@ public interface IPageReplacementStrategy {
 
     void resizePage(ICachedPageInternal page, int multiplier, IExtraPageBlockHelper extraPageBlockHelper)
             throws HyracksDataException;
+
+    /**
+     * @return the hit, miss and eviction counters of this strategy
+     */
+    BufferCachePerformanceCounters getPerformanceCounters();
 }
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A scan-resistant variant of {@link ClockPageReplacementStrategy} that approximates 2Q with a single clock.
+ * Pages enter the cache on probation (cold) and are only promoted to the protected (hot) set when they are accessed
+ * again before the clock hand clears their reference bit. The clock evicts cold pages only, and starts demoting hot
+ * pages back to probation once the hot set grows beyond its share of the cache. A large scan therefore churns through
+ * the cold pages while repeatedly accessed pages, e.g. B-tree interior pages and bloom filter pages, stay cached.
+ * Pages accessed with priority skip probation and survive one extra pass of the clock over the hot set.
+ */
+public class TwoQueueClockPageReplacementStrategy extends ClockPageReplacementStrategy {
+    private static final int REFERENCED = 1;
+    private static final int HOT = 2;
+    private static final int PRIORITY = 4;
+    // 2Q suggests keeping about a quarter of the cache for pages on probation
+    private static final double DEFAULT_HOT_PAGES_FRACTION = 0.75;
+
+    private final int maxHotPages;
+    private final AtomicInteger hotPages = new AtomicInteger();
+
+    public TwoQueueClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages) {
+        this(allocator, pageSize, maxAllowedNumPages, DEFAULT_HOT_PAGES_FRACTION);
+    }
+
+    public TwoQueueClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize, int maxAllowedNumPages,
+            double hotPagesFraction) {
+        super(allocator, pageSize, maxAllowedNumPages);
+        if (hotPagesFraction <= 0 || hotPagesFraction >= 1) {
+            throw new IllegalArgumentException("Invalid hot pages fraction: " + hotPagesFraction);
+        }
+        this.maxHotPages = (int) (maxAllowedNumPages * hotPagesFraction);
+    }
+
+    @Override
+    public Object createPerPageStrategyObject(int cpid) {
+        return new AtomicInteger();
+    }
+
+    @Override
+    public void notifyCachePageReset(ICachedPageInternal cPage) {
+        demote(getState(cPage));
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage) {
+        access(getState(cPage), false);
+    }
+
+    @Override
+    public void notifyCachePagePriorityAccess(ICachedPageInternal cPage) {
+        access(getState(cPage), true);
+    }
+
+    private void access(AtomicInteger state, boolean priority) {
+        while (true) {
+            int current = state.get();
+            int next;
+            if (priority) {
+                next = HOT | REFERENCED | PRIORITY;
+            } else if ((current & (HOT | REFERENCED)) == REFERENCED) {
+                // accessed again while on probation
+                next = HOT | REFERENCED;
+            } else {
+                next = current | REFERENCED;
+            }
+            if (current == next) {
+                return;
+            }
+            if (state.compareAndSet(current, next)) {
+                if ((current & HOT) == 0 && (next & HOT) != 0) {
+                    hotPages.incrementAndGet();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void adviseWontNeed(ICachedPageInternal cPage) {
+        demote(getState(cPage));
+    }
+
+    @Override
+    protected boolean isReplacementCandidate(ICachedPageInternal cPage, int cycleCount) {
+        AtomicInteger state = getState(cPage);
+        int current = state.get();
+        if ((current & HOT) != 0) {
+            if (cycleCount > 1) {
+                // no cold page could be used even after clearing their reference bits, fall back to hot pages
+                if (state.compareAndSet(current, 0)) {
+                    hotPages.decrementAndGet();
+                    return true;
+                }
+            } else if (hotPages.get() > maxHotPages) {
+                // the hot set is over budget, run the clock over it to move its least used pages to probation
+                if ((current & REFERENCED) != 0) {
+                    state.compareAndSet(current, current & ~REFERENCED);
+                } else if ((current & PRIORITY) != 0) {
+                    state.compareAndSet(current, HOT);
+                } else if (state.compareAndSet(current, 0)) {
+                    hotPages.decrementAndGet();
+                }
+            }
+            return false;
+        }
+        if ((current & REFERENCED) != 0) {
+            // second chance, evicted when the hand comes back unless accessed in the meantime
+            state.compareAndSet(current, 0);
+            return false;
+        }
+        return true;
+    }
+
+    public int getNumHotPages() {
+        return hotPages.get();
+    }
+
+    private void demote(AtomicInteger state) {
+        if ((state.getAndSet(0) & HOT) != 0) {
+            hotPages.decrementAndGet();
+        }
+    }
+
+    private static AtomicInteger getState(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
+    }
+}
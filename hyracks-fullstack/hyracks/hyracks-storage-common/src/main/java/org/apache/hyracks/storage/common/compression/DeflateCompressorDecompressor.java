@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Built-in Deflate compressor/decompressor which reads and writes raw deflate blocks (without the zlib wrapper).
+ * It compresses considerably better than Snappy and LZ4 at the cost of compression and decompression speed.
+ * Blocks may be compressed with a preset dictionary, see {@link DeflateDictionaryCompressorDecompressor}.
+ */
+public class DeflateCompressorDecompressor implements ICompressorDecompressor {
+    protected static final DeflateCompressorDecompressor INSTANCE = new DeflateCompressorDecompressor(null);
+
+    //Deflater and Inflater are stateful, they are reset and reused by each thread
+    private static final ThreadLocal<Deflater> DEFLATER =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final byte[] dictionary;
+
+    DeflateCompressorDecompressor(byte[] dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public int computeCompressedBufferSize(int uBufferSize) {
+        //zlib's compressBound()
+        return uBufferSize + (uBufferSize >>> 12) + (uBufferSize >>> 14) + (uBufferSize >>> 25) + 13;
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        final Deflater deflater = DEFLATER.get();
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(uBuffer.array(), uBuffer.position(), uBuffer.remaining());
+            deflater.finish();
+            final int cLength =
+                    deflater.deflate(cBuffer.array(), cBuffer.position(), cBuffer.capacity() - cBuffer.position());
+            if (!deflater.finished()) {
+                throw new HyracksDataException("Insufficient buffer size to compress " + uBuffer.remaining()
+                        + " bytes: " + (cBuffer.capacity() - cBuffer.position()));
+            }
+            cBuffer.limit(cBuffer.position() + cLength);
+            return cBuffer;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        final Inflater inflater = INFLATER.get();
+        try {
+            if (dictionary != null) {
+                //Raw deflate blocks do not ask for their dictionary
+                inflater.setDictionary(dictionary);
+            }
+            inflater.setInput(cBuffer.array(), cBuffer.position(), cBuffer.remaining());
+            final int uLength = inflater.inflate(uBuffer.array(), uBuffer.position(), uBuffer.remaining());
+            if (!inflater.finished()) {
+                throw new HyracksDataException("Insufficient buffer size to uncompress " + cBuffer.remaining()
+                        + " bytes: " + uBuffer.remaining());
+            }
+            uBuffer.limit(uBuffer.position() + uLength);
+            return uBuffer;
+        } catch (DataFormatException e) {
+            throw HyracksDataException.create(e);
+        } finally {
+            inflater.reset();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.IDictionaryCompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Built-in Deflate compressor/decompressor which compresses the pages of a file with a preset dictionary trained on
+ * the file's content. See {@link DictionaryTrainer}.
+ */
+public class DeflateDictionaryCompressorDecompressor implements IDictionaryCompressorDecompressor {
+    protected static final DeflateDictionaryCompressorDecompressor INSTANCE =
+            new DeflateDictionaryCompressorDecompressor();
+    //Deflate can only refer back to the last 32KB of the uncompressed data, which includes the dictionary
+    private static final int MAX_DICTIONARY_SIZE = 32768;
+
+    private DeflateDictionaryCompressorDecompressor() {
+
+    }
+
+    @Override
+    public int computeCompressedBufferSize(int uBufferSize) {
+        return DeflateCompressorDecompressor.INSTANCE.computeCompressedBufferSize(uBufferSize);
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        return DeflateCompressorDecompressor.INSTANCE.compress(uBuffer, cBuffer);
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        return DeflateCompressorDecompressor.INSTANCE.uncompress(cBuffer, uBuffer);
+    }
+
+    @Override
+    public byte[] trainDictionary(ByteBuffer sample, int maxDictionarySize) {
+        return DictionaryTrainer.train(sample.array(), sample.arrayOffset() + sample.position(), sample.remaining(),
+                Math.min(maxDictionarySize, MAX_DICTIONARY_SIZE));
+    }
+
+    @Override
+    public ICompressorDecompressor createDictionaryCompressorDecompressor(byte[] dictionary) {
+        if (dictionary.length == 0) {
+            return DeflateCompressorDecompressor.INSTANCE;
+        }
+        return new DeflateCompressorDecompressor(dictionary);
+    }
+}
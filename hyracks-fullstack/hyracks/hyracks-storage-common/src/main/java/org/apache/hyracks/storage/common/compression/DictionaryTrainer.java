@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Trains a compression dictionary on a sample by selecting the segments of the sample whose content occurs most
+ * often elsewhere in the sample. The content of a segment is scored by the number of repetitions of its 8-byte
+ * sequences. Once a segment is selected, its sequences no longer count towards the score of other segments, so the
+ * dictionary does not repeat the same content.
+ *
+ * The selected segments are ordered by ascending score, as compressors encode references to the end of the
+ * dictionary (i.e., closer to the compressed data) with fewer bits.
+ */
+final class DictionaryTrainer {
+    private static final int SEQUENCE_LENGTH = 8;
+    private static final int SEGMENT_LENGTH = 64;
+    private static final int SEGMENT_STEP = 16;
+    private static final byte[] EMPTY = new byte[0];
+
+    private DictionaryTrainer() {
+    }
+
+    static byte[] train(byte[] sample, int offset, int length, int maxDictionarySize) {
+        if (length < SEGMENT_LENGTH || maxDictionarySize < SEGMENT_LENGTH) {
+            return EMPTY;
+        }
+        final int end = offset + length;
+        final Map<Long, Integer> occurrences = new HashMap<>();
+        for (int i = offset; i <= end - SEQUENCE_LENGTH; i++) {
+            occurrences.merge(readLong(sample, i), 1, Integer::sum);
+        }
+
+        final PriorityQueue<Segment> candidates = new PriorityQueue<>();
+        for (int i = offset; i <= end - SEGMENT_LENGTH; i += SEGMENT_STEP) {
+            final int score = score(sample, i, occurrences);
+            if (score > 0) {
+                candidates.add(new Segment(i, score));
+            }
+        }
+
+        final List<Segment> selected = new ArrayList<>();
+        while (!candidates.isEmpty() && (selected.size() + 1) * SEGMENT_LENGTH <= maxDictionarySize) {
+            final Segment segment = candidates.poll();
+            //Scores only decrease as segments are selected. Re-score lazily and select if it is still the best
+            final int score = score(sample, segment.offset, occurrences);
+            if (score <= 0) {
+                continue;
+            } else if (score < segment.score && !candidates.isEmpty() && score < candidates.peek().score) {
+                segment.score = score;
+                candidates.add(segment);
+                continue;
+            }
+            selected.add(segment);
+            for (int i = segment.offset; i <= segment.offset + SEGMENT_LENGTH - SEQUENCE_LENGTH; i++) {
+                occurrences.put(readLong(sample, i), 0);
+            }
+        }
+
+        final byte[] dictionary = new byte[selected.size() * SEGMENT_LENGTH];
+        int dictionaryOffset = dictionary.length;
+        for (Segment segment : selected) {
+            dictionaryOffset -= SEGMENT_LENGTH;
+            System.arraycopy(sample, segment.offset, dictionary, dictionaryOffset, SEGMENT_LENGTH);
+        }
+        return dictionary;
+    }
+
+    private static int score(byte[] sample, int segmentOffset, Map<Long, Integer> occurrences) {
+        int score = 0;
+        for (int i = segmentOffset; i <= segmentOffset + SEGMENT_LENGTH - SEQUENCE_LENGTH; i++) {
+            score += Math.max(occurrences.get(readLong(sample, i)) - 1, 0);
+        }
+        return score;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static class Segment implements Comparable<Segment> {
+        private final int offset;
+        private int score;
+
+        Segment(int offset, int score) {
+            this.offset = offset;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Segment o) {
+            //Highest score first
+            return Integer.compare(o.score, score);
+        }
+    }
+}
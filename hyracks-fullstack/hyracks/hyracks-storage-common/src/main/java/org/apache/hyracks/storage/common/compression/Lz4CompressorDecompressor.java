@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.compression;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Built-in LZ4 compressor/decompressor which reads and writes the LZ4 block format.
+ * It trades compression ratio for speed and decompresses considerably faster than Snappy.
+ */
+public class Lz4CompressorDecompressor implements ICompressorDecompressor {
+    protected static final Lz4CompressorDecompressor INSTANCE = new Lz4CompressorDecompressor();
+
+    private static final int MIN_MATCH = 4;
+    //The last 5 bytes of a block are always literals
+    private static final int LAST_LITERALS = 5;
+    //The last match must start at least 12 bytes before the end of a block
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int HASH_LOG = 12;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int RUN_MASK = 0x0F;
+    //The hash table is the only state of the compressor, it is reused by each thread
+    private static final ThreadLocal<int[]> HASH_TABLE = ThreadLocal.withInitial(() -> new int[1 << HASH_LOG]);
+
+    private Lz4CompressorDecompressor() {
+
+    }
+
+    @Override
+    public int computeCompressedBufferSize(int uBufferSize) {
+        return uBufferSize + uBufferSize / 255 + 16;
+    }
+
+    @Override
+    public ByteBuffer compress(ByteBuffer uBuffer, ByteBuffer cBuffer) throws HyracksDataException {
+        final int cLength = compress(uBuffer.array(), uBuffer.position(), uBuffer.remaining(), cBuffer.array(),
+                cBuffer.position(), HASH_TABLE.get());
+        cBuffer.limit(cBuffer.position() + cLength);
+        return cBuffer;
+    }
+
+    @Override
+    public ByteBuffer uncompress(ByteBuffer cBuffer, ByteBuffer uBuffer) throws HyracksDataException {
+        final int uLength = uncompress(cBuffer.array(), cBuffer.position(), cBuffer.remaining(), uBuffer.array(),
+                uBuffer.position(), uBuffer.remaining());
+        uBuffer.limit(uBuffer.position() + uLength);
+        return uBuffer;
+    }
+
+    private static int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int[] hashTable) {
+        final int srcEnd = srcOff + srcLen;
+        int anchor = srcOff;
+        int dp = destOff;
+        if (srcLen > MF_LIMIT) {
+            final int matchLimit = srcEnd - LAST_LITERALS;
+            final int mfLimit = srcEnd - MF_LIMIT;
+            Arrays.fill(hashTable, -1);
+            int sp = srcOff;
+            while (sp <= mfLimit) {
+                final int sequence = readInt(src, sp);
+                final int h = hash(sequence);
+                int ref = hashTable[h];
+                hashTable[h] = sp;
+                if (ref < 0 || sp - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    //Skip faster over data that does not compress
+                    sp += 1 + ((sp - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+                while (sp > anchor && ref > srcOff && src[sp - 1] == src[ref - 1]) {
+                    sp--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (sp + matchLength < matchLimit && src[sp + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                dp = writeSequence(src, anchor, sp - anchor, dest, dp, sp - ref, matchLength);
+                sp += matchLength;
+                anchor = sp;
+                if (sp <= mfLimit) {
+                    hashTable[hash(readInt(src, sp - 2))] = sp - 2;
+                }
+            }
+        }
+        dp = writeLiterals(src, anchor, srcEnd - anchor, dest, dp, 0);
+        return dp - destOff;
+    }
+
+    private static int uncompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen)
+            throws HyracksDataException {
+        final int srcEnd = srcOff + srcLen;
+        final int destEnd = destOff + destLen;
+        int sp = srcOff;
+        int dp = destOff;
+        while (sp < srcEnd) {
+            final int token = src[sp++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    ensureAvailable(sp, srcEnd, 1);
+                    b = src[sp++] & 0xFF;
+                    literalLength += b;
+                } while (b == 0xFF);
+            }
+            ensureAvailable(sp, srcEnd, literalLength);
+            ensureAvailable(dp, destEnd, literalLength);
+            System.arraycopy(src, sp, dest, dp, literalLength);
+            sp += literalLength;
+            dp += literalLength;
+            if (sp == srcEnd) {
+                //The last sequence has literals only
+                return dp - destOff;
+            }
+
+            ensureAvailable(sp, srcEnd, 2);
+            final int offset = (src[sp] & 0xFF) | (src[sp + 1] & 0xFF) << 8;
+            sp += 2;
+            int matchLength = token & RUN_MASK;
+            if (matchLength == RUN_MASK) {
+                int b;
+                do {
+                    ensureAvailable(sp, srcEnd, 1);
+                    b = src[sp++] & 0xFF;
+                    matchLength += b;
+                } while (b == 0xFF);
+            }
+            matchLength += MIN_MATCH;
+            int ref = dp - offset;
+            if (offset == 0 || ref < destOff) {
+                throw new HyracksDataException("Malformed LZ4 block: invalid match offset " + offset);
+            }
+            ensureAvailable(dp, destEnd, matchLength);
+            if (offset >= matchLength) {
+                System.arraycopy(dest, ref, dest, dp, matchLength);
+                dp += matchLength;
+            } else {
+                //Overlapping match, it repeats the last offset bytes
+                final int matchEnd = dp + matchLength;
+                while (dp < matchEnd) {
+                    dest[dp++] = dest[ref++];
+                }
+            }
+        }
+        throw new HyracksDataException("Malformed LZ4 block: missing last literals");
+    }
+
+    private static int writeSequence(byte[] src, int literalOff, int literalLength, byte[] dest, int dp, int offset,
+            int matchLength) {
+        final int matchToken = matchLength - MIN_MATCH;
+        int pos = writeLiterals(src, literalOff, literalLength, dest, dp, Math.min(matchToken, RUN_MASK));
+        dest[pos++] = (byte) offset;
+        dest[pos++] = (byte) (offset >>> 8);
+        if (matchToken >= RUN_MASK) {
+            pos = writeLength(dest, pos, matchToken - RUN_MASK);
+        }
+        return pos;
+    }
+
+    private static int writeLiterals(byte[] src, int literalOff, int literalLength, byte[] dest, int dp,
+            int matchToken) {
+        int pos = dp;
+        dest[pos++] = (byte) (Math.min(literalLength, RUN_MASK) << 4 | matchToken);
+        if (literalLength >= RUN_MASK) {
+            pos = writeLength(dest, pos, literalLength - RUN_MASK);
+        }
+        System.arraycopy(src, literalOff, dest, pos, literalLength);
+        return pos + literalLength;
+    }
+
+    private static int writeLength(byte[] dest, int dp, int length) {
+        int pos = dp;
+        int remaining = length;
+        while (remaining >= 0xFF) {
+            dest[pos++] = (byte) 0xFF;
+            remaining -= 0xFF;
+        }
+        dest[pos++] = (byte) remaining;
+        return pos;
+    }
+
+    private static void ensureAvailable(int pos, int end, int length) throws HyracksDataException {
+        if (length > end - pos) {
+            throw new HyracksDataException("Malformed LZ4 block: " + length + " bytes exceed the buffer bounds");
+        }
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16
+                | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
@@ -18,10 +18,12 @@
  */
 package org.apache.hyracks.storage.common.compression.file;
 
+import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
 import java.util.EnumSet;
 
 import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.IDictionaryCompressorDecompressor;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
@@ -36,17 +38,36 @@ import org.apache.hyracks.storage.common.file.BufferedFileHandle;
  * Each entry <offsetM, sizeM> is an entry of 16-bytes for page M (8 bytes for offset and 8 for size).
  *
  * The file is responsible to store the beginning and the size of each page after compression.
+ *
+ * If the file is compressed with a dictionary (see {@link IDictionaryCompressorDecompressor}), the first page of the
+ * LAF file stores the dictionary [<length(4-bytes)>, <dictionary>] and the entries start at the second page.
+ * The dictionary is trained on a sample of the first {@link #DICTIONARY_SAMPLE_PAGES} pages written to the file (or
+ * all of its pages if it has fewer). The writer buffers these pages and compresses them once the dictionary is
+ * trained, so no page is compressed before the dictionary is known.
+ *
+ * Once the file is readable, the entries are loaded into an in-memory table on the first page read, so locating a
+ * compressed page does not require pinning a LAF page. The table is softly referenced and reloaded if it has been
+ * garbage collected.
  */
 public class CompressedFileManager {
     protected static final int SIZE_ENTRY_OFFSET = 8; // 0 is for the compressed page offset
     protected static final int ENTRY_LENGTH = 16; //<offset(8-bytes),size(8-bytes)>
     protected static final int EOF = -1;
+    protected static final int DICTIONARY_PAGE_ID = 0;
+    protected static final int DICTIONARY_LENGTH_OFFSET = 0;
+    protected static final int DICTIONARY_OFFSET = 4;
+    /**
+     * The number of pages the dictionary of a file is trained on. A single page (e.g., the first leaf of a B-tree) is
+     * not representative of the content of the file.
+     */
+    public static final int DICTIONARY_SAMPLE_PAGES = 8;
     private static final EnumSet<State> CLOSED = EnumSet.of(State.CLOSED);
     private static final EnumSet<State> CLOSED_OR_INVALID = EnumSet.of(State.CLOSED, State.INVALID);
     private static final EnumSet<State> OPEN = EnumSet.of(State.READABLE, State.WRITABLE);
     private static final EnumSet<State> OPEN_OR_INVALID = EnumSet.of(State.READABLE, State.WRITABLE, State.INVALID);
     private static final EnumSet<State> READABLE = EnumSet.of(State.READABLE);
     private static final EnumSet<State> WRITABLE = EnumSet.of(State.WRITABLE);
+    private static final SoftReference<LAFTable> NO_LAF_TABLE = new SoftReference<>(null);
 
     private enum State {
         READABLE,
@@ -62,8 +83,10 @@ public class CompressedFileManager {
     }
 
     private final IBufferCache bufferCache;
-    private final ICompressorDecompressor compressorDecompressor;
     private final CompressedFileReference fileRef;
+    private final int numOfDictionaryPages;
+    private volatile ICompressorDecompressor compressorDecompressor;
+    private volatile SoftReference<LAFTable> lafTable;
 
     private int fileId;
     private State state;
@@ -74,9 +97,11 @@ public class CompressedFileManager {
     public CompressedFileManager(IBufferCache bufferCache, CompressedFileReference fileRef) {
         state = State.CLOSED;
         totalNumOfPages = 0;
+        lafTable = NO_LAF_TABLE;
         this.bufferCache = bufferCache;
         this.fileRef = fileRef;
         this.compressorDecompressor = fileRef.getCompressorDecompressor();
+        numOfDictionaryPages = compressorDecompressor instanceof IDictionaryCompressorDecompressor ? 1 : 0;
     }
 
     /* ************************
@@ -124,6 +149,7 @@ public class CompressedFileManager {
         boolean closed = false;
         if (state != State.INVALID) {
             bufferCache.closeFile(fileId);
+            lafTable = NO_LAF_TABLE;
             state = State.CLOSED;
             closed = true;
         }
@@ -183,6 +209,36 @@ public class CompressedFileManager {
         return lafWriter;
     }
 
+    /**
+     * @return true if the pages written to the file must be buffered as a sample to train the dictionary of the
+     *         file, i.e., if the file is compressed with a dictionary that has not been trained yet
+     * @throws IllegalStateException
+     *             If the file is not in WRITABLE state
+     */
+    public boolean isSamplingDictionary() {
+        ensureState(WRITABLE);
+        return numOfDictionaryPages > 0 && !lafWriter.hasDictionary();
+    }
+
+    /**
+     * Train the dictionary of the file on a sample of its pages. The pages are compressed with the trained dictionary
+     * afterwards.
+     *
+     * @param sample
+     *            the uncompressed content of the sampled pages (between its position and limit)
+     * @throws IllegalStateException
+     *             If the file is not in WRITABLE state
+     */
+    public void trainDictionary(ByteBuffer sample) throws HyracksDataException {
+        ensureState(WRITABLE);
+        final IDictionaryCompressorDecompressor dictionaryCompDecomp =
+                (IDictionaryCompressorDecompressor) fileRef.getCompressorDecompressor();
+        final byte[] dictionary =
+                dictionaryCompDecomp.trainDictionary(sample, bufferCache.getPageSize() - DICTIONARY_OFFSET);
+        lafWriter.setDictionary(dictionary);
+        compressorDecompressor = dictionaryCompDecomp.createDictionaryCompressorDecompressor(dictionary);
+    }
+
     /**
      * Add page information (offset, size) after compression.
      *
@@ -281,6 +337,20 @@ public class CompressedFileManager {
         return compressorDecompressor;
     }
 
+    /**
+     * @return the number of pages before the first page of entries in the LAF file
+     */
+    int getNumOfDictionaryPages() {
+        return numOfDictionaryPages;
+    }
+
+    /**
+     * @return the LAF page of the entry of a compressed page
+     */
+    int getLAFEntryPageId(int compressedPageId) {
+        return numOfDictionaryPages + compressedPageId * ENTRY_LENGTH / bufferCache.getPageSize();
+    }
+
     /* ************************
      * Private methods
      * ************************
@@ -306,11 +376,14 @@ public class CompressedFileManager {
     }
 
     private void init() throws HyracksDataException {
-        final int numOfPages = bufferCache.getNumPagesOfFile(fileId);
+        if (numOfDictionaryPages > 0) {
+            readDictionary();
+        }
+        final int numOfPages = bufferCache.getNumPagesOfFile(fileId) - numOfDictionaryPages;
         //Maximum number of entries in a page
         final int numOfEntriesPerPage = bufferCache.getPageSize() / ENTRY_LENGTH;
         //get the last page which may contain less entries than maxNumOfEntries
-        final long dpid = getDiskPageId(numOfPages - 1);
+        final long dpid = getDiskPageId(numOfDictionaryPages + numOfPages - 1);
         final ICachedPage page = bufferCache.pin(dpid, false);
         try {
             final ByteBuffer buf = page.getBuffer();
@@ -328,9 +401,63 @@ public class CompressedFileManager {
         }
     }
 
+    private void readDictionary() throws HyracksDataException {
+        final ICachedPage page = bufferCache.pin(getDiskPageId(DICTIONARY_PAGE_ID), false);
+        try {
+            final ByteBuffer buf = page.getBuffer().duplicate();
+            final byte[] dictionary = new byte[buf.getInt(DICTIONARY_LENGTH_OFFSET)];
+            buf.position(DICTIONARY_OFFSET);
+            buf.get(dictionary);
+            compressorDecompressor = ((IDictionaryCompressorDecompressor) fileRef.getCompressorDecompressor())
+                    .createDictionaryCompressorDecompressor(dictionary);
+        } finally {
+            bufferCache.unpin(page);
+        }
+    }
+
+    private LAFTable getLAFTable() throws HyracksDataException {
+        LAFTable table = lafTable.get();
+        if (table == null) {
+            synchronized (this) {
+                table = lafTable.get();
+                if (table == null) {
+                    table = loadLAFTable();
+                    lafTable = new SoftReference<>(table);
+                }
+            }
+        }
+        return table;
+    }
+
+    private LAFTable loadLAFTable() throws HyracksDataException {
+        final LAFTable table = new LAFTable(totalNumOfPages);
+        final int numOfEntriesPerPage = bufferCache.getPageSize() / ENTRY_LENGTH;
+        final int numOfEntryPages = (totalNumOfPages + numOfEntriesPerPage - 1) / numOfEntriesPerPage;
+        /*
+         * Start reading all entry pages with as few reads as possible, but do not wait for the request: this can run
+         * on a read ahead thread, which would then wait on its own executor while holding the lock of this file
+         * manager. A pin reads its page itself if the request has not reached it yet.
+         */
+        bufferCache.prefetch(getDiskPageId(numOfDictionaryPages), numOfEntryPages);
+        for (int i = 0; i < numOfEntryPages; i++) {
+            final ICachedPage page = bufferCache.pin(getDiskPageId(numOfDictionaryPages + i), false);
+            try {
+                final ByteBuffer buf = page.getBuffer();
+                final int firstPageId = i * numOfEntriesPerPage;
+                final int numOfEntries = Math.min(numOfEntriesPerPage, totalNumOfPages - firstPageId);
+                for (int j = 0; j < numOfEntries; j++) {
+                    table.offsets[firstPageId + j] = buf.getLong(j * ENTRY_LENGTH);
+                    table.sizes[firstPageId + j] = (int) buf.getLong(j * ENTRY_LENGTH + SIZE_ENTRY_OFFSET);
+                }
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+        return table;
+    }
+
     private ICachedPage pinAndGetPage(int compressedPageId) throws HyracksDataException {
-        final int pageId = compressedPageId * ENTRY_LENGTH / bufferCache.getPageSize();
-        return bufferCache.pin(getDiskPageId(pageId), false);
+        return bufferCache.pin(getDiskPageId(getLAFEntryPageId(compressedPageId)), false);
     }
 
     private long getDiskPageId(int pageId) {
@@ -349,6 +476,12 @@ public class CompressedFileManager {
             compressedPage.setCompressedPageSize(bufferCache.getPageSize());
             return;
         }
+        if (compressedPageId < totalNumOfPages) {
+            final LAFTable table = getLAFTable();
+            compressedPage.setCompressedPageOffset(table.offsets[compressedPageId]);
+            compressedPage.setCompressedPageSize(table.sizes[compressedPageId]);
+            return;
+        }
         final ICachedPage page = pinAndGetPage(compressedPageId);
         try {
             // No need for read latches as pages are immutable.
@@ -360,4 +493,17 @@ public class CompressedFileManager {
             bufferCache.unpin(page);
         }
     }
+
+    /**
+     * In-memory copy of the LAF entries
+     */
+    private static class LAFTable {
+        private final long[] offsets;
+        private final int[] sizes;
+
+        LAFTable(int numOfPages) {
+            offsets = new long[numOfPages];
+            sizes = new int[numOfPages];
+        }
+    }
 }
@@ -18,10 +18,14 @@
  */
 package org.apache.hyracks.storage.common.compression.file;
 
+import static org.apache.hyracks.storage.common.compression.file.CompressedFileManager.DICTIONARY_LENGTH_OFFSET;
+import static org.apache.hyracks.storage.common.compression.file.CompressedFileManager.DICTIONARY_OFFSET;
+import static org.apache.hyracks.storage.common.compression.file.CompressedFileManager.DICTIONARY_PAGE_ID;
 import static org.apache.hyracks.storage.common.compression.file.CompressedFileManager.ENTRY_LENGTH;
 import static org.apache.hyracks.storage.common.compression.file.CompressedFileManager.EOF;
 import static org.apache.hyracks.storage.common.compression.file.CompressedFileManager.SIZE_ENTRY_OFFSET;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
@@ -52,6 +56,8 @@ class LAFWriter implements ICompressedPageWriter {
     private final int maxNumOfEntries;
     private final PageWriteFailureCallback failureCallback;
     private LAFFrame currentFrame;
+    private ICachedPage dictionaryPage;
+    private boolean hasDictionary;
     private int currentPageId;
     private int maxPageId;
 
@@ -93,6 +99,17 @@ class LAFWriter implements ICompressedPageWriter {
                 throw e;
             }
         }
+        if (dictionaryPage == null && compressedFileManager.getNumOfDictionaryPages() > 0) {
+            try {
+                //The dictionary is written once it is trained on a sample of the first pages
+                dictionaryPage =
+                        bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, DICTIONARY_PAGE_ID));
+                dictionaryPage.getBuffer().putInt(DICTIONARY_LENGTH_OFFSET, 0);
+            } catch (HyracksDataException e) {
+                abort();
+                throw e;
+            }
+        }
     }
 
     private void prepareFrames(int entryPageId, ICachedPageInternal cPage) throws HyracksDataException {
@@ -142,6 +159,9 @@ class LAFWriter implements ICompressedPageWriter {
         for (Entry<Integer, LAFFrame> entry : cachedFrames.entrySet()) {
             pageWriter.write(entry.getValue().cPage);
         }
+        if (dictionaryPage != null) {
+            pageWriter.write(dictionaryPage);
+        }
 
         //Signal the compressedFileManager to change its state
         compressedFileManager.endWriting(totalNumOfPages);
@@ -152,6 +172,9 @@ class LAFWriter implements ICompressedPageWriter {
         for (Entry<Integer, LAFFrame> frame : cachedFrames.entrySet()) {
             bufferCache.returnPage(frame.getValue().cPage);
         }
+        if (dictionaryPage != null) {
+            bufferCache.returnPage(dictionaryPage);
+        }
     }
 
     /* ************************************
@@ -160,6 +183,23 @@ class LAFWriter implements ICompressedPageWriter {
      * ************************************
      */
 
+    public boolean hasDictionary() {
+        return hasDictionary;
+    }
+
+    public void setDictionary(byte[] dictionary) {
+        if (dictionaryPage == null) {
+            //Trying to write unprepared page
+            abort();
+            throw new IllegalStateException("Unprepared compressed-write for the dictionary");
+        }
+        final ByteBuffer buf = dictionaryPage.getBuffer().duplicate();
+        buf.putInt(DICTIONARY_LENGTH_OFFSET, dictionary.length);
+        buf.position(DICTIONARY_OFFSET);
+        buf.put(dictionary);
+        hasDictionary = true;
+    }
+
     public long writePageInfo(int pageId, long size) throws HyracksDataException {
         final LAFFrame frame = getPageBuffer(pageId);
 
@@ -208,7 +248,7 @@ class LAFWriter implements ICompressedPageWriter {
     }
 
     private int getLAFEntryPageId(int compressedPageId) {
-        return compressedPageId * ENTRY_LENGTH / bufferCache.getPageSize();
+        return compressedFileManager.getLAFEntryPageId(compressedPageId);
     }
 
     private class LAFFrame {
@@ -87,6 +87,36 @@ public class BufferedFileHandle extends AbstractBufferedFileIOManager {
         readExtraPages(cPage);
     }
 
+    @Override
+    public int read(CachedPage[] cPages, int offset, int length) throws HyracksDataException {
+        if (length == 1) {
+            read(cPages[offset]);
+            return 1;
+        }
+        final int pageSizeWithHeader = bufferCache.getPageSizeWithHeader();
+        final BufferCacheHeaderHelper header = checkoutHeaderHelper();
+        int numPagesRead;
+        try {
+            long bytesRead = readToBuffers(header.prepareRead(cPages, offset, length, bufferCache.getPageSize()),
+                    getFirstPageOffset(cPages[offset]));
+            // pages past the end of the file are left unread
+            numPagesRead = bytesRead < 0 ? 0 : (int) (bytesRead / pageSizeWithHeader);
+            for (int i = 0; i < numPagesRead; i++) {
+                header.processHeader(cPages[offset + i], i);
+                if (cPages[offset + i].getFrameSizeMultiplier() > 1) {
+                    // the following pages may hold the rest of this large page rather than pages of their own
+                    numPagesRead = i + 1;
+                }
+            }
+        } finally {
+            returnHeaderHelper(header);
+        }
+        if (numPagesRead > 0) {
+            readExtraPages(cPages[offset + numPagesRead - 1]);
+        }
+        return numPagesRead;
+    }
+
     private void readExtraPages(CachedPage cPage) throws HyracksDataException {
         final int totalPages = cPage.getFrameSizeMultiplier();
         if (totalPages > 1) {
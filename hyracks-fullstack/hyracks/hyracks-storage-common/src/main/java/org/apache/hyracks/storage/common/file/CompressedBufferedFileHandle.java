@@ -19,6 +19,8 @@
 package org.apache.hyracks.storage.common.file;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 import org.apache.hyracks.api.compression.ICompressorDecompressor;
@@ -28,6 +30,7 @@ import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.storage.common.buffercache.BufferCache;
 import org.apache.hyracks.storage.common.buffercache.BufferCacheHeaderHelper;
 import org.apache.hyracks.storage.common.buffercache.CachedPage;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
 import org.apache.hyracks.storage.common.compression.file.CompressedFileManager;
 import org.apache.hyracks.storage.common.compression.file.CompressedFileReference;
@@ -35,6 +38,9 @@ import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
 
 public class CompressedBufferedFileHandle extends BufferedFileHandle {
     private final FileReference lafFileRef;
+    // pages buffered until the dictionary of the file is trained on them
+    private final List<CachedPage> dictionarySample;
+    private int numOfSampledPages;
     private volatile CompressedFileManager compressedFileManager;
 
     protected CompressedBufferedFileHandle(int fileId, FileReference lafFileRef, BufferCache bufferCache,
@@ -42,6 +48,7 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
             IPageReplacementStrategy pageReplacementStrategy) {
         super(fileId, bufferCache, ioManager, headerPageCache, pageReplacementStrategy);
         this.lafFileRef = lafFileRef;
+        dictionarySample = new ArrayList<>();
     }
 
     @Override
@@ -73,6 +80,95 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
         }
     }
 
+    /**
+     * Reads consecutive pages. Pages are compressed into the file in the order they are written, which is the order of
+     * their page ids when the file is bulk loaded. Runs of pages stored back to back in the file are read with a
+     * single read and then uncompressed one by one.
+     */
+    @Override
+    public int read(CachedPage[] cPages, int offset, int length) throws HyracksDataException {
+        if (length == 1 || compressedFileManager.getNumberOfPages() == 0) {
+            read(cPages[offset]);
+            return 1;
+        }
+        final int end = offset + length;
+        int start = offset;
+        while (start < end) {
+            final int numOfPagesInRun = getNumOfPagesInRun(cPages, start, end);
+            if (numOfPagesInRun == 0) {
+                // pages beyond the last page of the file are left unread
+                break;
+            }
+            final int numOfPagesRead = readRun(cPages, start, numOfPagesInRun);
+            start += numOfPagesRead;
+            if (numOfPagesRead < numOfPagesInRun) {
+                // the following pages may hold the rest of a large page rather than pages of their own
+                break;
+            }
+        }
+        if (start == offset) {
+            read(cPages[offset]);
+            return 1;
+        }
+        return start - offset;
+    }
+
+    private int getNumOfPagesInRun(CachedPage[] cPages, int start, int end) throws HyracksDataException {
+        final int numOfPages = compressedFileManager.getNumberOfPages();
+        if (BufferedFileHandle.getPageId(cPages[start].getDiskPageId()) >= numOfPages) {
+            return 0;
+        }
+        compressedFileManager.setCompressedPageInfo(cPages[start]);
+        long runEnd = cPages[start].getCompressedPageOffset() + cPages[start].getCompressedPageSize();
+        int i = start + 1;
+        while (i < end && BufferedFileHandle.getPageId(cPages[i].getDiskPageId()) < numOfPages) {
+            compressedFileManager.setCompressedPageInfo(cPages[i]);
+            if (cPages[i].getCompressedPageOffset() != runEnd) {
+                break;
+            }
+            runEnd += cPages[i].getCompressedPageSize();
+            i++;
+        }
+        return i - start;
+    }
+
+    private int readRun(CachedPage[] cPages, int start, int length) throws HyracksDataException {
+        if (length == 1) {
+            read(cPages[start]);
+            return 1;
+        }
+        final long runOffset = cPages[start].getCompressedPageOffset();
+        final CachedPage last = cPages[start + length - 1];
+        final int runSize = (int) (last.getCompressedPageOffset() + last.getCompressedPageSize() - runOffset);
+        final BufferCacheHeaderHelper header = checkoutHeaderHelper();
+        try {
+            final long bytesRead = readToBuffer(header.prepareRead(runSize), runOffset);
+            if (!verifyBytesRead(runSize, bytesRead)) {
+                return 0;
+            }
+            for (int i = 0; i < length; i++) {
+                final CachedPage cPage = cPages[start + i];
+                final int pageOffset = (int) (cPage.getCompressedPageOffset() - runOffset);
+                final ByteBuffer cBuffer = header.processHeader(cPage, pageOffset, cPage.getCompressedPageSize());
+                final ByteBuffer uBuffer = cPage.getBuffer();
+                fixBufferPointers(uBuffer, 0);
+                if (cPage.getCompressedPageSize() < bufferCache.getPageSizeWithHeader()) {
+                    uncompressToPageBuffer(cBuffer, uBuffer);
+                } else {
+                    uBuffer.put(cBuffer);
+                }
+                if (cPage.getFrameSizeMultiplier() > 1) {
+                    pageReplacementStrategy.fixupCapacityOnLargeRead(cPage);
+                    readExtraPages(cPage, cBuffer);
+                    return i + 1;
+                }
+            }
+            return length;
+        } finally {
+            returnHeaderHelper(header);
+        }
+    }
+
     private void readExtraPages(CachedPage cPage, ByteBuffer cBuffer) throws HyracksDataException {
         final ByteBuffer uBuffer = cPage.getBuffer();
 
@@ -95,6 +191,11 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
     @Override
     protected void write(CachedPage cPage, BufferCacheHeaderHelper header, int totalPages, int extraBlockPageId)
             throws HyracksDataException {
+        if (compressedFileManager.isSamplingDictionary()) {
+            returnHeaderHelper(header);
+            addDictionarySample(cPage, totalPages, extraBlockPageId);
+            return;
+        }
         try {
             final ByteBuffer cBuffer = header.prepareWrite(cPage, getRequiredBufferSize());
             final ByteBuffer uBuffer = cPage.getBuffer();
@@ -129,6 +230,54 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
         }
     }
 
+    /**
+     * Buffers a copy of a page to be written once the dictionary is trained. The dictionary is trained as soon as
+     * {@link CompressedFileManager#DICTIONARY_SAMPLE_PAGES} pages are buffered, or when the writing ends.
+     */
+    private void addDictionarySample(CachedPage cPage, int totalPages, int extraBlockPageId)
+            throws HyracksDataException {
+        final ByteBuffer uBuffer = cPage.getBuffer().duplicate();
+        uBuffer.position(0);
+        uBuffer.limit(totalPages * bufferCache.getPageSize());
+        final ByteBuffer copy = ByteBuffer.allocate(uBuffer.remaining());
+        copy.put(uBuffer);
+        final CachedPage sample = new CachedPage(-1, copy, pageReplacementStrategy);
+        sample.setDiskPageId(cPage.getDiskPageId());
+        sample.setFrameSizeMultiplier(totalPages);
+        sample.setExtraBlockPageId(extraBlockPageId);
+        dictionarySample.add(sample);
+        numOfSampledPages += totalPages;
+        if (numOfSampledPages >= CompressedFileManager.DICTIONARY_SAMPLE_PAGES) {
+            writeDictionarySample();
+        }
+    }
+
+    /**
+     * Trains the dictionary on the buffered pages and writes them in the order they were buffered
+     */
+    private void writeDictionarySample() throws HyracksDataException {
+        final ByteBuffer sample = ByteBuffer.allocate(numOfSampledPages * bufferCache.getPageSize());
+        for (CachedPage page : dictionarySample) {
+            final ByteBuffer uBuffer = page.getBuffer().duplicate();
+            uBuffer.clear();
+            sample.put(uBuffer);
+        }
+        sample.flip();
+        compressedFileManager.trainDictionary(sample);
+        try {
+            for (CachedPage page : dictionarySample) {
+                write(page);
+            }
+        } finally {
+            clearDictionarySample();
+        }
+    }
+
+    private void clearDictionarySample() {
+        dictionarySample.clear();
+        numOfSampledPages = 0;
+    }
+
     private void writeExtraCompressedPages(CachedPage cPage, ByteBuffer cBuffer, int totalPages, int extraBlockPageId)
             throws HyracksDataException {
         final ByteBuffer uBuffer = cPage.getBuffer();
@@ -158,6 +307,7 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
     public void open(FileReference fileRef) throws HyracksDataException {
         final CompressedFileReference cFileRef = (CompressedFileReference) fileRef;
         compressedFileManager = new CompressedFileManager(bufferCache, cFileRef);
+        clearDictionarySample();
         compressedFileManager.open();
         super.open(fileRef);
     }
@@ -215,7 +365,7 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
 
     @Override
     public ICompressedPageWriter getCompressedPageWriter() {
-        return compressedFileManager.getCompressedPageWriter();
+        return new SamplingPageWriter(compressedFileManager.getCompressedPageWriter());
     }
 
     /* ********************************
@@ -253,4 +403,38 @@ public class CompressedBufferedFileHandle extends BufferedFileHandle {
         }
     }
 
+    /**
+     * Writes the pages buffered as a sample for the dictionary before the writing of the file ends
+     */
+    private class SamplingPageWriter implements ICompressedPageWriter {
+        private final ICompressedPageWriter lafWriter;
+
+        SamplingPageWriter(ICompressedPageWriter lafWriter) {
+            this.lafWriter = lafWriter;
+        }
+
+        @Override
+        public void prepareWrite(ICachedPage cPage) throws HyracksDataException {
+            lafWriter.prepareWrite(cPage);
+        }
+
+        @Override
+        public void abort() {
+            clearDictionarySample();
+            lafWriter.abort();
+        }
+
+        @Override
+        public void endWriting() throws HyracksDataException {
+            if (!dictionarySample.isEmpty()) {
+                try {
+                    writeDictionarySample();
+                } catch (HyracksDataException e) {
+                    lafWriter.abort();
+                    throw e;
+                }
+            }
+            lafWriter.endWriting();
+        }
+    }
 }
@@ -26,7 +26,9 @@ import org.apache.hyracks.api.application.IServerContext;
 import org.apache.hyracks.api.application.IStateDumpHandler;
 import org.apache.hyracks.api.comm.IChannelInterfaceFactory;
 import org.apache.hyracks.api.config.IApplicationConfig;
+import org.apache.hyracks.api.io.IBufferCachePerformanceCounters;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IIOSchedulerPerformanceCounters;
 import org.apache.hyracks.api.job.IJobSerializerDeserializerContainer;
 import org.apache.hyracks.api.lifecycle.ILifeCycleComponentManager;
 import org.apache.hyracks.api.lifecycle.LifeCycleComponentManager;
@@ -149,6 +151,26 @@ public class TestNCServiceContext implements INCServiceContext {
         // do nothing
     }
 
+    @Override
+    public void setBufferCachePerformanceCounters(IBufferCachePerformanceCounters counters) {
+        // do nothing
+    }
+
+    @Override
+    public IBufferCachePerformanceCounters getBufferCachePerformanceCounters() {
+        return IBufferCachePerformanceCounters.NONE;
+    }
+
+    @Override
+    public void setIOSchedulerPerformanceCounters(IIOSchedulerPerformanceCounters counters) {
+        // do nothing
+    }
+
+    @Override
+    public IIOSchedulerPerformanceCounters getIOSchedulerPerformanceCounters() {
+        return IIOSchedulerPerformanceCounters.NONE;
+    }
+
     @Override
     public Object getApplicationContext() {
         return appCtx;
@@ -169,4 +169,58 @@ public class BloomFilterTest extends AbstractBloomFilterTest {
         bf.deactivate();
         bf.destroy();
     }
+
+    @Test
+    public void splitBlockTest() throws Exception {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("TESTING SPLIT BLOCK BLOOM FILTER");
+        }
+
+        IBufferCache bufferCache = harness.getBufferCache();
+
+        int numElements = 10000;
+        int[] keyFields = { 0 };
+
+        BloomFilter bf = new BloomFilter(bufferCache, harness.getFileReference(), keyFields, true);
+
+        double acceptanleFalsePositiveRate = 0.01;
+        int maxBucketsPerElement = BloomCalculations.maxBucketsPerElement(numElements);
+        BloomFilterSpecification bloomFilterSpec =
+                BloomCalculations.computeBloomSpec(maxBucketsPerElement, acceptanleFalsePositiveRate);
+
+        bf.create();
+        bf.activate();
+        IIndexBulkLoader builder = bf.createBuilder(numElements, bloomFilterSpec.getNumHashes(),
+                bloomFilterSpec.getNumBucketsPerElements(), NoOpPageWriteCallback.INSTANCE);
+
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(1);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        // even keys are inserted, odd keys are not
+        for (int i = 0; i < numElements; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i);
+            builder.add(tuple);
+        }
+        builder.end();
+
+        // the layout is read back from the metadata page after reactivating the filter
+        bf.deactivate();
+        bf.activate();
+        bf.pinAllPages();
+        long[] hashes = BloomFilter.createHashArray();
+        int falsePositives = 0;
+        for (int i = 0; i < numElements; ++i) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i);
+            Assert.assertTrue(bf.contains(tuple, hashes));
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i + 1);
+            if (bf.contains(tuple, hashes)) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue("false positive rate too high: " + falsePositives,
+                falsePositives < numElements * acceptanleFalsePositiveRate * 3);
+
+        bf.unpinAllPages();
+        bf.deactivate();
+        bf.destroy();
+    }
 }
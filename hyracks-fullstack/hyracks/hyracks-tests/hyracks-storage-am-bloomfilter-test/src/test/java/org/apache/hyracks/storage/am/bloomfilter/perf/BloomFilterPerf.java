@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.bloomfilter.perf;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomCalculations;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilterSpecification;
+import org.apache.hyracks.storage.am.bloomfilter.util.BloomFilterTestHarness;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+
+/**
+ * Reports the false positive rate and the probe throughput of blocked and split block bloom filters built on the
+ * same keys with the same number of bits per key. The filters are larger than the CPU caches, so that every probe
+ * is expected to miss the cache once.
+ */
+public class BloomFilterPerf {
+    private static final int PAGE_SIZE = 32768;
+    private static final int NUM_PAGES = 1024;
+    private static final int HYRACKS_FRAME_SIZE = 32768;
+    private static final int NUM_ELEMENTS = 10000000;
+    private static final int NUM_PROBES = 1000000;
+    private static final int REPEATS = 5;
+    private static final double[] FALSE_POSITIVE_RATES = { 0.1, 0.01, 0.001 };
+
+    public static void main(String[] args) throws Exception {
+        // even keys are inserted, odd keys are not
+        ArrayTupleReference[] positives = createTuples(0);
+        ArrayTupleReference[] negatives = createTuples(1);
+        for (double falsePositiveRate : FALSE_POSITIVE_RATES) {
+            BloomFilterSpecification spec = BloomCalculations
+                    .computeBloomSpec(BloomCalculations.maxBucketsPerElement(NUM_ELEMENTS), falsePositiveRate);
+            System.out.println("TARGET FALSE POSITIVE RATE: " + falsePositiveRate + " BITS PER KEY: "
+                    + spec.getNumBucketsPerElements() + " HASHES: " + spec.getNumHashes());
+            runExperiment("BLOCKED", spec, false, positives, negatives);
+            runExperiment("SPLIT BLOCK", spec, true, positives, negatives);
+            System.out.println("-------------------------------");
+        }
+    }
+
+    private static ArrayTupleReference[] createTuples(int offset) throws Exception {
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(1);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        ArrayTupleReference[] tuples = new ArrayTupleReference[NUM_PROBES];
+        int step = NUM_ELEMENTS / NUM_PROBES;
+        for (int i = 0; i < NUM_PROBES; i++) {
+            TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i * step + offset);
+            tuples[i] = new ArrayTupleReference();
+            tuples[i].reset(tupleBuilder.getFieldEndOffsets().clone(),
+                    Arrays.copyOf(tupleBuilder.getByteArray(), tupleBuilder.getSize()));
+        }
+        return tuples;
+    }
+
+    private static void runExperiment(String name, BloomFilterSpecification spec, boolean splitBlock,
+            ArrayTupleReference[] positives, ArrayTupleReference[] negatives) throws Exception {
+        BloomFilterTestHarness harness =
+                new BloomFilterTestHarness(PAGE_SIZE, NUM_PAGES, Integer.MAX_VALUE, HYRACKS_FRAME_SIZE);
+        harness.setUp();
+        try {
+            BloomFilter bf =
+                    new BloomFilter(harness.getBufferCache(), harness.getFileReference(), new int[] { 0 }, splitBlock);
+            bf.create();
+            bf.activate();
+            ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(1);
+            ArrayTupleReference tuple = new ArrayTupleReference();
+            IIndexBulkLoader builder = bf.createBuilder(NUM_ELEMENTS, spec.getNumHashes(),
+                    spec.getNumBucketsPerElements(), NoOpPageWriteCallback.INSTANCE);
+            for (int i = 0; i < NUM_ELEMENTS; i++) {
+                TupleUtils.createIntegerTuple(tupleBuilder, tuple, 2 * i);
+                builder.add(tuple);
+            }
+            builder.end();
+            bf.pinAllPages();
+            try {
+                long[] hashes = BloomFilter.createHashArray();
+                int falsePositives = 0;
+                long negativeTime = Long.MAX_VALUE;
+                long positiveTime = Long.MAX_VALUE;
+                for (int r = 0; r < REPEATS; r++) {
+                    falsePositives = 0;
+                    long start = System.nanoTime();
+                    for (ArrayTupleReference negative : negatives) {
+                        if (bf.contains(negative, hashes)) {
+                            falsePositives++;
+                        }
+                    }
+                    negativeTime = Math.min(negativeTime, System.nanoTime() - start);
+                    start = System.nanoTime();
+                    for (ArrayTupleReference positive : positives) {
+                        if (!bf.contains(positive, hashes)) {
+                            throw new IllegalStateException("false negative");
+                        }
+                    }
+                    positiveTime = Math.min(positiveTime, System.nanoTime() - start);
+                }
+                System.out.println(String.format(
+                        "%-12s PAGES: %5d FALSE POSITIVE RATE: %.5f NEGATIVE PROBES: %6.2f M/s "
+                                + "POSITIVE PROBES: %6.2f M/s",
+                        name, bf.getNumPages(), (double) falsePositives / NUM_PROBES,
+                        NUM_PROBES * 1000.0 / negativeTime, NUM_PROBES * 1000.0 / positiveTime));
+            } finally {
+                bf.unpinAllPages();
+                bf.deactivate();
+                bf.destroy();
+            }
+        } finally {
+            harness.tearDown();
+            harness.getHyracksTaskContext().getIoManager().close();
+            TestStorageManagerComponentHolder.getIOManager().close();
+        }
+    }
+}
@@ -27,6 +27,8 @@ import java.util.List;
 import java.util.TreeSet;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
@@ -37,6 +39,7 @@ import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
 import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTreeRangeSearchCursor;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.common.TestOperationCallback;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManager;
@@ -81,6 +84,62 @@ public class DiskBTreeSearchCursorTest extends BTreeSearchCursorTest {
         batchPointLookupTest(100, 200, -1000, 1000);
     }
 
+    @Test
+    public void readAheadScanTest() throws Exception {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("TESTING RANGE SEARCH CURSOR WITH READ AHEAD");
+        }
+        IBufferCache bufferCache = harness.getBufferCache();
+        IMetadataPageManager freePageManager = new LinkedMetaDataPageManager(bufferCache, META_FRAME_FACTORY);
+        DiskBTree btree = new DiskBTree(bufferCache, freePageManager, INTERIOR_FRAME_FACTORY, LEAF_FRAME_FACTORY,
+                CMP_FACTORIES, FIELD_COUNT, harness.getFileReference());
+        btree.create();
+        btree.activate();
+
+        // the leaves do not fit in the buffer cache, so pages read ahead are evicted again during the scans
+        int numKeys = 20000;
+        ArrayList<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < numKeys; i++) {
+            keys.add(i);
+        }
+        insertBTree(keys, btree);
+
+        for (int readAheadPages : new int[] { 0, DiskBTreeRangeSearchCursor.DEFAULT_READ_AHEAD_PAGES, 32 }) {
+            IndexAccessParameters iap =
+                    new IndexAccessParameters(TestOperationCallback.INSTANCE, TestOperationCallback.INSTANCE);
+            iap.getParameters().put(HyracksConstants.INDEX_CURSOR_READ_AHEAD_PAGES, readAheadPages);
+            BTreeAccessor indexAccessor = btree.createAccessor(iap);
+            IIndexCursor rangeCursor = indexAccessor.createSearchCursor(false);
+            try {
+                performScan(indexAccessor, rangeCursor, numKeys / 4, numKeys / 2);
+                performScan(indexAccessor, rangeCursor, 0, numKeys - 1);
+            } finally {
+                rangeCursor.destroy();
+            }
+        }
+
+        // fails if a page read ahead is still pinned
+        btree.deactivate();
+        btree.destroy();
+    }
+
+    private static void performScan(BTreeAccessor indexAccessor, IIndexCursor rangeCursor, int lowKey, int highKey)
+            throws Exception {
+        indexAccessor.search(rangeCursor, createRangePredicate(lowKey, highKey, true, true));
+        try {
+            int expectedKey = lowKey;
+            while (rangeCursor.hasNext()) {
+                rangeCursor.next();
+                ITupleReference frameTuple = rangeCursor.getTuple();
+                Assert.assertEquals(expectedKey++,
+                        IntegerPointable.getInteger(frameTuple.getFieldData(0), frameTuple.getFieldStart(0)));
+            }
+            Assert.assertEquals(highKey + 1, expectedKey);
+        } finally {
+            rangeCursor.close();
+        }
+    }
+
     private void batchPointLookupTest(int numKeys, int maxKey, int minSearchKey, int maxSearchKey) throws Exception {
 
         IBufferCache bufferCache = harness.getBufferCache();
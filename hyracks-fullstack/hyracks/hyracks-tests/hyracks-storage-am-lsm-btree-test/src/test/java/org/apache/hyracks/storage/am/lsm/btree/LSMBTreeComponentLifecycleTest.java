@@ -19,12 +19,16 @@
 package org.apache.hyracks.storage.am.lsm.btree;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.util.SingleThreadEventProcessor;
 import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
 import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
@@ -42,6 +46,7 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
@@ -336,6 +341,87 @@ public class LSMBTreeComponentLifecycleTest {
         ctx.getIndex().destroy();
     }
 
+    @Test
+    public void testConcurrentFlushesAreInstalledInOrder() throws Exception {
+        final CountDownLatch firstFlushRelease = new CountDownLatch(1);
+        final CountDownLatch secondFlushWritten = new CountDownLatch(1);
+        final List<FileReference> scheduledFlushes = Collections.synchronizedList(new ArrayList<>());
+        final List<FileReference> finalizedFlushes = Collections.synchronizedList(new ArrayList<>());
+        OrderedIndexTestContext ctx = createTestContext(fieldSerdes, numKeys,
+                new AsynchronousScheduler(r -> new Thread(r), new IIoOperationFailedCallback() {
+                    @Override
+                    public void schedulerFailed(ILSMIOOperationScheduler scheduler, Throwable failure) {
+                        LOGGER.log(Level.ERROR, "Scheduler failed", failure);
+                    }
+
+                    @Override
+                    public void operationFailed(ILSMIOOperation operation, Throwable failure) {
+                        LOGGER.log(Level.ERROR, "Operation {} failed", operation, failure);
+                    }
+                }, 2), new EncapsulatingIoCallbackFactory(harness.getIOOperationCallbackFactory(),
+                        new ITestOpCallback<ILSMIOOperation>() {
+                            @Override
+                            public void before(ILSMIOOperation t) {
+                                if (t.getIOOpertionType() == LSMIOOperationType.FLUSH) {
+                                    scheduledFlushes.add(t.getTarget());
+                                }
+                            }
+
+                            @Override
+                            public void after(ILSMIOOperation t) {
+                            }
+                        }, NoOpTestCallback.get(), new ITestOpCallback<ILSMIOOperation>() {
+                            @Override
+                            public void before(ILSMIOOperation t) throws HyracksDataException {
+                                // hold the first flush after it has written its component
+                                if (t.getTarget().equals(scheduledFlushes.get(0))) {
+                                    try {
+                                        firstFlushRelease.await();
+                                    } catch (InterruptedException e) {
+                                        Thread.currentThread().interrupt();
+                                        throw HyracksDataException.create(e);
+                                    }
+                                }
+                            }
+
+                            @Override
+                            public void after(ILSMIOOperation t) {
+                                if (scheduledFlushes.size() > 1 && t.getTarget().equals(scheduledFlushes.get(1))) {
+                                    secondFlushWritten.countDown();
+                                }
+                            }
+                        }, new ITestOpCallback<ILSMIOOperation>() {
+                            @Override
+                            public void before(ILSMIOOperation t) {
+                                finalizedFlushes.add(t.getTarget());
+                            }
+
+                            @Override
+                            public void after(ILSMIOOperation t) {
+                            }
+                        }, NoOpTestCallback.get()));
+        ILSMIndex index = (ILSMIndex) ctx.getIndex();
+        index.create();
+        index.activate();
+        testUtils.insertIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+        ILSMIOOperation firstFlush = scheduleFlush(ctx);
+        testUtils.insertIntTuples(ctx, numTuplesToInsert, harness.getRandom());
+        ILSMIOOperation secondFlush = scheduleFlush(ctx);
+        // the second flush writes its component while the first one is still running but is not installed
+        Assert.assertTrue(secondFlushWritten.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(finalizedFlushes.isEmpty());
+        Assert.assertEquals(0, index.getDiskComponents().size());
+        firstFlushRelease.countDown();
+        firstFlush.sync();
+        secondFlush.sync();
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, firstFlush.getStatus());
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, secondFlush.getStatus());
+        Assert.assertEquals(scheduledFlushes, finalizedFlushes);
+        Assert.assertEquals(2, index.getDiskComponents().size());
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
     private void assertCorrectSearchComponents(ILSMIndexOperationContext opCtx, ILSMIndex index,
             int numSuccesfullyCompletedFlushes) throws HyracksDataException {
         opCtx.reset();
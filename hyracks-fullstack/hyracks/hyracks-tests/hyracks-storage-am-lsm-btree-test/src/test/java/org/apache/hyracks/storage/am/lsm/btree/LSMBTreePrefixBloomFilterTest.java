@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeWithBloomFilterDiskComponent;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Range searches on an index of (tenant, ts) keys with a bloom filter on the tenant prefix
+ */
+public class LSMBTreePrefixBloomFilterTest {
+    private static final ITypeTraits[] TYPE_TRAITS =
+            { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES =
+            { IntegerBinaryComparatorFactory.INSTANCE, IntegerBinaryComparatorFactory.INSTANCE };
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = { 0 };
+    private static final int NUM_TENANTS = 5;
+    private static final int NUM_TUPLES_PER_TENANT = 100;
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        lsmBtree = LSMBTreeExamplesTest.createTreeIndex(harness, TYPE_TRAITS, CMP_FACTORIES, BLOOM_FILTER_KEY_FIELDS,
+                null, null, null, null);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            lsmBtree.deactivate();
+            lsmBtree.destroy();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testPrefixSearch() throws Exception {
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        // one disk component per even tenant
+        for (int tenant = 0; tenant < NUM_TENANTS * 2; tenant += 2) {
+            for (int ts = 0; ts < NUM_TUPLES_PER_TENANT; ts++) {
+                TupleUtils.createIntegerTuple(tb, tuple, tenant, ts, tenant * ts);
+                accessor.insert(tuple);
+            }
+            ILSMIOOperation flush = accessor.scheduleFlush();
+            flush.sync();
+            Assert.assertEquals(LSMIOOperationStatus.SUCCESS, flush.getStatus());
+        }
+        Assert.assertEquals(NUM_TENANTS, lsmBtree.getDiskComponents().size());
+        for (ILSMDiskComponent component : lsmBtree.getDiskComponents()) {
+            BloomFilter bloomFilter = ((LSMBTreeWithBloomFilterDiskComponent) component).getBloomFilter();
+            Assert.assertTrue(bloomFilter.isPrefixFilter());
+        }
+        // the tenants of the memory component are found as well
+        TupleUtils.createIntegerTuple(tb, tuple, 1, 0, 0);
+        accessor.insert(tuple);
+
+        Assert.assertEquals(NUM_TUPLES_PER_TENANT, count(accessor, 4, 4));
+        Assert.assertEquals(1, count(accessor, 1, 1));
+        Assert.assertEquals(0, count(accessor, 3, 3));
+        Assert.assertEquals(0, count(accessor, 11, 11));
+        // ranges of tenants are not filtered
+        Assert.assertEquals(2 * NUM_TUPLES_PER_TENANT + 1, count(accessor, 1, 4));
+        // ranges within a tenant
+        Assert.assertEquals(10, count(accessor, new int[] { 6, 10 }, new int[] { 6, 19 }));
+        Assert.assertEquals(0, count(accessor, new int[] { 5, 10 }, new int[] { 5, 19 }));
+        accessor.destroy();
+    }
+
+    @Test
+    public void testPrefixPredicate() throws Exception {
+        MultiComparator cmp = MultiComparator.create(CMP_FACTORIES);
+        Assert.assertTrue(createPredicate(new int[] { 1 }, new int[] { 1 }).isPrefixPredicate(cmp, 1));
+        Assert.assertFalse(createPredicate(new int[] { 1 }, new int[] { 1 }).isPrefixPredicate(cmp, 2));
+        Assert.assertFalse(createPredicate(new int[] { 1 }, new int[] { 2 }).isPrefixPredicate(cmp, 1));
+        Assert.assertTrue(createPredicate(new int[] { 1, 2 }, new int[] { 1, 5 }).isPrefixPredicate(cmp, 1));
+        Assert.assertFalse(createPredicate(new int[] { 1, 2 }, new int[] { 1, 5 }).isPrefixPredicate(cmp, 2));
+        Assert.assertTrue(createPredicate(new int[] { 1, 2 }, new int[] { 1, 2 }).isPrefixPredicate(cmp, 2));
+        Assert.assertFalse(createPredicate(null, new int[] { 1 }).isPrefixPredicate(cmp, 1));
+    }
+
+    private static int count(ILSMIndexAccessor accessor, int lowTenant, int highTenant) throws HyracksDataException {
+        return count(accessor, new int[] { lowTenant }, new int[] { highTenant });
+    }
+
+    private static int count(ILSMIndexAccessor accessor, int[] low, int[] high) throws HyracksDataException {
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int count = 0;
+        try {
+            accessor.search(cursor, createPredicate(low, high));
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+        return count;
+    }
+
+    private static RangePredicate createPredicate(int[] low, int[] high) throws HyracksDataException {
+        ArrayTupleReference lowKey = createKey(low);
+        ArrayTupleReference highKey = createKey(high);
+        MultiComparator lowKeyCmp = lowKey == null ? null : BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, lowKey);
+        MultiComparator highKeyCmp =
+                highKey == null ? null : BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, highKey);
+        return new RangePredicate(lowKey, highKey, true, true, lowKeyCmp, highKeyCmp);
+    }
+
+    private static ArrayTupleReference createKey(int[] fields) throws HyracksDataException {
+        if (fields == null) {
+            return null;
+        }
+        ArrayTupleReference key = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(new ArrayTupleBuilder(fields.length), key, fields);
+        return key;
+    }
+}
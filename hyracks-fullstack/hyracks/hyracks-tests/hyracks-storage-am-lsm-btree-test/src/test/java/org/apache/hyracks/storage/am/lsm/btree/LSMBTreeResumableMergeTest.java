@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hyracks.api.application.INCServiceContext;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
+import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBloomFilterDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMPageWriteCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexFileManager;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.IResource;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
+import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.util.trace.ITracer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Interrupts a merge by restoring the files of the index as they were in the middle of the merge, after one of its
+ * checkpoints, and checks that the merge continues from that checkpoint when it is scheduled again. Merges into
+ * compressed files are not checkpointed and start over.
+ */
+public class LSMBTreeResumableMergeTest {
+    private static final ITypeTraits[] TYPE_TRAITS = { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES = { IntegerBinaryComparatorFactory.INSTANCE };
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = { 0 };
+    private static final int NUM_COMPONENTS = 4;
+    private static final int NUM_TUPLES_PER_COMPONENT = 500;
+    private static final int NUM_TUPLES = NUM_COMPONENTS * NUM_TUPLES_PER_COMPONENT;
+    private static final int MERGE_CHECKPOINT_INTERVAL = 50;
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final SnapshotPageWriteCallbackFactory pageWriteCallbackFactory = new SnapshotPageWriteCallbackFactory();
+    private File snapshotDir;
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        snapshotDir = new File(harness.getFileReference().getFile().getParentFile(), "merge_snapshot");
+        pageWriteCallbackFactory.indexDir = harness.getFileReference().getFile();
+        pageWriteCallbackFactory.snapshotDir = snapshotDir;
+    }
+
+    private void createIndex(ICompressorDecompressorFactory compressorDecompressorFactory) throws HyracksDataException {
+        lsmBtree = LSMBTreeUtil.createLSMTree(harness.getIOManager(), harness.getVirtualBufferCaches(),
+                harness.getFileReference(), harness.getDiskBufferCache(), TYPE_TRAITS, CMP_FACTORIES,
+                BLOOM_FILTER_KEY_FIELDS, harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(),
+                harness.getOperationTracker(), harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                pageWriteCallbackFactory, true, null, null, null, null, true, harness.getMetadataPageManagerFactory(),
+                false, ITracer.NONE, compressorDecompressorFactory, true, false);
+        lsmBtree.setMergeCheckpointInterval(MERGE_CHECKPOINT_INTERVAL);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            if (lsmBtree != null) {
+                lsmBtree.deactivate();
+                lsmBtree.destroy();
+            }
+            IoUtil.delete(snapshotDir);
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testResumeMerge() throws Exception {
+        createIndex(NoOpCompressorDecompressorFactory.INSTANCE);
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        loadComponents(accessor);
+
+        pageWriteCallbackFactory.snapshotAfterPages = 100;
+        int pagesOfFullMerge = merge(accessor);
+        Assert.assertTrue(snapshotDir.exists());
+        Assert.assertEquals(1, snapshotDir.list(LSMBTreeResumableMergeTest::isMergeCheckpoint).length);
+        long numElements = getNumElements();
+        checkMergedComponent(accessor, numElements);
+        accessor.destroy();
+
+        // restart from the files as they were in the middle of the merge
+        lsmBtree.deactivate();
+        File indexDir = harness.getFileReference().getFile();
+        restoreSnapshot(indexDir);
+        lsmBtree.activate();
+        Assert.assertEquals(NUM_COMPONENTS + 1, lsmBtree.getDiskComponents().size());
+        Assert.assertEquals(1, indexDir.list(LSMBTreeResumableMergeTest::isMergeCheckpoint).length);
+
+        accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        int pagesOfResumedMerge = merge(accessor);
+        Assert.assertTrue(pagesOfResumedMerge < pagesOfFullMerge);
+        Assert.assertEquals(0, indexDir.list(LSMBTreeResumableMergeTest::isMergeCheckpoint).length);
+        checkMergedComponent(accessor, numElements);
+        accessor.destroy();
+
+        // the resumed merge produced a valid component
+        lsmBtree.deactivate();
+        lsmBtree.activate();
+        accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        checkMergedComponent(accessor, numElements);
+        accessor.destroy();
+    }
+
+    @Test
+    public void testCompressedMergeStartsOver() throws Exception {
+        createIndex(new SnappyCompressorDecompressorFactory());
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        loadComponents(accessor);
+
+        pageWriteCallbackFactory.snapshotAfterPages = 100;
+        int pagesOfFullMerge = merge(accessor);
+        // no checkpoint is taken while merging into a compressed file
+        Assert.assertTrue(snapshotDir.exists());
+        Assert.assertEquals(0, snapshotDir.list(LSMBTreeResumableMergeTest::isMergeCheckpoint).length);
+        long numElements = getNumElements();
+        checkMergedComponent(accessor, numElements);
+        accessor.destroy();
+
+        // the partial target of the interrupted merge is removed and the merge is done again in full
+        lsmBtree.deactivate();
+        File indexDir = harness.getFileReference().getFile();
+        restoreSnapshot(indexDir);
+        lsmBtree.activate();
+        Assert.assertEquals(NUM_COMPONENTS + 1, lsmBtree.getDiskComponents().size());
+
+        accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        Assert.assertEquals(pagesOfFullMerge, merge(accessor));
+        checkMergedComponent(accessor, numElements);
+        accessor.destroy();
+    }
+
+    private void loadComponents(ILSMIndexAccessor accessor) throws Exception {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        // interleave the keys of the components so that the merge alternates between them
+        for (int c = 0; c < NUM_COMPONENTS; c++) {
+            for (int i = 0; i < NUM_TUPLES_PER_COMPONENT; i++) {
+                int key = i * NUM_COMPONENTS + c;
+                TupleUtils.createIntegerTuple(tb, tuple, key, -key);
+                accessor.insert(tuple);
+            }
+            flush(accessor);
+        }
+        // delete a key so that the merged component also holds an antimatter tuple
+        TupleUtils.createIntegerTuple(tb, tuple, 2, -2);
+        accessor.delete(tuple);
+        flush(accessor);
+    }
+
+    private void restoreSnapshot(File indexDir) throws IOException {
+        for (File file : indexDir.listFiles()) {
+            Files.delete(file.toPath());
+        }
+        for (File file : snapshotDir.listFiles()) {
+            Files.copy(file.toPath(), new File(indexDir, file.getName()).toPath());
+        }
+    }
+
+    private static boolean isMergeCheckpoint(File dir, String name) {
+        return name.startsWith(AbstractLSMIndexFileManager.MERGE_CHECKPOINT_PREFIX);
+    }
+
+    private long getNumElements() throws HyracksDataException {
+        return ((AbstractLSMWithBloomFilterDiskComponent) lsmBtree.getDiskComponents().get(0)).getBloomFilter()
+                .getNumElements();
+    }
+
+    private void checkMergedComponent(ILSMIndexAccessor accessor, long numElements) throws HyracksDataException {
+        Assert.assertEquals(1, lsmBtree.getDiskComponents().size());
+        Assert.assertEquals(numElements, getNumElements());
+        Assert.assertEquals(NUM_TUPLES - 1, count(accessor, 0, NUM_TUPLES));
+        for (int key = 0; key < NUM_TUPLES; key++) {
+            Assert.assertEquals(key == 2 ? 0 : 1, count(accessor, key, key));
+        }
+    }
+
+    private int merge(ILSMIndexAccessor accessor) throws Exception {
+        pageWriteCallbackFactory.pagesWritten.set(0);
+        ILSMIOOperation merge = accessor.scheduleMerge(lsmBtree.getDiskComponents());
+        merge.sync();
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        return pageWriteCallbackFactory.pagesWritten.get();
+    }
+
+    private static void flush(ILSMIndexAccessor accessor) throws Exception {
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, flush.getStatus());
+    }
+
+    private static int count(ILSMIndexAccessor accessor, int low, int high) throws HyracksDataException {
+        ArrayTupleReference lowKey = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(new ArrayTupleBuilder(1), lowKey, low);
+        ArrayTupleReference highKey = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(new ArrayTupleBuilder(1), highKey, high);
+        RangePredicate predicate = new RangePredicate(lowKey, highKey, true, true,
+                BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, lowKey),
+                BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, highKey));
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int count = 0;
+        try {
+            accessor.search(cursor, predicate);
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+        return count;
+    }
+
+    /**
+     * Counts the pages written and copies the index directory once a number of pages were written after a merge
+     * checkpoint, which leaves the files as a node that stopped at that point would have left them
+     */
+    private static class SnapshotPageWriteCallbackFactory implements ILSMPageWriteCallbackFactory {
+        private static final long serialVersionUID = 1L;
+        private final AtomicInteger pagesWritten = new AtomicInteger();
+        private File indexDir;
+        private File snapshotDir;
+        private int snapshotAfterPages;
+
+        @Override
+        public void initialize(INCServiceContext ncCtx, IResource resource) {
+            // No op
+        }
+
+        @Override
+        public IPageWriteCallback createPageWriteCallback() {
+            return new IPageWriteCallback() {
+                @Override
+                public void initialize(IIndexBulkLoader bulkLoader) {
+                    // No op
+                }
+
+                @Override
+                public void afterWrite(ICachedPage page) throws HyracksDataException {
+                    if (pagesWritten.incrementAndGet() == snapshotAfterPages) {
+                        snapshotAfterPages = 0;
+                        snapshot();
+                    }
+                }
+            };
+        }
+
+        private void snapshot() throws HyracksDataException {
+            try {
+                snapshotDir.mkdirs();
+                for (File file : indexDir.listFiles()) {
+                    Files.copy(file.toPath(), new File(snapshotDir, file.getName()).toPath(),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        @Override
+        public JsonNode toJson(IPersistedResourceRegistry registry) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
+import org.apache.hyracks.util.trace.ITracer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Searches on an index of (device, ts) keys whose disk components keep zone maps on both key fields, and on an index
+ * whose disk components keep zone maps on the non-key value field
+ */
+public class LSMBTreeZoneMapTest {
+    private static final ITypeTraits[] TYPE_TRAITS =
+            { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES =
+            { IntegerBinaryComparatorFactory.INSTANCE, IntegerBinaryComparatorFactory.INSTANCE };
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = { 0, 1 };
+    private static final int[] ZONE_MAP_FIELDS = { 0, 1 };
+    private static final int[] TS_FIELD = { 1 };
+    private static final int[] VALUE_FIELD = { 2 };
+    private static final IBinaryComparatorFactory[] VALUE_CMP_FACTORIES = { IntegerBinaryComparatorFactory.INSTANCE };
+    private static final int NUM_DEVICES = 5;
+    private static final int NUM_COMPONENTS = 3;
+    private static final int NUM_TUPLES_PER_DEVICE = 100;
+    private static final int NUM_TUPLES_PER_COMPONENT = NUM_DEVICES * NUM_TUPLES_PER_DEVICE;
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+    }
+
+    private void createLSMTree(int[] zoneMapFields, IBinaryComparatorFactory[] zoneMapCmpFactories)
+            throws HyracksDataException {
+        lsmBtree = LSMBTreeUtil.createLSMTree(harness.getIOManager(), harness.getVirtualBufferCaches(),
+                harness.getFileReference(), harness.getDiskBufferCache(), TYPE_TRAITS, CMP_FACTORIES,
+                BLOOM_FILTER_KEY_FIELDS, harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(),
+                harness.getOperationTracker(), harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                harness.getPageWriteCallbackFactory(), true, null, null, null, null, true,
+                harness.getMetadataPageManagerFactory(), false, ITracer.NONE,
+                NoOpCompressorDecompressorFactory.INSTANCE, true, false, zoneMapFields, zoneMapCmpFactories);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            if (lsmBtree != null) {
+                lsmBtree.deactivate();
+                lsmBtree.destroy();
+            }
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testZoneMapPruning() throws Exception {
+        createLSMTree(ZONE_MAP_FIELDS, null);
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        // one disk component per range of 100 timestamps, each with all devices
+        for (int c = 0; c < NUM_COMPONENTS; c++) {
+            for (int device = 0; device < NUM_DEVICES; device++) {
+                for (int ts = c * NUM_TUPLES_PER_DEVICE; ts < (c + 1) * NUM_TUPLES_PER_DEVICE; ts++) {
+                    TupleUtils.createIntegerTuple(tb, tuple, device, ts, device * ts);
+                    accessor.insert(tuple);
+                }
+            }
+            flush(accessor);
+        }
+        for (ILSMDiskComponent component : lsmBtree.getDiskComponents()) {
+            Assert.assertTrue(component.getZoneMap().isSet());
+        }
+        // ranges derived from the search keys
+        Assert.assertEquals(11, count(accessor, new int[] { 2, 150 }, new int[] { 2, 160 }));
+        Assert.assertEquals(0, count(accessor, new int[] { 2, 350 }, new int[] { 2, 360 }));
+        Assert.assertEquals(0, count(accessor, new int[] { 7 }, new int[] { 9 }));
+        // ranges on the second key field only prune components, tuples of other timestamps are still returned
+        Assert.assertEquals(NUM_TUPLES_PER_COMPONENT, scan(accessor, 150, 160));
+        Assert.assertEquals(2 * NUM_TUPLES_PER_COMPONENT, scan(accessor, 150, 250));
+        Assert.assertEquals(0, scan(accessor, 300, 400));
+
+        // the component of a delete covers the deleted key and is not pruned
+        TupleUtils.createIntegerTuple(tb, tuple, 2, 150, 300);
+        accessor.delete(tuple);
+        flush(accessor);
+        Assert.assertEquals(10, count(accessor, new int[] { 2, 150 }, new int[] { 2, 160 }));
+        Assert.assertEquals(NUM_TUPLES_PER_COMPONENT - 1, scan(accessor, 150, 160));
+
+        // the merged component covers all merged components
+        ILSMIOOperation merge = accessor.scheduleMerge(lsmBtree.getDiskComponents());
+        merge.sync();
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        Assert.assertEquals(1, lsmBtree.getDiskComponents().size());
+        Assert.assertEquals(NUM_COMPONENTS * NUM_TUPLES_PER_COMPONENT - 1, scan(accessor, 0, 0));
+        Assert.assertEquals(0, scan(accessor, 300, 400));
+        accessor.destroy();
+
+        // zone maps are read back from the metadata page
+        lsmBtree.deactivate();
+        lsmBtree.activate();
+        Assert.assertTrue(lsmBtree.getDiskComponents().get(0).getZoneMap().isSet());
+        accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        Assert.assertEquals(NUM_COMPONENTS * NUM_TUPLES_PER_COMPONENT - 1, scan(accessor, 299, 299));
+        Assert.assertEquals(0, scan(accessor, 300, 400));
+        Assert.assertEquals(0, count(accessor, new int[] { 2, 350 }, new int[] { 2, 360 }));
+        accessor.destroy();
+    }
+
+    @Test
+    public void testNonKeyZoneMapField() throws Exception {
+        createLSMTree(VALUE_FIELD, VALUE_CMP_FACTORIES);
+        Assert.assertTrue(lsmBtree.hasNonKeyZoneMapFields());
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        for (int device = 0; device < NUM_DEVICES; device++) {
+            TupleUtils.createIntegerTuple(tb, tuple, device, 0, 10 + device);
+            accessor.insert(tuple);
+        }
+        flush(accessor);
+
+        // the replaced and deleted values are passed along, as the upsert operator of a primary index does
+        ArrayTupleReference prevTuple = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(new ArrayTupleBuilder(TYPE_TRAITS.length), prevTuple, 0, 0, 10);
+        TupleUtils.createIntegerTuple(tb, tuple, 0, 0, 100);
+        accessor.upsert(tuple);
+        accessor.updateFilter(prevTuple);
+        TupleUtils.createIntegerTuple(new ArrayTupleBuilder(TYPE_TRAITS.length), prevTuple, 1, 0, 11);
+        TupleUtils.createIntegerTuple(tb, tuple, 1, 0, 11);
+        accessor.delete(tuple);
+        accessor.updateFilter(prevTuple);
+        flush(accessor);
+
+        // the newer component covers the older versions it hides, so they are not exposed by pruning it
+        Assert.assertEquals(NUM_DEVICES - 2, scanValues(accessor, 10, 20));
+        Assert.assertEquals(1, scanValues(accessor, 100, 100));
+        for (ILSMDiskComponent component : lsmBtree.getDiskComponents()) {
+            Assert.assertTrue(component.getZoneMap().isSet());
+            Assert.assertFalse(component.getZoneMap().satisfy(VALUE_FIELD, createKey(new int[] { 200 }),
+                    createKey(new int[] { 300 })));
+        }
+        Assert.assertTrue(lsmBtree.getDiskComponents().get(0).getZoneMap().satisfy(VALUE_FIELD,
+                createKey(new int[] { 10 }), createKey(new int[] { 11 })));
+
+        ILSMIOOperation merge = accessor.scheduleMerge(lsmBtree.getDiskComponents());
+        merge.sync();
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, merge.getStatus());
+        Assert.assertEquals(NUM_DEVICES - 2, scanValues(accessor, 10, 20));
+        Assert.assertEquals(1, scanValues(accessor, 100, 100));
+        Assert.assertEquals(0, scanValues(accessor, 200, 300));
+        accessor.destroy();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonKeyZoneMapFieldWithoutComparator() throws Exception {
+        createLSMTree(VALUE_FIELD, null);
+    }
+
+    private static void flush(ILSMIndexAccessor accessor) throws Exception {
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        flush.sync();
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, flush.getStatus());
+    }
+
+    private static int scan(ILSMIndexAccessor accessor, int lowTs, int highTs) throws HyracksDataException {
+        RangePredicate predicate = new RangePredicate(null, null, true, true, null, null);
+        predicate.setZoneMapRange(TS_FIELD, createKey(new int[] { lowTs }), createKey(new int[] { highTs }));
+        return count(accessor, predicate);
+    }
+
+    /**
+     * @return the number of tuples whose value is in [low, high], components are only pruned by the zone maps
+     */
+    private static int scanValues(ILSMIndexAccessor accessor, int low, int high) throws HyracksDataException {
+        RangePredicate predicate = new RangePredicate(null, null, true, true, null, null);
+        predicate.setZoneMapRange(VALUE_FIELD, createKey(new int[] { low }), createKey(new int[] { high }));
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int count = 0;
+        try {
+            accessor.search(cursor, predicate);
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    ITupleReference tuple = cursor.getTuple();
+                    int value = IntegerPointable.getInteger(tuple.getFieldData(2), tuple.getFieldStart(2));
+                    if (value >= low && value <= high) {
+                        count++;
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+        return count;
+    }
+
+    private static int count(ILSMIndexAccessor accessor, int[] low, int[] high) throws HyracksDataException {
+        ArrayTupleReference lowKey = createKey(low);
+        ArrayTupleReference highKey = createKey(high);
+        return count(accessor,
+                new RangePredicate(lowKey, highKey, true, true,
+                        BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, lowKey),
+                        BTreeUtils.getSearchMultiComparator(CMP_FACTORIES, highKey)));
+    }
+
+    private static int count(ILSMIndexAccessor accessor, RangePredicate predicate) throws HyracksDataException {
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int count = 0;
+        try {
+            accessor.search(cursor, predicate);
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+        return count;
+    }
+
+    private static ArrayTupleReference createKey(int[] fields) throws HyracksDataException {
+        ArrayTupleReference key = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(new ArrayTupleBuilder(fields.length), key, fields);
+        return key;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.cursor;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.common.TestOperationCallback;
+import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.LSMBTreeExamplesTest;
+import org.apache.hyracks.storage.am.lsm.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LSMBTreeBatchPointSearchCursorTest {
+    private static final ITypeTraits[] TYPE_TRAITS = { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES = { IntegerBinaryComparatorFactory.INSTANCE };
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = { 0 };
+    private static final int[] KEY_FIELDS = { 0 };
+    @SuppressWarnings("rawtypes")
+    private static final RecordDescriptor KEY_REC_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+    private static final int NUM_KEYS = 4500;
+    // large enough for all keys of a batch
+    private static final int FRAME_SIZE = 32768;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        lsmBtree = LSMBTreeExamplesTest.createTreeIndex(harness, TYPE_TRAITS, CMP_FACTORIES, BLOOM_FILTER_KEY_FIELDS,
+                null, null, null, null);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            lsmBtree.deactivate();
+            lsmBtree.destroy();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void batchPointSearchTest() throws Exception {
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) lsmBtree.createAccessor(
+                new IndexAccessParameters(TestOperationCallback.INSTANCE, TestOperationCallback.INSTANCE));
+        try {
+            // two disk components and a memory component, each of which deletes some keys of the older ones
+            for (int i = 0; i < 3000; i++) {
+                modify(accessor, i, false);
+            }
+            flush(accessor);
+            for (int i = 0; i < 3000; i += 7) {
+                modify(accessor, i, true);
+            }
+            for (int i = 3000; i < 4000; i++) {
+                modify(accessor, i, false);
+            }
+            flush(accessor);
+            for (int i = 0; i < 4000; i += 11) {
+                if (i >= 3000 || i % 7 != 0) {
+                    modify(accessor, i, true);
+                }
+            }
+            for (int i = 4000; i < NUM_KEYS; i++) {
+                modify(accessor, i, false);
+            }
+        } finally {
+            accessor.destroy();
+        }
+
+        ILSMIndexAccessor searchAccessor =
+                (ILSMIndexAccessor) lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        ILSMBatchPointSearchCursor cursor = searchAccessor.createBatchPointSearchCursor();
+        BatchPredicate predicate = new BatchPredicate(KEY_FIELDS, MultiComparator.create(CMP_FACTORIES));
+        try {
+            // the same cursor is used for several batches, sorted and not sorted
+            searchAndVerify(searchAccessor, cursor, predicate, 0, 3);
+            searchAndVerify(searchAccessor, cursor, predicate, 1, 2);
+            searchAndVerify(searchAccessor, cursor, predicate, NUM_KEYS + 100, -5);
+        } finally {
+            cursor.destroy();
+            searchAccessor.destroy();
+        }
+    }
+
+    private void searchAndVerify(ILSMIndexAccessor accessor, ILSMBatchPointSearchCursor cursor,
+            BatchPredicate predicate, int firstKey, int step) throws HyracksDataException {
+        FixedSizeFrame frame = new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE));
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(KEY_FIELDS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        int numKeys = 0;
+        for (int key = firstKey; key >= 0 && key < NUM_KEYS + 200; key += step) {
+            TupleUtils.createIntegerTuple(tb, tuple, key);
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                break;
+            }
+            numKeys++;
+        }
+        FrameTupleAccessor keyAccessor = new FrameTupleAccessor(KEY_REC_DESC);
+        keyAccessor.reset(frame.getBuffer());
+        Assert.assertEquals(numKeys, keyAccessor.getTupleCount());
+
+        predicate.reset(keyAccessor);
+        accessor.search(cursor, predicate);
+        try {
+            int nextKeyIndex = 0;
+            while (cursor.hasNext()) {
+                cursor.next();
+                int keyIndex = cursor.getKeyIndex();
+                for (; nextKeyIndex < keyIndex; nextKeyIndex++) {
+                    Assert.assertFalse(isExpected(getKey(firstKey, step, nextKeyIndex)));
+                }
+                int key = getKey(firstKey, step, keyIndex);
+                Assert.assertTrue(isExpected(key));
+                ITupleReference result = cursor.getTuple();
+                Assert.assertEquals(key, IntegerPointable.getInteger(result.getFieldData(0), result.getFieldStart(0)));
+                Assert.assertEquals(key, IntegerPointable.getInteger(result.getFieldData(1), result.getFieldStart(1)));
+                nextKeyIndex = keyIndex + 1;
+            }
+            for (; nextKeyIndex < numKeys; nextKeyIndex++) {
+                Assert.assertFalse(isExpected(getKey(firstKey, step, nextKeyIndex)));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static int getKey(int firstKey, int step, int keyIndex) {
+        return firstKey + keyIndex * step;
+    }
+
+    private static boolean isExpected(int key) {
+        return key < NUM_KEYS && (key >= 3000 || key % 7 != 0) && (key >= 4000 || key % 11 != 0);
+    }
+
+    private static void modify(ILSMIndexAccessor accessor, int key, boolean delete) throws HyracksDataException {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(tb, tuple, key, key);
+        if (delete) {
+            accessor.delete(tuple);
+        } else {
+            accessor.insert(tuple);
+        }
+    }
+
+    private static void flush(ILSMIndexAccessor accessor) throws HyracksDataException {
+        ILSMIOOperation flush = accessor.scheduleFlush();
+        try {
+            flush.sync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        }
+        if (flush.getStatus() == LSMIOOperationStatus.FAILURE) {
+            throw HyracksDataException.create(flush.getFailure());
+        }
+    }
+}
@@ -210,6 +210,21 @@ public class TestVirtualBufferCache implements IVirtualBufferCache {
         return vbc.getFileMapProvider();
     }
 
+    @Override
+    public int getUsage() {
+        return vbc.getUsage();
+    }
+
+    @Override
+    public long getAllocatedPageCount() {
+        return vbc.getAllocatedPageCount();
+    }
+
+    @Override
+    public void setPageBudget(int pageBudget) {
+        vbc.setPageBudget(pageBudget);
+    }
+
     @Override
     public void closeFileIfOpen(FileReference fileRef) {
         throw new UnsupportedOperationException();
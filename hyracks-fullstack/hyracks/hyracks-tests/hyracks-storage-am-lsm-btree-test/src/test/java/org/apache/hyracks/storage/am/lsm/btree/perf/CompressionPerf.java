@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.perf;
+
+import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.compression.IDictionaryCompressorDecompressor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.common.freepage.AppendOnlyLinkedMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIOOperationCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpPageWriteCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.SynchronousSchedulerProvider;
+import org.apache.hyracks.storage.am.lsm.common.impls.ThreadCountingTracker;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCache;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.compression.DeflateCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.DeflateDictionaryCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.apache.hyracks.test.support.TestUtils;
+
+/**
+ * Reports the compression ratio and the compression and decompression throughput of the built-in page compression
+ * schemes on the pages of a bulk loaded LSM BTree disk component.
+ */
+public class CompressionPerf {
+    private static final int PAGE_SIZE = 32768;
+    private static final int NUM_PAGES = 4096;
+    private static final int MEM_NUM_PAGES = 64;
+    private static final int NUM_TUPLES = 500000;
+    private static final int REPEATS = 5;
+    private static final double BLOOM_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final ICompressorDecompressorFactory[] COMP_DECOMP_FACTORIES = new ICompressorDecompressorFactory[] {
+            new SnappyCompressorDecompressorFactory(), new Lz4CompressorDecompressorFactory(),
+            new DeflateCompressorDecompressorFactory(), new DeflateDictionaryCompressorDecompressorFactory() };
+
+    private static final SimpleDateFormat simpleDateFormat = new SimpleDateFormat("ddMMyy-hhmmssSS");
+    private static final String sep = System.getProperty("file.separator");
+
+    public static void main(String[] args) throws Exception {
+        ISerializerDeserializer[] intSerdes = new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE,
+                IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+        ISerializerDeserializer[] stringSerdes = new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer(),
+                new UTF8StringSerializerDeserializer(), new UTF8StringSerializerDeserializer() };
+        IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+        try {
+            runExperiment(ctx, "INT TUPLES", intSerdes, false);
+            runExperiment(ctx, "STRING TUPLES", stringSerdes, true);
+        } finally {
+            ctx.getIoManager().close();
+            TestStorageManagerComponentHolder.getIOManager().close();
+        }
+    }
+
+    private static void runExperiment(IHyracksTaskContext ctx, String name, ISerializerDeserializer[] fieldSerdes,
+            boolean stringTuples) throws Exception {
+        List<byte[]> pages = loadPages(ctx, fieldSerdes, stringTuples);
+        long totalBytes = (long) pages.size() * PAGE_SIZE;
+        System.out.println(name + ": " + pages.size() + " PAGES OF " + PAGE_SIZE + " BYTES");
+        for (ICompressorDecompressorFactory factory : COMP_DECOMP_FACTORIES) {
+            ICompressorDecompressor compDecomp = factory.createInstance();
+            if (compDecomp instanceof IDictionaryCompressorDecompressor) {
+                //As compressed files do, train the dictionary on the first page
+                IDictionaryCompressorDecompressor dictionaryCompDecomp = (IDictionaryCompressorDecompressor) compDecomp;
+                compDecomp = dictionaryCompDecomp.createDictionaryCompressorDecompressor(
+                        dictionaryCompDecomp.trainDictionary(ByteBuffer.wrap(pages.get(0)), PAGE_SIZE));
+            }
+            List<ByteBuffer> cBuffers = new ArrayList<>(pages.size());
+            for (int i = 0; i < pages.size(); i++) {
+                cBuffers.add(ByteBuffer.allocate(compDecomp.computeCompressedBufferSize(PAGE_SIZE)));
+            }
+            ByteBuffer uBuffer = ByteBuffer.allocate(PAGE_SIZE);
+            long compressedBytes = 0;
+            long compressTime = Long.MAX_VALUE;
+            long uncompressTime = Long.MAX_VALUE;
+            for (int r = 0; r < REPEATS; r++) {
+                compressedBytes = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < pages.size(); i++) {
+                    ByteBuffer cBuffer = cBuffers.get(i);
+                    cBuffer.clear();
+                    compDecomp.compress(ByteBuffer.wrap(pages.get(i)), cBuffer);
+                    compressedBytes += cBuffer.remaining();
+                }
+                compressTime = Math.min(compressTime, System.nanoTime() - start);
+                start = System.nanoTime();
+                for (ByteBuffer cBuffer : cBuffers) {
+                    uBuffer.clear();
+                    compDecomp.uncompress(cBuffer, uBuffer);
+                }
+                uncompressTime = Math.min(uncompressTime, System.nanoTime() - start);
+            }
+            System.out.println(String.format("%-40s RATIO: %5.2f COMPRESS: %8.1f MB/s DECOMPRESS: %8.1f MB/s",
+                    factory.getClass().getSimpleName().replace("Factory", ""), (double) totalBytes / compressedBytes,
+                    toMegabytesPerSecond(totalBytes, compressTime), toMegabytesPerSecond(totalBytes, uncompressTime)));
+        }
+        System.out.println("-------------------------------");
+    }
+
+    /**
+     * Bulk loads an LSM BTree and returns a copy of all pages of its disk component
+     */
+    private static List<byte[]> loadPages(IHyracksTaskContext ctx, ISerializerDeserializer[] fieldSerdes,
+            boolean stringTuples) throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, Integer.MAX_VALUE);
+        IOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        FileReference file = ioManager.resolveAbsolutePath(ioManager.getIODevices().get(0).getMount() + sep
+                + "compression_perf_" + simpleDateFormat.format(new Date()) + sep);
+        List<IVirtualBufferCache> virtualBufferCaches = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            virtualBufferCaches.add(new VirtualBufferCache(new HeapBufferAllocator(), PAGE_SIZE, MEM_NUM_PAGES / 2));
+        }
+        LSMBTreeTestContext testCtx = LSMBTreeTestContext.create(ioManager, virtualBufferCaches, file, bufferCache,
+                fieldSerdes, 1, BLOOM_FILTER_FALSE_POSITIVE_RATE, new NoMergePolicy(), new ThreadCountingTracker(),
+                SynchronousSchedulerProvider.INSTANCE.getIoScheduler(null), NoOpIOOperationCallbackFactory.INSTANCE,
+                NoOpPageWriteCallbackFactory.INSTANCE, AppendOnlyLinkedMetadataPageManagerFactory.INSTANCE, false, true,
+                false);
+        LSMBTree lsmTree = (LSMBTree) testCtx.getIndex();
+        lsmTree.create();
+        lsmTree.activate();
+        try {
+            OrderedIndexTestUtils testUtils = new OrderedIndexTestUtils();
+            Random rnd = new Random(50);
+            if (stringTuples) {
+                testUtils.bulkLoadStringTuples(testCtx, NUM_TUPLES, rnd);
+            } else {
+                testUtils.bulkLoadIntTuples(testCtx, NUM_TUPLES, rnd);
+            }
+            DiskBTree btree = (DiskBTree) lsmTree.getDiskComponents().get(0).getIndex();
+            int fileId = btree.getFileId();
+            int numPages = bufferCache.getNumPagesOfFile(fileId);
+            List<byte[]> pages = new ArrayList<>(numPages);
+            for (int i = 0; i < numPages; i++) {
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+                try {
+                    byte[] copy = new byte[PAGE_SIZE];
+                    System.arraycopy(page.getBuffer().array(), 0, copy, 0, PAGE_SIZE);
+                    pages.add(copy);
+                } finally {
+                    bufferCache.unpin(page);
+                }
+            }
+            return pages;
+        } finally {
+            lsmTree.deactivate();
+            lsmTree.destroy();
+            bufferCache.close();
+        }
+    }
+
+    private static double toMegabytesPerSecond(long bytes, long nanos) {
+        return bytes / (1024.0 * 1024.0) / (nanos / 1e9);
+    }
+}
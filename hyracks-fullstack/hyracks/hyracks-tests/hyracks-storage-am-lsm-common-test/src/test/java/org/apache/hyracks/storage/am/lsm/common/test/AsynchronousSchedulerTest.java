@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.impls.AsynchronousScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIoOperationFailedCallback;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AsynchronousSchedulerTest {
+
+    private static final String INDEX_1 = "index1";
+    private static final String INDEX_2 = "index2";
+
+    @Test
+    public void testFlushesAreSerializedByDefault() throws Exception {
+        AsynchronousScheduler scheduler =
+                new AsynchronousScheduler(r -> new Thread(r), NoOpIoOperationFailedCallback.INSTANCE);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch started2 = new CountDownLatch(1);
+        CountDownLatch started3 = new CountDownLatch(1);
+        ILSMIOOperation op1 = mockFlushOperation(INDEX_1, started1, release);
+        ILSMIOOperation op2 = mockFlushOperation(INDEX_1, started2, new CountDownLatch(0));
+        ILSMIOOperation op3 = mockFlushOperation(INDEX_2, started3, new CountDownLatch(0));
+        scheduler.scheduleOperation(op1);
+        scheduler.scheduleOperation(op2);
+        scheduler.scheduleOperation(op3);
+        Assert.assertTrue(started1.await(10, TimeUnit.SECONDS));
+        // flushes of other indexes are not held back
+        Assert.assertTrue(started3.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(started2.await(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        Assert.assertTrue(started2.await(10, TimeUnit.SECONDS));
+        scheduler.close();
+    }
+
+    @Test
+    public void testConcurrentFlushes() throws Exception {
+        AsynchronousScheduler scheduler =
+                new AsynchronousScheduler(r -> new Thread(r), NoOpIoOperationFailedCallback.INSTANCE, 2);
+        CountDownLatch release1 = new CountDownLatch(1);
+        CountDownLatch release2 = new CountDownLatch(1);
+        CountDownLatch started1 = new CountDownLatch(1);
+        CountDownLatch started2 = new CountDownLatch(1);
+        CountDownLatch started3 = new CountDownLatch(1);
+        CountDownLatch started4 = new CountDownLatch(1);
+        ILSMIOOperation op1 = mockFlushOperation(INDEX_1, started1, release1);
+        ILSMIOOperation op2 = mockFlushOperation(INDEX_1, started2, release2);
+        ILSMIOOperation op3 = mockFlushOperation(INDEX_1, started3, new CountDownLatch(0));
+        ILSMIOOperation op4 = mockFlushOperation(INDEX_1, started4, new CountDownLatch(0));
+        scheduler.scheduleOperation(op1);
+        scheduler.scheduleOperation(op2);
+        scheduler.scheduleOperation(op3);
+        scheduler.scheduleOperation(op4);
+        // two flushes of the same index run at the same time
+        Assert.assertTrue(started1.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(started2.await(10, TimeUnit.SECONDS));
+        Assert.assertFalse(started3.await(100, TimeUnit.MILLISECONDS));
+        // waiting flushes are started in the order they were scheduled
+        release2.countDown();
+        Assert.assertTrue(started3.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(started4.await(10, TimeUnit.SECONDS));
+        release1.countDown();
+        scheduler.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxConcurrentFlushes() {
+        new AsynchronousScheduler(r -> new Thread(r), NoOpIoOperationFailedCallback.INSTANCE, 0);
+    }
+
+    private ILSMIOOperation mockFlushOperation(String index, CountDownLatch started, CountDownLatch release)
+            throws Exception {
+        ILSMIOOperation flushOp = Mockito.mock(ILSMIOOperation.class);
+        Mockito.when(flushOp.getIndexIdentifier()).thenReturn(index);
+        Mockito.when(flushOp.getIOOpertionType()).thenReturn(LSMIOOperationType.FLUSH);
+        Mockito.when(flushOp.getStatus()).thenReturn(LSMIOOperationStatus.SUCCESS);
+        Mockito.when(flushOp.call()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return LSMIOOperationStatus.SUCCESS;
+        });
+        return flushOp;
+    }
+}
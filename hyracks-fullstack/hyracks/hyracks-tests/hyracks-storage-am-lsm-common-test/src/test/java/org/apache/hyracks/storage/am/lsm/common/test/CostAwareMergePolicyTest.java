@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.impls.CostAwareMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.CostAwareMergePolicyFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexReadStats;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CostAwareMergePolicyTest {
+
+    private static final int MIN_MERGE_COMPONENT_COUNT = 3;
+    private static final int MAX_MERGE_COMPONENT_COUNT = 5;
+    private static final int MAX_COMPONENT_COUNT = 10;
+    private static final double SIZE_RATIO = 1.0;
+    private static final double MIN_READ_COST = 100;
+
+    @Test
+    public void testNoReads() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 6L));
+        List<Long> resultSizes = new ArrayList<>();
+        LSMIndexReadStats stats = new LSMIndexReadStats();
+        ILSMIndex index = mockIndex(sizes, resultSizes, stats);
+        CostAwareMergePolicy policy = createMergePolicy();
+        policy.diskComponentAdded(index, false);
+
+        Assert.assertTrue(resultSizes.isEmpty());
+        Assert.assertFalse(policy.isMergeLagging(index));
+    }
+
+    @Test
+    public void testReads() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 6L));
+        List<Long> resultSizes = new ArrayList<>();
+        LSMIndexReadStats stats = new LSMIndexReadStats();
+        ILSMIndex index = mockIndex(sizes, resultSizes, stats);
+        CostAwareMergePolicy policy = createMergePolicy();
+        for (int i = 0; i < MIN_READ_COST / sizes.size(); i++) {
+            stats.searched(sizes.size());
+        }
+        policy.diskComponentAdded(index, false);
+
+        Assert.assertEquals(MIN_READ_COST, policy.getReadCost(), 0);
+        Assert.assertEquals(sizes, resultSizes);
+    }
+
+    @Test
+    public void testReadCostDecays() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 6L));
+        List<Long> resultSizes = new ArrayList<>();
+        LSMIndexReadStats stats = new LSMIndexReadStats();
+        ILSMIndex index = mockIndex(sizes, resultSizes, stats);
+        CostAwareMergePolicy policy = createMergePolicy();
+        stats.scanned((int) MIN_READ_COST * 2);
+        policy.diskComponentAdded(index, false);
+        Assert.assertEquals(sizes, resultSizes);
+
+        // no reads since the last component was added
+        resultSizes.clear();
+        policy.diskComponentAdded(index, false);
+        Assert.assertEquals(MIN_READ_COST, policy.getReadCost(), 0);
+        Assert.assertEquals(sizes, resultSizes);
+
+        resultSizes.clear();
+        policy.diskComponentAdded(index, false);
+        Assert.assertEquals(MIN_READ_COST / 2, policy.getReadCost(), 0);
+        Assert.assertTrue(resultSizes.isEmpty());
+    }
+
+    @Test
+    public void testMergeBeforeLaggingWithoutReads() throws HyracksDataException {
+        // one full merge away from the maximum component count, the index is merged even if it is not read
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 6L, 12L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes, new LSMIndexReadStats());
+        CostAwareMergePolicy policy = createMergePolicy();
+        policy.diskComponentAdded(index, false);
+
+        Assert.assertEquals(sizes, resultSizes);
+        Assert.assertFalse(policy.isMergeLagging(index));
+    }
+
+    private CostAwareMergePolicy createMergePolicy() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(CostAwareMergePolicyFactory.MAX_COMPONENT_COUNT, String.valueOf(MAX_COMPONENT_COUNT));
+        properties.put(CostAwareMergePolicyFactory.SIZE_RATIO, String.valueOf(SIZE_RATIO));
+        properties.put(CostAwareMergePolicyFactory.MIN_MERGE_COMPONENT_COUNT,
+                String.valueOf(MIN_MERGE_COMPONENT_COUNT));
+        properties.put(CostAwareMergePolicyFactory.MAX_MERGE_COMPONENT_COUNT,
+                String.valueOf(MAX_MERGE_COMPONENT_COUNT));
+        properties.put(CostAwareMergePolicyFactory.MIN_READ_COST, String.valueOf(MIN_READ_COST));
+
+        CostAwareMergePolicy policy = new CostAwareMergePolicy();
+        policy.configure(properties);
+        return policy;
+    }
+
+    private ILSMIndex mockIndex(List<Long> componentSizes, List<Long> mergedSizes, LSMIndexReadStats stats)
+            throws HyracksDataException {
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        for (Long size : componentSizes) {
+            ILSMDiskComponent component = Mockito.mock(ILSMDiskComponent.class);
+            Mockito.when(component.getComponentSize()).thenReturn(size);
+            Mockito.when(component.getState()).thenReturn(ComponentState.READABLE_UNWRITABLE);
+            components.add(component);
+        }
+
+        ILSMIndex index = Mockito.mock(ILSMIndex.class);
+        Mockito.when(index.getDiskComponents()).thenReturn(components);
+        Mockito.when(index.getReadStats()).thenReturn(stats);
+
+        ILSMIndexAccessor accessor = Mockito.mock(ILSMIndexAccessor.class);
+        Mockito.doAnswer(invocation -> {
+            List<ILSMDiskComponent> mergedComponents = invocation.getArgumentAt(0, List.class);
+            mergedComponents.forEach(component -> mergedSizes.add(component.getComponentSize()));
+            return null;
+        }).when(accessor).scheduleMerge(Mockito.anyListOf(ILSMDiskComponent.class));
+        Mockito.doAnswer(invocation -> {
+            mergedSizes.addAll(componentSizes);
+            return null;
+        }).when(accessor).scheduleFullMerge();
+        Mockito.when(index.createAccessor(Mockito.any(IIndexAccessParameters.class))).thenReturn(accessor);
+
+        return index;
+    }
+}
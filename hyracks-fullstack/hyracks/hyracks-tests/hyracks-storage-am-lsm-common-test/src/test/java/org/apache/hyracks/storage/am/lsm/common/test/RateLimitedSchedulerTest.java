@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIORateLimiter;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIORateLimiter;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIoOperationFailedCallback;
+import org.apache.hyracks.storage.am.lsm.common.impls.RateLimitedScheduler;
+import org.apache.hyracks.storage.am.lsm.common.impls.TokenBucket;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class RateLimitedSchedulerTest {
+
+    private static final String INDEX_1 = "index1";
+    private static final String INDEX_2 = "index2";
+    private static final long BYTES_PER_SECOND = 1000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Object lock = new Object();
+
+    @Test
+    public void tokenBucketTest() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(BYTES_PER_SECOND, clock::get);
+        // a full bucket holds one second worth of bytes
+        Assert.assertEquals(0, bucket.consume(BYTES_PER_SECOND));
+        Assert.assertEquals(NANOS_PER_SECOND / 2, bucket.consume(BYTES_PER_SECOND / 2));
+        // the debt is paid back over time
+        clock.addAndGet(NANOS_PER_SECOND / 4);
+        Assert.assertEquals(-BYTES_PER_SECOND / 4, bucket.getAvailable());
+        // the bucket is never filled above its capacity
+        clock.addAndGet(10 * NANOS_PER_SECOND);
+        Assert.assertEquals(BYTES_PER_SECOND, bucket.getAvailable());
+    }
+
+    @Test
+    public void flushPriorityTest() throws Exception {
+        RateLimitedScheduler scheduler = new RateLimitedScheduler(r -> new Thread(r),
+                NoOpIoOperationFailedCallback.INSTANCE, BYTES_PER_SECOND * 10, 0);
+        IODeviceHandle device = Mockito.mock(IODeviceHandle.class);
+        AtomicReference<ILSMIORateLimiter> flushLimiter = new AtomicReference<>();
+        AtomicReference<ILSMIORateLimiter> mergeLimiter = new AtomicReference<>();
+        ILSMIOOperation flushOp = mockOperation(INDEX_1, LSMIOOperationType.FLUSH, device, 0, flushLimiter);
+        ILSMIOOperation mergeOp = mockOperation(INDEX_2, LSMIOOperationType.MERGE, device, 8, mergeLimiter);
+        scheduler.scheduleOperation(flushOp);
+        scheduler.scheduleOperation(mergeOp);
+        Assert.assertNotSame(NoOpIORateLimiter.INSTANCE, flushLimiter.get());
+        Assert.assertNotSame(NoOpIORateLimiter.INSTANCE, mergeLimiter.get());
+        Assert.assertEquals(8, scheduler.getMergeDebt());
+
+        // flushes are never throttled, even if they exceed the budget
+        long start = System.nanoTime();
+        flushLimiter.get().acquire((int) BYTES_PER_SECOND * 12);
+        Assert.assertTrue(System.nanoTime() - start < NANOS_PER_SECOND / 10);
+        Assert.assertEquals(0, scheduler.getThrottledTime());
+
+        // a merge waits until the debt left by the flush is paid back
+        start = System.nanoTime();
+        mergeLimiter.get().acquire(1);
+        long throttled = System.nanoTime() - start;
+        Assert.assertTrue(throttled >= NANOS_PER_SECOND / 10);
+        Assert.assertTrue(scheduler.getThrottledTime() >= 100);
+
+        scheduler.completeOperation(mergeOp);
+        Assert.assertEquals(0, scheduler.getMergeDebt());
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        scheduler.close();
+    }
+
+    @Test
+    public void unlimitedTest() throws Exception {
+        RateLimitedScheduler scheduler =
+                new RateLimitedScheduler(r -> new Thread(r), NoOpIoOperationFailedCallback.INSTANCE, 0, 0);
+        AtomicReference<ILSMIORateLimiter> mergeLimiter = new AtomicReference<>();
+        ILSMIOOperation mergeOp = mockOperation(INDEX_1, LSMIOOperationType.MERGE, null, 8, mergeLimiter);
+        scheduler.scheduleOperation(mergeOp);
+        Assert.assertSame(NoOpIORateLimiter.INSTANCE, mergeLimiter.get());
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        scheduler.close();
+    }
+
+    private ILSMIOOperation mockOperation(String index, LSMIOOperationType type, IODeviceHandle device,
+            long remainingPages, AtomicReference<ILSMIORateLimiter> rateLimiter) throws Exception {
+        ILSMIOOperation op = Mockito.mock(ILSMIOOperation.class);
+        Mockito.when(op.getIndexIdentifier()).thenReturn(index);
+        Mockito.when(op.getIOOpertionType()).thenReturn(type);
+        Mockito.when(op.getDevice()).thenReturn(device);
+        Mockito.when(op.getRemainingPages()).thenReturn(remainingPages);
+        Mockito.doAnswer(invocation -> {
+            synchronized (lock) {
+                lock.wait();
+            }
+            return LSMIOOperationStatus.SUCCESS;
+        }).when(op).call();
+        Mockito.doAnswer(invocation -> {
+            rateLimiter.set(invocation.getArgumentAt(0, ILSMIORateLimiter.class));
+            return null;
+        }).when(op).setRateLimiter(Mockito.any());
+        return op;
+    }
+}
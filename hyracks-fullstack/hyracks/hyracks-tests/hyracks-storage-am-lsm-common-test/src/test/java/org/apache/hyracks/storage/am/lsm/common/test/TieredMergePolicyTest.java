@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.ComponentState;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.TieredMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.TieredMergePolicyFactory;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class TieredMergePolicyTest {
+
+    private static final int SIZE_RATIO = 3;
+    private static final long MIN_COMPONENT_SIZE = 10;
+    private static final long MAX_MERGABLE_SIZE = 1000;
+    private static final int MAX_COMPONENT_COUNT = 10;
+
+    @Test
+    public void testBasic() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        createMergePolicy().diskComponentAdded(index, false);
+
+        Assert.assertEquals(sizes, resultSizes);
+    }
+
+    @Test
+    public void testNotEnoughComponentsOnLevel() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 15L, 40L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        createMergePolicy().diskComponentAdded(index, false);
+
+        Assert.assertTrue(resultSizes.isEmpty());
+    }
+
+    @Test
+    public void testLowestLevelFirst() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 20L, 25L, 15L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        createMergePolicy().diskComponentAdded(index, false);
+
+        Assert.assertEquals(sizes.subList(0, 3), resultSizes);
+    }
+
+    @Test
+    public void testOldestComponentsFirst() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        createMergePolicy().diskComponentAdded(index, false);
+
+        Assert.assertEquals(sizes.subList(4, 7), resultSizes);
+    }
+
+    @Test
+    public void testSkipLargeComponent() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3000L, 3L, 4000L, 5000L, 6000L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        createMergePolicy().diskComponentAdded(index, false);
+
+        Assert.assertTrue(resultSizes.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentMerge() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        // component 4L is merging
+        Mockito.when(index.getDiskComponents().get(3).getState()).thenReturn(ComponentState.READABLE_MERGING);
+        createMergePolicy().diskComponentAdded(index, false);
+
+        Assert.assertEquals(sizes.subList(0, 3), resultSizes);
+    }
+
+    @Test
+    public void testNoMergeLagging() throws HyracksDataException {
+        List<Long> sizes =
+                new ArrayList<>(Arrays.asList(1L, 2L, 10L, 20L, 30L, 40L, 90L, 100L, 270L, 2000L, 3000L, 4000L, 5000L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        // components that are no longer merged do not count
+        Assert.assertFalse(createMergePolicy().isMergeLagging(index));
+    }
+
+    @Test
+    public void testMergeLagging() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 5L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        Assert.assertTrue(createMergePolicy().isMergeLagging(index));
+        // there should be a merge scheduled
+        Assert.assertEquals(sizes.subList(7, 10), resultSizes);
+    }
+
+    @Test
+    public void testMergeLaggingNoFullMerge() throws HyracksDataException {
+        List<Long> sizes = new ArrayList<>(Arrays.asList(1L, 10L, 30L, 90L, 270L, 810L, 1L, 10L, 30L, 90L, 270L, 810L));
+        List<Long> resultSizes = new ArrayList<>();
+        ILSMIndex index = mockIndex(sizes, resultSizes);
+        Assert.assertFalse(createMergePolicy().isMergeLagging(index));
+        // the largest components are never rewritten by a full merge
+        Assert.assertTrue(resultSizes.isEmpty());
+    }
+
+    private ILSMMergePolicy createMergePolicy() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put(TieredMergePolicyFactory.SIZE_RATIO, String.valueOf(SIZE_RATIO));
+        properties.put(TieredMergePolicyFactory.MIN_COMPONENT_SIZE, String.valueOf(MIN_COMPONENT_SIZE));
+        properties.put(TieredMergePolicyFactory.MAX_MERGABLE_SIZE, String.valueOf(MAX_MERGABLE_SIZE));
+        properties.put(TieredMergePolicyFactory.MAX_COMPONENT_COUNT, String.valueOf(MAX_COMPONENT_COUNT));
+
+        ILSMMergePolicy policy = new TieredMergePolicy();
+        policy.configure(properties);
+        return policy;
+    }
+
+    private ILSMIndex mockIndex(List<Long> componentSizes, List<Long> mergedSizes) throws HyracksDataException {
+        List<ILSMDiskComponent> components = new ArrayList<>();
+        for (Long size : componentSizes) {
+            ILSMDiskComponent component = Mockito.mock(ILSMDiskComponent.class);
+            Mockito.when(component.getComponentSize()).thenReturn(size);
+            Mockito.when(component.getState()).thenReturn(ComponentState.READABLE_UNWRITABLE);
+            components.add(component);
+        }
+
+        ILSMIndex index = Mockito.mock(ILSMIndex.class);
+        Mockito.when(index.getDiskComponents()).thenReturn(components);
+
+        ILSMIndexAccessor accessor = Mockito.mock(ILSMIndexAccessor.class);
+        Mockito.doAnswer(invocation -> {
+            List<ILSMDiskComponent> mergedComponents = invocation.getArgumentAt(0, List.class);
+            mergedComponents.forEach(component -> mergedSizes.add(component.getComponentSize()));
+            return null;
+        }).when(accessor).scheduleMerge(Mockito.anyListOf(ILSMDiskComponent.class));
+        Mockito.doAnswer(invocation -> {
+            mergedSizes.addAll(componentSizes);
+            return null;
+        }).when(accessor).scheduleFullMerge();
+        Mockito.when(index.createAccessor(Mockito.any(IIndexAccessParameters.class))).thenReturn(accessor);
+
+        return index;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IPageReservation;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCacheArbiter;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VirtualBufferCacheArbiterTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 100;
+
+    @Test
+    public void testBudgetFollowsWriteRate() throws Exception {
+        VirtualBufferCacheArbiter arbiter = new VirtualBufferCacheArbiter(0.2, 0);
+        Writer hot = new Writer("hot");
+        Writer cold = new Writer("cold");
+        arbiter.register("hot", () -> Collections.singletonList(hot.vbc));
+        arbiter.register("cold", () -> Collections.singletonList(cold.vbc));
+
+        hot.write(90);
+        cold.write(30);
+        Assert.assertTrue(arbiter.rebalance().isEmpty());
+        // min share of 20 pages each, the remaining 160 pages are split 3:1
+        Assert.assertEquals(140, hot.vbc.getPageBudget());
+        Assert.assertEquals(60, cold.vbc.getPageBudget());
+        Assert.assertEquals(200, arbiter.getPageBudget("hot") + arbiter.getPageBudget("cold"));
+
+        hot.write(40);
+        List<String> toFlush = arbiter.rebalance();
+        Assert.assertEquals(180, hot.vbc.getPageBudget());
+        Assert.assertEquals(20, cold.vbc.getPageBudget());
+        // the hot tenant holds more pages than the initial budget without being full
+        Assert.assertFalse(hot.vbc.isFull());
+        // the cold tenant holds more pages than its new budget
+        Assert.assertTrue(cold.vbc.isFull());
+        Assert.assertEquals(Collections.singletonList("cold"), toFlush);
+
+        cold.vbc.reset();
+        Assert.assertTrue(arbiter.rebalance().isEmpty());
+
+        arbiter.unregister("hot");
+        arbiter.unregister("cold");
+        Assert.assertEquals(NUM_PAGES, hot.vbc.getPageBudget());
+        Assert.assertEquals(NUM_PAGES, cold.vbc.getPageBudget());
+        hot.close();
+        cold.close();
+    }
+
+    @Test
+    public void testIdleTenantsKeepTheirBudget() throws Exception {
+        VirtualBufferCacheArbiter arbiter = new VirtualBufferCacheArbiter(0.2, 0);
+        Writer first = new Writer("first");
+        Writer second = new Writer("second");
+        arbiter.register("first", () -> Collections.singletonList(first.vbc));
+        arbiter.register("second", () -> Collections.singletonList(second.vbc));
+        Assert.assertTrue(arbiter.rebalance().isEmpty());
+        Assert.assertEquals(NUM_PAGES, first.vbc.getPageBudget());
+        Assert.assertEquals(NUM_PAGES, second.vbc.getPageBudget());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void testFlushColdestFirstUnderPressure() throws Exception {
+        VirtualBufferCacheArbiter arbiter = new VirtualBufferCacheArbiter(1, 0);
+        Writer first = new Writer("first");
+        Writer second = new Writer("second");
+        arbiter.register("first", () -> Collections.singletonList(first.vbc));
+        arbiter.register("second", () -> Collections.singletonList(second.vbc));
+        // with a min share of 1, budgets never change and only pressure triggers flushes
+        first.write(NUM_PAGES + 30);
+        second.write(NUM_PAGES - 40);
+        Assert.assertEquals(Collections.singletonList("first"), arbiter.rebalance());
+        second.write(50);
+        // both tenants exceed their budget, the one that did not write since the last rebalance goes first
+        Assert.assertEquals(Arrays.asList("first", "second"), arbiter.rebalance());
+        first.vbc.reset();
+        Assert.assertEquals(Collections.singletonList("second"), arbiter.rebalance());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void testGrowthIsFundedByShrinkingTenants() throws Exception {
+        VirtualBufferCacheArbiter arbiter = new VirtualBufferCacheArbiter(0.2, 0);
+        Writer hot = new Writer("hot");
+        Writer cold = new Writer("cold");
+        LimitedReservation reservation = new LimitedReservation(0);
+        arbiter.register("hot", () -> Collections.singletonList(hot.vbc), reservation);
+        arbiter.register("cold", () -> Collections.singletonList(cold.vbc));
+
+        hot.write(90);
+        cold.write(30);
+        // the 40 pages the hot tenant grows by are the ones the cold tenant leaves unused, nothing is reserved
+        Assert.assertTrue(arbiter.rebalance().isEmpty());
+        Assert.assertEquals(140, hot.vbc.getPageBudget());
+        Assert.assertEquals(60, cold.vbc.getPageBudget());
+        Assert.assertEquals(0, reservation.reserved);
+
+        arbiter.unregister("hot");
+        arbiter.unregister("cold");
+        hot.close();
+        cold.close();
+    }
+
+    @Test
+    public void testOnlyNetGrowthIsReserved() throws Exception {
+        VirtualBufferCacheArbiter arbiter = new VirtualBufferCacheArbiter(0.2, 0);
+        Writer hot = new Writer("hot");
+        Writer cold = new Writer("cold");
+        LimitedReservation reservation = new LimitedReservation(20);
+        arbiter.register("hot", () -> Collections.singletonList(hot.vbc), reservation);
+        arbiter.register("cold", () -> Collections.singletonList(cold.vbc));
+
+        hot.write(50);
+        cold.write(50);
+        Assert.assertTrue(arbiter.rebalance().isEmpty());
+        Assert.assertEquals(NUM_PAGES, hot.vbc.getPageBudget());
+
+        hot.write(90);
+        // the hot tenant would grow to 180 pages, the cold tenant still uses 50 of its 100 pages and 30 more pages
+        // cannot be reserved, so the hot tenant only grows by the 50 unused pages
+        Assert.assertEquals(Collections.singletonList("cold"), arbiter.rebalance());
+        Assert.assertEquals(150, hot.vbc.getPageBudget());
+        Assert.assertEquals(20, cold.vbc.getPageBudget());
+        Assert.assertEquals(0, reservation.reserved);
+
+        reservation.limit = 30;
+        hot.write(10);
+        Assert.assertEquals(Collections.singletonList("cold"), arbiter.rebalance());
+        Assert.assertEquals(180, hot.vbc.getPageBudget());
+        Assert.assertEquals(30, reservation.reserved);
+
+        // once the cold tenant flushed, its unused pages cover the whole growth and the reservation is released
+        cold.vbc.reset();
+        hot.write(10);
+        Assert.assertTrue(arbiter.rebalance().isEmpty());
+        Assert.assertEquals(180, hot.vbc.getPageBudget());
+        Assert.assertEquals(0, reservation.reserved);
+
+        // without the cold tenant, the hot tenant can not keep more pages than its initial budget
+        arbiter.unregister("cold");
+        Assert.assertEquals(NUM_PAGES, hot.vbc.getPageBudget());
+        Assert.assertEquals(NUM_PAGES, cold.vbc.getPageBudget());
+        arbiter.unregister("hot");
+        Assert.assertEquals(0, reservation.reserved);
+        hot.close();
+        cold.close();
+    }
+
+    @Test
+    public void testFreePagesFollowBudget() throws Exception {
+        Writer writer = new Writer("writer");
+        VirtualBufferCache vbc = (VirtualBufferCache) writer.vbc;
+        writer.vbc.setPageBudget(NUM_PAGES + 50);
+        writer.write(NUM_PAGES + 50);
+        // a grown cache keeps its pages for reuse up to its current budget
+        writer.vbc.reset();
+        Assert.assertEquals(NUM_PAGES + 50, vbc.getPreAllocatedPages());
+        // shrinking the budget releases the free pages above it
+        writer.vbc.setPageBudget(40);
+        Assert.assertEquals(40, vbc.getPreAllocatedPages());
+        writer.write(30);
+        writer.vbc.setPageBudget(35);
+        Assert.assertEquals(30, writer.vbc.getUsage());
+        Assert.assertEquals(5, vbc.getPreAllocatedPages());
+        writer.close();
+    }
+
+    @Test
+    public void testInvalidBudget() throws Exception {
+        VirtualBufferCache vbc = new VirtualBufferCache(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        try {
+            vbc.setPageBudget(0);
+            Assert.fail("A page budget of 0 should not be accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertEquals(NUM_PAGES, vbc.getPageBudget());
+    }
+
+    private static class LimitedReservation implements IPageReservation {
+        private long limit;
+        private long reserved;
+
+        private LimitedReservation(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean reserve(long numPages) {
+            if (reserved + numPages > limit) {
+                return false;
+            }
+            reserved += numPages;
+            return true;
+        }
+
+        @Override
+        public void release(long numPages) {
+            reserved -= numPages;
+        }
+    }
+
+    private static class Writer {
+        private final IVirtualBufferCache vbc;
+        private final int fileId;
+        private int numPages;
+
+        private Writer(String fileName) throws HyracksDataException {
+            vbc = new VirtualBufferCache(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+            vbc.open();
+            FileReference fileRef = TestStorageManagerComponentHolder.getIOManager().resolve(fileName);
+            vbc.createFile(fileRef);
+            fileId = vbc.getFileMapProvider().lookupFileId(fileRef);
+        }
+
+        private void write(int pages) throws HyracksDataException {
+            for (int i = 0; i < pages; i++) {
+                ICachedPage page = vbc.pin(BufferedFileHandle.getDiskPageId(fileId, numPages++), true);
+                vbc.unpin(page);
+            }
+        }
+
+        private void close() throws HyracksDataException {
+            vbc.deleteFile(fileId);
+            vbc.close();
+        }
+    }
+}
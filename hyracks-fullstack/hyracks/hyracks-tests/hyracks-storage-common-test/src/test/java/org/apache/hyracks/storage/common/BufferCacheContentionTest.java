@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.HaltOnFailureCallback;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IFIFOPageWriter;
+import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.apache.hyracks.test.support.TestUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Pins and unpins pages from an increasing number of threads and reports the pin throughput for each thread count.
+ * Every pinned page is checked to hold the content of the requested page, so the test also guards the lock-free
+ * lookup of resident pages against handing out pages that are concurrently being evicted.
+ */
+public class BufferCacheContentionTest {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int PAGE_SIZE = 256;
+    private static final int MAX_OPEN_FILES = 20;
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+    private static final long DURATION_PER_RUN = 500;
+    private final IHyracksTaskContext ctx = TestUtils.create(PAGE_SIZE);
+
+    @Test
+    public void residentPagesContentionTest() throws Exception {
+        // all pages fit in the cache, every pin after the first read is a hit
+        runContention(256, 64);
+    }
+
+    @Test
+    public void evictingPagesContentionTest() throws Exception {
+        // the working set does not fit, hits race with evictions of the same pages (cache still fits all pinned pages)
+        runContention(96, 256);
+    }
+
+    private void runContention(int bufferCacheNumPages, int numPages) throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, bufferCacheNumPages, MAX_OPEN_FILES);
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        FileReference file = ioManager.resolve("contention-" + bufferCacheNumPages + "-" + numPages);
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+        IFIFOPageWriter writer =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            page.getBuffer().putInt(0, i);
+            writer.write(page);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNTS[THREAD_COUNTS.length - 1]);
+        try {
+            for (int numThreads : THREAD_COUNTS) {
+                List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < numThreads; i++) {
+                    futures.add(executor.submit(() -> pinLoop(bufferCache, fileId, numPages)));
+                }
+                long totalPins = 0;
+                for (Future<Long> future : futures) {
+                    totalPins += future.get();
+                }
+                LOGGER.info("buffer cache pages: {}, file pages: {}, threads: {}, pins/sec: {}", bufferCacheNumPages,
+                        numPages, numThreads, totalPins * TimeUnit.SECONDS.toMillis(1) / DURATION_PER_RUN);
+                Assert.assertTrue(totalPins > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+            bufferCache.closeFile(fileId);
+            bufferCache.deleteFile(fileId);
+            bufferCache.close();
+        }
+    }
+
+    private static long pinLoop(IBufferCache bufferCache, int fileId, int numPages) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pins = 0;
+        long end = System.currentTimeMillis() + DURATION_PER_RUN;
+        while (System.currentTimeMillis() < end) {
+            int pageId = random.nextInt(numPages);
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+            try {
+                page.acquireReadLatch();
+                try {
+                    Assert.assertEquals(pageId, page.getBuffer().getInt(0));
+                } finally {
+                    page.releaseReadLatch();
+                }
+            } finally {
+                bufferCache.unpin(page);
+            }
+            pins++;
+        }
+        return pins;
+    }
+}
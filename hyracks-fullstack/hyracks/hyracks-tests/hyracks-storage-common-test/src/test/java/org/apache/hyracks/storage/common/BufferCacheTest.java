@@ -39,12 +39,20 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.BufferCachePerformanceCounters;
 import org.apache.hyracks.storage.common.buffercache.CachedPage;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
 import org.apache.hyracks.storage.common.buffercache.HaltOnFailureCallback;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IFIFOPageWriter;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
 import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.FileMapManager;
 import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
 import org.apache.hyracks.test.support.TestUtils;
 import org.apache.logging.log4j.Level;
@@ -220,6 +228,34 @@ public class BufferCacheTest {
         bufferCache.close();
     }
 
+    @Test
+    public void deleteFileWithBrieflyPinnedPageTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        int fileId = bufferCache.createFile(ioManager.resolve(getFileName()));
+        bufferCache.openFile(fileId);
+        bufferCache.unpin(bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, 0), true));
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, 0), false);
+        bufferCache.closeFile(fileId);
+
+        // the page is released while the file is being deleted, the delete waits for it instead of failing
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> unpin = executor.submit(() -> {
+                TimeUnit.MILLISECONDS.sleep(100);
+                bufferCache.unpin(page);
+                return null;
+            });
+            bufferCache.deleteFile(fileId);
+            unpin.get();
+        } finally {
+            executor.shutdown();
+            bufferCache.close();
+        }
+    }
+
     @Test
     public void simpleMaxOpenFilesTest() throws HyracksException {
         TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES);
@@ -443,6 +479,123 @@ public class BufferCacheTest {
         bufferCache.closeFile(fileId);
     }
 
+    @Test
+    public void prefetchPageRunTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES * 4, MAX_OPEN_FILES);
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        String fileName = getFileName();
+        FileReference file = ioManager.resolve(fileName);
+        int numPages = NUM_PAGES * 2;
+        int cachedPageId = 3;
+
+        // write the pages through one buffer cache and read them through another one that has none of them cached
+        BufferCache bufferCache = createBufferCache(ioManager, createPageReplacementStrategy());
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+        IFIFOPageWriter writer =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            page.getBuffer().putInt(0, i);
+            writer.write(page);
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+
+        IPageReplacementStrategy prs = createPageReplacementStrategy();
+        BufferCachePerformanceCounters counters = prs.getPerformanceCounters();
+        bufferCache = createBufferCache(ioManager, prs);
+        fileId = bufferCache.openFile(ioManager.resolve(fileName));
+        try {
+            bufferCache.unpin(bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, cachedPageId), false));
+            Assert.assertEquals(1, counters.getPageMisses());
+
+            // pages past the end of the file are left unread
+            bufferCache.prefetch(BufferedFileHandle.getDiskPageId(fileId, 0), numPages + 2).await();
+            Assert.assertEquals(numPages, counters.getPageMisses());
+
+            long hitsBefore = counters.getPageHits();
+            for (int i = 0; i < numPages; i++) {
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+                try {
+                    Assert.assertEquals(i, page.getBuffer().getInt(0));
+                } finally {
+                    bufferCache.unpin(page);
+                }
+            }
+            Assert.assertEquals(numPages, counters.getPageMisses());
+            Assert.assertEquals(hitsBefore + numPages, counters.getPageHits());
+        } finally {
+            bufferCache.closeFile(fileId);
+            bufferCache.close();
+        }
+    }
+
+    @Test
+    public void prefetchRunWithLargePageTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES * 4, MAX_OPEN_FILES);
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        String fileName = getFileName();
+        int numPages = 9;
+        int largePageId = 1;
+
+        // page 1 is a large page whose second half is stored in place of page 2
+        BufferCache writeCache = createBufferCache(ioManager, createPageReplacementStrategy());
+        int writeFileId = writeCache.createFile(ioManager.resolve(fileName));
+        writeCache.openFile(writeFileId);
+        IFIFOPageWriter writer =
+                writeCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            if (i == largePageId + 1) {
+                continue;
+            }
+            ICachedPage page = i == largePageId
+                    ? writeCache.confiscateLargePage(BufferedFileHandle.getDiskPageId(writeFileId, i), 2, i + 1)
+                    : writeCache.confiscatePage(BufferedFileHandle.getDiskPageId(writeFileId, i));
+            page.getBuffer().putInt(0, i);
+            if (i == largePageId) {
+                page.getBuffer().putInt(PAGE_SIZE, -i);
+            }
+            writer.write(page);
+        }
+        writeCache.closeFile(writeFileId);
+        writeCache.close();
+
+        BufferCache bufferCache = createBufferCache(ioManager, createPageReplacementStrategy());
+        int fileId = bufferCache.openFile(ioManager.resolve(fileName));
+        try {
+            // the run stops at the large page, the pages after it are read by their pins
+            bufferCache.prefetch(BufferedFileHandle.getDiskPageId(fileId, 0), numPages).await();
+            for (int i = 0; i < numPages; i++) {
+                if (i == largePageId + 1) {
+                    continue;
+                }
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+                try {
+                    Assert.assertEquals(i, page.getBuffer().getInt(0));
+                    if (i == largePageId) {
+                        Assert.assertEquals(2, page.getFrameSizeMultiplier());
+                        Assert.assertEquals(-i, page.getBuffer().getInt(PAGE_SIZE));
+                    }
+                } finally {
+                    bufferCache.unpin(page);
+                }
+            }
+        } finally {
+            bufferCache.closeFile(fileId);
+            bufferCache.close();
+        }
+    }
+
+    private static IPageReplacementStrategy createPageReplacementStrategy() {
+        return new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES * 4);
+    }
+
+    private static BufferCache createBufferCache(IIOManager ioManager, IPageReplacementStrategy prs) {
+        return new BufferCache(ioManager, prs, new DelayPageCleanerPolicy(1000), new FileMapManager(), MAX_OPEN_FILES,
+                10, Thread::new);
+    }
+
     @AfterClass
     public static void cleanup() throws Exception {
         for (String s : openedFiles) {
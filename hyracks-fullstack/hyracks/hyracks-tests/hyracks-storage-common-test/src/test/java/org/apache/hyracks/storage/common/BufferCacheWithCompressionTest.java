@@ -21,6 +21,7 @@ package org.apache.hyracks.storage.common;
 import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -46,7 +47,9 @@ import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.buffercache.IFIFOPageWriter;
 import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.apache.hyracks.storage.common.compression.DeflateDictionaryCompressorDecompressorFactory;
 import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.file.CompressedFileManager;
 import org.apache.hyracks.storage.common.compression.file.CompressedFileReference;
 import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
@@ -77,6 +80,11 @@ public class BufferCacheWithCompressionTest {
     private static final Random rnd = new Random(50);
 
     private FileReference getFileReference(IIOManager ioManager) throws HyracksDataException {
+        return getFileReference(ioManager, compDecomp);
+    }
+
+    private FileReference getFileReference(IIOManager ioManager, ICompressorDecompressor compDecomp)
+            throws HyracksDataException {
         String fileName = simpleDateFormat.format(new Date()) + openFiles.size();
         final FileReference fileRef = ioManager.resolve(fileName);
         final CompressedFileReference cFileRef = new CompressedFileReference(fileRef.getDeviceHandle(), compDecomp,
@@ -231,6 +239,176 @@ public class BufferCacheWithCompressionTest {
         bufferCache.close();
     }
 
+    @Test
+    public void dictionaryCompressionTest() throws HyracksException {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, ACTUAL_MAX_OPEN_FILE);
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        FileReference file =
+                getFileReference(ioManager, new DeflateDictionaryCompressorDecompressorFactory().createInstance());
+        int fileId = bufferCache.createFile(file);
+        //More pages than the buffer cache can hold, so pages are read back from disk
+        int numPages = NUM_PAGES * 3;
+        byte[] record = "{\"id\": 0000, \"name\": \"name\"}".getBytes();
+
+        bufferCache.openFile(fileId);
+        final ICompressedPageWriter writer = bufferCache.getCompressedPageWriter(fileId);
+        final IFIFOPageWriter pageWriter =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            writer.prepareWrite(page);
+            for (int j = 0; j + record.length <= PAGE_SIZE; j += record.length) {
+                page.getBuffer().position(j);
+                page.getBuffer().put(record);
+                page.getBuffer().putInt(j + 7, i * PAGE_SIZE + j);
+            }
+            page.getBuffer().position(0);
+            pageWriter.write(page);
+        }
+        writer.endWriting();
+        bufferCache.closeFile(fileId);
+
+        bufferCache.openFile(fileId);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+            try {
+                for (int j = 0; j + record.length <= PAGE_SIZE; j += record.length) {
+                    Assert.assertEquals(record[0], page.getBuffer().get(j));
+                    Assert.assertEquals(i * PAGE_SIZE + j, page.getBuffer().getInt(j + 7));
+                }
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+
+    @Test
+    public void dictionarySampleTest() throws HyracksException {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, ACTUAL_MAX_OPEN_FILE);
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        CompressedFileReference file = (CompressedFileReference) getFileReference(ioManager,
+                new DeflateDictionaryCompressorDecompressorFactory().createInstance());
+        int fileId = bufferCache.createFile(file);
+        //Fewer pages than the sample, so all pages are buffered until the writing ends
+        int numPages = CompressedFileManager.DICTIONARY_SAMPLE_PAGES / 2;
+        byte[] record = "{\"id\": 0000, \"name\": \"name\"}".getBytes();
+        byte[] firstPage = new byte[PAGE_SIZE];
+        rnd.nextBytes(firstPage);
+
+        bufferCache.openFile(fileId);
+        final ICompressedPageWriter writer = bufferCache.getCompressedPageWriter(fileId);
+        final IFIFOPageWriter pageWriter =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            writer.prepareWrite(page);
+            if (i == 0) {
+                //A dictionary trained on the first page only would be empty
+                page.getBuffer().put(firstPage);
+            } else {
+                for (int j = 0; j + record.length <= PAGE_SIZE; j += record.length) {
+                    page.getBuffer().position(j);
+                    page.getBuffer().put(record);
+                    page.getBuffer().putInt(j + 7, i * PAGE_SIZE + j);
+                }
+            }
+            page.getBuffer().position(0);
+            pageWriter.write(page);
+        }
+        writer.endWriting();
+        bufferCache.closeFile(fileId);
+
+        //The dictionary is stored in the first page of the LAF file
+        int lafFileId = bufferCache.openFile(file.getLAFFileReference());
+        ICachedPage dictionaryPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(lafFileId, 0), false);
+        try {
+            Assert.assertTrue(dictionaryPage.getBuffer().getInt(0) > 0);
+        } finally {
+            bufferCache.unpin(dictionaryPage);
+        }
+        bufferCache.closeFile(lafFileId);
+
+        bufferCache.openFile(fileId);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+            try {
+                if (i == 0) {
+                    for (int j = 0; j < PAGE_SIZE; j++) {
+                        Assert.assertEquals(firstPage[j], page.getBuffer().get(j));
+                    }
+                } else {
+                    for (int j = 0; j + record.length <= PAGE_SIZE; j += record.length) {
+                        Assert.assertEquals(record[0], page.getBuffer().get(j));
+                        Assert.assertEquals(i * PAGE_SIZE + j, page.getBuffer().getInt(j + 7));
+                    }
+                }
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+
+    @Test
+    public void prefetchCompressedPagesTest() throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES * 8, ACTUAL_MAX_OPEN_FILE);
+        IBufferCache bufferCache =
+                TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        FileReference file = getFileReference(ioManager);
+        int fileId = bufferCache.createFile(file);
+        int numPages = NUM_PAGES * 4;
+        int prefetchPages = 8;
+        byte[][] contents = new byte[numPages][PAGE_SIZE];
+
+        bufferCache.openFile(fileId);
+        final ICompressedPageWriter writer = bufferCache.getCompressedPageWriter(fileId);
+        final IFIFOPageWriter pageWriter =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            //Every third page cannot be compressed and is stored as is
+            if (i % 3 == 0) {
+                rnd.nextBytes(contents[i]);
+            } else {
+                Arrays.fill(contents[i], (byte) i);
+            }
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            writer.prepareWrite(page);
+            page.getBuffer().put(contents[i]);
+            pageWriter.write(page);
+        }
+        writer.endWriting();
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+
+        //Pages stored back to back are read together by a new buffer cache
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES * 8, ACTUAL_MAX_OPEN_FILE);
+        bufferCache = TestStorageManagerComponentHolder.getBufferCache(ctx.getJobletContext().getServiceContext());
+        CompressedFileReference cFile = (CompressedFileReference) file;
+        fileId = bufferCache.openFile(new CompressedFileReference(cFile.getDeviceHandle(), compDecomp,
+                cFile.getRelativePath(), cFile.getLAFRelativePath()));
+        for (int i = 0; i < numPages; i += prefetchPages) {
+            bufferCache.prefetch(BufferedFileHandle.getDiskPageId(fileId, i), prefetchPages).await();
+        }
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false);
+            try {
+                Assert.assertArrayEquals(contents[i], Arrays.copyOf(page.getBuffer().array(), PAGE_SIZE));
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+        bufferCache.closeFile(fileId);
+        bufferCache.close();
+    }
+
     @Test
     public void contentCheckingMaxOpenFilesTest() throws HyracksException {
         TestStorageManagerComponentHolder.init(PAGE_SIZE, NUM_PAGES, ACTUAL_MAX_OPEN_FILE);
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
+import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
+import org.apache.hyracks.api.compression.IDictionaryCompressorDecompressor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.compression.DeflateCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.DeflateDictionaryCompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.Lz4CompressorDecompressorFactory;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressorDecompressorTest {
+    private static final int PAGE_SIZE = 32768;
+    private static final int NUM_PAGES = 4;
+    private static final ICompressorDecompressor[] COMP_DECOMPS =
+            new ICompressorDecompressor[] { new SnappyCompressorDecompressorFactory().createInstance(),
+                    new Lz4CompressorDecompressorFactory().createInstance(),
+                    new DeflateCompressorDecompressorFactory().createInstance() };
+
+    private final Random rnd = new Random(50);
+
+    @Test
+    public void compressiblePagesTest() throws Exception {
+        byte[] words = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor".getBytes();
+        byte[] page = new byte[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i += 4) {
+            //Mix of slowly growing integers and text as found in index pages
+            if ((i / 64) % 2 == 0) {
+                ByteBuffer.wrap(page).putInt(i, i / 64);
+            } else {
+                System.arraycopy(words, rnd.nextInt(words.length - 4), page, i, 4);
+            }
+        }
+        for (ICompressorDecompressor compDecomp : COMP_DECOMPS) {
+            Assert.assertTrue(roundTrip(compDecomp, page) < PAGE_SIZE / 2);
+        }
+    }
+
+    @Test
+    public void incompressiblePagesTest() throws Exception {
+        byte[] page = new byte[PAGE_SIZE];
+        rnd.nextBytes(page);
+        for (ICompressorDecompressor compDecomp : COMP_DECOMPS) {
+            Assert.assertTrue(roundTrip(compDecomp, page) <= compDecomp.computeCompressedBufferSize(PAGE_SIZE));
+        }
+    }
+
+    @Test
+    public void repeatedBytesTest() throws Exception {
+        byte[] page = new byte[PAGE_SIZE];
+        Arrays.fill(page, (byte) 7);
+        for (ICompressorDecompressor compDecomp : COMP_DECOMPS) {
+            Assert.assertTrue(roundTrip(compDecomp, page) < PAGE_SIZE / 16);
+        }
+    }
+
+    @Test
+    public void smallPagesTest() throws Exception {
+        for (int size = 1; size < 64; size++) {
+            byte[] page = new byte[size];
+            for (int i = 0; i < size; i++) {
+                page[i] = (byte) (i % 3);
+            }
+            for (ICompressorDecompressor compDecomp : COMP_DECOMPS) {
+                roundTrip(compDecomp, page);
+            }
+        }
+    }
+
+    @Test
+    public void extraPageTest() throws Exception {
+        //Large pages are uncompressed into their buffer one page at a time
+        byte[] page = new byte[PAGE_SIZE];
+        for (ICompressorDecompressor compDecomp : COMP_DECOMPS) {
+            ByteBuffer uBuffer = ByteBuffer.allocate(PAGE_SIZE * NUM_PAGES);
+            for (int i = 0; i < NUM_PAGES; i++) {
+                Arrays.fill(page, (byte) i);
+                ByteBuffer cBuffer = compress(compDecomp, page);
+                uBuffer.position(PAGE_SIZE * i);
+                uBuffer.limit(uBuffer.position() + PAGE_SIZE);
+                compDecomp.uncompress(cBuffer, uBuffer);
+                Assert.assertEquals(PAGE_SIZE, uBuffer.remaining());
+            }
+            for (int i = 0; i < NUM_PAGES; i++) {
+                Assert.assertEquals(i, uBuffer.get(PAGE_SIZE * i));
+                Assert.assertEquals(i, uBuffer.get(PAGE_SIZE * (i + 1) - 1));
+            }
+        }
+    }
+
+    @Test
+    public void malformedLz4BlockTest() throws Exception {
+        ICompressorDecompressor compDecomp = new Lz4CompressorDecompressorFactory().createInstance();
+        byte[] page = new byte[PAGE_SIZE];
+        Arrays.fill(page, (byte) 1);
+        ByteBuffer cBuffer = compress(compDecomp, page);
+        //Truncate the block before its last literals
+        cBuffer.limit(cBuffer.limit() - 3);
+        try {
+            compDecomp.uncompress(cBuffer, ByteBuffer.allocate(PAGE_SIZE));
+            Assert.fail("Uncompressing a truncated block should fail");
+        } catch (HyracksDataException e) {
+            Assert.assertTrue(e.getMessage().contains("Malformed LZ4 block"));
+        }
+    }
+
+    @Test
+    public void dictionaryTest() throws Exception {
+        ICompressorDecompressorFactory factory = new DeflateDictionaryCompressorDecompressorFactory();
+        IDictionaryCompressorDecompressor compDecomp = (IDictionaryCompressorDecompressor) factory.createInstance();
+        //Small pages of records sharing their field names but not their values
+        int pageSize = 1024;
+        byte[][] pages = new byte[NUM_PAGES][pageSize];
+        for (byte[] page : pages) {
+            for (int i = 0; i < pageSize; i++) {
+                String record = "{\"id\": " + rnd.nextInt() + ", \"name\": \"user" + rnd.nextInt() + "\"}, ";
+                byte[] bytes = record.getBytes();
+                System.arraycopy(bytes, 0, page, i, Math.min(bytes.length, pageSize - i));
+                i += bytes.length - 1;
+            }
+        }
+        byte[] dictionary = compDecomp.trainDictionary(ByteBuffer.wrap(pages[0]), pageSize);
+        Assert.assertTrue(dictionary.length > 0 && dictionary.length <= pageSize);
+        ICompressorDecompressor dictionaryCompDecomp = compDecomp.createDictionaryCompressorDecompressor(dictionary);
+        for (int i = 1; i < NUM_PAGES; i++) {
+            Assert.assertTrue(roundTrip(dictionaryCompDecomp, pages[i]) < roundTrip(compDecomp, pages[i]));
+        }
+        //A sample without repeated content produces an empty dictionary, which compresses as without a dictionary
+        byte[] random = new byte[pageSize];
+        rnd.nextBytes(random);
+        dictionary = compDecomp.trainDictionary(ByteBuffer.wrap(random), pageSize);
+        Assert.assertEquals(0, dictionary.length);
+        roundTrip(compDecomp.createDictionaryCompressorDecompressor(dictionary), random);
+    }
+
+    private static ByteBuffer compress(ICompressorDecompressor compDecomp, byte[] page) throws HyracksDataException {
+        ByteBuffer cBuffer = ByteBuffer.allocate(compDecomp.computeCompressedBufferSize(page.length));
+        return compDecomp.compress(ByteBuffer.wrap(page), cBuffer);
+    }
+
+    private static int roundTrip(ICompressorDecompressor compDecomp, byte[] page) throws HyracksDataException {
+        ByteBuffer cBuffer = compress(compDecomp, page);
+        int cLength = cBuffer.remaining();
+        ByteBuffer uBuffer = compDecomp.uncompress(cBuffer, ByteBuffer.allocate(page.length));
+        Assert.assertEquals(page.length, uBuffer.remaining());
+        Assert.assertArrayEquals(compDecomp.getClass().getSimpleName(), page, uBuffer.array());
+        return cLength;
+    }
+}
@@ -21,12 +21,16 @@ package org.apache.hyracks.storage.common;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collections;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IODeviceHandle;
 import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.control.nc.io.DefaultDeviceResolver;
 import org.apache.hyracks.control.nc.io.FileHandle;
+import org.apache.hyracks.control.nc.io.IOManager;
 import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -70,6 +74,87 @@ public class IOManagerTest {
         Assert.assertEquals(theOnlyOne, readBuffer.getInt(0));
     }
 
+    @Test
+    public void vectoredReadTest() throws IOException {
+        final IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        final FileReference fileRef = ioManager.resolve("vectored-" + System.currentTimeMillis());
+        IoUtil.create(fileRef);
+        final FileHandle fileHandle = (FileHandle) ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        try {
+            final int numInts = 100;
+            final ByteBuffer writeBuffer = ByteBuffer.allocate(numInts * Integer.BYTES);
+            for (int i = 0; i < numInts; i++) {
+                writeBuffer.putInt(i);
+            }
+            writeBuffer.flip();
+            ioManager.syncWrite(fileHandle, 0, writeBuffer);
+
+            // the last buffer reaches past the end of the file
+            final ByteBuffer[] readBuffers = new ByteBuffer[] { ByteBuffer.allocate(3 * Integer.BYTES),
+                    ByteBuffer.allocate(Integer.BYTES), ByteBuffer.allocate(numInts * Integer.BYTES) };
+            final long offset = 10L * Integer.BYTES;
+            Assert.assertEquals((numInts - 10) * Integer.BYTES, ioManager.syncRead(fileHandle, offset, readBuffers));
+            Assert.assertEquals(10, readBuffers[0].getInt(0));
+            Assert.assertEquals(12, readBuffers[0].getInt(2 * Integer.BYTES));
+            Assert.assertEquals(13, readBuffers[1].getInt(0));
+            Assert.assertEquals(14, readBuffers[2].getInt(0));
+            Assert.assertEquals(numInts - 1, readBuffers[2].getInt((numInts - 15) * Integer.BYTES));
+            Assert.assertEquals((numInts - 14) * Integer.BYTES, readBuffers[2].position());
+
+            final ByteBuffer[] pastEnd = new ByteBuffer[] { ByteBuffer.allocate(Integer.BYTES) };
+            Assert.assertEquals(-1, ioManager.syncRead(fileHandle, numInts * Integer.BYTES, pastEnd));
+        } finally {
+            ioManager.close(fileHandle);
+            FileUtils.deleteQuietly(fileRef.getFile());
+        }
+    }
+
+    @Test
+    public void directReadTest() throws IOException {
+        final File mount = new File(System.getProperty("user.dir") + File.separator + "target", "direct_io_dev");
+        final IOManager ioManager =
+                new IOManager(Collections.singletonList(new IODeviceHandle(mount, "iodev_test_wa", true)),
+                        new DefaultDeviceResolver(), 1, 10);
+        final FileReference fileRef = ioManager.resolve("direct-" + System.currentTimeMillis());
+        IoUtil.create(fileRef);
+        final FileHandle fileHandle = (FileHandle) ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
+                IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+        try {
+            // spans several aligned blocks and does not end on a block boundary
+            final int numInts = IOManager.DIRECT_IO_ALIGNMENT;
+            final ByteBuffer writeBuffer = ByteBuffer.allocate(numInts * Integer.BYTES + 3);
+            for (int i = 0; i < numInts; i++) {
+                writeBuffer.putInt(i);
+            }
+            writeBuffer.position(0);
+            ioManager.syncWrite(fileHandle, 0, writeBuffer);
+
+            for (int i : new int[] { 0, 1, 1023, 1024, 2047, numInts - 2 }) {
+                final ByteBuffer readBuffer = ByteBuffer.allocate(2 * Integer.BYTES);
+                Assert.assertEquals(2 * Integer.BYTES,
+                        ioManager.syncRead(fileHandle, (long) i * Integer.BYTES, readBuffer));
+                Assert.assertEquals(i, readBuffer.getInt(0));
+                Assert.assertEquals(i + 1, readBuffer.getInt(Integer.BYTES));
+            }
+
+            final ByteBuffer[] readBuffers = new ByteBuffer[] { ByteBuffer.allocate(5), ByteBuffer.allocate(1000),
+                    ByteBuffer.allocate(numInts * Integer.BYTES) };
+            final long offset = 3L * Integer.BYTES;
+            Assert.assertEquals((numInts - 3) * Integer.BYTES + 3, ioManager.syncRead(fileHandle, offset, readBuffers));
+            Assert.assertEquals(3, readBuffers[0].getInt(0));
+            Assert.assertEquals(numInts - 1,
+                    readBuffers[2].getInt((int) ((numInts - 1) * Integer.BYTES - offset - 1005)));
+
+            final ByteBuffer pastEnd = ByteBuffer.allocate(Integer.BYTES);
+            Assert.assertEquals(-1, ioManager.syncRead(fileHandle, numInts * Integer.BYTES + 3, pastEnd));
+        } finally {
+            ioManager.close(fileHandle);
+            ioManager.close();
+            FileUtils.deleteQuietly(mount);
+        }
+    }
+
     @AfterClass
     public static void cleanup() throws Exception {
         FileUtils.deleteQuietly(testFile);
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.BufferCachePerformanceCounters;
+import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HaltOnFailureCallback;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IFIFOPageWriter;
+import org.apache.hyracks.storage.common.buffercache.IPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.apache.hyracks.storage.common.buffercache.TwoQueueClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.FileMapManager;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PageReplacementStrategyTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int BUFFER_CACHE_NUM_PAGES = 32;
+    private static final int HOT_PAGES = 8;
+    private static final int SCAN_PAGES = BUFFER_CACHE_NUM_PAGES * 4;
+    private static final int SCAN_INTERVAL = 24;
+
+    @Test
+    public void clockEvictsHotPagesOnScan() throws Exception {
+        IPageReplacementStrategy prs =
+                new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, BUFFER_CACHE_NUM_PAGES);
+        Assert.assertEquals(HOT_PAGES, hotPageMissesDuringScan(prs, false, SCAN_PAGES));
+    }
+
+    @Test
+    public void clockKeepsPriorityPagesOnScan() throws Exception {
+        IPageReplacementStrategy prs =
+                new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, BUFFER_CACHE_NUM_PAGES);
+        Assert.assertTrue(hotPageMissesDuringScan(prs, false, SCAN_INTERVAL) > 0);
+        prs = new ClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, BUFFER_CACHE_NUM_PAGES);
+        Assert.assertEquals(0, hotPageMissesDuringScan(prs, true, SCAN_INTERVAL));
+    }
+
+    @Test
+    public void twoQueueKeepsHotPagesOnScan() throws Exception {
+        IPageReplacementStrategy prs =
+                new TwoQueueClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, BUFFER_CACHE_NUM_PAGES);
+        Assert.assertEquals(0, hotPageMissesDuringScan(prs, false, SCAN_PAGES));
+    }
+
+    @Test
+    public void twoQueueKeepsPriorityPagesOnScan() throws Exception {
+        IPageReplacementStrategy prs =
+                new TwoQueueClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, BUFFER_CACHE_NUM_PAGES);
+        Assert.assertEquals(0, hotPageMissesDuringScan(prs, true, SCAN_INTERVAL));
+    }
+
+    /**
+     * Accesses a small set of hot pages twice and then scans a file four times the size of the cache once, accessing
+     * the hot pages again after every scanInterval scanned pages.
+     *
+     * @return the number of misses of the hot page accesses during the scan
+     */
+    private static long hotPageMissesDuringScan(IPageReplacementStrategy prs, boolean priority, int scanInterval)
+            throws Exception {
+        TestStorageManagerComponentHolder.init(PAGE_SIZE, BUFFER_CACHE_NUM_PAGES, 10);
+        IIOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        BufferCache bufferCache = new BufferCache(ioManager, prs, new DelayPageCleanerPolicy(1000),
+                new FileMapManager(), 10, 10, Thread::new);
+        BufferCachePerformanceCounters counters = prs.getPerformanceCounters();
+        FileReference hotFile = ioManager.resolve("hot-" + prs.getClass().getSimpleName());
+        FileReference scanFile = ioManager.resolve("scan-" + prs.getClass().getSimpleName());
+        int hotFileId = createFile(bufferCache, hotFile, HOT_PAGES);
+        int scanFileId = createFile(bufferCache, scanFile, SCAN_PAGES);
+        try {
+            pinAll(bufferCache, hotFileId, 0, HOT_PAGES, priority);
+            pinAll(bufferCache, hotFileId, 0, HOT_PAGES, priority);
+            long hotMisses = 0;
+            for (int i = 0; i < SCAN_PAGES; i += scanInterval) {
+                pinAll(bufferCache, scanFileId, i, Math.min(i + scanInterval, SCAN_PAGES), false);
+                long missesBefore = counters.getPageMisses();
+                pinAll(bufferCache, hotFileId, 0, HOT_PAGES, priority);
+                hotMisses += counters.getPageMisses() - missesBefore;
+            }
+            Assert.assertTrue(counters.getPageEvictions() > 0);
+            return hotMisses;
+        } finally {
+            bufferCache.closeFile(hotFileId);
+            bufferCache.closeFile(scanFileId);
+            bufferCache.deleteFile(hotFileId);
+            bufferCache.deleteFile(scanFileId);
+            bufferCache.close();
+        }
+    }
+
+    private static int createFile(IBufferCache bufferCache, FileReference file, int numPages) throws Exception {
+        int fileId = bufferCache.createFile(file);
+        bufferCache.openFile(fileId);
+        IFIFOPageWriter writer =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < numPages; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            page.getBuffer().putInt(0, i);
+            writer.write(page);
+        }
+        return fileId;
+    }
+
+    private static void pinAll(IBufferCache bufferCache, int fileId, int fromPage, int toPage, boolean priority)
+            throws Exception {
+        for (int i = fromPage; i < toPage; i++) {
+            ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), false, priority);
+            try {
+                Assert.assertEquals(i, page.getBuffer().getInt(0));
+            } finally {
+                bufferCache.unpin(page);
+            }
+        }
+    }
+}